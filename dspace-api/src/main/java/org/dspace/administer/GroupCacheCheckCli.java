@@ -0,0 +1,173 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.administer;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.collections4.SetUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.dspace.core.Context;
+import org.dspace.eperson.Group;
+import org.dspace.eperson.factory.EPersonServiceFactory;
+import org.dspace.eperson.service.GroupService;
+import org.dspace.scripts.DSpaceRunnable;
+import org.dspace.utils.DSpace;
+
+/**
+ * {@link DSpaceRunnable} implementation to check the group2groupcache table, which holds the (direct or indirect)
+ * subgroups of each group and is updated incrementally when subgroup relations change:
+ * - the table is compared with the rows computed from the subgroup relations, and rebuilt if requested
+ * - optionally, the time to compute the changes of the table for a sample of subgroup relations is compared with
+ *   the time a full rebuild needs to compute the table
+ */
+public class GroupCacheCheckCli extends DSpaceRunnable<GroupCacheCheckCliScriptConfiguration> {
+
+    /**
+     * Maximum number of wrong rows logged
+     */
+    private static final int MAX_LOGGED_ROWS = 20;
+
+    private GroupService groupService;
+
+    private boolean help = false;
+    private boolean repair = false;
+    private int benchmarkSamples = 0;
+
+    @Override
+    public GroupCacheCheckCliScriptConfiguration getScriptConfiguration() {
+        return new DSpace().getServiceManager()
+                .getServiceByName("group-cache-check", GroupCacheCheckCliScriptConfiguration.class);
+    }
+
+    @Override
+    public void setup() throws ParseException {
+        groupService = EPersonServiceFactory.getInstance().getGroupService();
+
+        help = commandLine.hasOption('h');
+        repair = commandLine.hasOption('r');
+        if (commandLine.hasOption('b')) {
+            try {
+                benchmarkSamples = Integer.parseInt(commandLine.getOptionValue('b', "100"));
+            } catch (NumberFormatException e) {
+                throw new ParseException("The number of benchmark samples must be an integer");
+            }
+        }
+    }
+
+    @Override
+    public void internalRun() throws Exception {
+        if (help) {
+            printHelp();
+            return;
+        }
+
+        Context context = new Context();
+        try {
+            context.turnOffAuthorisationSystem();
+            check(context);
+            if (benchmarkSamples > 0) {
+                benchmark(context);
+            }
+        } finally {
+            context.restoreAuthSystemState();
+            context.complete();
+        }
+    }
+
+    /**
+     * Compare the group2groupcache table with the rows computed from the subgroup relations.
+     */
+    private void check(Context context) throws SQLException {
+        Set<Pair<UUID, UUID>> current = groupService.getGroupCache(context);
+        Set<Pair<UUID, UUID>> computed = groupService.computeGroupCache(context);
+        Set<Pair<UUID, UUID>> missing = SetUtils.difference(computed, current).toSet();
+        Set<Pair<UUID, UUID>> extra = SetUtils.difference(current, computed).toSet();
+
+        handler.logInfo("The group2groupcache table has " + current.size() + " rows, " + computed.size()
+                            + " expected");
+        if (missing.isEmpty() && extra.isEmpty()) {
+            handler.logInfo("The group2groupcache table is consistent with the subgroup relations");
+            return;
+        }
+
+        handler.logWarning(missing.size() + " rows are missing and " + extra.size() + " rows are wrong");
+        logRows("Missing", missing);
+        logRows("Wrong", extra);
+        if (repair) {
+            groupService.rebuildGroupCache(context);
+            context.commit();
+            handler.logInfo("The group2groupcache table was rebuilt");
+        } else {
+            handler.logInfo("Use -r to rebuild the group2groupcache table");
+        }
+    }
+
+    private void logRows(String kind, Set<Pair<UUID, UUID>> rows) {
+        rows.stream().limit(MAX_LOGGED_ROWS).forEach(row -> handler.logWarning(
+            kind + " row: parent " + row.getLeft() + ", child " + row.getRight()));
+    }
+
+    /**
+     * Compare the time needed to compute the whole group2groupcache table, as a full rebuild does, with the time
+     * needed to compute the changes of the table when a subgroup relation is added or removed. Nothing is changed:
+     * the changes are computed for existing relations, which run the same queries as actual changes.
+     */
+    private void benchmark(Context context) throws SQLException {
+        List<Pair<UUID, UUID>> relations = new ArrayList<>();
+        for (Group group : groupService.findAll(context, null)) {
+            for (Group subgroup : group.getMemberGroups()) {
+                relations.add(Pair.of(group.getID(), subgroup.getID()));
+            }
+        }
+        if (relations.isEmpty()) {
+            handler.logInfo("No subgroup relations to benchmark");
+            return;
+        }
+        Collections.shuffle(relations, new Random(0));
+        List<Pair<UUID, UUID>> sample = relations.subList(0, Math.min(benchmarkSamples, relations.size()));
+
+        long start = System.nanoTime();
+        groupService.getGroupCache(context);
+        groupService.computeGroupCache(context);
+        long fullNanos = System.nanoTime() - start;
+
+        long addNanos = 0;
+        long removeNanos = 0;
+        long maxNanos = 0;
+        for (Pair<UUID, UUID> relation : sample) {
+            start = System.nanoTime();
+            groupService.computeGroupCacheChanges(context, relation.getLeft(), relation.getRight(), true);
+            long added = System.nanoTime() - start;
+            start = System.nanoTime();
+            groupService.computeGroupCacheChanges(context, relation.getLeft(), relation.getRight(), false);
+            long removed = System.nanoTime() - start;
+            addNanos += added;
+            removeNanos += removed;
+            maxNanos = Math.max(maxNanos, Math.max(added, removed));
+            // keep the session small, as a single change would
+            context.uncacheEntities();
+        }
+
+        handler.logInfo("Full rebuild: " + millis(fullNanos) + " ms to compute the table from "
+                            + relations.size() + " subgroup relations");
+        handler.logInfo("Incremental, over " + sample.size() + " relations: " + millis(addNanos / sample.size())
+                            + " ms on average to add one, " + millis(removeNanos / sample.size())
+                            + " ms on average to remove one, " + millis(maxNanos) + " ms at most");
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000d);
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.administer;
+
+import org.apache.commons.cli.Options;
+import org.dspace.scripts.configuration.ScriptConfiguration;
+
+/**
+ * The {@link ScriptConfiguration} for the {@link GroupCacheCheckCli} script.
+ */
+public class GroupCacheCheckCliScriptConfiguration extends ScriptConfiguration<GroupCacheCheckCli> {
+
+    private Class<GroupCacheCheckCli> dspaceRunnableClass;
+
+    @Override
+    public Class<GroupCacheCheckCli> getDspaceRunnableClass() {
+        return dspaceRunnableClass;
+    }
+
+    @Override
+    public void setDspaceRunnableClass(Class<GroupCacheCheckCli> dspaceRunnableClass) {
+        this.dspaceRunnableClass = dspaceRunnableClass;
+    }
+
+    @Override
+    public Options getOptions() {
+        if (options == null) {
+            Options options = new Options();
+
+            options.addOption("h", "help", false, "help");
+
+            options.addOption("r", "repair", false, "rebuild the group2groupcache table if it is not consistent");
+            options.getOption("r").setType(boolean.class);
+
+            options.addOption("b", "benchmark", true,
+                "compare the time to compute the table changes for the given number of subgroup relations "
+                    + "with the time of a full rebuild");
+
+            super.options = options;
+        }
+        return options;
+    }
+}
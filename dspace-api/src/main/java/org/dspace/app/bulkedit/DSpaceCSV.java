@@ -8,6 +8,8 @@
 package org.dspace.app.bulkedit;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Serializable;
@@ -19,6 +21,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.regex.Matcher;
@@ -57,7 +60,7 @@ import org.dspace.services.factory.DSpaceServicesFactory;
  *
  * @author Stuart Lewis
  */
-public class DSpaceCSV implements Serializable {
+public class DSpaceCSV implements Serializable, Closeable {
     /**
      * The headings of the CSV file
      */
@@ -68,6 +71,11 @@ public class DSpaceCSV implements Serializable {
      */
     protected List<DSpaceCSVLine> lines;
 
+    /**
+     * The reader of the lines not read yet, when they are streamed
+     */
+    protected transient BufferedReader lineReader;
+
     /**
      * A counter of how many CSV lines this object holds
      */
@@ -144,6 +152,21 @@ public class DSpaceCSV implements Serializable {
      * @throws Exception thrown if there is an error reading or processing the file
      */
     public DSpaceCSV(InputStream inputStream, Context c) throws Exception {
+        this(inputStream, c, false);
+    }
+
+    /**
+     * Create a new instance, reading the headings in from file, and the lines too unless they are streamed.
+     * Streamed lines are read one at a time with {@link #readCSVLine()}, so that large files are not held in
+     * memory: {@link #getCSVLines()} stays empty, and the file stays open until all the lines are read or
+     * {@link #close()} is called.
+     *
+     * @param inputStream the input stream to read from
+     * @param c The DSpace Context
+     * @param stream whether to stream the lines
+     * @throws Exception thrown if there is an error reading or processing the file
+     */
+    public DSpaceCSV(InputStream inputStream, Context c, boolean stream) throws Exception {
         // Initialise the class
         init();
 
@@ -153,147 +176,230 @@ public class DSpaceCSV implements Serializable {
             input = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
 
             // Read the heading line
-            String head = input.readLine();
-            String[] headingElements = head.split(escapedFieldSeparator);
-            int columnCounter = 0;
-            for (String element : headingElements) {
-                columnCounter++;
-
-                // Remove surrounding quotes if there are any
-                if (element.startsWith("\"") && element.endsWith("\"")) {
-                    element = element.substring(1, element.length() - 1);
-                }
+            readHeadings(input.readLine(), c);
+            if (stream) {
+                lineReader = input;
+                return;
+            }
 
+            // Read each subsequent line
+            String record;
+            while ((record = readRecord(input)) != null) {
+                addItem(record);
+            }
+        } finally {
+            if (input != null && lineReader == null) {
+                input.close();
+            }
+        }
+    }
+
+    /**
+     * Parse and validate the heading line
+     *
+     * @param head the heading line
+     * @param c The DSpace Context
+     * @throws Exception thrown if a heading is not valid
+     */
+    protected void readHeadings(String head, Context c) throws Exception {
+        String[] headingElements = head.split(escapedFieldSeparator);
+        int columnCounter = 0;
+        for (String element : headingElements) {
+            columnCounter++;
+
+            // Remove surrounding quotes if there are any
+            if (element.startsWith("\"") && element.endsWith("\"")) {
+                element = element.substring(1, element.length() - 1);
+            }
+
+            // Store the heading
+            if ("collection".equals(element)) {
+                // Store the heading
+                headings.add(element);
+            }   else if ("rowName".equals(element)) {
+                // Store the heading
+                headings.add(element);
+            } else if ("action".equals(element)) { // Store the action
                 // Store the heading
-                if ("collection".equals(element)) {
-                    // Store the heading
-                    headings.add(element);
-                }   else if ("rowName".equals(element)) {
-                    // Store the heading
-                    headings.add(element);
-                } else if ("action".equals(element)) { // Store the action
-                    // Store the heading
-                    headings.add(element);
-                } else if (!"id".equals(element)) {
-                    String authorityPrefix = "";
-                    if (StringUtils.startsWith(element, "[authority]")) {
-                        element = StringUtils.substringAfter(element, "[authority]");
-                        AuthorityValue authorityValueType = authorityValueService.getAuthorityValueType(element);
-                        if (authorityValueType != null) {
-                            String authorityType = authorityValueType.getAuthorityType();
-                            authorityPrefix = element.substring(0, authorityType.length() + 1);
-                            element = element.substring(authorityPrefix.length());
-                        }
+                headings.add(element);
+            } else if (!"id".equals(element)) {
+                String authorityPrefix = "";
+                if (StringUtils.startsWith(element, "[authority]")) {
+                    element = StringUtils.substringAfter(element, "[authority]");
+                    AuthorityValue authorityValueType = authorityValueService.getAuthorityValueType(element);
+                    if (authorityValueType != null) {
+                        String authorityType = authorityValueType.getAuthorityType();
+                        authorityPrefix = element.substring(0, authorityType.length() + 1);
+                        element = element.substring(authorityPrefix.length());
                     }
+                }
 
-                    // Verify that the heading is valid in the metadata registry
-                    String[] clean = element.split("\\[");
-                    String[] parts = clean[0].split("\\.");
-                    // Check language if present, if it's ANY then throw an exception
-                    if (clean.length > 1 && clean[1].equals(Item.ANY + "]")) {
-                        throw new MetadataImportInvalidHeadingException("Language ANY (*) was found in the heading " +
-                                                                                "of the metadata value to import, " +
-                                                                                "this should never be the case",
-                                                                        MetadataImportInvalidHeadingException.ENTRY,
-                                                                        columnCounter);
+                // Verify that the heading is valid in the metadata registry
+                String[] clean = element.split("\\[");
+                String[] parts = clean[0].split("\\.");
+                // Check language if present, if it's ANY then throw an exception
+                if (clean.length > 1 && clean[1].equals(Item.ANY + "]")) {
+                    throw new MetadataImportInvalidHeadingException("Language ANY (*) was found in the heading " +
+                                                                            "of the metadata value to import, " +
+                                                                            "this should never be the case",
+                                                                    MetadataImportInvalidHeadingException.ENTRY,
+                                                                    columnCounter);
 
-                    }
+                }
 
-                    if (parts.length < 2) {
-                        throw new MetadataImportInvalidHeadingException(element,
-                                                                        MetadataImportInvalidHeadingException.ENTRY,
-                                                                        columnCounter);
-                    }
+                if (parts.length < 2) {
+                    throw new MetadataImportInvalidHeadingException(element,
+                                                                    MetadataImportInvalidHeadingException.ENTRY,
+                                                                    columnCounter);
+                }
 
-                    String metadataSchema = parts[0];
-                    String metadataElement = parts[1];
-                    String metadataQualifier = null;
-                    if (parts.length > 2) {
-                        metadataQualifier = parts[2];
-                    }
+                String metadataSchema = parts[0];
+                String metadataElement = parts[1];
+                String metadataQualifier = null;
+                if (parts.length > 2) {
+                    metadataQualifier = parts[2];
+                }
 
-                    // Check that the scheme exists
-                    if (!StringUtils.equals(metadataSchema, MetadataSchemaEnum.RELATION.getName())) {
-                        MetadataSchema foundSchema = metadataSchemaService.find(c, metadataSchema);
-                        if (foundSchema == null) {
-                            throw new MetadataImportInvalidHeadingException(clean[0],
-                                                                            MetadataImportInvalidHeadingException
-                                                                                .SCHEMA,
-                                                                            columnCounter);
-                        }
-
-                        // Check that the metadata element exists in the schema
-                        MetadataField foundField = metadataFieldService
-                            .findByElement(c, foundSchema, metadataElement, metadataQualifier);
-                        if (foundField == null) {
-                            throw new MetadataImportInvalidHeadingException(clean[0],
-                                                                            MetadataImportInvalidHeadingException
-                                                                                .ELEMENT,
-                                                                            columnCounter);
-                        }
+                // Check that the scheme exists
+                if (!StringUtils.equals(metadataSchema, MetadataSchemaEnum.RELATION.getName())) {
+                    MetadataSchema foundSchema = metadataSchemaService.find(c, metadataSchema);
+                    if (foundSchema == null) {
+                        throw new MetadataImportInvalidHeadingException(clean[0],
+                                                                        MetadataImportInvalidHeadingException
+                                                                            .SCHEMA,
+                                                                        columnCounter);
                     }
 
-                    // Verify there isn’t already a header that is the same; if it already exists,
-                    // throw MetadataImportInvalidHeadingException
-                    String header = authorityPrefix + element;
-                    if (headings.contains(header)) {
-                        throw new MetadataImportInvalidHeadingException("Duplicate heading found: " + header,
-                                                                        MetadataImportInvalidHeadingException.ENTRY,
+                    // Check that the metadata element exists in the schema
+                    MetadataField foundField = metadataFieldService
+                        .findByElement(c, foundSchema, metadataElement, metadataQualifier);
+                    if (foundField == null) {
+                        throw new MetadataImportInvalidHeadingException(clean[0],
+                                                                        MetadataImportInvalidHeadingException
+                                                                            .ELEMENT,
                                                                         columnCounter);
                     }
+                }
 
-                    // Store the heading
-                    headings.add(authorityPrefix + element);
+                // Verify there isn’t already a header that is the same; if it already exists,
+                // throw MetadataImportInvalidHeadingException
+                String header = authorityPrefix + element;
+                if (headings.contains(header)) {
+                    throw new MetadataImportInvalidHeadingException("Duplicate heading found: " + header,
+                                                                    MetadataImportInvalidHeadingException.ENTRY,
+                                                                    columnCounter);
                 }
+
+                // Store the heading
+                headings.add(authorityPrefix + element);
             }
+        }
+    }
 
-            // Read each subsequent line
-            StringBuilder lineBuilder = new StringBuilder();
-            String lineRead;
-
-            while ((lineRead = input.readLine()) != null) {
-                if (lineBuilder.length() > 0) {
-                    // Already have a previously read value - add this line
-                    lineBuilder.append("\n").append(lineRead);
-
-                    // Count the number of quotes in the buffer
-                    int quoteCount = 0;
-                    for (int pos = 0; pos < lineBuilder.length(); pos++) {
-                        if (lineBuilder.charAt(pos) == '"') {
-                            quoteCount++;
-                        }
-                    }
+    /**
+     * Read the next CSV line, which spans several lines of the file when quoted values contain new lines
+     *
+     * @param input the reader of the file
+     * @return the line, or null at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    protected String readRecord(BufferedReader input) throws IOException {
+        StringBuilder lineBuilder = new StringBuilder();
+        int quoteCount = 0;
+        String lineRead;
+        while ((lineRead = input.readLine()) != null) {
+            for (int pos = 0; pos < lineRead.length(); pos++) {
+                if (lineRead.charAt(pos) == '"') {
+                    quoteCount++;
+                }
+            }
+            if (lineBuilder.length() > 0) {
+                // Already have a previously read value - add this line
+                lineBuilder.append("\n").append(lineRead);
+            } else {
+                lineBuilder.append(lineRead);
+            }
+            if (quoteCount % 2 == 0) {
+                // Number of quotes is a multiple of 2, the line is complete
+                return lineBuilder.toString();
+            }
+            // Uneven quotes - the value goes on in the next line
+        }
+        return null;
+    }
 
-                    if (quoteCount % 2 == 0) {
-                        // Number of quotes is a multiple of 2, add the item
-                        addItem(lineBuilder.toString());
-                        lineBuilder = new StringBuilder();
-                    }
-                } else if (lineRead.indexOf('"') > -1) {
-                    // Get the number of quotes in the line
-                    int quoteCount = 0;
-                    for (int pos = 0; pos < lineRead.length(); pos++) {
-                        if (lineRead.charAt(pos) == '"') {
-                            quoteCount++;
-                        }
-                    }
+    /**
+     * Read the next streamed line from file, see {@link #DSpaceCSV(InputStream, Context, boolean)}. The file is
+     * closed once all the lines are read.
+     *
+     * @return the line, or null once all the lines are read or if the lines are not streamed
+     * @throws Exception thrown if there is an error reading or processing the line
+     */
+    public DSpaceCSVLine readCSVLine() throws Exception {
+        if (lineReader == null) {
+            return null;
+        }
+        String record = readRecord(lineReader);
+        if (record == null) {
+            close();
+            return null;
+        }
+        return parseLine(record);
+    }
 
-                    if (quoteCount % 2 == 0) {
-                        // Number of quotes is a multiple of 2, add the item
-                        addItem(lineRead);
-                    } else {
-                        // Uneven quotes - add to the buffer and leave for later
-                        lineBuilder.append(lineRead);
+    /**
+     * Get an iterator over the streamed lines which have not been read yet, see {@link #readCSVLine()}. The
+     * iterator throws an {@link IllegalStateException} if a line cannot be read.
+     *
+     * @return the iterator
+     */
+    public Iterator<DSpaceCSVLine> streamCSVLines() {
+        return new Iterator<>() {
+            private DSpaceCSVLine next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = readCSVLine();
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Error reading the CSV: " + e.getMessage(), e);
                     }
-                } else {
-                    // No previously read line, and no quotes in the line - add item
-                    addItem(lineRead);
                 }
+                return next != null;
             }
-        } finally {
-            if (input != null) {
-                input.close();
+
+            @Override
+            public DSpaceCSVLine next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                DSpaceCSVLine line = next;
+                next = null;
+                return line;
             }
+        };
+    }
+
+    /**
+     * Whether the lines are streamed and have not all been read yet
+     *
+     * @return true if there are lines left to read with {@link #readCSVLine()}
+     */
+    public boolean isStreamed() {
+        return lineReader != null;
+    }
+
+    /**
+     * Close the file the lines are streamed from, if it is still open
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (lineReader != null) {
+            lineReader.close();
+            lineReader = null;
         }
     }
 
@@ -507,6 +613,18 @@ public class DSpaceCSV implements Serializable {
      * @throws Exception Thrown if an error occurs when adding the item
      */
     public final void addItem(String line) throws Exception {
+        lines.add(parseLine(line));
+        counter++;
+    }
+
+    /**
+     * Parse a CSV line of elements
+     *
+     * @param line The line of elements
+     * @return The CSV line holder
+     * @throws Exception Thrown if the line is not valid
+     */
+    protected DSpaceCSVLine parseLine(String line) throws Exception {
         // Check to see if the last character is a field separator, which hides the last empty column
         boolean last = false;
         if (line.endsWith(fieldSeparator)) {
@@ -603,8 +721,7 @@ public class DSpaceCSV implements Serializable {
             }
             i++;
         }
-        lines.add(csvLine);
-        counter++;
+        return csvLine;
     }
 
     /**
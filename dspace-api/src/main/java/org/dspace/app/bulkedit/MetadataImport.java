@@ -7,8 +7,14 @@
  */
 package org.dspace.app.bulkedit;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Enumeration;
@@ -20,11 +26,22 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import jakarta.annotation.Nullable;
 import org.apache.commons.cli.ParseException;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.Logger;
 import org.dspace.app.util.RelationshipUtils;
 import org.dspace.authority.AuthorityValue;
@@ -56,6 +73,11 @@ import org.dspace.content.service.WorkspaceItemService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.core.LogHelper;
+import org.dspace.discovery.IndexableObject;
+import org.dspace.discovery.IndexingService;
+import org.dspace.discovery.SearchServiceException;
+import org.dspace.discovery.indexobject.IndexableItem;
+import org.dspace.discovery.indexobject.factory.IndexObjectFactoryFactory;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.handle.factory.HandleServiceFactory;
@@ -85,7 +107,22 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
     /**
      * The lines to import
      */
-    List<DSpaceCSVLine> toImport;
+    Iterable<DSpaceCSVLine> toImport;
+
+    /**
+     * Whether the CSV is streamed: read one line at a time, once for each pass over the CSV, instead of held in
+     * memory
+     */
+    protected boolean stream;
+
+    /**
+     * The indirect entity target references (field:value or rowName:value) made in the CSV, when it is streamed.
+     * Only the rows which can be referenced, or which reference other items, are recorded in the csvRefMap,
+     * csvRowMap and entityTypeMap then, so that these maps do not grow with the size of the CSV.
+     *
+     * @see #scanReferences(DSpaceCSV)
+     */
+    protected Set<String> csvReferences;
 
     /**
      * The authority controlled fields
@@ -136,6 +173,11 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
      */
     protected Integer rowCount = 1;
 
+    /**
+     * Number of batches of lines given to each worker thread at once, when applying the changes in parallel
+     */
+    private static final int BATCHES_PER_THREAD = 4;
+
     private boolean useTemplate = false;
     private String filename = null;
     private boolean useWorkflow = false;
@@ -172,7 +214,7 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
      */
     public void initMetadataImport(DSpaceCSV toImport) {
         // Store the import settings
-        this.toImport = toImport.getCSVLines();
+        this.toImport = toImport.isStreamed() ? toImport::streamCSVLines : toImport.getCSVLines();
     }
 
     @Override
@@ -193,36 +235,25 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
             setAuthorizedMetadataFields();
         }
         // Read commandLines from the CSV file
-        try {
-
-            Optional<InputStream> optionalFileStream = handler.getFileStream(c, filename);
-            if (optionalFileStream.isPresent()) {
-                csv = new DSpaceCSV(optionalFileStream.get(), c);
-            } else {
-                throw new IllegalArgumentException("Error reading file, the file couldn't be found for filename: " +
-                                                       filename);
-            }
-        } catch (MetadataImportInvalidHeadingException miihe) {
-            throw miihe;
-        } catch (Exception e) {
-            throw new Exception("Error reading file: " + e.getMessage(), e);
+        csv = readCSV(c);
+        if (stream) {
+            // the file is read again for each import, see runImportAndDisplayChanges
+            scanReferences(csv);
+        } else {
+            initMetadataImport(csv);
         }
 
         // Perform the first import - just highlight differences
-        initMetadataImport(csv);
-        List<BulkEditChange> changes;
 
         if (!commandLine.hasOption('s') || validateOnly) {
-            // See what has changed
+            // See what has changed, and display the changes
+            int changeCounter;
             try {
-                changes = runImport(c, false, useWorkflow, workflowNotify, useTemplate);
+                changeCounter = runImportAndDisplayChanges(c, false);
             } catch (MetadataImportException mie) {
                 throw mie;
             }
 
-            // Display the changes
-            int changeCounter = displayChanges(changes, false);
-
             // If there were changes, ask if we should execute them
             if (!validateOnly && changeCounter > 0) {
                 try {
@@ -244,14 +275,11 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
             // If required, make the change
             if (change && !validateOnly) {
                 try {
-                    // Make the changes
-                    changes = runImport(c, true, useWorkflow, workflowNotify, useTemplate);
+                    // Make the changes, and display them
+                    runImportAndDisplayChanges(c, true);
                 } catch (MetadataImportException mie) {
                     throw mie;
                 }
-
-                // Display the changes
-                displayChanges(changes, true);
             }
 
             // Finish off and tidy up
@@ -265,6 +293,108 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
 
     }
 
+    /**
+     * Open the CSV file and read its headings, and its lines too unless it is streamed.
+     *
+     * @param c The relevant DSpace context
+     * @return the CSV
+     * @throws Exception if the file cannot be read or is not valid
+     */
+    protected DSpaceCSV readCSV(Context c) throws Exception {
+        try {
+            Optional<InputStream> optionalFileStream = handler.getFileStream(c, filename);
+            if (optionalFileStream.isPresent()) {
+                return new DSpaceCSV(optionalFileStream.get(), c, stream);
+            } else {
+                throw new IllegalArgumentException("Error reading file, the file couldn't be found for filename: " +
+                                                       filename);
+            }
+        } catch (MetadataImportInvalidHeadingException miihe) {
+            throw miihe;
+        } catch (Exception e) {
+            throw new Exception("Error reading file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Read all the lines of a streamed CSV, to validate them before any change is made and to collect the indirect
+     * entity target references they make into {@link #csvReferences}.
+     *
+     * @param streamed the streamed CSV, which is read to the end
+     * @throws Exception if a line cannot be read or is not valid
+     */
+    protected void scanReferences(DSpaceCSV streamed) throws Exception {
+        csvReferences = new HashSet<>();
+        try (streamed) {
+            DSpaceCSVLine line;
+            while ((line = streamed.readCSVLine()) != null) {
+                for (String key : line.keys()) {
+                    if (key.split("\\.")[0].equalsIgnoreCase("relation")) {
+                        for (String value : line.get(key)) {
+                            if (value.contains(":") && !value.contains("::virtual::")) {
+                                csvReferences.add(value);
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new Exception("Error reading file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Run an import and display its changes. When the CSV is streamed, it is read again from file, and the changes
+     * are written to a temporary file as they are found instead of being held in memory, to be displayed once the
+     * import is done.
+     *
+     * @param c      The relevant DSpace context
+     * @param change Whether or not to write the changes to the database
+     * @return The number of items that have changed
+     * @throws Exception if something goes wrong
+     */
+    protected int runImportAndDisplayChanges(Context c, boolean change) throws Exception {
+        if (!stream) {
+            List<BulkEditChange> changes = runImport(c, change, useWorkflow, workflowNotify, useTemplate);
+            return displayChanges(changes, change);
+        }
+
+        Path display = Files.createTempFile("metadata-import", ".txt");
+        try {
+            AtomicInteger changeCounter = new AtomicInteger();
+            csv = readCSV(c);
+            try (DSpaceCSV streamed = csv;
+                 BufferedWriter writer = Files.newBufferedWriter(display, StandardCharsets.UTF_8)) {
+                initMetadataImport(streamed);
+                Consumer<String> output = text -> {
+                    try {
+                        writer.write(text);
+                        writer.newLine();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+                runImport(c, change, whatHasChanged -> {
+                    if (displayChange(whatHasChanged, change, output)) {
+                        changeCounter.incrementAndGet();
+                    }
+                }, useWorkflow, workflowNotify, useTemplate);
+            } catch (UncheckedIOException e) {
+                throw new IOException("Error writing the changes: " + e.getMessage(), e);
+            }
+
+            try (BufferedReader reader = Files.newBufferedReader(display, StandardCharsets.UTF_8)) {
+                String text;
+                while ((text = reader.readLine()) != null) {
+                    handler.logInfo(text);
+                }
+            }
+            return changeCounter.get();
+        } finally {
+            Files.deleteIfExists(display);
+        }
+    }
+
     protected void assignCurrentUserInContext(Context context) throws ParseException {
         UUID uuid = getEpersonIdentifier();
         if (uuid != null) {
@@ -329,6 +459,7 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
                 "Invalid option 'n': (notify) can only be specified with the 'w' (workflow) option.");
         }
         validateOnly = commandLine.hasOption('v');
+        stream = commandLine.hasOption('l');
 
         // Is this a silent run?
         change = false;
@@ -352,277 +483,625 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
         throws MetadataImportException, SQLException, AuthorizeException, WorkflowException, IOException {
         // Store the changes
         ArrayList<BulkEditChange> changes = new ArrayList<BulkEditChange>();
+        runImport(c, change, changes::add, useWorkflow, workflowNotify, useTemplate);
+        return changes;
+    }
 
+    /**
+     * Run an import, giving the changes to the given consumer as they are found instead of returning them.
+     *
+     * @param change         Whether or not to write the changes to the database
+     * @param changes        The consumer of the BulkEditChange elements representing the items that have changed
+     * @param useWorkflow    Whether the workflows should be used when creating new items
+     * @param workflowNotify If the workflows should be used, whether to send notifications or not
+     * @param useTemplate    Use collection template if create new item
+     * @throws MetadataImportException  if something goes wrong
+     */
+    protected void runImport(Context c, boolean change, Consumer<BulkEditChange> changes, boolean useWorkflow,
+                             boolean workflowNotify, boolean useTemplate)
+        throws MetadataImportException, SQLException, AuthorizeException, WorkflowException, IOException {
         // Make the changes
         Context.Mode originalMode = c.getCurrentMode();
         c.setMode(Context.Mode.BATCH_EDIT);
 
         // Process each change
         rowCount = 1;
-        for (DSpaceCSVLine line : toImport) {
-            // Resolve target references to other items
-            populateRefAndRowMap(line, line.getID());
-            line = resolveEntityRefs(c, line);
-            // Get the DSpace item to compare with
-            UUID id = line.getID();
-
-            // Is there an action column?
-            if (csv.hasActions() && (!"".equals(line.getAction())) && (id == null)) {
-                throw new MetadataImportException("'action' not allowed for new items!");
-            }
-
-            WorkspaceItem wsItem = null;
-            WorkflowItem wfItem = null;
-            Item item = null;
-
-            // Is this an existing item?
-            if (id != null) {
-                // Get the item
-                item = itemService.find(c, id);
-                if (item == null) {
-                    throw new MetadataImportException("Unknown item ID " + id);
+        int threads = configurationService.getIntProperty("bulkedit.change.threads", 1);
+        if (change && threads > 1) {
+            runParallelImport(c, changes, threads, useWorkflow, workflowNotify, useTemplate);
+        } else {
+            for (DSpaceCSVLine line : toImport) {
+                importLine(c, line, changes, change, useWorkflow, workflowNotify, useTemplate);
+                // keep track of current rows processed
+                rowCount++;
+            }
+        }
+        if (change) {
+            c.commit();
+        }
+
+        c.setMode(Context.Mode.READ_ONLY);
+
+
+        if (!change) {
+            validateExpressedRelations(c);
+        }
+    }
+
+    /**
+     * Import the current line of the CSV on the given context, after all the lines before it.
+     *
+     * @param c              The relevant DSpace context
+     * @param line           The line
+     * @param changes        The consumer of the changes of the line
+     * @param change         Whether or not to write the changes to the database
+     * @param useWorkflow    Whether the workflows should be used when creating new items
+     * @param workflowNotify If the workflows should be used, whether to send notifications or not
+     * @param useTemplate    Use collection template if create new item
+     * @throws MetadataImportException  if something goes wrong
+     */
+    protected void importLine(Context c, DSpaceCSVLine line, Consumer<BulkEditChange> changes, boolean change,
+                              boolean useWorkflow, boolean workflowNotify, boolean useTemplate)
+        throws MetadataImportException, SQLException, AuthorizeException, WorkflowException, IOException {
+        // Resolve target references to other items
+        populateRefAndRowMap(line, line.getID());
+        line = resolveEntityRefs(c, line);
+        BulkEditChange whatHasChanged = processLine(c, line, change, useWorkflow, workflowNotify, useTemplate);
+        // Only record if changes have been made
+        if (whatHasChanged.isNewItem() || whatHasChanged.hasChanges()) {
+            changes.accept(whatHasChanged);
+        }
+        Item item = whatHasChanged.getItem();
+
+        if (rowCount % configurationService.getIntProperty("bulkedit.change.commit.count", 100) == 0) {
+            if (change) {
+                c.commit();
+                handler.logInfo(LogHelper.getHeader(c, "metadata_import_commit", "lineNumber=" + rowCount));
+            }
+            if (stream) {
+                // the lines before are not needed anymore, nor the items they loaded
+                c.uncacheEntities();
+            }
+        }
+        populateRefAndRowMap(line, item == null ? null : item.getID());
+    }
+
+    /**
+     * Apply the changes of the CSV with several worker threads. Consecutive lines which do not reference other items
+     * (with relation columns) are applied in batches of bulkedit.change.commit.count lines, each batch on its own
+     * Context and without updating the discovery index. The other lines are applied on the given Context, once all
+     * the lines before them are applied. The items committed by the workers are reindexed at the end, also when a
+     * line fails.
+     *
+     * @param c              The relevant DSpace context
+     * @param changes        The consumer of the changes of the lines, in the order of the lines
+     * @param threads        The number of worker threads
+     * @param useWorkflow    Whether the workflows should be used when creating new items
+     * @param workflowNotify If the workflows should be used, whether to send notifications or not
+     * @param useTemplate    Use collection template if create new item
+     * @throws MetadataImportException  if something goes wrong
+     */
+    protected void runParallelImport(Context c, Consumer<BulkEditChange> changes, int threads, boolean useWorkflow,
+                                     boolean workflowNotify, boolean useTemplate)
+        throws MetadataImportException, SQLException, AuthorizeException, WorkflowException, IOException {
+        int commitCount = configurationService.getIntProperty("bulkedit.change.commit.count", 100);
+        ParallelImport parallelImport = new ParallelImport(threads, useWorkflow, workflowNotify, useTemplate);
+        boolean applied = false;
+        try {
+            for (DSpaceCSVLine line : toImport) {
+                if (isIndependent(line)) {
+                    // the same item must not be changed by two workers at once
+                    if (line.getID() != null && !parallelImport.pendingIds.add(line.getID())) {
+                        parallelImport.apply(c, changes);
+                        parallelImport.pendingIds.add(line.getID());
+                    }
+                    populateRefAndRowMap(line, line.getID());
+                    parallelImport.pending.add(Pair.of(rowCount, resolveEntityRefs(c, line)));
+                    if (parallelImport.pending.size() >= threads * commitCount * BATCHES_PER_THREAD) {
+                        parallelImport.apply(c, changes);
+                    }
+                } else {
+                    parallelImport.apply(c, changes);
+                    importLine(c, line, changes, true, useWorkflow, workflowNotify, useTemplate);
+                }
+                rowCount++;
+            }
+            parallelImport.apply(c, changes);
+            applied = true;
+        } finally {
+            parallelImport.shutdown();
+            try {
+                reindex(c, parallelImport.changedItemIds);
+            } catch (SQLException | RuntimeException e) {
+                if (applied) {
+                    throw e;
+                }
+                // do not hide the error of the line
+                log.error("Failed to reindex the items changed before the error", e);
+                handler.logWarning("The items changed before the error could not be reindexed, please run "
+                                       + "index-discovery");
+            }
+        }
+    }
+
+    /**
+     * Whether a line can be applied independently of the other lines: it does not reference other items, and does not
+     * create or delete relationships, which change the related items too.
+     *
+     * @param line the line
+     * @return false if the line has relation values, or relation columns for an existing item
+     */
+    private boolean isIndependent(DSpaceCSVLine line) {
+        for (String key : line.keys()) {
+            String field = key.substring(key.indexOf(':') + 1);
+            if (field.split("\\.")[0].equalsIgnoreCase(MetadataSchemaEnum.RELATION.getName())
+                && (line.getID() != null || line.get(key).stream().anyMatch(StringUtils::isNotEmpty))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The lines waiting to be applied by the workers of {@link #runParallelImport}.
+     */
+    private class ParallelImport {
+        private final ExecutorService executor;
+        private final boolean useWorkflow;
+        private final boolean workflowNotify;
+        private final boolean useTemplate;
+        private final int batchSize = configurationService.getIntProperty("bulkedit.change.commit.count", 100);
+        private final String dispatcher = configurationService.getProperty("bulkedit.change.dispatcher", "bulkedit");
+        // the pending lines with their row numbers, and the ids of their items
+        private final List<Pair<Integer, DSpaceCSVLine>> pending = new ArrayList<>();
+        private final Set<UUID> pendingIds = new HashSet<>();
+        // the ids of the items changed by the committed batches, filled by the workers
+        private final Set<UUID> changedItemIds = ConcurrentHashMap.newKeySet();
+
+        private ParallelImport(int threads, boolean useWorkflow, boolean workflowNotify, boolean useTemplate) {
+            this.executor = Executors.newFixedThreadPool(threads);
+            this.useWorkflow = useWorkflow;
+            this.workflowNotify = workflowNotify;
+            this.useTemplate = useTemplate;
+        }
+
+        /**
+         * Apply the pending lines with the workers, and wait for them.
+         */
+        private void apply(Context c, Consumer<BulkEditChange> changes)
+            throws MetadataImportException, SQLException, AuthorizeException, WorkflowException, IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            // the workers must see the changes of the lines before, and must not wait for the locks of this context
+            c.commit();
+            UUID ePersonId = c.getCurrentUser() == null ? null : c.getCurrentUser().getID();
+            boolean ignoreAuthorization = c.ignoreAuthorization();
+            List<Future<List<BulkEditChange>>> batches = new ArrayList<>();
+            for (List<Pair<Integer, DSpaceCSVLine>> batch : ListUtils.partition(pending, batchSize)) {
+                List<DSpaceCSVLine> lines = batch.stream().map(Pair::getRight).collect(Collectors.toList());
+                batches.add(executor.submit(() -> applyBatch(lines, ePersonId, ignoreAuthorization)));
+            }
+            List<BulkEditChange> results = new ArrayList<>();
+            try {
+                for (Future<List<BulkEditChange>> batch : batches) {
+                    results.addAll(batch.get());
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MetadataImportException("Interrupted while applying the changes", e);
+            } catch (ExecutionException e) {
+                batches.forEach(batch -> batch.cancel(true));
+                rethrow(e.getCause());
+            }
 
-                // Record changes
-                BulkEditChange whatHasChanged = new BulkEditChange(item);
+            int lastRow = rowCount;
+            for (int i = 0; i < pending.size(); i++) {
+                BulkEditChange whatHasChanged = results.get(i);
+                Item item = whatHasChanged.getItem();
+                rowCount = pending.get(i).getLeft();
+                populateRefAndRowMap(pending.get(i).getRight(), item == null ? null : item.getID());
+                if (whatHasChanged.isNewItem() || whatHasChanged.hasChanges()) {
+                    changes.accept(whatHasChanged);
+                }
+            }
+            handler.logInfo(LogHelper.getHeader(c, "metadata_import_commit", "lineNumber=" + rowCount));
+            rowCount = lastRow;
+            pending.clear();
+            pendingIds.clear();
+            // the items changed by the workers must be read again
+            c.uncacheEntities();
+        }
 
-                // Has it moved collection?
-                List<String> collections = line.get("collection");
-                if (collections != null) {
-                    // Sanity check we're not orphaning it
-                    if (collections.size() == 0) {
-                        throw new MetadataImportException("Missing collection from item " + item.getHandle());
+        /**
+         * Apply a batch of lines on a new Context, in a worker thread.
+         */
+        private List<BulkEditChange> applyBatch(List<DSpaceCSVLine> lines, UUID ePersonId,
+                                                boolean ignoreAuthorization) throws Exception {
+            Context context = new Context(Context.Mode.BATCH_EDIT);
+            try {
+                context.setDispatcher(dispatcher);
+                if (ignoreAuthorization) {
+                    context.turnOffAuthorisationSystem();
+                }
+                if (ePersonId != null) {
+                    context.setCurrentUser(EPersonServiceFactory.getInstance().getEPersonService()
+                                                                .find(context, ePersonId));
+                }
+                List<BulkEditChange> results = new ArrayList<>();
+                for (DSpaceCSVLine line : lines) {
+                    BulkEditChange whatHasChanged = processLine(context, line, true, useWorkflow, workflowNotify,
+                                                                useTemplate);
+                    loadForDisplay(whatHasChanged);
+                    results.add(whatHasChanged);
+                }
+                context.complete();
+                for (BulkEditChange whatHasChanged : results) {
+                    if ((whatHasChanged.isNewItem() || whatHasChanged.hasChanges())
+                        && whatHasChanged.getItem() != null) {
+                        changedItemIds.add(whatHasChanged.getItem().getID());
                     }
-                    List<Collection> actualCollections = item.getCollections();
-                    compare(c, item, collections, actualCollections, whatHasChanged, change);
                 }
+                return results;
+            } finally {
+                if (context.isValid()) {
+                    context.abort();
+                }
+            }
+        }
 
-                // Iterate through each metadata element in the csv line
-                for (String md : line.keys()) {
-                    // Get the values we already have
-                    if (!"id".equals(md)) {
-                        // Get the values from the CSV
-                        String[] fromCSV = line.get(md).toArray(new String[line.get(md).size()]);
-                        // Remove authority unless the md is not authority controlled
-                        if (!isAuthorityControlledField(md)) {
-                            for (int i = 0; i < fromCSV.length; i++) {
-                                int pos = fromCSV[i].indexOf(csv.getAuthoritySeparator());
-                                if (pos > -1) {
-                                    fromCSV[i] = fromCSV[i].substring(0, pos);
-                                }
+        /**
+         * Load what {@link #displayChanges(List, boolean)} shows, as it is shown after the Context of the worker is
+         * closed.
+         */
+        private void loadForDisplay(BulkEditChange whatHasChanged) {
+            if (whatHasChanged.getItem() != null) {
+                whatHasChanged.getItem().getHandle();
+            }
+            List<Collection> collections = new ArrayList<>(whatHasChanged.getNewMappedCollections());
+            collections.addAll(whatHasChanged.getOldMappedCollections());
+            collections.add(whatHasChanged.getNewOwningCollection());
+            collections.add(whatHasChanged.getOldOwningCollection());
+            for (Collection collection : collections) {
+                if (collection != null) {
+                    collection.getHandle();
+                    collection.getName();
+                }
+            }
+        }
+
+        /**
+         * Stop the workers, and wait for the batches being committed, so that their items are reindexed.
+         */
+        private void shutdown() {
+            executor.shutdownNow();
+            try {
+                while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    handler.logInfo("Waiting for the batches being applied");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void rethrow(Throwable e)
+            throws MetadataImportException, SQLException, AuthorizeException, WorkflowException, IOException {
+            if (e instanceof MetadataImportException) {
+                throw (MetadataImportException) e;
+            } else if (e instanceof SQLException) {
+                throw (SQLException) e;
+            } else if (e instanceof AuthorizeException) {
+                throw (AuthorizeException) e;
+            } else if (e instanceof WorkflowException) {
+                throw (WorkflowException) e;
+            } else if (e instanceof IOException) {
+                throw (IOException) e;
+            } else if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new MetadataImportException("Error applying the changes: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Update the discovery index of the items changed without updating it.
+     *
+     * @param c       The relevant DSpace context
+     * @param itemIds The ids of the changed items, including the deleted ones
+     * @throws SQLException if the items cannot be read
+     */
+    protected void reindex(Context c, Set<UUID> itemIds) throws SQLException {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        IndexingService indexingService = DSpaceServicesFactory.getInstance().getServiceManager()
+            .getServiceByName(IndexingService.class.getName(), IndexingService.class);
+        IndexObjectFactoryFactory indexableObjectService = IndexObjectFactoryFactory.getInstance();
+        int batchSize = configurationService.getIntProperty("bulkedit.change.commit.count", 100);
+        int indexed = 0;
+        int failed = 0;
+        for (UUID itemId : itemIds) {
+            try {
+                Item item = itemService.find(c, itemId);
+                if (item == null) {
+                    indexingService.unIndexContent(c, IndexableItem.TYPE + "-" + itemId, false);
+                } else {
+                    for (IndexableObject indexableObject : indexableObjectService.getIndexableObjects(c, item)) {
+                        indexingService.indexContent(c, indexableObject, true, false);
+                    }
+                    c.uncacheEntity(item);
+                }
+                indexed++;
+                if (indexed % batchSize == 0) {
+                    indexingService.flush();
+                }
+            } catch (IOException | SearchServiceException e) {
+                log.error("Failed to reindex item " + itemId, e);
+                failed++;
+            }
+        }
+        try {
+            indexingService.flush();
+        } catch (SearchServiceException e) {
+            log.error("Failed to reindex the changed items", e);
+            failed = itemIds.size();
+        }
+        handler.logInfo("Reindexed " + indexed + " changed item(s)");
+        if (failed > 0) {
+            handler.logWarning(failed + " changed item(s) could not be reindexed, please run index-discovery");
+        }
+    }
+
+    /**
+     * Compare a line of the CSV with the item it describes, and optionally update the item or create it.
+     *
+     * @param c              The relevant DSpace context
+     * @param line           The line, with its entity target references resolved
+     * @param change         Whether or not to write the changes to the database
+     * @param useWorkflow    Whether the workflows should be used when creating new items
+     * @param workflowNotify If the workflows should be used, whether to send notifications or not
+     * @param useTemplate    Use collection template if create new item
+     * @return the changes of the item, which may be empty for an existing item
+     * @throws MetadataImportException  if something goes wrong
+     */
+    protected BulkEditChange processLine(Context c, DSpaceCSVLine line, boolean change, boolean useWorkflow,
+                                         boolean workflowNotify, boolean useTemplate)
+        throws MetadataImportException, SQLException, AuthorizeException, WorkflowException, IOException {
+        // Get the DSpace item to compare with
+        UUID id = line.getID();
+
+        // Is there an action column?
+        if (csv.hasActions() && (!"".equals(line.getAction())) && (id == null)) {
+            throw new MetadataImportException("'action' not allowed for new items!");
+        }
+
+        WorkspaceItem wsItem = null;
+        WorkflowItem wfItem = null;
+        Item item = null;
+
+        // Is this an existing item?
+        if (id != null) {
+            // Get the item
+            item = itemService.find(c, id);
+            if (item == null) {
+                throw new MetadataImportException("Unknown item ID " + id);
+            }
+
+            // Record changes
+            BulkEditChange whatHasChanged = new BulkEditChange(item);
+
+            // Has it moved collection?
+            List<String> collections = line.get("collection");
+            if (collections != null) {
+                // Sanity check we're not orphaning it
+                if (collections.size() == 0) {
+                    throw new MetadataImportException("Missing collection from item " + item.getHandle());
+                }
+                List<Collection> actualCollections = item.getCollections();
+                compare(c, item, collections, actualCollections, whatHasChanged, change);
+            }
+
+            // Iterate through each metadata element in the csv line
+            for (String md : line.keys()) {
+                // Get the values we already have
+                if (!"id".equals(md)) {
+                    // Get the values from the CSV
+                    String[] fromCSV = line.get(md).toArray(new String[line.get(md).size()]);
+                    // Remove authority unless the md is not authority controlled
+                    if (!isAuthorityControlledField(md)) {
+                        for (int i = 0; i < fromCSV.length; i++) {
+                            int pos = fromCSV[i].indexOf(csv.getAuthoritySeparator());
+                            if (pos > -1) {
+                                fromCSV[i] = fromCSV[i].substring(0, pos);
                             }
                         }
-                        // Compare
-                        compareAndUpdate(c, item, fromCSV, change, md, whatHasChanged, line);
                     }
+                    // Compare
+                    compareAndUpdate(c, item, fromCSV, change, md, whatHasChanged, line);
                 }
+            }
 
-                if (csv.hasActions()) {
-                    // Perform the action
-                    String action = line.getAction();
-                    if ("".equals(action)) {
-                        // Do nothing
-                    } else if ("expunge".equals(action)) {
-                        // Does the configuration allow deletes?
-                        if (!configurationService.getBooleanProperty("bulkedit.allowexpunge", false)) {
-                            throw new MetadataImportException("'expunge' action denied by configuration");
-                        }
+            if (csv.hasActions()) {
+                // Perform the action
+                String action = line.getAction();
+                if ("".equals(action)) {
+                    // Do nothing
+                } else if ("expunge".equals(action)) {
+                    // Does the configuration allow deletes?
+                    if (!configurationService.getBooleanProperty("bulkedit.allowexpunge", false)) {
+                        throw new MetadataImportException("'expunge' action denied by configuration");
+                    }
 
-                        // Remove the item
+                    // Remove the item
 
-                        if (change) {
-                            itemService.delete(c, item);
-                        }
+                    if (change) {
+                        itemService.delete(c, item);
+                    }
 
-                        whatHasChanged.setDeleted();
-                    } else if ("withdraw".equals(action)) {
-                        // Withdraw the item
-                        if (!item.isWithdrawn()) {
-                            if (change) {
-                                itemService.withdraw(c, item);
-                            }
-                            whatHasChanged.setWithdrawn();
+                    whatHasChanged.setDeleted();
+                } else if ("withdraw".equals(action)) {
+                    // Withdraw the item
+                    if (!item.isWithdrawn()) {
+                        if (change) {
+                            itemService.withdraw(c, item);
                         }
-                    } else if ("reinstate".equals(action)) {
-                        // Reinstate the item
-                        if (item.isWithdrawn()) {
-                            if (change) {
-                                itemService.reinstate(c, item);
-                            }
-                            whatHasChanged.setReinstated();
+                        whatHasChanged.setWithdrawn();
+                    }
+                } else if ("reinstate".equals(action)) {
+                    // Reinstate the item
+                    if (item.isWithdrawn()) {
+                        if (change) {
+                            itemService.reinstate(c, item);
                         }
-                    } else {
-                        // Unknown action!
-                        throw new MetadataImportException("Unknown action: " + action);
+                        whatHasChanged.setReinstated();
                     }
+                } else {
+                    // Unknown action!
+                    throw new MetadataImportException("Unknown action: " + action);
                 }
+            }
 
-                // Only record if changes have been made
-                if (whatHasChanged.hasChanges()) {
-                    changes.add(whatHasChanged);
-                }
-            } else {
-                // This is marked as a new item, so no need to compare
+            return whatHasChanged;
+        } else {
+            // This is marked as a new item, so no need to compare
 
-                // First check a user is set, otherwise this can't happen
-                if (c.getCurrentUser() == null) {
-                    throw new MetadataImportException(
-                        "When adding new items, a user must be specified with the -e option");
-                }
+            // First check a user is set, otherwise this can't happen
+            if (c.getCurrentUser() == null) {
+                throw new MetadataImportException(
+                    "When adding new items, a user must be specified with the -e option");
+            }
 
-                // Iterate through each metadata element in the csv line
-                BulkEditChange whatHasChanged = new BulkEditChange();
-                for (String md : line.keys()) {
-                    // Get the values we already have
-                    if (!"id".equals(md) && !"rowName".equals(md)) {
-                        // Get the values from the CSV
-                        String[] fromCSV = line.get(md).toArray(new String[line.get(md).size()]);
-
-                        // Remove authority unless the md is not authority controlled
-                        if (!isAuthorityControlledField(md)) {
-                            for (int i = 0; i < fromCSV.length; i++) {
-                                int pos = fromCSV[i].indexOf(csv.getAuthoritySeparator());
-                                if (pos > -1) {
-                                    fromCSV[i] = fromCSV[i].substring(0, pos);
-                                }
+            // Iterate through each metadata element in the csv line
+            BulkEditChange whatHasChanged = new BulkEditChange();
+            for (String md : line.keys()) {
+                // Get the values we already have
+                if (!"id".equals(md) && !"rowName".equals(md)) {
+                    // Get the values from the CSV
+                    String[] fromCSV = line.get(md).toArray(new String[line.get(md).size()]);
+
+                    // Remove authority unless the md is not authority controlled
+                    if (!isAuthorityControlledField(md)) {
+                        for (int i = 0; i < fromCSV.length; i++) {
+                            int pos = fromCSV[i].indexOf(csv.getAuthoritySeparator());
+                            if (pos > -1) {
+                                fromCSV[i] = fromCSV[i].substring(0, pos);
                             }
                         }
-
-                        // Add all the values from the CSV line
-                        add(c, fromCSV, md, whatHasChanged);
                     }
-                }
 
-                // Check it has an owning collection
-                List<String> collections = line.get("collection");
-                if (collections == null) {
-                    throw new MetadataImportException(
-                        "New items must have a 'collection' assigned in the form of a handle");
+                    // Add all the values from the CSV line
+                    add(c, fromCSV, md, whatHasChanged);
                 }
+            }
 
-                // Check collections are really collections
-                ArrayList<Collection> check = new ArrayList<Collection>();
-                Collection collection;
-                for (String handle : collections) {
-                    try {
-                        // Resolve the handle to the collection
-                        collection = (Collection) handleService.resolveToObject(c, handle);
-
-                        // Check it resolved OK
-                        if (collection == null) {
-                            throw new MetadataImportException(
-                                "'" + handle + "' is not a Collection! You must specify a valid collection for " +
-                                    "new items");
-                        }
+            // Check it has an owning collection
+            List<String> collections = line.get("collection");
+            if (collections == null) {
+                throw new MetadataImportException(
+                    "New items must have a 'collection' assigned in the form of a handle");
+            }
 
-                        // Check for duplicate
-                        if (check.contains(collection)) {
-                            throw new MetadataImportException(
-                                "Duplicate collection assignment detected in new item! " + handle);
-                        } else {
-                            check.add(collection);
-                        }
-                    } catch (Exception ex) {
+            // Check collections are really collections
+            ArrayList<Collection> check = new ArrayList<Collection>();
+            Collection collection;
+            for (String handle : collections) {
+                try {
+                    // Resolve the handle to the collection
+                    collection = (Collection) handleService.resolveToObject(c, handle);
+
+                    // Check it resolved OK
+                    if (collection == null) {
                         throw new MetadataImportException(
-                            "'" + handle + "' is not a Collection! You must specify a valid collection for new " +
-                                "items",
-                            ex);
+                            "'" + handle + "' is not a Collection! You must specify a valid collection for " +
+                                "new items");
                     }
-                }
 
-                // Record the addition to collections
-                boolean first = true;
-                for (String handle : collections) {
-                    Collection extra = (Collection) handleService.resolveToObject(c, handle);
-                    if (first) {
-                        whatHasChanged.setOwningCollection(extra);
+                    // Check for duplicate
+                    if (check.contains(collection)) {
+                        throw new MetadataImportException(
+                            "Duplicate collection assignment detected in new item! " + handle);
                     } else {
-                        whatHasChanged.registerNewMappedCollection(extra);
+                        check.add(collection);
                     }
-                    first = false;
+                } catch (Exception ex) {
+                    throw new MetadataImportException(
+                        "'" + handle + "' is not a Collection! You must specify a valid collection for new " +
+                            "items",
+                        ex);
+                }
+            }
+
+            // Record the addition to collections
+            boolean first = true;
+            for (String handle : collections) {
+                Collection extra = (Collection) handleService.resolveToObject(c, handle);
+                if (first) {
+                    whatHasChanged.setOwningCollection(extra);
+                } else {
+                    whatHasChanged.registerNewMappedCollection(extra);
                 }
+                first = false;
+            }
 
-                // Create the new item?
-                if (change) {
-                    // Create the item
-                    String collectionHandle = line.get("collection").get(0);
-                    collection = (Collection) handleService.resolveToObject(c, collectionHandle);
-                    wsItem = workspaceItemService.create(c, collection, useTemplate);
-                    item = wsItem.getItem();
-
-                    // Add the metadata to the item
-                    for (BulkEditMetadataValue dcv : whatHasChanged.getAdds()) {
-                        if (!StringUtils.equals(dcv.getSchema(), MetadataSchemaEnum.RELATION.getName())) {
-                            itemService.addMetadata(c, item, dcv.getSchema(),
-                                                    dcv.getElement(),
-                                                    dcv.getQualifier(),
-                                                    dcv.getLanguage(),
-                                                    dcv.getValue(),
-                                                    dcv.getAuthority(),
-                                                    dcv.getConfidence());
-                        }
+            // Create the new item?
+            if (change) {
+                // Create the item
+                String collectionHandle = line.get("collection").get(0);
+                collection = (Collection) handleService.resolveToObject(c, collectionHandle);
+                wsItem = workspaceItemService.create(c, collection, useTemplate);
+                item = wsItem.getItem();
+
+                // Add the metadata to the item
+                for (BulkEditMetadataValue dcv : whatHasChanged.getAdds()) {
+                    if (!StringUtils.equals(dcv.getSchema(), MetadataSchemaEnum.RELATION.getName())) {
+                        itemService.addMetadata(c, item, dcv.getSchema(),
+                                                dcv.getElement(),
+                                                dcv.getQualifier(),
+                                                dcv.getLanguage(),
+                                                dcv.getValue(),
+                                                dcv.getAuthority(),
+                                                dcv.getConfidence());
                     }
-                    //Add relations after all metadata has been processed
-                    for (BulkEditMetadataValue dcv : whatHasChanged.getAdds()) {
-                        if (StringUtils.equals(dcv.getSchema(), MetadataSchemaEnum.RELATION.getName())) {
-                            addRelationship(c, item, dcv.getElement(), dcv.getValue());
-                        }
+                }
+                //Add relations after all metadata has been processed
+                for (BulkEditMetadataValue dcv : whatHasChanged.getAdds()) {
+                    if (StringUtils.equals(dcv.getSchema(), MetadataSchemaEnum.RELATION.getName())) {
+                        addRelationship(c, item, dcv.getElement(), dcv.getValue());
                     }
+                }
 
 
-                    // Should the workflow be used?
-                    if (useWorkflow) {
-                        WorkflowService workflowService = WorkflowServiceFactory.getInstance().getWorkflowService();
-                        if (workflowNotify) {
-                            wfItem = workflowService.start(c, wsItem);
-                        } else {
-                            wfItem = workflowService.startWithoutNotify(c, wsItem);
-                        }
+                // Should the workflow be used?
+                if (useWorkflow) {
+                    WorkflowService workflowService = WorkflowServiceFactory.getInstance().getWorkflowService();
+                    if (workflowNotify) {
+                        wfItem = workflowService.start(c, wsItem);
                     } else {
-                        // Add provenance info
-                        String provenance = installItemService.getSubmittedByProvenanceMessage(c, wsItem.getItem());
-                        itemService.addMetadata(c, item, MetadataSchemaEnum.DC.getName(),
-                                "description", "provenance", "en", provenance);
-                        // Install the item
-                        installItemService.installItem(c, wsItem);
+                        wfItem = workflowService.startWithoutNotify(c, wsItem);
                     }
+                } else {
+                    // Add provenance info
+                    String provenance = installItemService.getSubmittedByProvenanceMessage(c, wsItem.getItem());
+                    itemService.addMetadata(c, item, MetadataSchemaEnum.DC.getName(),
+                            "description", "provenance", "en", provenance);
+                    // Install the item
+                    installItemService.installItem(c, wsItem);
+                }
 
-                    // Add to extra collections
-                    if (line.get("collection").size() > 0) {
-                        for (int i = 1; i < collections.size(); i++) {
-                            String handle = collections.get(i);
-                            Collection extra = (Collection) handleService.resolveToObject(c, handle);
-                            collectionService.addItem(c, extra, item);
-                        }
+                // Add to extra collections
+                if (line.get("collection").size() > 0) {
+                    for (int i = 1; i < collections.size(); i++) {
+                        String handle = collections.get(i);
+                        Collection extra = (Collection) handleService.resolveToObject(c, handle);
+                        collectionService.addItem(c, extra, item);
                     }
-
-                    whatHasChanged.setItem(item);
                 }
 
-                // Record the changes
-                changes.add(whatHasChanged);
+                whatHasChanged.setItem(item);
             }
 
-            if (change && (rowCount % configurationService.getIntProperty("bulkedit.change.commit.count", 100) == 0)) {
-                c.commit();
-                handler.logInfo(LogHelper.getHeader(c, "metadata_import_commit", "lineNumber=" + rowCount));
-            }
-            populateRefAndRowMap(line, item == null ? null : item.getID());
-            // keep track of current rows processed
-            rowCount++;
+            return whatHasChanged;
         }
-        if (change) {
-            c.commit();
-        }
-
-        c.setMode(Context.Mode.READ_ONLY);
-
-
-        // Return the changes
-        if (!change) {
-            validateExpressedRelations(c);
-        }
-        return changes;
     }
 
     /**
@@ -1244,149 +1723,165 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
         // Display the changes
         int changeCounter = 0;
         for (BulkEditChange change : changes) {
-            // Get the changes
-            List<BulkEditMetadataValue> adds = change.getAdds();
-            List<BulkEditMetadataValue> removes = change.getRemoves();
-            List<Collection> newCollections = change.getNewMappedCollections();
-            List<Collection> oldCollections = change.getOldMappedCollections();
-            if ((adds.size() > 0) || (removes.size() > 0) ||
-                (newCollections.size() > 0) || (oldCollections.size() > 0) ||
-                (change.getNewOwningCollection() != null) || (change.getOldOwningCollection() != null) ||
-                (change.isDeleted()) || (change.isWithdrawn()) || (change.isReinstated())) {
-                // Show the item
-                Item i = change.getItem();
-                handler.logInfo("-----------------------------------------------------------");
-                if (!change.isNewItem()) {
-                    handler.logInfo("Changes for item: " + i.getID() + " (" + i.getHandle() + ")");
-                } else {
-                    handler.logInfo("New item: ");
-                    if (i != null) {
-                        if (i.getHandle() != null) {
-                            handler.logInfo(i.getID() + " (" + i.getHandle() + ")");
-                        } else {
-                            handler.logInfo(i.getID() + " (in workflow)");
-                        }
-                    }
-                }
+            if (displayChange(change, changed, handler::logInfo)) {
                 changeCounter++;
             }
+        }
+        return changeCounter;
+    }
 
-            // Show actions
-            if (change.isDeleted()) {
-                if (changed) {
-                    handler.logInfo(" - EXPUNGED!");
-                } else {
-                    handler.logInfo(" - EXPUNGE!");
-                }
-            }
-            if (change.isWithdrawn()) {
-                if (changed) {
-                    handler.logInfo(" - WITHDRAWN!");
-                } else {
-                    handler.logInfo(" - WITHDRAW!");
-                }
-            }
-            if (change.isReinstated()) {
-                if (changed) {
-                    handler.logInfo(" - REINSTATED!");
-                } else {
-                    handler.logInfo(" - REINSTATE!");
-                }
-            }
-
-            if (change.getNewOwningCollection() != null) {
-                Collection c = change.getNewOwningCollection();
-                if (c != null) {
-                    String cHandle = c.getHandle();
-                    String cName = c.getName();
-                    if (!changed) {
-                        handler.logInfo(" + New owning collection (" + cHandle + "): ");
+    /**
+     * Display the changes of an item
+     *
+     * @param change  The changes detected
+     * @param changed Whether or not the changes have been made
+     * @param output  Where to write the lines of the display
+     * @return Whether the item has changed
+     */
+    private boolean displayChange(BulkEditChange change, boolean changed, Consumer<String> output) {
+        boolean counted = false;
+        // Get the changes
+        List<BulkEditMetadataValue> adds = change.getAdds();
+        List<BulkEditMetadataValue> removes = change.getRemoves();
+        List<Collection> newCollections = change.getNewMappedCollections();
+        List<Collection> oldCollections = change.getOldMappedCollections();
+        if ((adds.size() > 0) || (removes.size() > 0) ||
+            (newCollections.size() > 0) || (oldCollections.size() > 0) ||
+            (change.getNewOwningCollection() != null) || (change.getOldOwningCollection() != null) ||
+            (change.isDeleted()) || (change.isWithdrawn()) || (change.isReinstated())) {
+            // Show the item
+            Item i = change.getItem();
+            output.accept("-----------------------------------------------------------");
+            if (!change.isNewItem()) {
+                output.accept("Changes for item: " + i.getID() + " (" + i.getHandle() + ")");
+            } else {
+                output.accept("New item: ");
+                if (i != null) {
+                    if (i.getHandle() != null) {
+                        output.accept(i.getID() + " (" + i.getHandle() + ")");
                     } else {
-                        handler.logInfo(" + New owning collection  (" + cHandle + "): ");
+                        output.accept(i.getID() + " (in workflow)");
                     }
-                    handler.logInfo(cName);
                 }
+            }
+            counted = true;
+        }
 
-                c = change.getOldOwningCollection();
-                if (c != null) {
-                    String cHandle = c.getHandle();
-                    String cName = c.getName();
-                    if (!changed) {
-                        handler.logInfo(" + Old owning collection (" + cHandle + "): ");
-                    } else {
-                        handler.logInfo(" + Old owning collection  (" + cHandle + "): ");
-                    }
-                    handler.logInfo(cName);
-                }
+        // Show actions
+        if (change.isDeleted()) {
+            if (changed) {
+                output.accept(" - EXPUNGED!");
+            } else {
+                output.accept(" - EXPUNGE!");
             }
+        }
+        if (change.isWithdrawn()) {
+            if (changed) {
+                output.accept(" - WITHDRAWN!");
+            } else {
+                output.accept(" - WITHDRAW!");
+            }
+        }
+        if (change.isReinstated()) {
+            if (changed) {
+                output.accept(" - REINSTATED!");
+            } else {
+                output.accept(" - REINSTATE!");
+            }
+        }
 
-            // Show new mapped collections
-            for (Collection c : newCollections) {
+        if (change.getNewOwningCollection() != null) {
+            Collection c = change.getNewOwningCollection();
+            if (c != null) {
                 String cHandle = c.getHandle();
                 String cName = c.getName();
                 if (!changed) {
-                    handler.logInfo(" + Map to collection (" + cHandle + "): ");
+                    output.accept(" + New owning collection (" + cHandle + "): ");
                 } else {
-                    handler.logInfo(" + Mapped to collection  (" + cHandle + "): ");
+                    output.accept(" + New owning collection  (" + cHandle + "): ");
                 }
-                handler.logInfo(cName);
+                output.accept(cName);
             }
 
-            // Show old mapped collections
-            for (Collection c : oldCollections) {
+            c = change.getOldOwningCollection();
+            if (c != null) {
                 String cHandle = c.getHandle();
                 String cName = c.getName();
                 if (!changed) {
-                    handler.logInfo(" + Un-map from collection (" + cHandle + "): ");
+                    output.accept(" + Old owning collection (" + cHandle + "): ");
                 } else {
-                    handler.logInfo(" + Un-mapped from collection  (" + cHandle + "): ");
+                    output.accept(" + Old owning collection  (" + cHandle + "): ");
                 }
-                handler.logInfo(cName);
+                output.accept(cName);
             }
+        }
 
-            // Show additions
-            for (BulkEditMetadataValue metadataValue : adds) {
-                String md = metadataValue.getSchema() + "." + metadataValue.getElement();
-                if (metadataValue.getQualifier() != null) {
-                    md += "." + metadataValue.getQualifier();
-                }
-                if (metadataValue.getLanguage() != null) {
-                    md += "[" + metadataValue.getLanguage() + "]";
-                }
-                if (!changed) {
-                    handler.logInfo(" + Add    (" + md + "): ");
-                } else {
-                    handler.logInfo(" + Added   (" + md + "): ");
-                }
-                handler.logInfo(metadataValue.getValue());
-                if (isAuthorityControlledField(md)) {
-                    handler.logInfo(", authority = " + metadataValue.getAuthority());
-                    handler.logInfo(", confidence = " + metadataValue.getConfidence());
-                }
+        // Show new mapped collections
+        for (Collection c : newCollections) {
+            String cHandle = c.getHandle();
+            String cName = c.getName();
+            if (!changed) {
+                output.accept(" + Map to collection (" + cHandle + "): ");
+            } else {
+                output.accept(" + Mapped to collection  (" + cHandle + "): ");
             }
+            output.accept(cName);
+        }
 
-            // Show removals
-            for (BulkEditMetadataValue metadataValue : removes) {
-                String md = metadataValue.getSchema() + "." + metadataValue.getElement();
-                if (metadataValue.getQualifier() != null) {
-                    md += "." + metadataValue.getQualifier();
-                }
-                if (metadataValue.getLanguage() != null) {
-                    md += "[" + metadataValue.getLanguage() + "]";
-                }
-                if (!changed) {
-                    handler.logInfo(" - Remove (" + md + "): ");
-                } else {
-                    handler.logInfo(" - Removed (" + md + "): ");
-                }
-                handler.logInfo(metadataValue.getValue());
-                if (isAuthorityControlledField(md)) {
-                    handler.logInfo(", authority = " + metadataValue.getAuthority());
-                    handler.logInfo(", confidence = " + metadataValue.getConfidence());
-                }
+        // Show old mapped collections
+        for (Collection c : oldCollections) {
+            String cHandle = c.getHandle();
+            String cName = c.getName();
+            if (!changed) {
+                output.accept(" + Un-map from collection (" + cHandle + "): ");
+            } else {
+                output.accept(" + Un-mapped from collection  (" + cHandle + "): ");
             }
+            output.accept(cName);
         }
-        return changeCounter;
+
+        // Show additions
+        for (BulkEditMetadataValue metadataValue : adds) {
+            String md = metadataValue.getSchema() + "." + metadataValue.getElement();
+            if (metadataValue.getQualifier() != null) {
+                md += "." + metadataValue.getQualifier();
+            }
+            if (metadataValue.getLanguage() != null) {
+                md += "[" + metadataValue.getLanguage() + "]";
+            }
+            if (!changed) {
+                output.accept(" + Add    (" + md + "): ");
+            } else {
+                output.accept(" + Added   (" + md + "): ");
+            }
+            output.accept(metadataValue.getValue());
+            if (isAuthorityControlledField(md)) {
+                output.accept(", authority = " + metadataValue.getAuthority());
+                output.accept(", confidence = " + metadataValue.getConfidence());
+            }
+        }
+
+        // Show removals
+        for (BulkEditMetadataValue metadataValue : removes) {
+            String md = metadataValue.getSchema() + "." + metadataValue.getElement();
+            if (metadataValue.getQualifier() != null) {
+                md += "." + metadataValue.getQualifier();
+            }
+            if (metadataValue.getLanguage() != null) {
+                md += "[" + metadataValue.getLanguage() + "]";
+            }
+            if (!changed) {
+                output.accept(" - Remove (" + md + "): ");
+            } else {
+                output.accept(" - Removed (" + md + "): ");
+            }
+            output.accept(metadataValue.getValue());
+            if (isAuthorityControlledField(md)) {
+                output.accept(", authority = " + metadataValue.getAuthority());
+                output.accept(", confidence = " + metadataValue.getConfidence());
+            }
+        }
+        return counted;
     }
 
     /**
@@ -1495,10 +1990,16 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
      * been processed so far which has a known (minted) UUID for its item. This is used to help complete
      * the resolution after the row number has been determined.
      *
+     * When the CSV is streamed, only the rows which are referenced by other rows, or which reference other items,
+     * are recorded, see {@link #csvReferences}.
+     *
      * @param line the csv line.
      * @param uuid the uuid of the item, which may be null if it has not been minted yet.
      */
     private void populateRefAndRowMap(DSpaceCSVLine line, @Nullable UUID uuid) {
+        if (csvReferences != null && !isReferenceRow(line)) {
+            return;
+        }
         if (uuid != null) {
             csvRowMap.put(rowCount, uuid);
         } else {
@@ -1528,6 +2029,29 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
         }
     }
 
+    /**
+     * Whether a line of a streamed CSV is referenced by another line, or references other items.
+     *
+     * @param line the csv line.
+     * @return true if the line has relation values or a value in {@link #csvReferences}
+     */
+    private boolean isReferenceRow(DSpaceCSVLine line) {
+        for (String key : line.keys()) {
+            if (key.split("\\.")[0].equalsIgnoreCase("relation")) {
+                if (line.get(key).stream().anyMatch(StringUtils::isNotEmpty)) {
+                    return true;
+                }
+            } else if (key.contains(".") || key.equalsIgnoreCase("rowName")) {
+                for (String value : line.get(key)) {
+                    if (csvReferences.contains(key + ":" + value)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Gets the UUID of the item indicated by the given target reference,
      * which may be a direct UUID string, a row reference
@@ -1725,8 +2249,9 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
                             // Add to errors if Relationship.type cannot be derived.
                             Item originItem = null;
                             if (itemService.find(c, UUID.fromString(targetUUID)) != null) {
-                                DSpaceCSVLine dSpaceCSVLine = this.csv.getCSVLines()
-                                                                      .get(Integer.valueOf(originRow) - 1);
+                                // streamed lines are not kept, their entity type is in the entityTypeMap if any
+                                DSpaceCSVLine dSpaceCSVLine = stream ? new DSpaceCSVLine()
+                                    : this.csv.getCSVLines().get(Integer.valueOf(originRow) - 1);
                                 List<String> relTypes = dSpaceCSVLine.get("dspace.entity.type");
                                 if (relTypes == null || relTypes.isEmpty()) {
                                     dSpaceCSVLine.get("dspace.entity.type[]");
@@ -50,6 +50,9 @@ public class MetadataImportScriptConfiguration<T extends MetadataImport> extends
                               "validate - just validate the csv, don't run the import");
             options.addOption("t", "template", false,
                               "template - when adding new items, use the collection template (if it exists)");
+            options.addOption("l", "large", false,
+                              "large - read the csv one line at a time instead of loading it in memory, " +
+                                  "for very large files");
             options.addOption("h", "help", false, "help");
 
             super.options = options;
@@ -23,6 +23,7 @@ import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.dspace.checker.BatchDispatcher;
 import org.dspace.checker.BitstreamDispatcher;
 import org.dspace.checker.CheckerCommand;
 import org.dspace.checker.HandleDispatcher;
@@ -37,6 +38,8 @@ import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.BitstreamService;
 import org.dspace.core.Context;
 import org.dspace.core.Utils;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 
 /**
  * Command line access to the checksum checker. Options are listed in the
@@ -78,6 +81,10 @@ public final class ChecksumChecker {
      * <dd>Report only errors in the logs</dd>
      * <dt>-p</dt>
      * <dd>Don't prune results before running checker</dd>
+     * <dt>-w</dt>
+     * <dd>number of threads checking bitstreams</dd>
+     * <dt>-r</dt>
+     * <dd>maximum number of bytes read per second</dd>
      * </dl>
      *
      * @param args the command line arguments given
@@ -99,6 +106,8 @@ public final class ChecksumChecker {
         options.addOption("c", "count", true, "Check count");
         options.addOption("a", "handle", true, "Specify a handle to check");
         options.addOption("v", "verbose", false, "Report all processing");
+        options.addOption("w", "workers", true, "Number of threads checking bitstreams");
+        options.addOption("r", "rate", true, "Maximum number of bytes read per second (no limit if not set)");
 
         Option option;
 
@@ -148,6 +157,15 @@ public final class ChecksumChecker {
                                        + " old results from the database.");
             }
 
+            ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
+                                                                             .getConfigurationService();
+            int workers = line.hasOption('w') ? (int) parsePositive(line, 'w', Integer.MAX_VALUE)
+                : configurationService.getIntProperty("checker.workers", 1);
+            long bytesPerSecond = line.hasOption('r') ? parsePositive(line, 'r', Long.MAX_VALUE)
+                : configurationService.getLongProperty("checker.bytesPerSecond", 0);
+            int batchSize = configurationService.getIntProperty("checker.batchSize",
+                                                                BatchDispatcher.DEFAULT_BATCH_SIZE);
+
             Instant processStart = Instant.now();
 
             BitstreamDispatcher dispatcher = null;
@@ -155,9 +173,9 @@ public final class ChecksumChecker {
             // process should loop infinitely through
             // most_recent_checksum table
             if (line.hasOption('l')) {
-                dispatcher = new SimpleDispatcher(context, processStart, false);
+                dispatcher = getDispatcher(context, processStart, false, workers, batchSize);
             } else if (line.hasOption('L')) {
-                dispatcher = new SimpleDispatcher(context, processStart, true);
+                dispatcher = getDispatcher(context, processStart, true, workers, batchSize);
             } else if (line.hasOption('b')) {
                 // check only specified bitstream(s)
                 String[] ids = line.getOptionValues('b');
@@ -179,7 +197,7 @@ public final class ChecksumChecker {
                 // run checker process for specified duration
                 try {
                     dispatcher = new LimitedDurationDispatcher(
-                        new SimpleDispatcher(context, processStart, true), Instant.ofEpochMilli(
+                        getDispatcher(context, processStart, true, workers, batchSize), Instant.ofEpochMilli(
                         Instant.now().toEpochMilli() + Utils.parseDuration(line.getOptionValue('d'))));
                 } catch (Exception e) {
                     LOG.fatal("Couldn't parse " + line.getOptionValue('d')
@@ -190,8 +208,8 @@ public final class ChecksumChecker {
                 int count = Integer.valueOf(line.getOptionValue('c'));
 
                 // run checker process for specified number of bitstreams
-                dispatcher = new LimitedCountDispatcher(new SimpleDispatcher(
-                    context, processStart, false), count);
+                dispatcher = new LimitedCountDispatcher(
+                    getDispatcher(context, processStart, false, workers, batchSize), count);
             } else {
                 dispatcher = new LimitedCountDispatcher(new SimpleDispatcher(
                     context, processStart, false), 1);
@@ -207,7 +225,12 @@ public final class ChecksumChecker {
             checker.setProcessStartDate(processStart);
             checker.setDispatcher(dispatcher);
             checker.setCollector(logger);
+            checker.setWorkers(workers);
+            checker.setBytesPerSecond(bytesPerSecond);
             checker.process();
+            System.out.println(String.format("Checked %d bitstreams (%d bytes): %.2f MB/s",
+                                             checker.getBitstreamsChecked(), checker.getBytesChecked(),
+                                             checker.getThroughput()));
             context.complete();
             context = null;
         } finally {
@@ -217,6 +240,50 @@ public final class ChecksumChecker {
         }
     }
 
+    /**
+     * Parse the value of an option which must be a positive number, exiting with an error if it is not.
+     *
+     * @param line   the command line
+     * @param option the option
+     * @param max    the maximum value
+     * @return the value
+     */
+    private static long parsePositive(CommandLine line, char option, long max) {
+        String value = line.getOptionValue(option);
+        try {
+            long number = Long.parseLong(value);
+            if (number >= 1 && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        System.err.println("The value of the -" + option + " option must be a positive integer: " + value);
+        System.exit(1);
+        return -1;
+    }
+
+    /**
+     * Get the dispatcher selecting the bitstreams in the order they were last
+     * checked. When several workers check bitstreams at the same time, the
+     * dispatcher must read the rows in batches and skip the bitstreams being
+     * checked.
+     *
+     * @param context   Context
+     * @param startTime timestamp for beginning of checker process
+     * @param looping   whether to loop infinitely through the bitstreams
+     * @param workers   number of threads checking bitstreams
+     * @param batchSize number of rows read at once by a batch dispatcher
+     * @return the dispatcher
+     */
+    private static BitstreamDispatcher getDispatcher(Context context, Instant startTime, boolean looping,
+                                                     int workers, int batchSize) {
+        if (workers > 1) {
+            return new BatchDispatcher(context, startTime, looping, batchSize);
+        }
+        return new SimpleDispatcher(context, startTime, looping);
+    }
+
     /**
      * Print the help options for the user
      *
@@ -236,6 +303,8 @@ public final class ChecksumChecker {
         System.out.println("\nLoop continuously through all bitstreams: ChecksumChecker -L");
         System.out.println("\nCheck a defined number of bitstreams: ChecksumChecker -c 10");
         System.out.println("\nReport all processing (verbose)(default reports only errors): ChecksumChecker -v");
+        System.out.println("\nCheck with 4 threads, reading at most 50 MB per second: "
+                               + "ChecksumChecker -l -w 4 -r 52428800");
         System.out.println("\nDefault (no arguments) is equivalent to '-c 1'");
         System.exit(0);
     }
@@ -75,6 +75,7 @@ public class ItemImport extends DSpaceRunnable<ItemImportScriptConfiguration> {
     protected boolean useWorkflow = false;
     protected boolean useWorkflowSendEmail = false;
     protected boolean isQuiet = false;
+    protected int threads = 1;
     protected boolean commandLineCollections = false;
     protected boolean zip = false;
     protected boolean remoteUrl = false;
@@ -147,6 +148,18 @@ public class ItemImport extends DSpaceRunnable<ItemImportScriptConfiguration> {
             isQuiet = true;
         }
 
+        if (commandLine.hasOption('T')) {
+            try {
+                threads = Integer.parseInt(commandLine.getOptionValue('T'));
+            } catch (NumberFormatException e) {
+                threads = 0;
+            }
+            if (threads < 1) {
+                throw new ParseException("The number of threads must be a positive integer: "
+                                             + commandLine.getOptionValue('T'));
+            }
+        }
+
         setZip();
     }
 
@@ -217,6 +230,7 @@ public class ItemImport extends DSpaceRunnable<ItemImportScriptConfiguration> {
             itemImportService.setUseWorkflow(useWorkflow);
             itemImportService.setUseWorkflowSendEmail(useWorkflowSendEmail);
             itemImportService.setQuiet(isQuiet);
+            itemImportService.setThreads(threads);
             itemImportService.setHandler(handler);
 
             try {
@@ -239,6 +253,9 @@ public class ItemImport extends DSpaceRunnable<ItemImportScriptConfiguration> {
             }
         } finally {
             if (zip) {
+                // close the zip file the bitstreams were read from
+                itemImportService.closeZip();
+
                 // if zip file was valid then clean sourcedir
                 if (zipvalid && sourcedir != null && new File(sourcedir).exists()) {
                     FileUtils.deleteDirectory(new File(sourcedir));
@@ -360,7 +377,7 @@ public class ItemImport extends DSpaceRunnable<ItemImportScriptConfiguration> {
 
         workDir = new File(itemImportService.getTempWorkDir() + File.separator + TEMP_DIR
                            + File.separator + context.getCurrentUser().getID());
-        sourcedir = itemImportService.unzip(workFile, workDir.getAbsolutePath());
+        sourcedir = itemImportService.unzip(workFile, workDir.getAbsolutePath(), false);
     }
 
     /**
@@ -116,7 +116,7 @@ public class ItemImportCLI extends ItemImport {
                 workDir = new File(itemImportService.getTempWorkDir() + File.separator + TEMP_DIR
                         + File.separator + context.getCurrentUser().getID());
                 sourcedir = itemImportService.unzip(
-                        new File(sourcedir + File.separator + zipfilename), workDir.getAbsolutePath());
+                        new File(sourcedir + File.separator + zipfilename), workDir.getAbsolutePath(), false);
             } else {
                 // manage zip via remote url
                 Optional<InputStream> optionalFileStream = Optional.ofNullable(new URL(zipfilename).openStream());
@@ -132,7 +132,7 @@ public class ItemImportCLI extends ItemImport {
                     FileUtils.copyInputStreamToFile(optionalFileStream.get(), workFile);
                     workDir = new File(itemImportService.getTempWorkDir() + File.separator + TEMP_DIR
                                        + File.separator + context.getCurrentUser().getID());
-                    sourcedir = itemImportService.unzip(workFile, workDir.getAbsolutePath());
+                    sourcedir = itemImportService.unzip(workFile, workDir.getAbsolutePath(), false);
                 } else {
                     throw new IllegalArgumentException(
                             "Error reading file, the file couldn't be found for filename: " + zipfilename);
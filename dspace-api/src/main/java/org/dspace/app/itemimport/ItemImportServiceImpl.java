@@ -28,7 +28,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.net.URL;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -39,12 +41,23 @@ import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import javax.xml.parsers.DocumentBuilder;
@@ -102,6 +115,10 @@ import org.dspace.core.Context;
 import org.dspace.core.Email;
 import org.dspace.core.I18nUtil;
 import org.dspace.core.LogHelper;
+import org.dspace.discovery.IndexableObject;
+import org.dspace.discovery.IndexingService;
+import org.dspace.discovery.SearchServiceException;
+import org.dspace.discovery.indexobject.factory.IndexObjectFactoryFactory;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.Group;
 import org.dspace.eperson.service.EPersonService;
@@ -109,6 +126,7 @@ import org.dspace.eperson.service.GroupService;
 import org.dspace.handle.service.HandleService;
 import org.dspace.scripts.handler.DSpaceRunnableHandler;
 import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.dspace.workflow.WorkflowItem;
 import org.dspace.workflow.WorkflowService;
 import org.springframework.beans.factory.InitializingBean;
@@ -188,10 +206,16 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     protected boolean useWorkflow = false;
     protected boolean useWorkflowSendEmail = false;
     protected boolean isQuiet = false;
+    protected int threads = 1;
 
     //remember which folder item was imported from
     Map<String, Item> itemFolderMap = null;
 
+    // the zip file the bitstreams are read from when they are not extracted, and their entries by the path they
+    // would be extracted to
+    protected ZipFile bitstreamZip;
+    protected Map<String, String> zipBitstreams = new HashMap<>();
+
     @Override
     public void afterPropertiesSet() throws Exception {
         tempWorkDir = configurationService.getProperty("org.dspace.app.batchitemimport.work.dir");
@@ -283,6 +307,9 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
 
             Arrays.sort(dircontents, ComparatorUtils.naturalComparator());
 
+            // the items to add with several threads
+            List<String> itemNames = new ArrayList<>();
+
             for (int i = 0; i < dircontents.length; i++) {
                 if (skipItems.containsKey(dircontents[i])) {
                     logInfo("Skipping import of " + dircontents[i]);
@@ -292,6 +319,8 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                     Item skippedItem = (Item) handleService.resolveToObject(c, skippedHandle);
                     itemFolderMap.put(dircontents[i], skippedItem);
 
+                } else if (threads > 1 && !isTest) {
+                    itemNames.add(dircontents[i]);
                 } else {
                     List<Collection> clist;
                     if (directoryFileCollections) {
@@ -319,6 +348,9 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                     logInfo(i + " " + dircontents[i]);
                 }
             }
+            if (!itemNames.isEmpty()) {
+                addItemsInParallel(c, mycollections, sourceDir, itemNames, mapOut, template);
+            }
 
             //now that all items are imported, iterate again to link relationships
             addRelationships(c, sourceDir);
@@ -331,6 +363,173 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         }
     }
 
+    /**
+     * Add items with several worker threads, each with its own context. Each item is committed once added, and only
+     * then written to the mapfile, so that an interrupted import can be resumed from the mapfile. The workers use the
+     * dispatcher configured by org.dspace.app.itemimport.dispatcher, without discovery by default, and index the items
+     * they added in batches instead.
+     *
+     * @param c            DSpace Context
+     * @param mycollections the collections to add the items to, or null to read them from the item directories
+     * @param sourceDir    the import source directory
+     * @param itemNames    the directories of the items to add
+     * @param mapOut       the mapfile
+     * @param template     whether to use collection template item as starting point
+     * @throws Exception if an item cannot be added, the items added before it stay added
+     */
+    protected void addItemsInParallel(Context c, List<Collection> mycollections, String sourceDir,
+                                      List<String> itemNames, PrintWriter mapOut, boolean template) throws Exception {
+        // the workers must see the changes made so far, and must not wait for the locks of this context
+        c.commit();
+        UUID ePersonId = c.getCurrentUser() == null ? null : c.getCurrentUser().getID();
+        boolean ignoreAuthorization = c.ignoreAuthorization();
+        List<UUID> collectionIds = null;
+        if (mycollections != null) {
+            collectionIds = mycollections.stream().map(Collection::getID).collect(Collectors.toList());
+        }
+
+        Queue<String> queue = new ConcurrentLinkedQueue<>(itemNames);
+        Map<String, UUID> added = new ConcurrentHashMap<>();
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                List<UUID> workerCollectionIds = collectionIds;
+                workers.add(executor.submit(() -> {
+                    addQueuedItems(queue, added, stop, ePersonId, ignoreAuthorization, workerCollectionIds,
+                                   sourceDir, mapOut, template);
+                    return null;
+                }));
+            }
+            Exception error = null;
+            for (Future<Void> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    if (error == null) {
+                        error = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    }
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+        } finally {
+            stop.set(true);
+            executor.shutdownNow();
+        }
+
+        for (String itemName : itemNames) {
+            if (added.containsKey(itemName)) {
+                Item item = itemService.find(c, added.get(itemName));
+                itemFolderMap.put(itemName, item);
+                c.uncacheEntity(item);
+            }
+        }
+    }
+
+    /**
+     * Add the items of a queue on a new context, in a worker thread of {@link #addItemsInParallel}. A worker that
+     * fails sets the stop flag and clears the queue, so that the other workers stop after their current item.
+     */
+    private void addQueuedItems(Queue<String> queue, Map<String, UUID> added, AtomicBoolean stop, UUID ePersonId,
+                                boolean ignoreAuthorization, List<UUID> collectionIds, String sourceDir,
+                                PrintWriter mapOut, boolean template) throws Exception {
+        Context context = new Context(Context.Mode.BATCH_EDIT);
+        try {
+            context.setDispatcher(configurationService.getProperty("org.dspace.app.itemimport.dispatcher",
+                                                                   "bulkedit"));
+            if (ignoreAuthorization) {
+                context.turnOffAuthorisationSystem();
+            }
+            if (ePersonId != null) {
+                context.setCurrentUser(ePersonService.find(context, ePersonId));
+            }
+            int batchSize = configurationService.getIntProperty("org.dspace.app.itemimport.index.batch", 100);
+            Set<UUID> toIndex = new LinkedHashSet<>();
+            String itemName;
+            while (!stop.get() && (itemName = queue.poll()) != null) {
+                List<Collection> clist = new ArrayList<>();
+                if (collectionIds == null) {
+                    String path = sourceDir + File.separatorChar + itemName;
+                    try {
+                        clist = processCollectionFile(context, path, "collections");
+                        if (clist == null) {
+                            logError("No collections specified for item " + itemName + ". Skipping.");
+                            continue;
+                        }
+                    } catch (IllegalArgumentException e) {
+                        logError(e.getMessage() + " Skipping.");
+                        continue;
+                    }
+                } else {
+                    for (UUID collectionId : collectionIds) {
+                        clist.add(collectionService.find(context, collectionId));
+                    }
+                }
+
+                StringWriter mapLine = new StringWriter();
+                Item item;
+                try (PrintWriter mapLineOut = new PrintWriter(mapLine)) {
+                    item = addItem(context, clist, sourceDir, itemName, mapLineOut, template);
+                }
+                context.commit();
+                synchronized (mapOut) {
+                    mapOut.print(mapLine);
+                    mapOut.flush();
+                }
+                added.put(itemName, item.getID());
+                toIndex.add(item.getID());
+                context.uncacheEntities();
+                logInfo(itemName);
+
+                if (toIndex.size() >= batchSize) {
+                    indexItems(context, toIndex);
+                    toIndex.clear();
+                }
+            }
+            indexItems(context, toIndex);
+            context.complete();
+        } catch (Exception e) {
+            stop.set(true);
+            queue.clear();
+            throw e;
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+    }
+
+    /**
+     * Index a batch of items added by a worker of {@link #addItemsInParallel}.
+     *
+     * @param c       the context of the worker
+     * @param itemIds the ids of the items
+     * @throws SQLException if database error
+     */
+    protected void indexItems(Context c, Set<UUID> itemIds) throws SQLException {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        IndexingService indexingService = DSpaceServicesFactory.getInstance().getServiceManager()
+            .getServiceByName(IndexingService.class.getName(), IndexingService.class);
+        try {
+            for (UUID itemId : itemIds) {
+                Item item = itemService.find(c, itemId);
+                for (IndexableObject indexableObject : IndexObjectFactoryFactory.getInstance()
+                                                                                .getIndexableObjects(c, item)) {
+                    indexingService.indexContent(c, indexableObject, true, false);
+                }
+                c.uncacheEntity(item);
+            }
+            indexingService.flush();
+        } catch (IOException | SearchServiceException e) {
+            logWarn("Failed to index " + itemIds.size() + " imported item(s), please run index-discovery", e);
+        }
+    }
+
      /**
       * Add relationships from a 'relationships' manifest file.
       * 
@@ -1388,6 +1587,12 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                     throw new FileNotFoundException("No contents file found");
                 }
             }
+            Path dirPath = dir.toPath().toAbsolutePath().normalize();
+            for (String bitstreamPath : zipBitstreams.keySet()) {
+                if (dirPath.equals(Path.of(bitstreamPath).getParent())) {
+                    throw new FileNotFoundException("No contents file found");
+                }
+            }
 
             logInfo("No contents file found - but only metadata files found. Assuming metadata only.");
         }
@@ -1418,8 +1623,7 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         String fullpath = path + File.separatorChar + fileName;
 
         // get an input stream
-        BufferedInputStream bis = new BufferedInputStream(new FileInputStream(
-            fullpath));
+        BufferedInputStream bis = new BufferedInputStream(openContentFile(fullpath));
 
         Bitstream bs = null;
         String newBundleName = bundleName;
@@ -1470,6 +1674,21 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         bis.close();
     }
 
+    /**
+     * Open a bitstream file of an item, from the zip file if it was not extracted
+     *
+     * @param fullpath the path of the file
+     * @return the content of the file
+     * @throws IOException if IO error
+     */
+    protected InputStream openContentFile(String fullpath) throws IOException {
+        String entryName = zipBitstreams.get(Path.of(fullpath).toAbsolutePath().normalize().toString());
+        if (entryName != null && bitstreamZip != null) {
+            return bitstreamZip.getInputStream(bitstreamZip.getEntry(entryName));
+        }
+        return new FileInputStream(fullpath);
+    }
+
     /**
      * Register the bitstream file into DSpace
      *
@@ -1926,6 +2145,12 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
 
     @Override
     public String unzip(File zipfile, String destDir) throws IOException {
+        return unzip(zipfile, destDir, true);
+    }
+
+    @Override
+    public String unzip(File zipfile, String destDir, boolean extractBitstreams) throws IOException {
+        closeZip();
         // 2
         // does the zip file exist and can we write to the temp directory
         if (!zipfile.canRead()) {
@@ -1973,8 +2198,6 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                         logError("Unable to create contents directory: " + zipDir + entry.getName());
                     }
                 } else {
-                    logInfo("Extracting file: " + entryName);
-
                     int index = entryName.lastIndexOf('/');
                     if (index == -1) {
                         // Was it created on Windows instead?
@@ -2001,6 +2224,12 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                             }
                         }
                     }
+                    if (!extractBitstreams && !isManifestFile(outFile)) {
+                        // read from the zip file when the item is imported
+                        zipBitstreams.put(outFile.toPath().toAbsolutePath().normalize().toString(), entryName);
+                        continue;
+                    }
+                    logInfo("Extracting file: " + entryName);
                     byte[] buffer = new byte[1024];
                     int len;
                     InputStream in = zf.getInputStream(entry);
@@ -2014,8 +2243,12 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                 }
             }
         } finally {
-            //Close zip file
-            zf.close();
+            if (zipBitstreams.isEmpty()) {
+                //Close zip file
+                zf.close();
+            } else {
+                bitstreamZip = zf;
+            }
         }
 
         if (!StringUtils.equals(sourceDirForZip, sourcedir)) {
@@ -2026,6 +2259,28 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         return sourcedir;
     }
 
+    /**
+     * Whether a file of an item directory is one of the files describing the item, rather than a bitstream
+     *
+     * @param file the file
+     * @return true for the dublin_core.xml, metadata_*.xml, contents, collections, handle and relationships files
+     */
+    protected boolean isManifestFile(File file) {
+        String name = file.getName();
+        return "dublin_core.xml".equals(name) || "contents".equals(name) || "collections".equals(name)
+            || "handle".equals(name) || "relationships".equals(name)
+            || metadataFileFilter.accept(file.getParentFile(), name);
+    }
+
+    @Override
+    public void closeZip() throws IOException {
+        zipBitstreams.clear();
+        if (bitstreamZip != null) {
+            bitstreamZip.close();
+            bitstreamZip = null;
+        }
+    }
+
     @Override
     public String unzip(String sourcedir, String zipfilename) throws IOException {
         File zipfile = new File(sourcedir + File.separator + zipfilename);
@@ -2379,6 +2634,11 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         this.isQuiet = isQuiet;
     }
 
+    @Override
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     @Override
     public void setHandler(DSpaceRunnableHandler handler) {
         this.handler = handler;
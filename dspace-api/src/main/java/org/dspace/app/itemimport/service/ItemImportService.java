@@ -80,6 +80,27 @@ public interface ItemImportService {
      */
     public String unzip(File zipfile, String destDir) throws IOException;
 
+    /**
+     * Unzip a file to a destination, optionally leaving the bitstreams in the zip file: only the metadata, contents,
+     * collections, handle and relationships files are extracted then, and the bitstreams are read from the zip file
+     * straight into the assetstore when the items are imported, until {@link #closeZip()} is called.
+     *
+     * @param zipfile           file
+     * @param destDir           destination directory
+     * @param extractBitstreams whether to extract the bitstreams too
+     * @return unzip location
+     * @throws IOException if error
+     */
+    public String unzip(File zipfile, String destDir, boolean extractBitstreams) throws IOException;
+
+    /**
+     * Close the zip file the bitstreams are read from, if they were left in it by
+     * {@link #unzip(File, String, boolean)}
+     *
+     * @throws IOException if error
+     */
+    public void closeZip() throws IOException;
+
     /**
      * Unzip a file in a specific source directory
      *
@@ -244,6 +265,13 @@ public interface ItemImportService {
      */
     public void setQuiet(boolean isQuiet);
 
+    /**
+     * Set the number of items added at once, each worker thread importing items on its own context
+     *
+     * @param threads number of worker threads, 1 to add the items one at a time
+     */
+    public void setThreads(int threads);
+
     /**
      * Set the DSpace Runnable Handler
      * @param handler
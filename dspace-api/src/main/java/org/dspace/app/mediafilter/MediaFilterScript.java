@@ -59,6 +59,7 @@ public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfigura
     private boolean isForce = false; // default to not forced
     private String identifier = null; // object scope limiter
     private int max2Process = Integer.MAX_VALUE;
+    private int workers = 1;
     private String[] filterNames;
     private String[] skipIds = null;
     private Map<String, List<String>> filterFormats = new HashMap<>();
@@ -100,6 +101,18 @@ public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfigura
             }
         }
 
+        if (commandLine.hasOption('w')) {
+            try {
+                workers = Integer.parseInt(commandLine.getOptionValue('w'));
+            } catch (NumberFormatException e) {
+                workers = 0;
+            }
+            if (workers < 1) {
+                handler.logError("Bad number of workers '" + commandLine.getOptionValue('w') + "'");
+                throw new IllegalArgumentException("Bad number of workers '" + commandLine.getOptionValue('w') + "'");
+            }
+        }
+
         if (commandLine.hasOption('p')) {
             //specified which media filter plugins we are using
             filterNames = commandLine.getOptionValues('p');
@@ -134,6 +147,7 @@ public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfigura
         mediaFilterService.setQuiet(isQuiet);
         mediaFilterService.setVerbose(isVerbose);
         mediaFilterService.setMax2Process(max2Process);
+        mediaFilterService.setThreads(workers);
 
         //initialize an array of our enabled filters
         List<FormatFilter> filterList = new ArrayList<>();
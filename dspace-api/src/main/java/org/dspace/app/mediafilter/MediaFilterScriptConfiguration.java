@@ -54,6 +54,9 @@ public class MediaFilterScriptConfiguration<T extends MediaFilterScript> extends
 
         options.addOption("d", "fromdate", true, "Process only item from specified last modified date");
 
+        options.addOption("w", "workers", true,
+                          "number of threads filtering the items at the same time. If absent, 1 applies");
+
         Option skipOption = Option.builder("s")
                                   .longOpt("skip")
                                   .hasArg()
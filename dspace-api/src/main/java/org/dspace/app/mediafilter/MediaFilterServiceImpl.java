@@ -17,6 +17,18 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -55,6 +67,9 @@ import org.springframework.beans.factory.annotation.Autowired;
  * recreate index after processing bitstreams; -i [identifier] limits processing
  * scope to a community, collection or item; and -m [max] limits processing to a
  * maximum number of items.
+ * <p>
+ * The items may be filtered by several workers, see {@link #setThreads(int)}. The number of bitstreams converted at
+ * the same time by a filter is then limited by its {@code filter.<class name>.maxThreads} property.
  */
 public class MediaFilterServiceImpl implements MediaFilterService, InitializingBean {
     @Autowired(required = true)
@@ -82,7 +97,16 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
 
     protected int processed = 0;   // number items processed
 
-    protected Item currentItem = null;   // current item being processed
+    // current item being processed, by each worker
+    protected final ThreadLocal<Item> currentItem = new ThreadLocal<>();
+
+    protected int threads = 1;   // number of workers filtering the items
+
+    // limits the number of bitstreams converted at the same time by each filter class, when there are several workers
+    protected final Map<String, Semaphore> filterPermits = new ConcurrentHashMap<>();
+
+    // marks the end of the items queued for the workers
+    private static final UUID END_OF_ITEMS = new UUID(0, 0);
 
     protected List<FormatFilter> filterClasses = null;
 
@@ -129,15 +153,11 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
                             context,
                             fromDate.atStartOfDay(ZoneId.systemDefault()).toInstant()
                     );
-            while (itemIterator.hasNext() && processed < max2Process) {
-                applyFiltersItem(context, itemIterator.next());
-            }
+            applyFiltersItems(context, itemIterator);
         } else {
             //otherwise, just find every item and process
             Iterator<Item> itemIterator = itemService.findAll(context);
-            while (itemIterator.hasNext() && processed < max2Process) {
-                applyFiltersItem(context, itemIterator.next());
-            }
+            applyFiltersItems(context, itemIterator);
         }
     }
 
@@ -172,29 +192,161 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         //only apply filters if collection not in skip-list
         if (!inSkipList(collection.getHandle())) {
             Iterator<Item> itemIterator = itemService.findAllByCollection(context, collection);
-            while (itemIterator.hasNext() && processed < max2Process) {
-                applyFiltersItem(context, itemIterator.next());
+            applyFiltersItems(context, itemIterator);
+        }
+    }
+
+    /**
+     * Apply the filters to the items, until the maximum number of items is processed. The items are filtered by
+     * several workers if there is more than one thread, see {@link #setThreads(int)}.
+     *
+     * @param context context
+     * @param items   the items to filter
+     * @throws Exception if error
+     */
+    protected void applyFiltersItems(Context context, Iterator<Item> items) throws Exception {
+        if (threads > 1) {
+            applyFiltersItemsInParallel(context, items);
+            return;
+        }
+        while (items.hasNext() && processed < max2Process) {
+            applyFiltersItem(context, items.next());
+        }
+    }
+
+    /**
+     * Apply the filters to the items with several workers. The items are queued by the calling thread and filtered
+     * by the workers, with their own Context. The maximum number of items to process may be exceeded by the items
+     * already queued.
+     */
+    private void applyFiltersItemsInParallel(Context context, Iterator<Item> items) throws Exception {
+        BlockingQueue<UUID> queue = new ArrayBlockingQueue<>(threads * 100);
+        AtomicInteger filtered = new AtomicInteger();
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    try {
+                        runWorker(context, queue, filtered, stop);
+                    } catch (Exception e) {
+                        stop.set(true);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            while (items.hasNext() && processed + filtered.get() < max2Process && !stop.get()) {
+                Item item = items.next();
+                if (!inSkipList(item.getHandle())) {
+                    offer(queue, item.getID(), stop);
+                }
+                context.uncacheEntity(item);
+            }
+            // one end marker per worker
+            for (int i = 0; i < threads; i++) {
+                offer(queue, END_OF_ITEMS, stop);
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        } finally {
+            stop.set(true);
+            executor.shutdownNow();
+            processed += filtered.get();
+        }
+    }
+
+    private void offer(BlockingQueue<UUID> queue, UUID itemId, AtomicBoolean stop) throws InterruptedException {
+        while (!stop.get() && !queue.offer(itemId, 1, TimeUnit.SECONDS)) {
+            // wait for the workers
+        }
+    }
+
+    /**
+     * Filter the queued items with a new Context, in a worker thread of {@link #applyFiltersItemsInParallel}. The
+     * items are committed in batches of {@code filter.commit.batch} items.
+     */
+    private void runWorker(Context context, BlockingQueue<UUID> queue, AtomicInteger filtered, AtomicBoolean stop)
+        throws Exception {
+        int batchSize = Math.max(configurationService.getIntProperty("filter.commit.batch", 20), 1);
+        Context workerContext = new Context(context.getCurrentMode());
+        try {
+            if (context.getCurrentUser() != null) {
+                workerContext.setCurrentUser(workerContext.reloadEntity(context.getCurrentUser()));
+            }
+            if (context.ignoreAuthorization()) {
+                workerContext.turnOffAuthorisationSystem();
+            }
+            List<Item> batch = new ArrayList<>();
+            while (!stop.get()) {
+                UUID itemId = queue.poll(1, TimeUnit.SECONDS);
+                if (itemId == null) {
+                    continue;
+                }
+                if (itemId == END_OF_ITEMS) {
+                    break;
+                }
+                Item item = itemService.find(workerContext, itemId);
+                if (item == null) {
+                    continue;
+                }
+                currentItem.set(item);
+                try {
+                    if (filterItem(workerContext, item)) {
+                        filtered.incrementAndGet();
+                    }
+                } finally {
+                    currentItem.remove();
+                }
+                batch.add(item);
+                if (batch.size() >= batchSize) {
+                    commit(workerContext, batch);
+                }
+            }
+            commit(workerContext, batch);
+            workerContext.complete();
+        } finally {
+            if (workerContext.isValid()) {
+                workerContext.abort();
             }
         }
     }
 
+    private void commit(Context context, List<Item> items) throws SQLException {
+        context.commit();
+        for (Item item : items) {
+            context.uncacheEntity(item);
+        }
+        items.clear();
+    }
+
     @Override
     public void applyFiltersItem(Context c, Item item) throws Exception {
         //only apply filters if item not in skip-list
         if (!inSkipList(item.getHandle())) {
             //cache this item in MediaFilterManager
             //so it can be accessed by MediaFilters as necessary
-            currentItem = item;
+            currentItem.set(item);
 
-            if (filterItem(c, item)) {
-                // increment processed count
-                ++processed;
+            try {
+                if (filterItem(c, item)) {
+                    // increment processed count
+                    ++processed;
+                }
+                // clear item objects from context cache and internal cache
+                c.uncacheEntity(item);
+                // commit after each item to release DB resources
+                c.commit();
+            } finally {
+                currentItem.remove();
             }
-            // clear item objects from context cache and internal cache
-            c.uncacheEntity(currentItem);
-            // commit after each item to release DB resources
-            c.commit();
-            currentItem = null;
         }
     }
 
@@ -370,7 +522,7 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
                 InputStream srcStream = bitstreamService.retrieve(context, source);
                 // filter the source stream to produce the destination stream
                 // this is the hard work, check for OutOfMemoryErrors at the end of the try clause.
-                InputStream destStream = formatFilter.getDestinationStream(item, srcStream, isVerbose);
+                InputStream destStream = getDestinationStream(item, srcStream, formatFilter);
         ) {
             if (destStream == null) {
                 if (!isQuiet) {
@@ -426,6 +578,33 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         return true;
     }
 
+    /**
+     * Filter the source stream. When the items are filtered by several workers, wait for one of the permits of the
+     * filter class, so that no more than {@code filter.<class name>.maxThreads} bitstreams are converted at the same
+     * time by the filter, e.g. by external ImageMagick processes.
+     *
+     * @param item         item containing the source bitstream
+     * @param source       the source stream
+     * @param formatFilter FormatFilter to perform filtering
+     * @return the destination stream, or null if filtering was unsuccessful
+     * @throws Exception if error occurs
+     */
+    protected InputStream getDestinationStream(Item item, InputStream source, FormatFilter formatFilter)
+        throws Exception {
+        if (threads <= 1) {
+            return formatFilter.getDestinationStream(item, source, isVerbose);
+        }
+        Semaphore permits = filterPermits.computeIfAbsent(formatFilter.getClass().getName(), filterClassName ->
+            new Semaphore(Math.max(configurationService.getIntProperty("filter." + filterClassName + ".maxThreads",
+                                                                       threads), 1)));
+        permits.acquire();
+        try {
+            return formatFilter.getDestinationStream(item, source, isVerbose);
+        } finally {
+            permits.release();
+        }
+    }
+
     @Override
     public void updatePoliciesOfDerivativeBitstreams(Context context, Item item, Bitstream source)
         throws SQLException, AuthorizeException {
@@ -493,7 +672,7 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
 
     @Override
     public Item getCurrentItem() {
-        return currentItem;
+        return currentItem.get();
     }
 
     @Override
@@ -539,21 +718,21 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         return sb.toString();
     }
 
-    private void logInfo(String message) {
+    private synchronized void logInfo(String message) {
         if (handler != null) {
             handler.logInfo(message);
         } else {
             System.out.println(message);
         }
     }
-    private void logError(String message) {
+    private synchronized void logError(String message) {
         if (handler != null) {
             handler.logError(message);
         } else {
             System.out.println(message);
         }
     }
-    private void logError(String message, Exception e) {
+    private synchronized void logError(String message, Exception e) {
         if (handler != null) {
             handler.logError(message, e);
         } else {
@@ -581,6 +760,12 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         this.max2Process = max2Process;
     }
 
+    @Override
+    public void setThreads(int threads) {
+        this.threads = threads;
+        filterPermits.clear();
+    }
+
     @Override
     public void setFilterClasses(List<FormatFilter> filterClasses) {
         this.filterClasses = filterClasses;
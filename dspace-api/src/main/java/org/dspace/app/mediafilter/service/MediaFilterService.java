@@ -139,6 +139,15 @@ public interface MediaFilterService {
 
     public void setMax2Process(int max2Process);
 
+    /**
+     * Set the number of workers filtering the items of a community, a collection or the whole repository at the
+     * same time, each with its own Context. The filtered items are committed in batches of
+     * {@code filter.commit.batch} items. With one thread, the items are filtered one by one and each is committed.
+     *
+     * @param threads the number of workers
+     */
+    public void setThreads(int threads);
+
     public void setFilterClasses(List<FormatFilter> filterClasses);
 
     public void setSkipList(List<String> skipList);
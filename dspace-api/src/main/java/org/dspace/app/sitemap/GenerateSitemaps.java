@@ -180,18 +180,19 @@ public class GenerateSitemaps {
         }
 
         Context c = new Context(Context.Mode.READ_ONLY);
-        int offset = 0;
         long commsCount = 0;
         long collsCount = 0;
         long itemsCount = 0;
 
         try {
+            // the pages are read with a cursor, which finds the deep pages as fast as the first ones
+            DiscoverResult discoverResult;
             DiscoverQuery discoveryQuery = new DiscoverQuery();
             discoveryQuery.setMaxResults(PAGE_SIZE);
             discoveryQuery.setQuery("search.resourcetype:Community");
+            discoveryQuery.setCursorMark(DiscoverQuery.CURSOR_MARK_START);
             do {
-                discoveryQuery.setStart(offset);
-                DiscoverResult discoverResult = searchService.search(c, discoveryQuery);
+                discoverResult = searchService.search(c, discoveryQuery);
                 List<IndexableObject> docs = discoverResult.getIndexableObjects();
                 commsCount = discoverResult.getTotalSearchResults();
 
@@ -206,16 +207,14 @@ public class GenerateSitemaps {
                         sitemapsOrg.addURL(url, null);
                     }
                 }
-                offset += PAGE_SIZE;
-            } while (offset < commsCount);
+            } while (nextPage(discoveryQuery, discoverResult));
 
-            offset = 0;
             discoveryQuery = new DiscoverQuery();
             discoveryQuery.setMaxResults(PAGE_SIZE);
             discoveryQuery.setQuery("search.resourcetype:Collection");
+            discoveryQuery.setCursorMark(DiscoverQuery.CURSOR_MARK_START);
             do {
-                discoveryQuery.setStart(offset);
-                DiscoverResult discoverResult = searchService.search(c, discoveryQuery);
+                discoverResult = searchService.search(c, discoveryQuery);
                 List<IndexableObject> docs = discoverResult.getIndexableObjects();
                 collsCount = discoverResult.getTotalSearchResults();
 
@@ -230,18 +229,15 @@ public class GenerateSitemaps {
                         sitemapsOrg.addURL(url, null);
                     }
                 }
-                offset += PAGE_SIZE;
-            } while (offset < collsCount);
+            } while (nextPage(discoveryQuery, discoverResult));
 
-            offset = 0;
             discoveryQuery = new DiscoverQuery();
             discoveryQuery.setMaxResults(PAGE_SIZE);
             discoveryQuery.setQuery("search.resourcetype:Item");
             discoveryQuery.addSearchField("search.entitytype");
+            discoveryQuery.setCursorMark(DiscoverQuery.CURSOR_MARK_START);
             do {
-
-                discoveryQuery.setStart(offset);
-                DiscoverResult discoverResult = searchService.search(c, discoveryQuery);
+                discoverResult = searchService.search(c, discoveryQuery);
                 List<IndexableObject> docs = discoverResult.getIndexableObjects();
                 itemsCount = discoverResult.getTotalSearchResults();
 
@@ -264,8 +260,7 @@ public class GenerateSitemaps {
                         sitemapsOrg.addURL(url, null);
                     }
                 }
-                offset += PAGE_SIZE;
-            } while (offset < itemsCount);
+            } while (nextPage(discoveryQuery, discoverResult));
 
             if (makeHTMLMap) {
                 int files = html.finish();
@@ -288,4 +283,20 @@ public class GenerateSitemaps {
             c.abort();
         }
     }
+
+    /**
+     * Moves the cursor of the query to the page after the given result.
+     *
+     * @param discoveryQuery the query paged with a cursor
+     * @param discoverResult the result of the query
+     * @return false if the result was the last page
+     */
+    private static boolean nextPage(DiscoverQuery discoveryQuery, DiscoverResult discoverResult) {
+        String nextCursorMark = discoverResult.getNextCursorMark();
+        if (nextCursorMark == null || nextCursorMark.equals(discoveryQuery.getCursorMark())) {
+            return false;
+        }
+        discoveryQuery.setCursorMark(nextCursorMark);
+        return true;
+    }
 }
@@ -0,0 +1,112 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.authorize.factory.AuthorizeServiceFactory;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.event.Consumer;
+import org.dspace.event.Event;
+
+/**
+ * Consumer invalidating the decisions of the {@link AuthorizationDecisionCache} affected by the events.
+ * <p>
+ * Changes of items, bundles and bitstreams (including their policies) invalidate the decisions about those objects,
+ * and changes of an item also the decisions about its bundles and bitstreams. Changes of the group memberships of
+ * an EPerson invalidate the decisions about that EPerson. Any other change of a group, or a change of a community,
+ * collection or the site, which may be inherited by many objects, invalidates all decisions.
+ */
+public class AuthorizationCacheConsumer implements Consumer {
+
+    private static final Logger log = LogManager.getLogger(AuthorizationCacheConsumer.class);
+
+    private AuthorizationDecisionCache cache;
+
+    // Ids of the objects and EPersons whose decisions are invalidated at the end of the event window
+    private final Set<UUID> toInvalidate = new HashSet<>();
+
+    // When true all decisions are invalidated
+    private boolean invalidateAll = false;
+
+    @Override
+    public void initialize() throws Exception {
+        cache = AuthorizeServiceFactory.getInstance().getAuthorizationDecisionCache();
+    }
+
+    @Override
+    public void consume(Context ctx, Event event) throws Exception {
+        if (!cache.isEnabled() || invalidateAll) {
+            return;
+        }
+        int eventType = event.getEventType();
+        switch (event.getSubjectType()) {
+            case Constants.ITEM:
+            case Constants.BUNDLE:
+            case Constants.BITSTREAM:
+                addToInvalidate(event.getSubjectID());
+                addToInvalidate(event.getObjectID());
+                break;
+            case Constants.EPERSON:
+                if (eventType == Event.DELETE) {
+                    addToInvalidate(event.getSubjectID());
+                }
+                break;
+            case Constants.GROUP:
+                if ((eventType == Event.ADD || eventType == Event.REMOVE)
+                    && event.getObjectType() == Constants.EPERSON) {
+                    addToInvalidate(event.getObjectID());
+                } else if (eventType != Event.CREATE) {
+                    invalidateAll = true;
+                }
+                break;
+            default:
+                // Community, collection or site: items added or removed only affect the decisions about the item
+                if ((eventType == Event.ADD || eventType == Event.REMOVE)
+                    && event.getObjectType() == Constants.ITEM) {
+                    addToInvalidate(event.getObjectID());
+                } else if (eventType != Event.CREATE) {
+                    invalidateAll = true;
+                }
+                break;
+        }
+    }
+
+    private void addToInvalidate(UUID id) {
+        if (id != null) {
+            toInvalidate.add(id);
+        }
+    }
+
+    @Override
+    public void end(Context ctx) throws Exception {
+        // The events are dispatched before the changes are committed, so the decisions are invalidated again after
+        // the commit
+        if (invalidateAll) {
+            log.debug("Invalidating all cached authorization decisions");
+            cache.invalidate(ctx, cache::invalidateAll);
+        } else if (!toInvalidate.isEmpty()) {
+            List<UUID> ids = new ArrayList<>(toInvalidate);
+            cache.invalidate(ctx, () -> ids.forEach(cache::invalidate));
+        }
+        invalidateAll = false;
+        toInvalidate.clear();
+    }
+
+    @Override
+    public void finish(Context ctx) throws Exception {
+
+    }
+}
@@ -0,0 +1,356 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.dspace.content.Bundle;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.eperson.EPerson;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Cache of authorization decisions shared by all contexts, unlike the read-only cache of a single
+ * {@link Context}. A decision is cached per DSpace object, action, EPerson and special groups of the context.
+ * <p>
+ * Cached decisions are invalidated by the {@link ResourcePolicyServiceImpl} when the policies of an object change,
+ * and by the {@link AuthorizationCacheConsumer} when objects or the group memberships of an EPerson change.
+ * Invalidation is tracked with a version counter: a decision is only returned if it was computed after the last
+ * invalidation of its object, of the item owning the object (its scope) and of its EPerson. Decisions computed
+ * while an invalidation happened are thus never returned. As another context may still compute a decision from the
+ * old policies until the change is committed, the decisions are invalidated again once the transaction of the
+ * change is committed, see {@link #invalidate(Context, Runnable)}. Decisions also expire after a configurable time,
+ * as policies can have start and end dates.
+ * <p>
+ * The cache is only used by contexts without pending events, so a context never sees decisions made before its
+ * own uncommitted changes. It is disabled by default, see {@code authorization.cache.enabled}.
+ * <p>
+ * The cache is local to the JVM: changes made by another JVM sharing the database, such as a command line script
+ * revoking a policy, are not seen by this cache until its decisions expire.
+ */
+public class AuthorizationDecisionCache implements InitializingBean {
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    private boolean enabled;
+    private int maxSize;
+    private long ttlNanos;
+
+    /**
+     * The cached decisions, in least recently used order. Guarded by itself.
+     */
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    /**
+     * Incremented by each invalidation.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * The version of the last invalidation of all decisions.
+     */
+    private volatile long clearedVersion;
+
+    /**
+     * The version of the last invalidation of each object, scope or EPerson.
+     */
+    private final Map<UUID, Long> invalidatedVersions = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    protected AuthorizationDecisionCache() {
+    }
+
+    /**
+     * Create a cache with the given settings, ignoring the configuration.
+     *
+     * @param maxSize    the maximum number of cached decisions
+     * @param ttlSeconds the time in seconds after which a decision expires
+     */
+    AuthorizationDecisionCache(int maxSize, long ttlSeconds) {
+        this.enabled = true;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        enabled = configurationService.getBooleanProperty("authorization.cache.enabled", false);
+        maxSize = configurationService.getIntProperty("authorization.cache.maxSize", 10000);
+        ttlNanos = TimeUnit.SECONDS.toNanos(configurationService.getLongProperty("authorization.cache.ttl", 300));
+    }
+
+    /**
+     * @return whether the cache is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether the given context can use the cache: it must be enabled and the context may not have pending events,
+     * which would mean uncommitted changes that may affect its decisions.
+     *
+     * @param context the DSpace context
+     * @return true if the cache can be used
+     */
+    public boolean isUsable(Context context) {
+        return enabled && !context.hasEvents();
+    }
+
+    /**
+     * Build the key of an authorization decision.
+     *
+     * @param context        the DSpace context, providing the special groups
+     * @param dso            the object to authorize
+     * @param action         the action to authorize
+     * @param eperson        the EPerson to authorize, null for anonymous
+     * @param useInheritance whether admin rights inherited from parent objects are considered
+     * @return the key
+     */
+    public Key getKey(Context context, DSpaceObject dso, int action, EPerson eperson, boolean useInheritance) {
+        return new Key(dso.getID(), action, useInheritance, eperson == null ? null : eperson.getID(),
+                       Set.copyOf(context.getSpecialGroupUuids()));
+    }
+
+    /**
+     * Get a cached decision.
+     *
+     * @param key the key of the decision
+     * @return the decision, or null if it is not cached (anymore)
+     */
+    public Boolean get(Key key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && !isValid(key, entry)) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.decision;
+    }
+
+    /**
+     * @return the current version, to be passed to {@link #put(Key, UUID, boolean, long)} once the decision is
+     * computed
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Cache a decision, unless an invalidation happened since its computation started.
+     *
+     * @param key      the key of the decision
+     * @param scope    the id of the item owning the object, or null
+     * @param decision the decision
+     * @param version  the version returned by {@link #getVersion()} before computing the decision
+     */
+    public void put(Key key, UUID scope, boolean decision, long version) {
+        Entry entry = new Entry(decision, version, scope, System.nanoTime());
+        synchronized (entries) {
+            if (isValid(key, entry)) {
+                entries.put(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Invalidate the decisions about an object, about the objects owned by an item, or about an EPerson.
+     *
+     * @param id the id of the object, item or EPerson
+     */
+    public void invalidate(UUID id) {
+        invalidations.incrementAndGet();
+        invalidatedVersions.put(id, version.incrementAndGet());
+        if (invalidatedVersions.size() > maxSize) {
+            // Keep the bookkeeping bounded
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Invalidate decisions now, and again once the transaction of the given context is committed. Until then other
+     * contexts still read the old committed state, so they may compute and cache decisions from it after the first
+     * invalidation.
+     *
+     * @param context      the context making the change
+     * @param invalidation the invalidation
+     */
+    public void invalidate(Context context, Runnable invalidation) {
+        if (!enabled) {
+            return;
+        }
+        invalidation.run();
+        context.runAfterCommit(invalidation);
+    }
+
+    /**
+     * Invalidate the decisions affected by a change of the policies of an object, whatever its type, now and once
+     * the change is committed. The policies of a bitstream or an item affect the decisions about that object, and
+     * those of an item also the decisions about its bundles and bitstreams. The policies of a bundle may be inherited
+     * by its bitstreams, so the decisions about the objects of its items are invalidated. The policies of the other
+     * objects, such as the site, a community or a collection, may be inherited by many objects, so all decisions are
+     * invalidated.
+     *
+     * @param context the context changing the policies
+     * @param dso     the object whose policies changed
+     */
+    public void invalidatePolicies(Context context, DSpaceObject dso) {
+        if (!enabled) {
+            return;
+        }
+        List<UUID> ids = new ArrayList<>();
+        switch (dso.getType()) {
+            case Constants.BITSTREAM:
+            case Constants.ITEM:
+                ids.add(dso.getID());
+                break;
+            case Constants.BUNDLE:
+                ids.add(dso.getID());
+                for (Item item : ((Bundle) dso).getItems()) {
+                    ids.add(item.getID());
+                }
+                break;
+            default:
+                invalidate(context, this::invalidateAll);
+                return;
+        }
+        invalidate(context, () -> ids.forEach(this::invalidate));
+    }
+
+    /**
+     * Invalidate all decisions.
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        clearedVersion = version.incrementAndGet();
+        invalidatedVersions.clear();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private boolean isValid(Key key, Entry entry) {
+        return System.nanoTime() - entry.created < ttlNanos
+            && entry.version >= clearedVersion
+            && entry.version >= invalidatedVersions.getOrDefault(key.objectId, 0L)
+            && (entry.scope == null || entry.version >= invalidatedVersions.getOrDefault(entry.scope, 0L))
+            && (key.epersonId == null || entry.version >= invalidatedVersions.getOrDefault(key.epersonId, 0L));
+    }
+
+    /**
+     * @return the number of decisions found in the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of decisions not found in the cache
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of invalidations
+     */
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * @return the number of cached decisions, including the ones which were invalidated but not removed yet
+     */
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * The key of a cached decision.
+     */
+    public static final class Key {
+        private final UUID objectId;
+        private final int action;
+        private final boolean useInheritance;
+        private final UUID epersonId;
+        private final Set<UUID> specialGroups;
+
+        Key(UUID objectId, int action, boolean useInheritance, UUID epersonId, Set<UUID> specialGroups) {
+            this.objectId = objectId;
+            this.action = action;
+            this.useInheritance = useInheritance;
+            this.epersonId = epersonId;
+            this.specialGroups = specialGroups;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return action == other.action && useInheritance == other.useInheritance
+                && objectId.equals(other.objectId) && Objects.equals(epersonId, other.epersonId)
+                && specialGroups.equals(other.specialGroups);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(objectId, action, useInheritance, epersonId, specialGroups);
+        }
+    }
+
+    private static final class Entry {
+        private final boolean decision;
+        private final long version;
+        private final UUID scope;
+        private final long created;
+
+        private Entry(boolean decision, long version, UUID scope, long created) {
+            this.decision = decision;
+            this.version = version;
+            this.scope = scope;
+            this.created = created;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import org.dspace.content.DSpaceObject;
+import org.dspace.core.Context;
+import org.dspace.eperson.EPerson;
+
+/**
+ * The groups of an EPerson and the policies of a set of objects, loaded at once to check many authorizations on
+ * these objects (e.g. all the features of a page of search results) without querying them again for each check.
+ * <p>
+ * A snapshot is kept by the {@link Context} which loaded it, see
+ * {@link org.dspace.authorize.service.AuthorizeService#loadAuthorizationSnapshot(Context, List)}. It is ignored
+ * as soon as the context has changes, or for another EPerson or other special groups than it was loaded for.
+ */
+public class AuthorizationSnapshot {
+
+    private final UUID ePersonId;
+    private final UUID currentUserId;
+    private final Set<UUID> specialGroupIds;
+    private final Set<UUID> groupIds;
+    private final boolean admin;
+    // policies by object id and action, for all the objects of the snapshot
+    private final Map<UUID, Map<Integer, List<ResourcePolicy>>> policies = new HashMap<>();
+
+    /**
+     * @param context   the context the snapshot is loaded for
+     * @param ePerson   the EPerson whose authorizations are checked, null for anonymous
+     * @param groupIds  the ids of all the groups the EPerson is a member of, including the special groups
+     * @param admin     whether the EPerson is an administrator
+     * @param objectIds the ids of the objects whose policies are given
+     * @param policies  the policies of these objects
+     */
+    public AuthorizationSnapshot(Context context, EPerson ePerson, Set<UUID> groupIds, boolean admin,
+                                 Collection<UUID> objectIds, Collection<ResourcePolicy> policies) {
+        this.ePersonId = ePerson == null ? null : ePerson.getID();
+        this.currentUserId = context.getCurrentUser() == null ? null : context.getCurrentUser().getID();
+        this.specialGroupIds = new HashSet<>(context.getSpecialGroupUuids());
+        this.groupIds = Set.copyOf(groupIds);
+        this.admin = admin;
+        for (UUID objectId : objectIds) {
+            this.policies.put(objectId, new HashMap<>());
+        }
+        for (ResourcePolicy policy : policies) {
+            this.policies.get(policy.getdSpaceObject().getID())
+                         .computeIfAbsent(policy.getAction(), action -> new ArrayList<>())
+                         .add(policy);
+        }
+    }
+
+    /**
+     * @param context the current context
+     * @param ePerson the EPerson whose authorizations are checked, null for anonymous
+     * @return whether the snapshot was loaded for this EPerson and the current user and special groups of the context
+     */
+    public boolean isValidFor(Context context, EPerson ePerson) {
+        UUID currentUser = context.getCurrentUser() == null ? null : context.getCurrentUser().getID();
+        return Objects.equals(ePersonId, ePerson == null ? null : ePerson.getID())
+            && Objects.equals(currentUserId, currentUser)
+            && specialGroupIds.equals(new HashSet<>(context.getSpecialGroupUuids()));
+    }
+
+    /**
+     * @param groupId the id of a group
+     * @return whether the EPerson is a member of the group, directly, through a subgroup or as a special group
+     */
+    public boolean isMember(UUID groupId) {
+        return groupIds.contains(groupId);
+    }
+
+    /**
+     * @return whether the EPerson is an administrator
+     */
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    /**
+     * @param o      the object
+     * @param action the action
+     * @return the policies of the object for this action, or null if the policies of the object are not in the
+     * snapshot
+     */
+    public List<ResourcePolicy> getPolicies(DSpaceObject o, int action) {
+        Map<Integer, List<ResourcePolicy>> objectPolicies = policies.get(o.getID());
+        if (objectPolicies == null) {
+            return null;
+        }
+        return objectPolicies.getOrDefault(action, List.of());
+    }
+}
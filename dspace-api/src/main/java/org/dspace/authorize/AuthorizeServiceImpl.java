@@ -14,7 +14,9 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -83,6 +85,8 @@ public class AuthorizeServiceImpl implements AuthorizeService {
     protected WorkflowItemService workflowItemService;
     @Autowired(required = true)
     private SearchService searchService;
+    @Autowired(required = true)
+    protected AuthorizationDecisionCache authorizationDecisionCache;
 
 
     protected AuthorizeServiceImpl() {
@@ -251,6 +255,40 @@ public class AuthorizeServiceImpl implements AuthorizeService {
             return cachedResult;
         }
 
+        if (!authorizationDecisionCache.isUsable(c)) {
+            return authorizePolicies(c, o, action, e, useInheritance);
+        }
+        // If the same decision was made by another context
+        AuthorizationDecisionCache.Key key = authorizationDecisionCache.getKey(c, o, action, e, useInheritance);
+        Boolean sharedResult = authorizationDecisionCache.get(key);
+        if (sharedResult != null) {
+            c.cacheAuthorizedAction(o, action, e, sharedResult, null);
+            return sharedResult;
+        }
+        long version = authorizationDecisionCache.getVersion();
+        boolean result = authorizePolicies(c, o, action, e, useInheritance);
+        authorizationDecisionCache.put(key, getCacheScope(c, o), result, version);
+        return result;
+    }
+
+    /**
+     * Check the policies of an object, and the admin rights of the EPerson, to decide whether the EPerson may
+     * perform an action. Called by {@link #authorize(Context, DSpaceObject, int, EPerson, boolean)} when the
+     * decision is not cached.
+     *
+     * @param c              current context
+     * @param o              object action is being attempted on
+     * @param action         ID of action being attempted, from
+     *                       <code>org.dspace.core.Constants</code>
+     * @param e              user attempting action
+     * @param useInheritance flag to say if ADMIN action on the current object or parent
+     *                       object can be used
+     * @return <code>true</code> if user is authorized to perform the given
+     * action, <code>false</code> otherwise
+     * @throws SQLException if database error
+     */
+    protected boolean authorizePolicies(Context c, DSpaceObject o, int action, EPerson e, boolean useInheritance)
+        throws SQLException {
         // is eperson set? if not, userToCheck = null (anonymous)
         EPerson userToCheck = null;
         if (e != null) {
@@ -340,6 +378,25 @@ public class AuthorizeServiceImpl implements AuthorizeService {
         return false;
     }
 
+    /**
+     * Get the scope of a cached authorization decision about an object: the item owning a bundle or bitstream, so
+     * the decision is invalidated when the item changes.
+     *
+     * @param c the current context
+     * @param o the object
+     * @return the id of the owning item, or null
+     * @throws SQLException if database error
+     */
+    protected UUID getCacheScope(Context c, DSpaceObject o) throws SQLException {
+        DSpaceObject parent = null;
+        if (o instanceof Bitstream) {
+            parent = bitstreamService.getParentObject(c, (Bitstream) o);
+        } else if (o instanceof Bundle && !((Bundle) o).getItems().isEmpty()) {
+            parent = ((Bundle) o).getItems().get(0);
+        }
+        return parent instanceof Item ? parent.getID() : null;
+    }
+
     // check whether any bundle belongs to any item that passed submission
     // and workflow process
     protected boolean isAnyItemInstalled(Context ctx, List<Bundle> bundles)
@@ -450,9 +507,12 @@ public class AuthorizeServiceImpl implements AuthorizeService {
 
         if (e == null) {
             return false; // anonymous users can't be admins....
-        } else {
-            return groupService.isMember(c, e, c.getAdminGroup());
         }
+        AuthorizationSnapshot snapshot = c.getAuthorizationSnapshot();
+        if (snapshot != null && snapshot.isValidFor(c, e)) {
+            return snapshot.isAdmin();
+        }
+        return groupService.isMember(c, e, c.getAdminGroup());
     }
 
     ///////////////////////////////////////////////
@@ -504,9 +564,34 @@ public class AuthorizeServiceImpl implements AuthorizeService {
     @Override
     public List<ResourcePolicy> getPoliciesActionFilter(Context c, DSpaceObject o,
                                                         int actionID) throws SQLException {
+        AuthorizationSnapshot snapshot = c.getAuthorizationSnapshot();
+        List<ResourcePolicy> policies = snapshot == null ? null : snapshot.getPolicies(o, actionID);
+        if (policies != null) {
+            return new ArrayList<>(policies);
+        }
         return resourcePolicyService.find(c, o, actionID);
     }
 
+    @Override
+    public AuthorizationSnapshot loadAuthorizationSnapshot(Context c, List<? extends DSpaceObject> objects)
+        throws SQLException {
+        EPerson e = c.getCurrentUser();
+        Set<UUID> groupIds = groupService.allMemberGroupIDs(c, e);
+        Group adminGroup = c.getAdminGroup();
+        boolean admin = e != null && adminGroup != null && groupIds.contains(adminGroup.getID());
+
+        // the parents are needed too, as admin rights are inherited from them
+        Set<UUID> objectIds = new HashSet<>();
+        for (DSpaceObject o : objects) {
+            DSpaceObject current = o;
+            while (current != null && objectIds.add(current.getID())) {
+                current = serviceFactory.getDSpaceObjectService(current).getParentObject(c, current);
+            }
+        }
+        List<ResourcePolicy> policies = resourcePolicyService.find(c, objectIds);
+        return new AuthorizationSnapshot(c, e, groupIds, admin, objectIds, policies);
+    }
+
     @Override
     public void inheritPolicies(Context c, DSpaceObject src,
                                 DSpaceObject dest) throws SQLException, AuthorizeException {
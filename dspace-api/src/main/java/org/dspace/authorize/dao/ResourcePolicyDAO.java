@@ -8,6 +8,7 @@
 package org.dspace.authorize.dao;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -39,6 +40,16 @@ public interface ResourcePolicyDAO extends GenericDAO<ResourcePolicy> {
 
     public List<ResourcePolicy> findByDSoAndAction(Context context, DSpaceObject dso, int actionId) throws SQLException;
 
+    /**
+     * Find the policies of several objects at once, with their EPerson and group loaded.
+     *
+     * @param context DSpace context object
+     * @param dsoIds  the ids of the objects
+     * @return the policies of all these objects
+     * @throws SQLException if database error
+     */
+    public List<ResourcePolicy> findByDSoIds(Context context, Collection<UUID> dsoIds) throws SQLException;
+
     public void deleteByDsoAndTypeAndAction(Context context, DSpaceObject dSpaceObject, String type, int action)
         throws SQLException;
 
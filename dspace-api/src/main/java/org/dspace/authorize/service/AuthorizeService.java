@@ -11,6 +11,7 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.dspace.authorize.AuthorizationSnapshot;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.authorize.ResourcePolicy;
 import org.dspace.content.Collection;
@@ -310,6 +311,20 @@ public interface AuthorizeService {
      */
     public List<ResourcePolicy> getPoliciesActionFilter(Context c, DSpaceObject o, int actionID) throws SQLException;
 
+    /**
+     * Load at once the groups of the current user, whether they are an administrator and the policies of the given
+     * objects and of their parents, to check many authorizations on these objects without querying them each time.
+     * The snapshot is used once set with {@link Context#setAuthorizationSnapshot(AuthorizationSnapshot)}, until the
+     * context has changes.
+     *
+     * @param c       context
+     * @param objects the objects whose authorizations will be checked
+     * @return the snapshot
+     * @throws SQLException if there's a database problem
+     */
+    public AuthorizationSnapshot loadAuthorizationSnapshot(Context c, List<? extends DSpaceObject> objects)
+        throws SQLException;
+
     /**
      * Return a list of policies for an object that match the action except the record labeled with the rpType
      *
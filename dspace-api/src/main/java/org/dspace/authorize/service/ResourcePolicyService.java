@@ -8,6 +8,7 @@
 package org.dspace.authorize.service;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -61,6 +62,16 @@ public interface ResourcePolicyService {
 
     public List<ResourcePolicy> find(Context c, DSpaceObject o, int actionId) throws SQLException;
 
+    /**
+     * Find the policies of several objects with as few queries as possible, with their EPerson and group loaded.
+     *
+     * @param c      current context
+     * @param dsoIds the ids of the objects
+     * @return the policies of all these objects
+     * @throws SQLException if database error
+     */
+    public List<ResourcePolicy> find(Context c, Collection<UUID> dsoIds) throws SQLException;
+
     public List<ResourcePolicy> find(Context c, DSpaceObject dso, Group group, int action) throws SQLException;
 
     public List<ResourcePolicy> find(Context context, Group group) throws SQLException;
@@ -0,0 +1,184 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.checker;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.dspace.checker.factory.CheckerServiceFactory;
+import org.dspace.checker.service.MostRecentChecksumService;
+import org.dspace.content.Bitstream;
+import org.dspace.core.Context;
+
+/**
+ * A selection strategy like {@link SimpleDispatcher}, which selects bitstreams
+ * in the order that they were last checked, but which reads the
+ * most_recent_checksum rows in batches instead of one query per bitstream.
+ * <p>
+ * Bitstreams that were handed out are excluded from the following batches
+ * until they are released (see {@link BitstreamDispatcher#release(UUID)}),
+ * so several workers can check bitstreams at the same time without checking
+ * the same bitstream twice. Workers must commit the results of a bitstream
+ * before releasing it. Bitstreams whose check failed (see
+ * {@link BitstreamDispatcher#fail(UUID)}) keep their last check date, so they
+ * are excluded from the following batches until the end of the run.
+ */
+public class BatchDispatcher implements BitstreamDispatcher {
+
+    /**
+     * Default number of most_recent_checksum rows read at once.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * Time to wait for a bitstream to be released when looping continuously
+     * and all remaining bitstreams are being checked.
+     */
+    private static final long RELEASE_WAIT = 1000;
+
+    /**
+     * Should this dispatcher keep on dispatching around the collection?
+     */
+    protected boolean loopContinuously = false;
+
+    /**
+     * Date this dispatcher started dispatching.
+     */
+    protected Instant processStartTime = null;
+
+    /**
+     * Number of rows read at once.
+     */
+    protected int batchSize;
+
+    /**
+     * Access for bitstream information
+     */
+    protected MostRecentChecksumService checksumService;
+
+    protected Context context;
+
+    /**
+     * Rows of the current batch that were not handed out yet.
+     */
+    private final Deque<MostRecentChecksum> batch = new ArrayDeque<>();
+
+    /**
+     * Ids of the bitstreams handed out and not released yet.
+     */
+    private final Set<UUID> inFlight = new HashSet<>();
+
+    /**
+     * Ids of the bitstreams whose check failed in this run.
+     */
+    private final Set<UUID> failed = new HashSet<>();
+
+    /**
+     * Creates a new BatchDispatcher.
+     *
+     * @param context   Context used to read the most_recent_checksum table
+     * @param startTime timestamp for beginning of checker process
+     * @param looping   indicates whether checker should loop infinitely through
+     *                  most_recent_checksum table
+     * @param batchSize number of rows to read at once
+     */
+    public BatchDispatcher(Context context, Instant startTime, boolean looping, int batchSize) {
+        checksumService = CheckerServiceFactory.getInstance().getMostRecentChecksumService();
+        this.context = context;
+        this.processStartTime = startTime;
+        this.loopContinuously = looping;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    /**
+     * Selects the next candidate bitstream.
+     *
+     * @throws SQLException if database error
+     * @see org.dspace.checker.BitstreamDispatcher#next()
+     */
+    @Override
+    public synchronized Bitstream next() throws SQLException {
+        if (batch.isEmpty()) {
+            batch.addAll(readBatch());
+        }
+        MostRecentChecksum record = batch.poll();
+        if (record == null) {
+            return null;
+        }
+        // The row is read again by whoever checks the bitstream
+        checksumService.uncache(context, record);
+        return record.getBitstream();
+    }
+
+    /**
+     * Selects the next batch of candidate bitstreams: the rows of the current
+     * batch that were not handed out yet, or else a new batch.
+     *
+     * @return the most_recent_checksum rows of the bitstreams to check, an
+     * empty list if there are no more
+     * @throws SQLException if database error
+     */
+    public synchronized List<MostRecentChecksum> nextBatch() throws SQLException {
+        List<MostRecentChecksum> records = new ArrayList<>(batch.isEmpty() ? readBatch() : batch);
+        batch.clear();
+        return records;
+    }
+
+    @Override
+    public synchronized void release(UUID bitstreamId) {
+        inFlight.remove(bitstreamId);
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void fail(UUID bitstreamId) {
+        failed.add(bitstreamId);
+        release(bitstreamId);
+    }
+
+    /**
+     * Read the oldest rows that were not handed out yet, and mark them as
+     * handed out. Must be called while holding the lock on this dispatcher.
+     */
+    private List<MostRecentChecksum> readBatch() throws SQLException {
+        Instant lessThanDate = loopContinuously ? null : processStartTime;
+        List<MostRecentChecksum> records =
+            checksumService.findOldestRecords(context, lessThanDate, getExcluded(), batchSize);
+        while (records.isEmpty() && loopContinuously && !inFlight.isEmpty()) {
+            // Everything left is being checked right now, wait for it to come around again
+            try {
+                wait(RELEASE_WAIT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return records;
+            }
+            records = checksumService.findOldestRecords(context, null, getExcluded(), batchSize);
+        }
+        for (MostRecentChecksum record : records) {
+            inFlight.add(record.getBitstream().getID());
+        }
+        return records;
+    }
+
+    /**
+     * @return the ids of the bitstreams which must not be handed out: the
+     * ones being checked and the ones whose check failed
+     */
+    private List<UUID> getExcluded() {
+        List<UUID> excluded = new ArrayList<>(inFlight);
+        excluded.addAll(failed);
+        return excluded;
+    }
+}
@@ -8,6 +8,7 @@
 package org.dspace.checker;
 
 import java.sql.SQLException;
+import java.util.UUID;
 
 import org.dspace.content.Bitstream;
 
@@ -49,4 +50,29 @@ public interface BitstreamDispatcher {
      * @throws SQLException if database error
      */
     public Bitstream next() throws SQLException;
+
+    /**
+     * Signals that a bitstream returned by <code>next()</code> has been
+     * checked and its results have been committed. Dispatchers that hand out
+     * bitstreams to several workers at once use this to avoid handing out a
+     * bitstream again while it is still being checked. Delegating dispatchers
+     * must pass this on to their delegate.
+     *
+     * @param bitstreamId the id of the checked bitstream
+     */
+    public default void release(UUID bitstreamId) {
+    }
+
+    /**
+     * Signals that the check of a bitstream returned by <code>next()</code>
+     * failed and its results were rolled back. Dispatchers that select the
+     * bitstreams which were not checked yet must not hand it out again in the
+     * same run. Delegating dispatchers must pass this on to their delegate.
+     * By default the bitstream is released.
+     *
+     * @param bitstreamId the id of the bitstream whose check failed
+     */
+    public default void fail(UUID bitstreamId) {
+        release(bitstreamId);
+    }
 }
@@ -11,6 +11,14 @@ import java.io.IOException;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.collections4.MapUtils;
 import org.apache.logging.log4j.Logger;
@@ -19,6 +27,8 @@ import org.dspace.checker.service.ChecksumHistoryService;
 import org.dspace.checker.service.ChecksumResultService;
 import org.dspace.checker.service.MostRecentChecksumService;
 import org.dspace.content.Bitstream;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.BitstreamService;
 import org.dspace.core.Context;
 import org.dspace.storage.bitstore.factory.StorageServiceFactory;
 import org.dspace.storage.bitstore.service.BitstreamStorageService;
@@ -30,6 +40,14 @@ import org.dspace.storage.bitstore.service.BitstreamStorageService;
  * against the last calculated checksum for that bitstream.
  * </p>
  *
+ * <p>
+ * With more than one worker (see {@link #setWorkers(int)}), the bitstreams
+ * handed out by the dispatcher are checked by a pool of threads, each using
+ * its own Context and committing the results of each bitstream. The rate at
+ * which bitstreams are read can be limited with
+ * {@link #setBytesPerSecond(long)}.
+ * </p>
+ *
  * @author Jim Downing
  * @author Grace Carpenter
  * @author Nathan Sarr
@@ -44,6 +62,11 @@ public final class CheckerCommand {
      */
     private static final Logger LOG = org.apache.logging.log4j.LogManager.getLogger(CheckerCommand.class);
 
+    /**
+     * Queued after the last bitstream, once per worker, to stop the workers.
+     */
+    private static final UUID END_OF_QUEUE = new UUID(0, 0);
+
     private Context context;
 
     /**
@@ -57,6 +80,7 @@ public final class CheckerCommand {
     private ChecksumHistoryService checksumHistoryService = null;
     private BitstreamStorageService bitstreamStorageService = null;
     private ChecksumResultService checksumResultService = null;
+    private BitstreamService bitstreamService = null;
 
     /**
      * start time for current process.
@@ -78,6 +102,28 @@ public final class CheckerCommand {
      */
     private boolean reportVerbose = false;
 
+    /**
+     * Number of threads checking bitstreams
+     */
+    private int workers = 1;
+
+    /**
+     * Limits the bytes read per second, shared by all workers
+     */
+    private ChecksumThrottle throttle = new ChecksumThrottle(0);
+
+    /**
+     * Number of bitstreams checked and number of bytes read, shared by all
+     * workers
+     */
+    private AtomicLong bitstreamsChecked = new AtomicLong();
+    private AtomicLong bytesChecked = new AtomicLong();
+
+    /**
+     * Duration of the last run, in nanoseconds
+     */
+    private long processDuration = 0;
+
     /**
      * Default constructor uses DSpace plugin manager to construct dependencies.
      *
@@ -88,9 +134,28 @@ public final class CheckerCommand {
         checksumHistoryService = CheckerServiceFactory.getInstance().getChecksumHistoryService();
         bitstreamStorageService = StorageServiceFactory.getInstance().getBitstreamStorageService();
         checksumResultService = CheckerServiceFactory.getInstance().getChecksumResultService();
+        bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
         this.context = context;
     }
 
+    /**
+     * Constructor for a worker of a parallel run, sharing the settings and
+     * statistics of the given checker.
+     *
+     * @param context Context of the worker
+     * @param parent  the checker running the workers
+     */
+    private CheckerCommand(Context context, CheckerCommand parent) {
+        this(context);
+        dispatcher = parent.dispatcher;
+        collector = parent.collector;
+        reportVerbose = parent.reportVerbose;
+        processStartDate = parent.processStartDate;
+        throttle = parent.throttle;
+        bitstreamsChecked = parent.bitstreamsChecked;
+        bytesChecked = parent.bytesChecked;
+    }
+
     /**
      * <p>
      * Uses the options set up on this checker to determine a mode of execution,
@@ -120,22 +185,127 @@ public final class CheckerCommand {
         // bitstream table - this always done.
         checksumService.updateMissingBitstreams(context);
 
-        Bitstream bitstream = dispatcher.next();
+        long start = System.nanoTime();
+        if (workers > 1) {
+            // the workers use their own Context, so they must see the new rows
+            context.commit();
+            processInParallel();
+        } else {
+            Bitstream bitstream = dispatcher.next();
+
+            while (bitstream != null) {
+                checkAndCollect(bitstream);
+                dispatcher.release(bitstream.getID());
+                bitstream = dispatcher.next();
+            }
+        }
+        processDuration = System.nanoTime() - start;
 
-        while (bitstream != null) {
-            LOG.debug("Processing bitstream id = " + bitstream.getID());
-            MostRecentChecksum info = checkBitstream(bitstream);
+        LOG.info(String.format("Checked %d bitstreams (%d bytes) in %.1f seconds: %.2f MB/s",
+                               getBitstreamsChecked(), getBytesChecked(),
+                               processDuration / (double) TimeUnit.SECONDS.toNanos(1), getThroughput()));
+    }
 
-            if (reportVerbose
-                || !ChecksumResultCode.CHECKSUM_MATCH.equals(info.getChecksumResult().getResultCode())) {
-                collector.collect(context, info);
+    /**
+     * Hand the bitstreams from the dispatcher out to a pool of workers, and
+     * wait until all of them have been checked.
+     *
+     * @throws SQLException if database error
+     */
+    protected void processInParallel() throws SQLException {
+        BlockingQueue<UUID> queue = new ArrayBlockingQueue<>(workers * 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable ->
+            new Thread(runnable, "checksum-checker-" + threadNumber.incrementAndGet()));
+        for (int i = 0; i < workers; i++) {
+            executor.execute(() -> runWorker(queue));
+        }
+
+        try {
+            Bitstream bitstream = dispatcher.next();
+            while (bitstream != null) {
+                queue.put(bitstream.getID());
+                context.uncacheEntity(bitstream);
+                bitstream = dispatcher.next();
             }
+            for (int i = 0; i < workers; i++) {
+                queue.put(END_OF_QUEUE);
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while dispatching bitstreams, stopping the workers");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-            context.uncacheEntity(bitstream);
-            bitstream = dispatcher.next();
+    /**
+     * Check the bitstreams taken from the queue, until the end of the queue is
+     * reached, committing the results of each bitstream.
+     *
+     * @param queue ids of the bitstreams to check
+     */
+    private void runWorker(BlockingQueue<UUID> queue) {
+        Context workerContext = new Context();
+        try {
+            CheckerCommand worker = new CheckerCommand(workerContext, this);
+            UUID bitstreamId = queue.take();
+            while (!END_OF_QUEUE.equals(bitstreamId)) {
+                try {
+                    Bitstream bitstream = bitstreamService.find(workerContext, bitstreamId);
+                    if (bitstream != null) {
+                        worker.checkAndCollect(bitstream);
+                    }
+                    workerContext.commit();
+                    dispatcher.release(bitstreamId);
+                } catch (SQLException | RuntimeException e) {
+                    LOG.error("Error checking bitstream ID " + bitstreamId, e);
+                    rollback(workerContext);
+                    // its last check date is unchanged, it must not be handed out again
+                    dispatcher.fail(bitstreamId);
+                }
+                bitstreamId = queue.take();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (workerContext.isValid()) {
+                workerContext.abort();
+            }
         }
     }
 
+    private void rollback(Context workerContext) {
+        try {
+            workerContext.rollback();
+        } catch (SQLException e) {
+            LOG.error("Error rolling back the checksum checker worker context", e);
+        }
+    }
+
+    /**
+     * Check a bitstream and pass the result on to the collector.
+     *
+     * @param bitstream the bitstream
+     * @throws SQLException if database error
+     */
+    protected void checkAndCollect(Bitstream bitstream) throws SQLException {
+        LOG.debug("Processing bitstream id = " + bitstream.getID());
+        MostRecentChecksum info = checkBitstream(bitstream);
+
+        if (reportVerbose
+            || !ChecksumResultCode.CHECKSUM_MATCH.equals(info.getChecksumResult().getResultCode())) {
+            // the collector is shared by the workers
+            synchronized (collector) {
+                collector.collect(context, info);
+            }
+        }
+
+        context.uncacheEntity(bitstream);
+    }
+
     /**
      * Check a specified bitstream.
      *
@@ -243,11 +413,19 @@ public final class CheckerCommand {
      */
     protected void processBitstream(MostRecentChecksum info) throws SQLException {
         info.setProcessStartDate(Instant.now());
+        bitstreamsChecked.incrementAndGet();
+
+        try {
+            throttle.acquire(info.getBitstream().getSizeBytes());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
 
         try {
             Map<String, Object> checksumMap = bitstreamStorageService.computeChecksum(context, info.getBitstream());
             if (MapUtils.isNotEmpty(checksumMap)) {
                 info.setBitstreamFound(true);
+                bytesChecked.addAndGet(info.getBitstream().getSizeBytes());
                 if (checksumMap.containsKey("checksum")) {
                     info.setCurrentChecksum(checksumMap.get("checksum").toString());
                 }
@@ -362,4 +540,59 @@ public final class CheckerCommand {
     public void setReportVerbose(boolean reportVerbose) {
         this.reportVerbose = reportVerbose;
     }
+
+    /**
+     * Get the number of threads checking bitstreams.
+     *
+     * @return the number of workers
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Set the number of threads checking bitstreams. With more than one
+     * worker, the dispatcher must not hand out a bitstream again before it
+     * has been released, e.g. use a {@link BatchDispatcher} instead of a
+     * {@link SimpleDispatcher}.
+     *
+     * @param workers the number of workers
+     */
+    public void setWorkers(int workers) {
+        this.workers = Math.max(workers, 1);
+    }
+
+    /**
+     * Limit the number of bytes read per second by all workers together.
+     *
+     * @param bytesPerSecond the maximum number of bytes per second, 0 or less
+     *                       for no limit
+     */
+    public void setBytesPerSecond(long bytesPerSecond) {
+        throttle = new ChecksumThrottle(bytesPerSecond);
+    }
+
+    /**
+     * @return the number of bitstreams checked by the last run
+     */
+    public long getBitstreamsChecked() {
+        return bitstreamsChecked.get();
+    }
+
+    /**
+     * @return the number of bytes read by the last run
+     */
+    public long getBytesChecked() {
+        return bytesChecked.get();
+    }
+
+    /**
+     * @return the average number of megabytes read per second by the last run
+     */
+    public double getThroughput() {
+        if (processDuration <= 0) {
+            return 0;
+        }
+        return bytesChecked.get() / (1024.0 * 1024.0) / (processDuration / (double) TimeUnit.SECONDS.toNanos(1));
+    }
 }
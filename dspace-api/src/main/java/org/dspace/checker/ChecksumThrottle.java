@@ -0,0 +1,81 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.checker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of bytes per second read by the checksum checker, shared
+ * by all of its workers. Each worker reserves the size of a bitstream before
+ * reading it, and is delayed until the bytes reserved before fit in the
+ * configured rate.
+ */
+public class ChecksumThrottle {
+
+    /**
+     * Maximum number of bytes per second, 0 or less for no limit.
+     */
+    private final long bytesPerSecond;
+
+    /**
+     * Time (as in {@link System#nanoTime()}) at which the bytes reserved so
+     * far have been read at the configured rate.
+     */
+    private long nextFree;
+
+    /**
+     * Creates a new throttle.
+     *
+     * @param bytesPerSecond the maximum number of bytes per second, 0 or less
+     *                       for no limit
+     */
+    public ChecksumThrottle(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        this.nextFree = System.nanoTime();
+    }
+
+    /**
+     * Reserve the given number of bytes, waiting until reading them does not
+     * exceed the configured rate.
+     *
+     * @param bytes the number of bytes about to be read
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire(long bytes) throws InterruptedException {
+        long wait = reserve(bytes);
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Reserve the given number of bytes.
+     *
+     * @param bytes the number of bytes about to be read
+     * @return the time in nanoseconds to wait before reading them
+     */
+    protected synchronized long reserve(long bytes) {
+        if (bytesPerSecond <= 0 || bytes <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        if (nextFree < now) {
+            nextFree = now;
+        }
+        long wait = nextFree - now;
+        nextFree += (long) (bytes * (double) TimeUnit.SECONDS.toNanos(1) / bytesPerSecond);
+        return wait;
+    }
+
+    /**
+     * @return whether this throttle limits the rate at all
+     */
+    public boolean isEnabled() {
+        return bytesPerSecond > 0;
+    }
+}
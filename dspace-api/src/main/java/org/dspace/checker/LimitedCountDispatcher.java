@@ -8,6 +8,7 @@
 package org.dspace.checker;
 
 import java.sql.SQLException;
+import java.util.UUID;
 
 import org.dspace.content.Bitstream;
 import org.dspace.core.factory.CoreServiceFactory;
@@ -75,4 +76,14 @@ public class LimitedCountDispatcher implements BitstreamDispatcher {
             return null;
         }
     }
+
+    @Override
+    public void release(UUID bitstreamId) {
+        delegate.release(bitstreamId);
+    }
+
+    @Override
+    public void fail(UUID bitstreamId) {
+        delegate.fail(bitstreamId);
+    }
 }
@@ -9,6 +9,7 @@ package org.dspace.checker;
 
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.UUID;
 
 import org.dspace.content.Bitstream;
 
@@ -68,4 +69,14 @@ public class LimitedDurationDispatcher implements BitstreamDispatcher {
     public Bitstream next() throws SQLException {
         return (Instant.now().toEpochMilli() > end) ? null : delegate.next();
     }
+
+    @Override
+    public void release(UUID bitstreamId) {
+        delegate.release(bitstreamId);
+    }
+
+    @Override
+    public void fail(UUID bitstreamId) {
+        delegate.fail(bitstreamId);
+    }
 }
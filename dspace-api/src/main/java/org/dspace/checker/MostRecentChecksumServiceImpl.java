@@ -9,7 +9,9 @@ package org.dspace.checker;
 
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 import org.apache.logging.log4j.Logger;
 import org.dspace.checker.dao.MostRecentChecksumDAO;
@@ -181,6 +183,13 @@ public class MostRecentChecksumServiceImpl implements MostRecentChecksumService
         return mostRecentChecksumDAO.getOldestRecord(context, lessThanDate);
     }
 
+    @Override
+    public List<MostRecentChecksum> findOldestRecords(Context context, Instant lessThanDate,
+                                                      Collection<UUID> excludedBitstreams, int limit)
+        throws SQLException {
+        return mostRecentChecksumDAO.getOldestRecords(context, lessThanDate, excludedBitstreams, limit);
+    }
+
     @Override
     public List<MostRecentChecksum> findNotInHistory(Context context) throws SQLException {
         return mostRecentChecksumDAO.findNotInHistory(context);
@@ -190,4 +199,9 @@ public class MostRecentChecksumServiceImpl implements MostRecentChecksumService
     public void update(Context context, MostRecentChecksum mostRecentChecksum) throws SQLException {
         mostRecentChecksumDAO.save(context, mostRecentChecksum);
     }
+
+    @Override
+    public void uncache(Context context, MostRecentChecksum mostRecentChecksum) throws SQLException {
+        mostRecentChecksumDAO.uncache(context, mostRecentChecksum);
+    }
 }
@@ -9,7 +9,9 @@ package org.dspace.checker.dao;
 
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 import org.dspace.checker.ChecksumResultCode;
 import org.dspace.checker.MostRecentChecksum;
@@ -39,7 +41,13 @@ public interface MostRecentChecksumDAO extends GenericDAO<MostRecentChecksum> {
 
     public MostRecentChecksum getOldestRecord(Context context, Instant lessThanDate) throws SQLException;
 
+    public List<MostRecentChecksum> getOldestRecords(Context context, Instant lessThanDate,
+                                                     Collection<UUID> excludedBitstreams, int limit)
+        throws SQLException;
+
     public List<MostRecentChecksum> findNotInHistory(Context context) throws SQLException;
 
     public MostRecentChecksum findByBitstream(Context context, Bitstream bitstream) throws SQLException;
+
+    public void uncache(Context context, MostRecentChecksum mostRecentChecksum) throws SQLException;
 }
@@ -9,14 +9,18 @@ package org.dspace.checker.dao.impl;
 
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.UUID;
 
 import jakarta.persistence.Query;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Subquery;
 import org.dspace.checker.ChecksumHistory;
@@ -28,6 +32,7 @@ import org.dspace.checker.MostRecentChecksum;
 import org.dspace.checker.MostRecentChecksum_;
 import org.dspace.checker.dao.MostRecentChecksumDAO;
 import org.dspace.content.Bitstream;
+import org.dspace.content.DSpaceObject_;
 import org.dspace.core.AbstractHibernateDAO;
 import org.dspace.core.Context;
 
@@ -145,6 +150,35 @@ public class MostRecentChecksumDAOImpl extends AbstractHibernateDAO<MostRecentCh
         return singleResult(context, criteriaQuery);
     }
 
+    @Override
+    public List<MostRecentChecksum> getOldestRecords(Context context, Instant lessThanDate,
+                                                     Collection<UUID> excludedBitstreams, int limit)
+        throws SQLException {
+        CriteriaBuilder criteriaBuilder = getCriteriaBuilder(context);
+        CriteriaQuery<MostRecentChecksum> criteriaQuery = getCriteriaQuery(criteriaBuilder, MostRecentChecksum.class);
+        Root<MostRecentChecksum> mostRecentChecksumRoot = criteriaQuery.from(MostRecentChecksum.class);
+        criteriaQuery.select(mostRecentChecksumRoot);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(criteriaBuilder.equal(mostRecentChecksumRoot.get(MostRecentChecksum_.toBeProcessed), true));
+        if (lessThanDate != null) {
+            predicates.add(criteriaBuilder
+                .lessThan(mostRecentChecksumRoot.get(MostRecentChecksum_.processStartDate), lessThanDate));
+        }
+        if (excludedBitstreams != null && !excludedBitstreams.isEmpty()) {
+            predicates.add(criteriaBuilder.not(mostRecentChecksumRoot.get(MostRecentChecksum_.bitstream)
+                                                                     .get(DSpaceObject_.id).in(excludedBitstreams)));
+        }
+        criteriaQuery.where(criteriaBuilder.and(predicates.toArray(new Predicate[0])));
+
+        List<Order> orderList = new LinkedList<>();
+        orderList.add(criteriaBuilder.asc(mostRecentChecksumRoot.get(MostRecentChecksum_.processEndDate)));
+        orderList.add(criteriaBuilder.asc(mostRecentChecksumRoot.get(MostRecentChecksum_.bitstream)));
+        criteriaQuery.orderBy(orderList);
+
+        return list(context, criteriaQuery, false, MostRecentChecksum.class, limit, -1, false);
+    }
+
     @Override
     public List<MostRecentChecksum> findNotInHistory(Context context) throws SQLException {
 
@@ -161,4 +195,9 @@ public class MostRecentChecksumDAOImpl extends AbstractHibernateDAO<MostRecentCh
 
         return list(context, criteriaQuery, false, MostRecentChecksum.class, -1, -1);
     }
+
+    @Override
+    public void uncache(Context context, MostRecentChecksum mostRecentChecksum) throws SQLException {
+        getHibernateSession(context).evict(mostRecentChecksum);
+    }
 }
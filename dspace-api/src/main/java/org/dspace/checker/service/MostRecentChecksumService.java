@@ -9,7 +9,9 @@ package org.dspace.checker.service;
 
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 import org.dspace.checker.ChecksumResultCode;
 import org.dspace.checker.MostRecentChecksum;
@@ -45,7 +47,31 @@ public interface MostRecentChecksumService {
 
     public MostRecentChecksum findOldestRecord(Context context, Instant lessThanDate) throws SQLException;
 
+    /**
+     * Find the records of the bitstreams that were checked longest ago, oldest first.
+     *
+     * @param context            context
+     * @param lessThanDate       if not null, only return records whose last check started before this date
+     * @param excludedBitstreams ids of bitstreams to leave out, e.g. because they are being checked right now
+     * @param limit              the maximum number of records to return
+     * @return the oldest records
+     * @throws SQLException if database error
+     */
+    public List<MostRecentChecksum> findOldestRecords(Context context, Instant lessThanDate,
+                                                      Collection<UUID> excludedBitstreams, int limit)
+        throws SQLException;
+
     public List<MostRecentChecksum> findNotInHistory(Context context) throws SQLException;
 
     public void update(Context context, MostRecentChecksum mostRecentChecksum) throws SQLException;
+
+    /**
+     * Remove a record from the cache of the context, e.g. once its bitstream was handed out to a worker using its
+     * own context.
+     *
+     * @param context            context
+     * @param mostRecentChecksum the record, which must not have unsaved changes
+     * @throws SQLException if database error
+     */
+    public void uncache(Context context, MostRecentChecksum mostRecentChecksum) throws SQLException;
 }
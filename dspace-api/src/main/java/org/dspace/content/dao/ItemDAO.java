@@ -48,6 +48,18 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
      */
     Iterator<Item> findAllRegularItems(Context context) throws SQLException;
 
+    /**
+     * Find all regular items (see {@link #findAllRegularItems(Context)}) whose UUID lies within the given range, as
+     * ordered by the database.
+     *
+     * @param context    the DSpace context.
+     * @param lowerBound inclusive lower bound of the UUID range, or null for no lower bound.
+     * @param upperBound exclusive upper bound of the UUID range, or null for no upper bound.
+     * @return iterator over the regular items in the range, ordered by UUID.
+     * @throws SQLException if database error.
+     */
+    Iterator<Item> findAllRegularItems(Context context, UUID lowerBound, UUID upperBound) throws SQLException;
+
     /**
      * Find all Items modified since a Date.
      *
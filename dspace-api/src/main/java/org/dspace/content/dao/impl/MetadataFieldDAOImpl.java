@@ -8,10 +8,8 @@
 package org.dspace.content.dao.impl;
 
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 import jakarta.persistence.Query;
 import jakarta.persistence.criteria.CriteriaBuilder;
@@ -42,16 +40,28 @@ public class MetadataFieldDAOImpl extends AbstractHibernateDAO<MetadataField> im
      */
     private static Logger log = org.apache.logging.log4j.LogManager.getLogger(MetadataFieldDAOImpl.class);
 
-    /**
-     * Cache for improvement the performance of searching metadata fields
-     * This cache only stores IDs, the actual MetadataField is retrieved from hibernate
-     */
-    private static Map<String, Integer> cachedFields = new HashMap();
-
     protected MetadataFieldDAOImpl() {
         super();
     }
 
+    @Override
+    public MetadataField create(Context context, MetadataField metadataField) throws SQLException {
+        MetadataRegistryCache.invalidate();
+        return super.create(context, metadataField);
+    }
+
+    @Override
+    public void save(Context context, MetadataField metadataField) throws SQLException {
+        MetadataRegistryCache.invalidate();
+        super.save(context, metadataField);
+    }
+
+    @Override
+    public void delete(Context context, MetadataField metadataField) throws SQLException {
+        MetadataRegistryCache.invalidate();
+        super.delete(context, metadataField);
+    }
+
     @Override
     public MetadataField find(Context context, int metadataFieldId, MetadataSchema metadataSchema, String element,
                               String qualifier) throws SQLException {
@@ -94,28 +104,17 @@ public class MetadataFieldDAOImpl extends AbstractHibernateDAO<MetadataField> im
     @Override
     public MetadataField findByElement(Context context, String metadataSchema, String element, String qualifier)
         throws SQLException {
-        String key = metadataSchema + "." + element + "." + qualifier;
-        if (cachedFields.containsKey(key)) {
-            Session session = getHibernateSession(context);
-            MetadataField metadataField = null;
-            try {
-                metadataField = session.load(MetadataField.class, cachedFields.get(key));
-            } catch (Throwable e) {
-                log.error("Failed to load metadata field " + key + " using ID " + cachedFields.get(key));
-            }
-            try {
-                if (metadataField != null &&
-                        (metadataField.getMetadataSchema().getName() + "." + metadataField.getElement() +
-                                "." + metadataField.getQualifier()).equals(key)) {
-                    return metadataField;
-                } else {
-                    cachedFields.remove(key);
-                }
-            } catch (Throwable e) {
-                log.error("Failed to verify consistence of metadata field " + key +
-                        " using ID " + cachedFields.get(key));
-                cachedFields.clear();
+        Session session = getHibernateSession(context);
+        String key = MetadataRegistryCache.key(metadataSchema, element, qualifier);
+        Integer id = MetadataRegistryCache.get(session).getFieldId(key);
+        if (id != null) {
+            MetadataField metadataField = session.get(MetadataField.class, id);
+            if (metadataField != null && key.equals(MetadataRegistryCache.key(metadataField))) {
+                return metadataField;
             }
+            // the field was changed or deleted since the snapshot was loaded
+            log.debug("Metadata field {} is not {} anymore", id, key);
+            MetadataRegistryCache.invalidate();
         }
 
         Query query;
@@ -143,8 +142,9 @@ public class MetadataFieldDAOImpl extends AbstractHibernateDAO<MetadataField> im
         query.setHint("org.hibernate.cacheable", Boolean.TRUE);
 
         MetadataField metadataField = singleResult(query);
-        if (metadataField != null) {
-            cachedFields.put(key, metadataField.getID());
+        if (metadataField != null && id == null) {
+            // the field was created since the snapshot was loaded
+            MetadataRegistryCache.invalidate();
         }
         return metadataField;
     }
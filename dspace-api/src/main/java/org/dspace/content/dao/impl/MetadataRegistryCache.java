@@ -0,0 +1,128 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content.dao.impl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.dspace.content.MetadataField;
+import org.hibernate.Session;
+
+/**
+ * Immutable snapshot of the ids of all metadata schemas and fields, shared by all threads, so that looking up a field
+ * by "schema.element.qualifier" or a schema by name does not need a query. Only ids are kept: the entities are
+ * loaded by id, from the session or the second level cache, so lookups by id need no snapshot.
+ * <p>
+ * The snapshot is loaded with two queries at the first lookup, and loaded again at the next lookup once the registry
+ * changed. It may be stale while the transaction changing the registry is not committed, so the DAOs check that the
+ * entity loaded by id has the requested name, and query the database when it does not.
+ */
+final class MetadataRegistryCache {
+
+    private static final Object lock = new Object();
+
+    // incremented whenever the registry changes, so that a snapshot loaded meanwhile is not kept
+    private static long generation = 0;
+
+    private static volatile MetadataRegistryCache current;
+
+    private final Map<String, Integer> fieldIds;
+    private final Map<String, Integer> schemaIds;
+
+    private MetadataRegistryCache(Map<String, Integer> fieldIds, Map<String, Integer> schemaIds) {
+        this.fieldIds = fieldIds;
+        this.schemaIds = schemaIds;
+    }
+
+    /**
+     * Returns the current snapshot, loading it if the registry changed.
+     *
+     * @param session the session to load the snapshot with
+     * @return the snapshot
+     */
+    static MetadataRegistryCache get(Session session) {
+        MetadataRegistryCache cache = current;
+        if (cache != null) {
+            return cache;
+        }
+        long loadedGeneration;
+        synchronized (lock) {
+            loadedGeneration = generation;
+        }
+        cache = load(session);
+        synchronized (lock) {
+            if (generation == loadedGeneration) {
+                current = cache;
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Discards the current snapshot, after a change to the registry.
+     */
+    static void invalidate() {
+        synchronized (lock) {
+            generation++;
+            current = null;
+        }
+    }
+
+    private static MetadataRegistryCache load(Session session) {
+        Map<String, Integer> fieldIds = new HashMap<>();
+        Map<String, Integer> schemaIds = new HashMap<>();
+        List<Object[]> fields = session.createQuery("SELECT mf.id, ms.name, mf.element, mf.qualifier " +
+                                                        "FROM MetadataField mf JOIN mf.metadataSchema ms",
+                                                    Object[].class).list();
+        for (Object[] field : fields) {
+            fieldIds.put(key((String) field[1], (String) field[2], (String) field[3]), (Integer) field[0]);
+        }
+        List<Object[]> schemas = session.createQuery("SELECT ms.id, ms.name FROM MetadataSchema ms", Object[].class)
+                                        .list();
+        for (Object[] schema : schemas) {
+            schemaIds.put((String) schema[1], (Integer) schema[0]);
+        }
+        return new MetadataRegistryCache(Map.copyOf(fieldIds), Map.copyOf(schemaIds));
+    }
+
+    /**
+     * @param schema    the schema name
+     * @param element   the element
+     * @param qualifier the qualifier, a blank qualifier is the same as none
+     * @return the key of the field
+     */
+    static String key(String schema, String element, String qualifier) {
+        return StringUtils.isBlank(qualifier) ? schema + "." + element : schema + "." + element + "." + qualifier;
+    }
+
+    /**
+     * @param field a field
+     * @return the key of the field
+     */
+    static String key(MetadataField field) {
+        return key(field.getMetadataSchema().getName(), field.getElement(), field.getQualifier());
+    }
+
+    /**
+     * @param key the key of a field, see {@link #key(String, String, String)}
+     * @return the id of the field, or null if it is not in the snapshot
+     */
+    Integer getFieldId(String key) {
+        return fieldIds.get(key);
+    }
+
+    /**
+     * @param name the name of a schema
+     * @return the id of the schema, or null if it is not in the snapshot
+     */
+    Integer getSchemaId(String name) {
+        return schemaIds.get(name);
+    }
+}
@@ -20,6 +20,7 @@ import org.dspace.content.MetadataSchema_;
 import org.dspace.content.dao.MetadataSchemaDAO;
 import org.dspace.core.AbstractHibernateDAO;
 import org.dspace.core.Context;
+import org.hibernate.Session;
 
 /**
  * Hibernate implementation of the Database Access Object interface class for the MetadataSchema object.
@@ -33,6 +34,24 @@ public class MetadataSchemaDAOImpl extends AbstractHibernateDAO<MetadataSchema>
         super();
     }
 
+    @Override
+    public MetadataSchema create(Context context, MetadataSchema metadataSchema) throws SQLException {
+        MetadataRegistryCache.invalidate();
+        return super.create(context, metadataSchema);
+    }
+
+    @Override
+    public void save(Context context, MetadataSchema metadataSchema) throws SQLException {
+        MetadataRegistryCache.invalidate();
+        super.save(context, metadataSchema);
+    }
+
+    @Override
+    public void delete(Context context, MetadataSchema metadataSchema) throws SQLException {
+        MetadataRegistryCache.invalidate();
+        super.delete(context, metadataSchema);
+    }
+
     /**
      * Get the schema object corresponding to this namespace URI.
      *
@@ -127,6 +146,17 @@ public class MetadataSchemaDAOImpl extends AbstractHibernateDAO<MetadataSchema>
      */
     @Override
     public MetadataSchema find(Context context, String shortName) throws SQLException {
+        Session session = getHibernateSession(context);
+        Integer id = MetadataRegistryCache.get(session).getSchemaId(shortName);
+        if (id != null) {
+            MetadataSchema metadataSchema = session.get(MetadataSchema.class, id);
+            if (metadataSchema != null && shortName.equals(metadataSchema.getName())) {
+                return metadataSchema;
+            }
+            // the schema was renamed or deleted since the snapshot was loaded
+            MetadataRegistryCache.invalidate();
+        }
+
         Query query = createQuery(context,
                                   "SELECT ms FROM MetadataSchema ms " +
                                       "WHERE ms.name = :name");
@@ -134,6 +164,11 @@ public class MetadataSchemaDAOImpl extends AbstractHibernateDAO<MetadataSchema>
         query.setParameter("name", shortName);
 
         query.setHint("org.hibernate.cacheable", Boolean.TRUE);
-        return singleResult(query);
+        MetadataSchema metadataSchema = singleResult(query);
+        if (metadataSchema != null && id == null) {
+            // the schema was created since the snapshot was loaded
+            MetadataRegistryCache.invalidate();
+        }
+        return metadataSchema;
     }
 }
@@ -140,6 +140,19 @@ public interface ItemService
      */
     Iterator<Item> findAllRegularItems(Context context) throws SQLException;
 
+    /**
+     * Find all regular items (see {@link #findAllRegularItems(Context)}) whose UUID lies within the given range, as
+     * ordered by the database.
+     * Used to split the full set of items into partitions which can be processed independently.
+     *
+     * @param context    the DSpace context.
+     * @param lowerBound inclusive lower bound of the UUID range, or null for no lower bound.
+     * @param upperBound exclusive upper bound of the UUID range, or null for no upper bound.
+     * @return iterator over the regular items in the range.
+     * @throws SQLException if database error.
+     */
+    Iterator<Item> findAllRegularItems(Context context, UUID lowerBound, UUID upperBound) throws SQLException;
+
     /**
      * Find all the items in the archive by a given submitter. The order is
      * indeterminate. Only items with the "in archive" flag set are included.
@@ -21,6 +21,7 @@ import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.logging.log4j.Logger;
+import org.dspace.authorize.AuthorizationSnapshot;
 import org.dspace.authorize.ResourcePolicy;
 import org.dspace.content.DSpaceObject;
 import org.dspace.eperson.EPerson;
@@ -124,6 +125,16 @@ public class Context implements AutoCloseable {
      */
     private final ContextReadOnlyCache readOnlyCache = new ContextReadOnlyCache();
 
+    /**
+     * Groups and policies preloaded to check many authorizations at once, discarded on any change
+     */
+    private AuthorizationSnapshot authorizationSnapshot;
+
+    /**
+     * Actions to run once the current transaction is committed
+     */
+    private List<Runnable> afterCommitActions = null;
+
     protected EventService eventService;
 
     private DBConnection dbConnection;
@@ -445,12 +456,48 @@ public class Context implements AutoCloseable {
 
             if (dbConnection != null) {
                 // Commit our changes (this closes the transaction but leaves database connection open)
-                dbConnection.commit();
+                try {
+                    dbConnection.commit();
+                } catch (SQLException | RuntimeException e) {
+                    afterCommitActions = null;
+                    throw e;
+                }
+                runAfterCommitActions();
                 reloadContextBoundEntities();
             }
         }
     }
 
+    /**
+     * Run an action once the current transaction is committed, e.g. to invalidate a cache shared with other
+     * contexts, which could otherwise be filled again from the old committed state before the commit. The action
+     * is discarded if the transaction is rolled back.
+     *
+     * @param action the action to run
+     */
+    public void runAfterCommit(Runnable action) {
+        if (afterCommitActions == null) {
+            afterCommitActions = new ArrayList<>();
+        }
+        afterCommitActions.add(action);
+    }
+
+    private void runAfterCommitActions() {
+        List<Runnable> actions = afterCommitActions;
+        afterCommitActions = null;
+        if (actions == null) {
+            return;
+        }
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                // The transaction is committed already, so the other actions are run anyway
+                log.error("Error running an action after the commit", e);
+            }
+        }
+    }
+
 
     /**
      * Dispatch any events (cached in current Context) to configured EventListeners (consumers)
@@ -510,6 +557,7 @@ public class Context implements AutoCloseable {
         }
 
         events.add(event);
+        authorizationSnapshot = null;
     }
 
     /**
@@ -570,6 +618,7 @@ public class Context implements AutoCloseable {
             }
         } finally {
             events = null;
+            afterCommitActions = null;
         }
     }
 
@@ -608,6 +657,7 @@ public class Context implements AutoCloseable {
                 log.error("Error closing the database connection", ex);
             }
             events = null;
+            afterCommitActions = null;
         }
     }
 
@@ -954,6 +1004,24 @@ public class Context implements AutoCloseable {
         }
     }
 
+    /**
+     * Get the groups and policies preloaded to check many authorizations at once.
+     *
+     * @return the snapshot, or null if none is loaded or the context has changes since it was loaded
+     */
+    public AuthorizationSnapshot getAuthorizationSnapshot() {
+        return hasEvents() ? null : authorizationSnapshot;
+    }
+
+    /**
+     * Set the groups and policies preloaded to check many authorizations at once.
+     *
+     * @param authorizationSnapshot the snapshot, or null to check each authorization against the database
+     */
+    public void setAuthorizationSnapshot(AuthorizationSnapshot authorizationSnapshot) {
+        this.authorizationSnapshot = authorizationSnapshot;
+    }
+
     /**
      * Reload all entities related to this context.
      *
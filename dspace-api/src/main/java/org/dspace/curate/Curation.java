@@ -21,6 +21,7 @@ import java.time.Instant;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.cli.ParseException;
@@ -58,6 +59,7 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
     private String reporter;
     private Map<String, String> parameters;
     private boolean verbose;
+    private int workers = 1;
 
     @Override
     public void internalRun() throws Exception {
@@ -137,7 +139,9 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
     }
 
     /**
-     * Runs task queue (-q set)
+     * Runs task queue (-q set). The entries are dequeued until the queue is empty, as a queue may return only some
+     * of its entries at a time (see {@link DBTaskQueue}). The curation of the dequeued entries is committed before
+     * they are removed from the queue.
      *
      * @param queue   The task queue
      * @param curator The curator
@@ -146,19 +150,23 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
     private long runQueue(TaskQueue queue, Curator curator) throws SQLException, AuthorizeException, IOException {
         // use current time as our reader 'ticket'
         long ticket = Instant.now().toEpochMilli();
-        Iterator<TaskQueueEntry> entryIter = queue.dequeue(this.queue, ticket).iterator();
-        while (entryIter.hasNext()) {
-            TaskQueueEntry entry = entryIter.next();
-            if (verbose) {
-                super.handler.logInfo("Curating id: " + entry.getObjectId());
-            }
-            curator.clear();
-            for (String taskName : entry.getTaskNames()) {
-                curator.addTask(taskName);
+        Set<TaskQueueEntry> entries;
+        while (!(entries = queue.dequeue(this.queue, ticket)).isEmpty()) {
+            Iterator<TaskQueueEntry> entryIter = entries.iterator();
+            while (entryIter.hasNext()) {
+                TaskQueueEntry entry = entryIter.next();
+                if (verbose) {
+                    super.handler.logInfo("Curating id: " + entry.getObjectId());
+                }
+                curator.clear();
+                for (String taskName : entry.getTaskNames()) {
+                    curator.addTask(taskName);
+                }
+                curator.curate(context, entry.getObjectId());
             }
-            curator.curate(context, entry.getObjectId());
+            context.commit();
+            queue.release(this.queue, ticket, true);
         }
-        queue.release(this.queue, ticket, true);
         return ticket;
     }
 
@@ -201,6 +209,7 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
         }
 
         curator.addParameters(parameters);
+        curator.setThreads(workers);
         // we are operating in batch mode, if anyone cares.
         curator.setInvoked(Curator.Invoked.BATCH);
         return curator;
@@ -298,6 +307,20 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
             verbose = true;
         }
 
+        // workers
+        if (this.commandLine.getOptionValue('w') != null) {
+            try {
+                workers = Integer.parseInt(this.commandLine.getOptionValue('w'));
+            } catch (NumberFormatException e) {
+                workers = 0;
+            }
+            if (workers < 1) {
+                this.handler.logError("Bad number of workers '" + this.commandLine.getOptionValue('w') + "'");
+                throw new IllegalArgumentException(
+                    "Bad number of workers '" + this.commandLine.getOptionValue('w') + "'");
+            }
+        }
+
         // scope
         if (this.commandLine.getOptionValue('s') != null) {
             this.scope = this.commandLine.getOptionValue('s');
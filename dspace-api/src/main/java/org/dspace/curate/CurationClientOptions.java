@@ -64,6 +64,8 @@ public enum CurationClientOptions {
             "reporting");
         options.addOption("s", "scope", true,
             "transaction scope to impose: use 'object', 'curation', or 'open'. If absent, 'open' applies");
+        options.addOption("w", "workers", true,
+            "number of threads curating the items of each collection at the same time. If absent, 1 applies");
         options.addOption("v", "verbose", false, "report activity to stdout");
         options.addOption("h", "help", false, "help");
 
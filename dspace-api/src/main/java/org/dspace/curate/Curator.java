@@ -16,6 +16,18 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -82,6 +94,9 @@ public class Curator {
 
     protected static final ThreadLocal<Context> curationCtx = new ThreadLocal<>();
 
+    // marks the end of the items queued for the workers curating items in parallel
+    private static final UUID END_OF_ITEMS = new UUID(0L, 0L);
+
     protected final Map<String, String> runParameters = new HashMap<>();
     protected Map<String, TaskRunner> trMap = new HashMap<>();
     protected List<String> perfList = new ArrayList<>();
@@ -90,6 +105,7 @@ public class Curator {
     protected Invoked iMode = null;
     protected TaskResolver resolver = new TaskResolver();
     protected TxScope txScope = TxScope.OPEN;
+    protected int threads = 1;
     protected CommunityService communityService;
     protected ItemService itemService;
     protected HandleService handleService;
@@ -228,6 +244,23 @@ public class Curator {
         return this;
     }
 
+    /**
+     * Sets the number of threads performing a task upon the items of a collection. With more than one thread, the
+     * items are curated at the same time by workers with their own Context and their own instance of the task, which
+     * commit their changes once the collection is curated, or after each item when the transactional scope is
+     * 'object'. The workers see the items as committed before the collection is curated.
+     * <p>
+     * Distributive tasks, which visit the items themselves, and mutative tasks in the 'curation' transactional
+     * scope, whose changes must be committed at once, are still performed by a single thread.
+     *
+     * @param threads number of threads
+     * @return return self (Curator instance) with the number of threads set
+     */
+    public Curator setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
     /**
      * Performs all configured tasks upon object identified by id. If
      * the object can be resolved as a handle, the DSO will be the
@@ -357,7 +390,10 @@ public class Curator {
         }
 
         try {
-            reporter.append(message);
+            // the tasks of the workers curating items in parallel report to the same stream
+            synchronized (reporter) {
+                reporter.append(message);
+            }
         } catch (IOException ex) {
             System.out.println("Task reporting failure: " +  ex);
         }
@@ -374,6 +410,21 @@ public class Curator {
         return (tr != null) ? tr.statusCode : CURATE_NOTASK;
     }
 
+    /**
+     * Returns how many times the named task returned each status code since it was added.
+     *
+     * @param taskName the task name
+     * @return the number of performances by status code - CURATE_ values
+     */
+    public Map<Integer, Long> getStatusCounts(String taskName) {
+        TaskRunner tr = trMap.get(taskName);
+        Map<Integer, Long> counts = new TreeMap<>();
+        if (tr != null) {
+            tr.statusCounts.forEach((code, count) -> counts.put(code, count.sum()));
+        }
+        return counts;
+    }
+
     /**
      * Returns the result string for the latest performance of the named task.
      *
@@ -513,6 +564,9 @@ public class Curator {
                 return false;
             }
             Context context = curationContext();
+            if (threads > 1 && !(tr.task.isMutative() && txScope.equals(TxScope.CURATION))) {
+                return doItemsInParallel(tr, context, coll);
+            }
             Iterator<Item> iter = itemService.findByCollection(context, coll);
             while (iter.hasNext()) {
                 Item item = iter.next();
@@ -528,6 +582,134 @@ public class Curator {
         return true;
     }
 
+    /**
+     * Run task for all Items in a collection with several workers, see {@link #setThreads(int)}.
+     *
+     * @param tr      TaskRunner
+     * @param context the curation context
+     * @param coll    Collection
+     * @return true if successful, false otherwise
+     * @throws IOException if IO error
+     * @throws SQLException if database error
+     */
+    protected boolean doItemsInParallel(TaskRunner tr, Context context, Collection coll)
+        throws IOException, SQLException {
+        tr.suspended = false;
+        BlockingQueue<UUID> itemIds = new ArrayBlockingQueue<>(threads * 100);
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    try {
+                        runWorker(tr, context, itemIds, stop);
+                    } catch (Exception e) {
+                        stop.set(true);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            Iterator<Item> iter = itemService.findByCollection(context, coll);
+            while (iter.hasNext() && !stop.get()) {
+                Item item = iter.next();
+                while (!stop.get() && !itemIds.offer(item.getID(), 1, TimeUnit.SECONDS)) {
+                    // wait for the workers
+                }
+                context.uncacheEntity(item);
+            }
+            // one end marker per worker
+            for (int i = 0; i < threads; i++) {
+                while (!stop.get() && !itemIds.offer(END_OF_ITEMS, 1, TimeUnit.SECONDS)) {
+                    // wait for the workers
+                }
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while curating " + coll.getHandle(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            stop.set(true);
+            executor.shutdownNow();
+        }
+        return !tr.suspended;
+    }
+
+    /**
+     * Curate the queued items with a new Context and a new instance of the task, in a worker thread of
+     * {@link #doItemsInParallel}.
+     */
+    private void runWorker(TaskRunner tr, Context context, BlockingQueue<UUID> itemIds, AtomicBoolean stop)
+        throws IOException, SQLException, InterruptedException {
+        Context workerContext = new Context(context.getCurrentMode());
+        try {
+            if (context.getCurrentUser() != null) {
+                workerContext.setCurrentUser(workerContext.reloadEntity(context.getCurrentUser()));
+            }
+            for (UUID groupId : context.getSpecialGroupUuids()) {
+                workerContext.setSpecialGroup(groupId);
+            }
+            if (context.ignoreAuthorization()) {
+                workerContext.turnOffAuthorisationSystem();
+            }
+            curationCtx.set(workerContext);
+
+            Curator worker = new Curator(handler);
+            worker.addParameters(runParameters);
+            worker.setReporter(reporter);
+            worker.setInvoked(iMode);
+            worker.setTransactionScope(txScope);
+            worker.addTask(tr.task.getName());
+            TaskRunner workerTr = worker.trMap.get(tr.task.getName());
+            if (workerTr == null) {
+                throw new IOException("Task: '" + tr.task.getName() + "' initialization failure");
+            }
+            workerTr.statusCounts = tr.statusCounts;
+
+            UUID itemId;
+            while (!stop.get()) {
+                itemId = itemIds.poll(1, TimeUnit.SECONDS);
+                if (itemId == null) {
+                    continue;
+                }
+                if (END_OF_ITEMS.equals(itemId)) {
+                    break;
+                }
+                Item item = itemService.find(workerContext, itemId);
+                if (item == null) {
+                    continue;
+                }
+                boolean shouldContinue = workerTr.run(item);
+                synchronized (tr) {
+                    tr.statusCode = workerTr.statusCode;
+                    tr.result = workerTr.result;
+                }
+                if (txScope.equals(TxScope.OBJECT)) {
+                    workerContext.commit();
+                }
+                workerContext.uncacheEntity(item);
+                if (!shouldContinue) {
+                    tr.suspended = true;
+                    stop.set(true);
+                }
+            }
+            workerContext.complete();
+        } finally {
+            curationCtx.remove();
+            if (workerContext.isValid()) {
+                workerContext.abort();
+            }
+        }
+    }
+
     /**
      * Record a 'visit' to a DSpace object and enforce any policies set
      * on this curator.
@@ -548,6 +730,10 @@ public class Curator {
         ResolvedTask task = null;
         int statusCode = CURATE_UNSET;
         String result = null;
+        // number of performances by status code, shared with the workers curating items in parallel
+        Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        // whether a worker curating items in parallel was suspended
+        volatile boolean suspended = false;
 
         public TaskRunner(ResolvedTask task) {
             this.task = task;
@@ -559,6 +745,7 @@ public class Curator {
                     throw new IOException("DSpaceObject is null");
                 }
                 statusCode = task.perform(dso);
+                statusCounts.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
                 String id = (dso.getHandle() != null) ? dso.getHandle() : "workflow item: " + dso.getID();
                 logInfo(logMessage(id));
                 visit(dso);
@@ -576,6 +763,7 @@ public class Curator {
                     throw new IOException("Context or identifier is null");
                 }
                 statusCode = task.perform(c, id);
+                statusCounts.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
                 logInfo(logMessage(id));
                 visit(null);
                 return !suspend(statusCode);
@@ -0,0 +1,188 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.curate;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.core.Context;
+import org.dspace.curate.dao.QueuedCurationTaskDAO;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+
+/**
+ * Task queue kept in the curation_task_queue database table, which can be read by several curation processes at
+ * the same time, also on different servers.
+ * <p>
+ * Unlike the {@link FileTaskQueue}, dequeuing does not lock a whole queue: each reader claims at most
+ * curate.taskqueue.db.batch entries, skipping the entries other readers are claiming at the same time, until
+ * curate.taskqueue.db.timeout minutes later. Releasing the entries removes them from the queue, or makes them
+ * available again. Entries which were not released in time, e.g. because their reader failed, can be claimed again
+ * by another reader, until they were claimed curate.taskqueue.db.max.attempts times. Such entries are then logged
+ * and removed from the queue by the next reader.
+ * <p>
+ * The tickets of the readers are only unique within a process, so the claimed entries are marked with a random
+ * claim id instead, which is generated for each ticket.
+ */
+public class DBTaskQueue implements TaskQueue {
+    private static final Logger log = LogManager.getLogger(DBTaskQueue.class);
+
+    protected QueuedCurationTaskDAO queuedCurationTaskDAO;
+
+    protected ConfigurationService configurationService;
+
+    // claim id of each ticket
+    protected Map<Long, UUID> claimIds = new ConcurrentHashMap<>();
+
+    // ids of the entries claimed by each ticket
+    protected Map<Long, List<Integer>> claims = new ConcurrentHashMap<>();
+
+    public DBTaskQueue() {
+        queuedCurationTaskDAO = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                     .getServicesByType(QueuedCurationTaskDAO.class).get(0);
+        configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+    }
+
+    @Override
+    public String[] queueNames() {
+        Context context = new Context();
+        try {
+            List<String> queueNames = queuedCurationTaskDAO.findQueueNames(context);
+            context.complete();
+            return queueNames.toArray(new String[0]);
+        } catch (SQLException e) {
+            log.error("Unable to read the curation task queues", e);
+            return new String[0];
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+    }
+
+    @Override
+    public void enqueue(String queueName, TaskQueueEntry entry) throws IOException {
+        enqueue(queueName, Set.of(entry));
+    }
+
+    @Override
+    public void enqueue(String queueName, Set<TaskQueueEntry> entrySet) throws IOException {
+        Context context = new Context();
+        try {
+            for (TaskQueueEntry entry : entrySet) {
+                queuedCurationTaskDAO.create(context, new QueuedCurationTask(queueName, entry));
+            }
+            context.complete();
+        } catch (SQLException e) {
+            throw new IOException("Unable to queue curation tasks to " + queueName, e);
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+    }
+
+    @Override
+    public Set<TaskQueueEntry> dequeue(String queueName, long ticket) throws IOException {
+        int batchSize = configurationService.getIntProperty("curate.taskqueue.db.batch", 100);
+        int timeout = configurationService.getIntProperty("curate.taskqueue.db.timeout", 60);
+        int maxAttempts = configurationService.getIntProperty("curate.taskqueue.db.max.attempts", 3);
+
+        Set<TaskQueueEntry> entrySet = new HashSet<>();
+        List<Integer> claimed = new ArrayList<>();
+        UUID claimId = claimIds.computeIfAbsent(ticket, t -> UUID.randomUUID());
+        Context context = new Context();
+        try {
+            removeExhausted(context, queueName, maxAttempts);
+            Instant queueTimeout = Instant.now().plus(timeout, ChronoUnit.MINUTES);
+            for (QueuedCurationTask task : queuedCurationTaskDAO.findAvailableForUpdate(context, queueName,
+                                                                                       maxAttempts, batchSize)) {
+                task.setClaimId(claimId);
+                task.setQueueTimeout(queueTimeout);
+                task.setQueueAttempts(task.getQueueAttempts() + 1);
+                queuedCurationTaskDAO.save(context, task);
+                entrySet.add(task.getEntry());
+                claimed.add(task.getID());
+            }
+            // the claims are visible to the other readers once committed
+            context.complete();
+        } catch (SQLException e) {
+            throw new IOException("Unable to dequeue curation tasks from " + queueName, e);
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+        claims.computeIfAbsent(ticket, t -> new ArrayList<>()).addAll(claimed);
+        return entrySet;
+    }
+
+    /**
+     * Remove the entries of a queue which cannot be claimed anymore, as they were claimed as often as allowed.
+     *
+     * @param context     The relevant DSpace Context.
+     * @param queueName   the name of the queue
+     * @param maxAttempts the maximum number of times an entry may be claimed
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    protected void removeExhausted(Context context, String queueName, int maxAttempts) throws SQLException {
+        for (QueuedCurationTask task : queuedCurationTaskDAO.findExhaustedForUpdate(context, queueName,
+                                                                                    maxAttempts)) {
+            TaskQueueEntry entry = task.getEntry();
+            log.warn("Removing the entry {} of the curation task queue {}, tasks {} on {} queued by {}, which was "
+                         + "claimed {} times without being curated (curate.taskqueue.db.max.attempts)", task.getID(),
+                     queueName, entry.getTaskNames(), entry.getObjectId(), entry.getEpersonId(),
+                     task.getQueueAttempts());
+            queuedCurationTaskDAO.delete(context, task);
+        }
+    }
+
+    @Override
+    public void release(String queueName, long ticket, boolean removeEntries) {
+        UUID claimId = claimIds.remove(ticket);
+        List<Integer> claimed = claims.remove(ticket);
+        if (claimed == null) {
+            return;
+        }
+        Context context = new Context();
+        try {
+            for (Integer id : claimed) {
+                QueuedCurationTask task = queuedCurationTaskDAO.findByID(context, QueuedCurationTask.class, id);
+                // the entry may have been claimed by another reader once its claim timed out
+                if (task == null || !claimId.equals(task.getClaimId())) {
+                    continue;
+                }
+                if (removeEntries) {
+                    queuedCurationTaskDAO.delete(context, task);
+                } else {
+                    task.setClaimId(null);
+                    task.setQueueTimeout(null);
+                    queuedCurationTaskDAO.save(context, task);
+                }
+            }
+            context.complete();
+        } catch (SQLException e) {
+            log.error("Unable to release the curation tasks of " + queueName, e);
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+    }
+}
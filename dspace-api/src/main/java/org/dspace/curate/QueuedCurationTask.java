@@ -0,0 +1,129 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.curate;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.dspace.core.ReloadableEntity;
+import org.hibernate.Length;
+
+/**
+ * Database entity representation of the curation_task_queue table: a {@link TaskQueueEntry} queued by the
+ * {@link DBTaskQueue}.
+ * <p>
+ * An entry is claimed by a queue reader until its queue timeout, after which it can be claimed again by another
+ * reader if it was not removed from the queue, up to a maximum number of attempts.
+ */
+@Entity
+@Table(name = "curation_task_queue")
+public class QueuedCurationTask implements ReloadableEntity<Integer> {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "curation_task_queue_id_seq")
+    @SequenceGenerator(name = "curation_task_queue_id_seq", sequenceName = "curation_task_queue_id_seq",
+                       allocationSize = 1)
+    private Integer id;
+
+    @Column(name = "queue_name", nullable = false)
+    private String queueName;
+
+    @Column(name = "eperson")
+    private String eperson;
+
+    @Column(name = "submit_time", nullable = false)
+    private long submitTime;
+
+    @Column(name = "tasks", nullable = false, length = Length.LONG32)
+    private String tasks;
+
+    @Column(name = "object_id", nullable = false)
+    private String objectId;
+
+    /**
+     * The id of the claim of the reader which claimed the entry, null if it is not claimed
+     */
+    @Column(name = "claim_id")
+    private UUID claimId;
+
+    /**
+     * The time until which the entry is claimed, null if it is not claimed
+     */
+    @Column(name = "queue_timeout")
+    private Instant queueTimeout;
+
+    @Column(name = "queue_attempts", nullable = false)
+    private int queueAttempts = 0;
+
+    /**
+     * Protected constructor, entries are created by the {@link DBTaskQueue}
+     */
+    protected QueuedCurationTask() {
+
+    }
+
+    /**
+     * @param queueName the name of the queue
+     * @param entry     the queued entry
+     */
+    public QueuedCurationTask(String queueName, TaskQueueEntry entry) {
+        this.queueName = queueName;
+        this.eperson = entry.getEpersonId();
+        this.submitTime = entry.getSubmitTime();
+        this.tasks = String.join(",", entry.getTaskNames());
+        this.objectId = entry.getObjectId();
+    }
+
+    @Override
+    public Integer getID() {
+        return id;
+    }
+
+    public String getQueueName() {
+        return queueName;
+    }
+
+    /**
+     * @return the queued entry
+     */
+    public TaskQueueEntry getEntry() {
+        return new TaskQueueEntry(eperson, submitTime, Arrays.asList(tasks.split(",")), objectId);
+    }
+
+    public UUID getClaimId() {
+        return claimId;
+    }
+
+    public void setClaimId(UUID claimId) {
+        this.claimId = claimId;
+    }
+
+    public Instant getQueueTimeout() {
+        return queueTimeout;
+    }
+
+    public void setQueueTimeout(Instant queueTimeout) {
+        this.queueTimeout = queueTimeout;
+    }
+
+    public int getQueueAttempts() {
+        return queueAttempts;
+    }
+
+    public void setQueueAttempts(int queueAttempts) {
+        this.queueAttempts = queueAttempts;
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.curate.dao;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.dspace.core.Context;
+import org.dspace.core.GenericDAO;
+import org.dspace.curate.QueuedCurationTask;
+
+/**
+ * Database Access Object interface class for the QueuedCurationTask object.
+ * The implementation of this class is responsible for all database calls for the QueuedCurationTask object and is
+ * autowired by spring
+ * This class should only be accessed from the {@link org.dspace.curate.DBTaskQueue} and should never be exposed
+ * outside of the API
+ */
+public interface QueuedCurationTaskDAO extends GenericDAO<QueuedCurationTask> {
+
+    /**
+     * Returns the names of the queues which have entries.
+     *
+     * @param context The relevant DSpace Context.
+     * @return the queue names
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    List<String> findQueueNames(Context context) throws SQLException;
+
+    /**
+     * Returns the oldest entries of a queue which are not claimed, or whose claim timed out, and were claimed less
+     * than the given number of times. The rows of the entries are locked until the transaction ends, and rows locked
+     * by other transactions are skipped, so that concurrent readers claim different entries without waiting for
+     * each other.
+     *
+     * @param context     The relevant DSpace Context.
+     * @param queueName   the name of the queue
+     * @param maxAttempts the maximum number of times an entry may be claimed
+     * @param limit       the maximum number of entries
+     * @return the entries
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    List<QueuedCurationTask> findAvailableForUpdate(Context context, String queueName, int maxAttempts, int limit)
+        throws SQLException;
+
+    /**
+     * Returns the entries of a queue which were claimed the given number of times or more, and are not claimed
+     * anymore or whose claim timed out, so that they cannot be claimed again. The rows of the entries are locked
+     * until the transaction ends, and rows locked by other transactions are skipped.
+     *
+     * @param context     The relevant DSpace Context.
+     * @param queueName   the name of the queue
+     * @param maxAttempts the maximum number of times an entry may be claimed
+     * @return the entries
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    List<QueuedCurationTask> findExhaustedForUpdate(Context context, String queueName, int maxAttempts)
+        throws SQLException;
+}
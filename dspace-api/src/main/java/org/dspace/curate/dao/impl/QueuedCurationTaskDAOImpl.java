@@ -0,0 +1,78 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.curate.dao.impl;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import org.dspace.core.AbstractHibernateDAO;
+import org.dspace.core.Context;
+import org.dspace.curate.QueuedCurationTask;
+import org.dspace.curate.dao.QueuedCurationTaskDAO;
+import org.hibernate.LockOptions;
+import org.hibernate.jpa.SpecHints;
+
+/**
+ * Hibernate implementation of the Database Access Object interface class for the QueuedCurationTask object.
+ * This class is responsible for all database calls for the QueuedCurationTask object and is autowired by Spring.
+ * This class should never be accessed directly.
+ */
+public class QueuedCurationTaskDAOImpl extends AbstractHibernateDAO<QueuedCurationTask>
+    implements QueuedCurationTaskDAO {
+
+    protected QueuedCurationTaskDAOImpl() {
+        super();
+    }
+
+    @Override
+    public List<String> findQueueNames(Context context) throws SQLException {
+        Query query = createQuery(context, "SELECT DISTINCT q.queueName FROM QueuedCurationTask q");
+
+        @SuppressWarnings("unchecked")
+        List<String> results = query.getResultList();
+        return results;
+    }
+
+    @Override
+    public List<QueuedCurationTask> findAvailableForUpdate(Context context, String queueName, int maxAttempts,
+                                                           int limit) throws SQLException {
+        Query query = createQuery(context, "SELECT q FROM QueuedCurationTask q " +
+            "WHERE q.queueName = :queueName " +
+            "AND (q.queueTimeout IS NULL OR q.queueTimeout < :now) " +
+            "AND q.queueAttempts < :maxAttempts " +
+            "ORDER BY q.id");
+        query.setParameter("queueName", queueName);
+        query.setParameter("now", Instant.now());
+        query.setParameter("maxAttempts", maxAttempts);
+        // FOR UPDATE SKIP LOCKED
+        query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        query.setHint(SpecHints.HINT_SPEC_LOCK_TIMEOUT, LockOptions.SKIP_LOCKED);
+        query.setMaxResults(limit);
+        return list(query);
+    }
+
+    @Override
+    public List<QueuedCurationTask> findExhaustedForUpdate(Context context, String queueName, int maxAttempts)
+        throws SQLException {
+        Query query = createQuery(context, "SELECT q FROM QueuedCurationTask q " +
+            "WHERE q.queueName = :queueName " +
+            "AND (q.queueTimeout IS NULL OR q.queueTimeout < :now) " +
+            "AND q.queueAttempts >= :maxAttempts " +
+            "ORDER BY q.id");
+        query.setParameter("queueName", queueName);
+        query.setParameter("now", Instant.now());
+        query.setParameter("maxAttempts", maxAttempts);
+        // FOR UPDATE SKIP LOCKED
+        query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        query.setHint(SpecHints.HINT_SPEC_LOCK_TIMEOUT, LockOptions.SKIP_LOCKED);
+        return list(query);
+    }
+}
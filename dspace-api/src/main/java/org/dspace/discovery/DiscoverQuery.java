@@ -28,6 +28,11 @@ import org.dspace.discovery.configuration.DiscoverySearchFilterFacet;
  */
 public class DiscoverQuery {
 
+    /**
+     * The cursor mark of the first page, see {@link #setCursorMark(String)}
+     */
+    public static final String CURSOR_MARK_START = "*";
+
     /**
      * Main attributes for the discovery query
      **/
@@ -39,6 +44,7 @@ public class DiscoverQuery {
 
     private int start = 0;
     private int maxResults = -1;
+    private String cursorMark;
 
     /**
      * Attributes used for sorting of results
@@ -102,6 +108,29 @@ public class DiscoverQuery {
         this.start = start;
     }
 
+    /**
+     * The cursor mark of the page returned by this query, null when the page starts at the start offset
+     *
+     * @return the cursor mark
+     */
+    public String getCursorMark() {
+        return cursorMark;
+    }
+
+    /**
+     * Sets the cursor mark of the page returned by this query instead of its start offset: {@link #CURSOR_MARK_START}
+     * for the first page, then the {@link DiscoverResult#getNextCursorMark()} of the previous page. Unlike with an
+     * offset, the documents of the previous pages are not collected again to find a page, so that the deep pages of a
+     * large result are as fast as the first one. The results are sorted by the unique id of the documents after the
+     * sort field. This is meant for iterating over all results, the last page is reached when the next cursor mark
+     * equals the cursor mark of the query.
+     *
+     * @param cursorMark the cursor mark, or null to start at the start offset
+     */
+    public void setCursorMark(String cursorMark) {
+        this.cursorMark = cursorMark;
+    }
+
     public void setSortField(String sortField, SORT_ORDER sortOrder) {
         this.sortField = sortField;
         this.sortOrder = sortOrder;
@@ -41,6 +41,7 @@ public class DiscoverResult {
     private Map<String, List<SearchDocument>> searchDocuments;
     private int maxResults = -1;
     private int searchTime;
+    private String nextCursorMark;
     private Map<String, IndexableObjectHighlightResult> highlightedResults;
     private String spellCheckQuery;
 
@@ -99,6 +100,20 @@ public class DiscoverResult {
         this.searchTime = searchTime;
     }
 
+    /**
+     * The cursor mark of the page after this one, when the query was paged with
+     * {@link DiscoverQuery#setCursorMark(String)}. It equals the cursor mark of the query once all results were read.
+     *
+     * @return the next cursor mark, or null when the query was not paged with a cursor
+     */
+    public String getNextCursorMark() {
+        return nextCursorMark;
+    }
+
+    public void setNextCursorMark(String nextCursorMark) {
+        this.nextCursorMark = nextCursorMark;
+    }
+
     public void addFacetResult(String facetField, FacetResult... facetResults) {
         List<FacetResult> facetValues = this.facetResults.get(facetField);
         if (facetValues == null) {
@@ -18,6 +18,9 @@ import org.dspace.core.ReloadableEntity;
 
 /**
  * Implementation of {@link Iterator} to iterate over the discover search result.
+ * <p>
+ * The pages are read with a cursor (see {@link DiscoverQuery#setCursorMark(String)}), unless the query starts at an
+ * offset, so that iterating over a large result does not slow down with the depth.
  *
  * @param <T>  the type of the indexed object
  * @param <PK> the type of the id of the indexed object
@@ -74,6 +77,9 @@ public class DiscoverResultIterator<T extends ReloadableEntity, PK extends Seria
         this.searchService = SearchUtils.getSearchService();
         this.uncacheEntitites = uncacheEntities;
         this.maxResults = maxResults;
+        if (discoverQuery.getCursorMark() == null && discoverQuery.getStart() <= 0) {
+            discoverQuery.setCursorMark(DiscoverQuery.CURSOR_MARK_START);
+        }
 
         updateCurrentSlotIterator();
     }
@@ -94,6 +100,18 @@ public class DiscoverResultIterator<T extends ReloadableEntity, PK extends Seria
             return true;
         }
 
+        if (discoverQuery.getCursorMark() != null) {
+            // a page has no objects when all its documents are stale, the next page is read then
+            while (!currentSlotIterator.hasNext() && !isLastPage()) {
+                if (uncacheEntitites) {
+                    uncacheEntitites();
+                }
+                this.discoverQuery.setCursorMark(currentDiscoverResult.getNextCursorMark());
+                updateCurrentSlotIterator();
+            }
+            return currentSlotIterator.hasNext();
+        }
+
         this.discoverQuery.setStart(iteratorCounter);
 
         if (uncacheEntitites) {
@@ -145,6 +163,11 @@ public class DiscoverResultIterator<T extends ReloadableEntity, PK extends Seria
         return currentSlotIterator.next();
     }
 
+    private boolean isLastPage() {
+        String nextCursorMark = currentDiscoverResult.getNextCursorMark();
+        return nextCursorMark == null || nextCursorMark.equals(discoverQuery.getCursorMark());
+    }
+
     private void uncacheEntitites() {
         List<IndexableObject> indexableObjects = currentDiscoverResult.getIndexableObjects();
         for (IndexableObject indexableObj : indexableObjects) {
@@ -7,15 +7,24 @@
  */
 package org.dspace.discovery;
 
+import static org.dspace.discovery.IndexClientOptions.PROGRESS_OPTION;
 import static org.dspace.discovery.IndexClientOptions.TYPE_OPTION;
+import static org.dspace.discovery.IndexClientOptions.WORKERS_OPTION;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -102,8 +111,13 @@ public class IndexClient extends DSpaceRunnable<IndexDiscoveryScriptConfiguratio
                                     + ", type will be ignored",
                             TYPE_OPTION));
                 }
-                indexer.deleteIndex();
-                indexer.createIndex(context);
+                int workers = getWorkers();
+                if (workers > 1) {
+                    rebuildInParallel(workers);
+                } else {
+                    indexer.deleteIndex();
+                    indexer.createIndex(context);
+                }
                 if (indexClientOptions == IndexClientOptions.BUILDANDSPELLCHECK) {
                     checkRebuildSpellCheck(commandLine, indexer);
                 }
@@ -164,6 +178,90 @@ public class IndexClient extends DSpaceRunnable<IndexDiscoveryScriptConfiguratio
         indexClientOptions = IndexClientOptions.getIndexClientOption(commandLine);
     }
 
+    /**
+     * Determine the number of worker threads to use for an index rebuild, from the command line or else from the
+     * "discovery.index.parallel.workers" configuration property.
+     *
+     * @return the number of workers, at least 1
+     */
+    private int getWorkers() {
+        int workers = DSpaceServicesFactory.getInstance().getConfigurationService()
+                .getIntProperty("discovery.index.parallel.workers", 1);
+        if (commandLine.hasOption(WORKERS_OPTION)) {
+            try {
+                workers = Integer.parseInt(commandLine.getOptionValue(WORKERS_OPTION));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The number of workers must be a number: "
+                        + commandLine.getOptionValue(WORKERS_OPTION));
+            }
+        }
+        return Math.max(workers, 1);
+    }
+
+    /**
+     * Rebuild the index using multiple workers for the items. All other object types are indexed first, on the
+     * current thread. If a progress file was given and it already exists, the index is not wiped and the item
+     * partitions listed in the file are skipped, so an interrupted rebuild continues where it stopped.
+     *
+     * @param workers the number of worker threads used to index the items
+     * @throws IOException            If the progress file could not be read or written
+     * @throws SQLException           If database error occurs.
+     * @throws SearchServiceException If a search service error occurs.
+     */
+    private void rebuildInParallel(int workers) throws IOException, SQLException, SearchServiceException {
+        final Path progressFile = commandLine.hasOption(PROGRESS_OPTION)
+                ? Paths.get(commandLine.getOptionValue(PROGRESS_OPTION)) : null;
+        final Set<String> completedPartitions = new HashSet<>();
+        if (progressFile != null && Files.exists(progressFile)) {
+            for (String line : Files.readAllLines(progressFile, StandardCharsets.UTF_8)) {
+                if (StringUtils.isNotBlank(line)) {
+                    completedPartitions.add(line.trim());
+                }
+            }
+        }
+
+        if (completedPartitions.isEmpty()) {
+            indexer.deleteIndex();
+        } else {
+            handler.logInfo("Resuming rebuild, skipping " + completedPartitions.size() + " of "
+                    + ItemIndexPartition.PARTITION_COUNT + " completed item partitions");
+        }
+
+        for (IndexFactory indexFactory : IndexObjectFactoryFactory.getInstance().getIndexFactories()) {
+            if (!StringUtils.equals(indexFactory.getType(), IndexableItem.TYPE)) {
+                indexer.updateIndex(context, true, indexFactory.getType());
+            }
+        }
+
+        handler.logInfo("Indexing items using " + workers + " workers");
+        final long startTimeMillis = Instant.now().toEpochMilli();
+        final int total = ItemIndexPartition.PARTITION_COUNT;
+        final Set<String> finishedPartitions = new HashSet<>(completedPartitions);
+        final long count = indexer.updateItemIndex(workers, completedPartitions, (partition, partitionCount) -> {
+            synchronized (finishedPartitions) {
+                finishedPartitions.add(partition.getId());
+                if (progressFile != null) {
+                    try {
+                        Files.write(progressFile, List.of(partition.getId()), StandardCharsets.UTF_8,
+                                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                    } catch (IOException e) {
+                        handler.logWarning("Unable to record progress of partition " + partition.getId()
+                                + " in " + progressFile + ": " + e.getMessage());
+                    }
+                }
+                handler.logInfo("Finished item partition " + partition.getId() + " (" + partitionCount
+                        + " items), " + finishedPartitions.size() + "/" + total + " partitions done");
+            }
+        });
+        final long seconds = (Instant.now().toEpochMilli() - startTimeMillis) / 1000;
+        handler.logInfo("Indexed " + count + " items in " + seconds + " seconds");
+
+        // The rebuild finished, a next run has to start from scratch
+        if (progressFile != null) {
+            Files.deleteIfExists(progressFile);
+        }
+    }
+
     /**
      * Resolves the given parameter to an IndexableObject (Item, Collection, or Community).
      *
@@ -35,6 +35,8 @@ public enum IndexClientOptions {
     HELP;
 
     public static final String TYPE_OPTION = "t";
+    public static final String WORKERS_OPTION = "w";
+    public static final String PROGRESS_OPTION = "p";
 
     /**
      * This method resolves the CommandLine parameters to figure out which action the index-discovery script should
@@ -92,6 +94,11 @@ public enum IndexClientOptions {
         options.addOption("d", "delete", false,
                 "delete all records from existing index");
         options.addOption("b", "build", false, "(re)build index, wiping out current one if it exists");
+        options.addOption(WORKERS_OPTION, "workers", true,
+                          "number of worker threads used to rebuild the item index, can be combined with -b");
+        options.addOption(PROGRESS_OPTION, "progress", true,
+                          "file recording the finished partitions of a rebuild with multiple workers (-b -w). " +
+                          "If the file exists, the rebuild resumes and skips the partitions it lists.");
         options.addOption("s", "spellchecker", false, "Rebuild the spellchecker, can be combined with -b and -f.");
         options.addOption("f", "force", false,
                           "if updating existing index, force each handle to be reindexed even if up-to-date");
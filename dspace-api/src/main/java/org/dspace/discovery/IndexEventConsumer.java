@@ -236,7 +236,8 @@ public class IndexEventConsumer implements Consumer {
         } finally {
             if (!objectsToUpdate.isEmpty() || !uniqueIdsToDelete.isEmpty()) {
 
-                indexer.commit();
+                // send all buffered updates of this transaction to solr in a single request
+                indexer.flush();
 
                 // "free" the resources
                 objectsToUpdate.clear();
@@ -10,6 +10,8 @@ package org.dspace.discovery;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 import org.apache.solr.client.solrj.SolrServerException;
 import org.dspace.core.Context;
@@ -66,12 +68,33 @@ public interface IndexingService {
 
     void updateIndex(Context context, boolean force, String type);
 
+    /**
+     * Rebuild the index of all regular items using a pool of worker threads. The items are split into
+     * {@link ItemIndexPartition}s, each of which is indexed by a single worker using its own read-only Context. The
+     * resulting documents are written to the search core in batches.
+     *
+     * @param workers             The number of worker threads to use
+     * @param completedPartitions Identifiers of the partitions to skip, e.g. because an earlier run completed them
+     * @param partitionListener   Notified with the partition and its number of indexed items every time a
+     *                            partition has been indexed completely. Called from the worker threads.
+     * @return the total number of indexed items
+     */
+    long updateItemIndex(int workers, Set<String> completedPartitions,
+                         BiConsumer<ItemIndexPartition, Long> partitionListener) throws SearchServiceException;
+
     void cleanIndex() throws IOException, SQLException, SearchServiceException;
 
     void deleteIndex();
 
     void commit() throws SearchServiceException;
 
+    /**
+     * Send all buffered document updates to the search core. If the search core is configured to commit the updates
+     * by itself ("discovery.index.batch.commitWithin"), no explicit commit is done; otherwise this is equal to
+     * {@link #commit()}.
+     */
+    void flush() throws SearchServiceException;
+
     void optimize() throws SearchServiceException;
 
     void buildSpellCheck() throws SearchServiceException, IOException;
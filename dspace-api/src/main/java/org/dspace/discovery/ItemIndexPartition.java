@@ -0,0 +1,103 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A range of the item UUID space which can be indexed independently of all other ranges.
+ * <p>
+ * The UUID space is split into {@link #PARTITION_COUNT} partitions based on the first byte of the UUID. As the
+ * partitions do not depend on the content of the repository, they are the same for every run, which allows an
+ * interrupted parallel index rebuild to be resumed by skipping the partitions that were already completed.
+ * <p>
+ * The items of a partition are selected by the database, comparing their UUID with the bounds of the partition. This
+ * relies on the database ordering UUIDs by their unsigned bytes, as PostgreSQL and H2 do, which is not the order of
+ * {@link UUID#compareTo(UUID)}. Use {@link #contains(UUID)} to check that an item selected for a partition belongs to
+ * it.
+ */
+public class ItemIndexPartition {
+
+    /**
+     * The number of partitions the UUID space is split into
+     */
+    public static final int PARTITION_COUNT = 256;
+
+    private static final List<ItemIndexPartition> PARTITIONS;
+
+    static {
+        List<ItemIndexPartition> partitions = new ArrayList<>(PARTITION_COUNT);
+        for (int prefix = 0; prefix < PARTITION_COUNT; prefix++) {
+            partitions.add(new ItemIndexPartition(prefix, uuidWithPrefix(prefix),
+                                                  prefix + 1 < PARTITION_COUNT ? uuidWithPrefix(prefix + 1) : null));
+        }
+        PARTITIONS = Collections.unmodifiableList(partitions);
+    }
+
+    private final String id;
+    private final int prefix;
+    private final UUID lowerBound;
+    private final UUID upperBound;
+
+    private ItemIndexPartition(int prefix, UUID lowerBound, UUID upperBound) {
+        this.id = String.format("%02x", prefix);
+        this.prefix = prefix;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
+    /**
+     * Retrieve all partitions, ordered by their UUID range.
+     * @return an unmodifiable list of all partitions
+     */
+    public static List<ItemIndexPartition> getPartitions() {
+        return PARTITIONS;
+    }
+
+    private static UUID uuidWithPrefix(int prefix) {
+        return new UUID(((long) prefix) << 56, 0L);
+    }
+
+    /**
+     * The identifier of this partition: the first byte of all UUIDs in the partition as two hexadecimal digits.
+     * @return the partition identifier
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the inclusive lower bound of the UUIDs in this partition
+     */
+    public UUID getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * @return the exclusive upper bound of the UUIDs in this partition, or null for the last partition
+     */
+    public UUID getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * @param uuid a UUID
+     * @return whether the UUID lies within this partition, i.e. starts with the byte of this partition
+     */
+    public boolean contains(UUID uuid) {
+        return (int) (uuid.getMostSignificantBits() >>> 56) == prefix;
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
@@ -56,7 +56,7 @@ public interface SearchService {
 
     /**
      * Convenience method to call @see #search(Context, DSpaceObject, DiscoverQuery) and getting an iterator for the
-     * results
+     * results. The results are read page by page with a cursor, the start offset of the query is ignored.
      *
      * @param context   DSpace context object
      * @param dso       a DSpace object to use as a scope of the search
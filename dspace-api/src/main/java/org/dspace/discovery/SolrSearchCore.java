@@ -50,6 +50,11 @@ public class SolrSearchCore {
      */
     public SolrRequest.METHOD REQUEST_METHOD = SolrRequest.METHOD.POST;
 
+    /**
+     * Buffers collecting the document updates of each thread for this core, see {@link #getUpdateBuffer()}
+     */
+    protected final ThreadLocal<SolrUpdateBuffer> updateBuffers = ThreadLocal.withInitial(this::createUpdateBuffer);
+
     /**
      * Get access to current SolrClient. If no current SolrClient exists, a new one is initialized, see initSolr().
      * @return SolrClient Solr client
@@ -69,6 +74,24 @@ public class SolrSearchCore {
         return solr;
     }
 
+    /**
+     * Get access to the buffer through which the document updates and deletes of the current thread for this core
+     * are sent, so they reach Solr in batches. Each thread has its own buffer, so flushing it never sends the updates
+     * of a transaction running in another thread. If the thread has no buffer yet, it is created using the
+     * "discovery.index.batch.*" configuration.
+     * @return the update buffer of the current thread for this core
+     */
+    public SolrUpdateBuffer getUpdateBuffer() {
+        return updateBuffers.get();
+    }
+
+    private SolrUpdateBuffer createUpdateBuffer() {
+        return new SolrUpdateBuffer(this,
+                configurationService.getIntProperty("discovery.index.batch.size", 100),
+                configurationService.getLongProperty("discovery.index.batch.flushInterval", 1000),
+                configurationService.getIntProperty("discovery.index.batch.commitWithin", -1));
+    }
+
     /**
      * Initialize the solr search core
      */
@@ -24,8 +24,15 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 
 import jakarta.mail.MessagingException;
 import org.apache.commons.collections4.CollectionUtils;
@@ -44,6 +51,7 @@ import org.apache.solr.client.solrj.util.ClientUtils;
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.apache.solr.common.params.FacetParams;
 import org.apache.solr.common.params.HighlightParams;
 import org.apache.solr.common.params.MoreLikeThisParams;
@@ -221,7 +229,7 @@ public class SolrServiceImpl implements SearchService, IndexingService {
             log.info("Try to delete uniqueID:" + uniqueID);
             indexObjectServiceFactory.getIndexableObjectFactory(indexableObject).delete(indexableObject);
             if (commit) {
-                solrSearchCore.getSolr().commit();
+                solrSearchCore.getUpdateBuffer().flush(true);
             }
         } catch (IOException | SolrServerException exception) {
             log.error(exception.getMessage(), exception);
@@ -262,7 +270,7 @@ public class SolrServiceImpl implements SearchService, IndexingService {
                     log.warn("Object not found in Solr index: " + searchUniqueID);
                 }
                 if (commit) {
-                    solrSearchCore.getSolr().commit();
+                    solrSearchCore.getUpdateBuffer().flush(true);
                 }
             }
         } catch (SolrServerException e) {
@@ -351,7 +359,7 @@ public class SolrServiceImpl implements SearchService, IndexingService {
                 }
             }
             if (solrSearchCore.getSolr() != null) {
-                solrSearchCore.getSolr().commit();
+                solrSearchCore.getUpdateBuffer().flush(true);
             }
 
         } catch (IOException | SQLException | SolrServerException e) {
@@ -359,6 +367,89 @@ public class SolrServiceImpl implements SearchService, IndexingService {
         }
     }
 
+    @Override
+    public long updateItemIndex(int workers, Set<String> completedPartitions,
+                                BiConsumer<ItemIndexPartition, Long> partitionListener)
+        throws SearchServiceException {
+        if (solrSearchCore.getSolr() == null) {
+            return 0;
+        }
+        final int batchSize = configurationService.getIntProperty("discovery.index.parallel.batchSize", 100);
+        final ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (ItemIndexPartition partition : ItemIndexPartition.getPartitions()) {
+                if (completedPartitions.contains(partition.getId())) {
+                    continue;
+                }
+                results.add(executor.submit(() -> {
+                    long count = indexPartition(partition, batchSize);
+                    partitionListener.accept(partition, count);
+                    return count;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+            solrSearchCore.getUpdateBuffer().flush(true);
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SearchServiceException("Interrupted while rebuilding the item index", e);
+        } catch (ExecutionException | IOException | SolrServerException e) {
+            throw new SearchServiceException("Error while rebuilding the item index: " + e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Index all regular items of a single partition, using a new read-only Context. The documents are written to the
+     * search core in batches of the given size.
+     *
+     * @param partition the partition to index
+     * @param batchSize the maximum number of documents to send to the search core in a single request
+     * @return the number of indexed items
+     */
+    protected long indexPartition(ItemIndexPartition partition, int batchSize)
+        throws SQLException, IOException, SolrServerException {
+        final IndexFactory itemIndexFactory = indexObjectServiceFactory.getIndexFactoryByType(IndexableItem.TYPE);
+        final List<SolrInputDocument> batch = new ArrayList<>(batchSize);
+        long count = 0;
+        try (Context context = new Context(Context.Mode.READ_ONLY)) {
+            context.turnOffAuthorisationSystem();
+            final Iterator<Item> items = contentServiceFactory.getItemService()
+                .findAllRegularItems(context, partition.getLowerBound(), partition.getUpperBound());
+            while (items.hasNext()) {
+                final IndexableItem indexableItem = new IndexableItem(items.next());
+                if (!partition.contains(indexableItem.getID())) {
+                    // the partitions would overlap, and miss items, see ItemIndexPartition
+                    throw new IllegalStateException("Item " + indexableItem.getID() + " is not in partition "
+                        + partition + ", the database does not order UUIDs by their unsigned bytes");
+                }
+                try {
+                    final SolrInputDocument document = itemIndexFactory.buildDocument(context, indexableItem);
+                    itemIndexFactory.completeDocument(context, indexableItem, document);
+                    batch.add(document);
+                    count++;
+                } catch (IOException | SQLException e) {
+                    log.error("Unable to index item {} of partition {}", indexableItem.getID(), partition, e);
+                }
+                context.uncacheEntity(indexableItem.getIndexedObject());
+                if (batch.size() >= batchSize) {
+                    solrSearchCore.getSolr().add(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                solrSearchCore.getSolr().add(batch);
+            }
+        }
+        log.info("Indexed {} items of partition {}", count, partition);
+        return count;
+    }
+
     /**
      * Removes all documents from the Lucene index
      */
@@ -391,28 +482,25 @@ public class SolrServiceImpl implements SearchService, IndexingService {
             if (solrSearchCore.getSolr() == null) {
                 return;
             }
-            // First, we'll just get a count of the total results
-            SolrQuery countQuery = new SolrQuery("*:*");
-            countQuery.setRows(0);  // don't actually request any data
-            // Get the total amount of results
-            QueryResponse totalResponse = solrSearchCore.getSolr().query(countQuery,
-                                                                         solrSearchCore.REQUEST_METHOD);
-            long total = totalResponse.getResults().getNumFound();
-
-            int start = 0;
             int batch = 100;
 
-            // Now get actual Solr Documents in batches
+            // Get the Solr Documents in batches, paging with a cursor so that no document is skipped when the
+            // documents of the previous batches are deleted
             SolrQuery query = new SolrQuery();
             query.setFields(SearchUtils.RESOURCE_UNIQUE_ID, SearchUtils.RESOURCE_ID_FIELD,
                             SearchUtils.RESOURCE_TYPE_FIELD);
             query.addSort(SearchUtils.RESOURCE_UNIQUE_ID, SolrQuery.ORDER.asc);
             query.setQuery("*:*");
             query.setRows(batch);
-            // Keep looping until we hit the total number of Solr docs
-            while (start < total) {
-                query.setStart(start);
+            String cursorMark = CursorMarkParams.CURSOR_MARK_START;
+            boolean done = false;
+            // Keep looping until the cursor does not move anymore
+            while (!done) {
+                query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
                 QueryResponse rsp = solrSearchCore.getSolr().query(query, solrSearchCore.REQUEST_METHOD);
+                String nextCursorMark = rsp.getNextCursorMark();
+                done = cursorMark.equals(nextCursorMark);
+                cursorMark = nextCursorMark;
                 SolrDocumentList docs = rsp.getResults();
 
                 for (SolrDocument doc : docs) {
@@ -431,8 +519,6 @@ public class SolrServiceImpl implements SearchService, IndexingService {
                         log.debug("Keeping: " + o.getUniqueIndexID());
                     }
                 }
-
-                start += batch;
             }
         } catch (IOException | SQLException | SolrServerException e) {
             log.error("Error cleaning discovery index: " + e.getMessage(), e);
@@ -487,6 +573,8 @@ public class SolrServiceImpl implements SearchService, IndexingService {
         solrInputDocument.addField(SearchUtils.RESOURCE_UNIQUE_ID, uniqueIndexId);
         solrInputDocument.addField(field, fieldModifier);
 
+        // Send any buffered update of the document first, so it does not overwrite this atomic update
+        solrSearchCore.getUpdateBuffer().flush(false);
         solrSearchCore.getSolr().add(solrInputDocument);
     }
 
@@ -710,23 +798,15 @@ public class SolrServiceImpl implements SearchService, IndexingService {
     }
 
     /**
-     * This class implements an iterator over items that is specifically used to iterate over search results
+     * This class implements an iterator over items that is specifically used to iterate over search results.
+     * The pages of results are read with a cursor, see {@link DiscoverQuery#setCursorMark(String)}.
      */
     private class SearchIterator implements Iterator<Item> {
         private Context context;
         private DiscoverQuery discoverQuery;
         private DiscoverResult discoverResult;
         private IndexableObject dso;
-        private int absoluteCursor;
-        private int relativeCursor;
-        private int pagesize;
-
-        SearchIterator(Context context, DiscoverQuery discoverQuery) throws SearchServiceException {
-            this.context = context;
-            this.discoverQuery = discoverQuery;
-            this.absoluteCursor = discoverQuery.getStart();
-            initialise();
-        }
+        private Iterator<IndexableObject> page;
 
         SearchIterator(Context context, IndexableObject dso, DiscoverQuery discoverQuery)
             throws SearchServiceException {
@@ -737,41 +817,42 @@ public class SolrServiceImpl implements SearchService, IndexingService {
         }
 
         private void initialise() throws SearchServiceException {
-            this.relativeCursor = 0;
-            if (discoverQuery.getMaxResults() != -1) {
-                pagesize = discoverQuery.getMaxResults();
-            } else {
-                pagesize = 10;
+            if (discoverQuery.getMaxResults() == -1) {
+                discoverQuery.setMaxResults(10);
             }
-            discoverQuery.setMaxResults(pagesize);
+            discoverQuery.setCursorMark(DiscoverQuery.CURSOR_MARK_START);
             this.discoverResult = search(context, dso, discoverQuery);
+            this.page = discoverResult.getIndexableObjects().iterator();
         }
 
         @Override
         public boolean hasNext() {
-            return absoluteCursor < discoverResult.getTotalSearchResults();
-        }
-
-        @Override
-        public Item next() {
-            //paginate getting results from the discoverquery.
-            if (relativeCursor == pagesize) {
+            // a page has no objects when all its documents are stale, the next page is read then
+            while (!page.hasNext() && !isLastPage()) {
                 //  get a new page of results when the last element of the previous page has been read
-                int offset = absoluteCursor;
-                // reset the position counter for getting element relativecursor on a page
-                relativeCursor = 0;
-                discoverQuery.setStart(offset);
+                discoverQuery.setCursorMark(discoverResult.getNextCursorMark());
                 try {
-                    discoverResult = search(context, dso, discoverQuery);
+                    discoverResult = search(context, discoverQuery);
                 } catch (SearchServiceException e) {
                     log.error("error while getting search results", e);
+                    return false;
                 }
+                page = discoverResult.getIndexableObjects().iterator();
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public Item next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
-            // get the element at position relativecursor on a page
-            IndexableObject res = discoverResult.getIndexableObjects().get(relativeCursor);
-            relativeCursor++;
-            absoluteCursor++;
-            return (Item) res.getIndexedObject();
+            return (Item) page.next().getIndexedObject();
+        }
+
+        private boolean isLastPage() {
+            String nextCursorMark = discoverResult.getNextCursorMark();
+            return nextCursorMark == null || nextCursorMark.equals(discoverQuery.getCursorMark());
         }
     }
 
@@ -821,7 +902,10 @@ public class SolrServiceImpl implements SearchService, IndexingService {
             solrQuery.addFilterQuery(filterQuery + ":[* TO *]");
         }
 
-        if (discoveryQuery.getStart() != -1) {
+        if (discoveryQuery.getCursorMark() != null) {
+            // a page is found with the cursor instead of an offset
+            solrQuery.set(CursorMarkParams.CURSOR_MARK_PARAM, discoveryQuery.getCursorMark());
+        } else if (discoveryQuery.getStart() != -1) {
             solrQuery.setStart(discoveryQuery.getStart());
         }
 
@@ -837,6 +921,11 @@ public class SolrServiceImpl implements SearchService, IndexingService {
 
             solrQuery.addSort(discoveryQuery.getSortField(), order);
         }
+        if (discoveryQuery.getCursorMark() != null
+            && !SearchUtils.RESOURCE_UNIQUE_ID.equals(discoveryQuery.getSortField())) {
+            // a cursor needs a sort on the unique key, to order the documents with the same sort value
+            solrQuery.addSort(SearchUtils.RESOURCE_UNIQUE_ID, SolrQuery.ORDER.asc);
+        }
 
         for (String property : discoveryQuery.getProperties().keySet()) {
             List<String> values = discoveryQuery.getProperties().get(property);
@@ -933,6 +1022,7 @@ public class SolrServiceImpl implements SearchService, IndexingService {
                 result.setStart(query.getStart());
                 result.setMaxResults(query.getMaxResults());
                 result.setTotalSearchResults(solrQueryResponse.getResults().getNumFound());
+                result.setNextCursorMark(solrQueryResponse.getNextCursorMark());
 
                 List<String> searchFields = query.getSearchFields();
                 for (SolrDocument doc : solrQueryResponse.getResults()) {
@@ -1516,7 +1606,19 @@ public class SolrServiceImpl implements SearchService, IndexingService {
     public void commit() throws SearchServiceException {
         try {
             if (solrSearchCore.getSolr() != null) {
-                solrSearchCore.getSolr().commit();
+                solrSearchCore.getUpdateBuffer().flush(true);
+            }
+        } catch (IOException | SolrServerException e) {
+            throw new SearchServiceException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void flush() throws SearchServiceException {
+        try {
+            if (solrSearchCore.getSolr() != null) {
+                SolrUpdateBuffer updateBuffer = solrSearchCore.getUpdateBuffer();
+                updateBuffer.flush(!updateBuffer.isCommitWithinEnabled());
             }
         } catch (IOException | SolrServerException e) {
             throw new SearchServiceException(e.getMessage(), e);
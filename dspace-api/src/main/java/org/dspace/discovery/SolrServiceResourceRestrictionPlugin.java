@@ -10,6 +10,8 @@ package org.dspace.discovery;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
@@ -153,10 +155,14 @@ public class SolrServiceResourceRestrictionPlugin implements SolrServiceIndexPlu
                     resourceQuery.append(" OR e").append(currentUser.getID());
                 }
 
-                //Retrieve all the groups the current user is a member of !
-                Set<Group> groups = groupService.allMemberGroupsSet(context, currentUser);
-                for (Group group : groups) {
-                    resourceQuery.append(" OR g").append(group.getID());
+                //Retrieve all the groups the current user is a member of, from its precomputed groups !
+                //Sorted, so the same user gets the same filter query, which Solr can then cache
+                Set<UUID> groupIds = new TreeSet<>(groupService.allMemberGroupIDs(context, currentUser));
+                if (anonymousGroup != null) {
+                    groupIds.remove(anonymousGroup.getID());
+                }
+                for (UUID groupId : groupIds) {
+                    resourceQuery.append(" OR g").append(groupId);
                 }
 
                 resourceQuery.append(")");
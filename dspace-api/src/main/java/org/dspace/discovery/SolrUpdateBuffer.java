@@ -0,0 +1,299 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.AbstractUpdateRequest;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.common.SolrInputDocument;
+
+/**
+ * Collects the document updates and deletes for the search core, and sends them to Solr as a single
+ * {@link UpdateRequest} instead of one request per document.
+ * <p>
+ * The buffer is flushed when it holds the configured number of updates, when the oldest buffered update is older
+ * than the configured flush interval, and whenever the index is committed (e.g. at the end of
+ * {@link IndexEventConsumer#end(org.dspace.core.Context)}). Multiple updates of the same document within one batch
+ * are collapsed into the last one.
+ * <p>
+ * Each thread has its own buffer (see {@link SolrSearchCore#getUpdateBuffer()}), so a flush only sends the updates
+ * made by the calling thread, i.e. by the transaction it is indexing, and never those of a transaction running in
+ * another thread. When a batch is rejected, its documents are sent one by one, and the flush fails if any of them
+ * still cannot be written. The failure of a flush on expiry of the flush interval is reported by the next flush of
+ * the buffer.
+ * <p>
+ * Configuration:
+ * <ul>
+ *     <li>discovery.index.batch.size: the maximum number of buffered updates (default 100, 1 disables buffering)</li>
+ *     <li>discovery.index.batch.flushInterval: the maximum time in milliseconds an update stays in the buffer
+ *     (default 1000)</li>
+ *     <li>discovery.index.batch.commitWithin: if positive, the time in milliseconds within which Solr should commit
+ *     the flushed updates. When not set, the updates are committed explicitly at the end of each transaction.</li>
+ * </ul>
+ */
+public class SolrUpdateBuffer {
+
+    private static final Logger log = LogManager.getLogger(SolrUpdateBuffer.class);
+
+    private final SolrSearchCore solrSearchCore;
+    private final int batchSize;
+    private final long flushInterval;
+    private final int commitWithin;
+
+    // Pending document updates, keyed on their unique index id, and pending deletes, both in submission order
+    private final Map<String, SolrInputDocument> documents = new LinkedHashMap<>();
+    private final Set<String> deletes = new LinkedHashSet<>();
+    // Time at which the oldest pending update was buffered, 0 if the buffer is empty
+    private long oldestUpdate = 0;
+
+    // Held while sending a batch, so batches reach Solr in the order in which they were taken from the buffer
+    private final Object flushLock = new Object();
+
+    // Failure of the last flush on expiry, thrown by the next flush
+    private Exception expiredFlushFailure = null;
+
+    // Shared by the buffers of all threads
+    private static ScheduledExecutorService flushScheduler;
+
+    /**
+     * Create a new buffer for the given search core.
+     *
+     * @param solrSearchCore the search core to send the updates to
+     * @param batchSize      the number of buffered updates after which the buffer is flushed
+     * @param flushInterval  the maximum time in milliseconds an update stays in the buffer, 0 or less to only flush
+     *                       on size or commit
+     * @param commitWithin   the time in milliseconds within which Solr should commit the updates, 0 or less to rely
+     *                       on explicit commits
+     */
+    public SolrUpdateBuffer(SolrSearchCore solrSearchCore, int batchSize, long flushInterval, int commitWithin) {
+        this.solrSearchCore = solrSearchCore;
+        this.batchSize = Math.max(batchSize, 1);
+        this.flushInterval = flushInterval;
+        this.commitWithin = commitWithin;
+    }
+
+    /**
+     * Buffer a document to be added to (or replaced in) the search core.
+     *
+     * @param document the document to add
+     * @throws IOException         if the buffer had to be flushed and the flush failed
+     * @throws SolrServerException if the buffer had to be flushed and the flush failed
+     */
+    public void add(SolrInputDocument document) throws IOException, SolrServerException {
+        Object uniqueId = document.getFieldValue(SearchUtils.RESOURCE_UNIQUE_ID);
+        if (uniqueId == null) {
+            // Cannot be collapsed with other updates of the same document, keep it in order by flushing first
+            flush(false);
+            solrSearchCore.getSolr().add(document);
+            return;
+        }
+        synchronized (this) {
+            deletes.remove(uniqueId.toString());
+            documents.put(uniqueId.toString(), document);
+            if (!markPendingAndCheckFull()) {
+                return;
+            }
+        }
+        flush(false);
+    }
+
+    /**
+     * Buffer the removal of a document from the search core.
+     *
+     * @param uniqueId the unique index id of the document to remove
+     * @throws IOException         if the buffer had to be flushed and the flush failed
+     * @throws SolrServerException if the buffer had to be flushed and the flush failed
+     */
+    public void deleteById(String uniqueId) throws IOException, SolrServerException {
+        synchronized (this) {
+            documents.remove(uniqueId);
+            deletes.add(uniqueId);
+            if (!markPendingAndCheckFull()) {
+                return;
+            }
+        }
+        flush(false);
+    }
+
+    private boolean markPendingAndCheckFull() {
+        if (oldestUpdate == 0) {
+            oldestUpdate = System.currentTimeMillis();
+            scheduleFlush();
+        }
+        return documents.size() + deletes.size() >= batchSize;
+    }
+
+    /**
+     * Send all buffered updates to the search core in a single request.
+     *
+     * @param commit whether to explicitly commit the search core as part of the request
+     * @throws IOException         if the updates could not be sent
+     * @throws SolrServerException if the updates, or some of the documents, could not be sent, or if a flush on
+     *                             expiry of the flush interval failed since the last flush
+     */
+    public void flush(boolean commit) throws IOException, SolrServerException {
+        Exception earlierFailure;
+        synchronized (this) {
+            earlierFailure = expiredFlushFailure;
+            expiredFlushFailure = null;
+        }
+        send(commit);
+        if (earlierFailure != null) {
+            throw new SolrServerException("Buffered updates could not be sent to the search core", earlierFailure);
+        }
+    }
+
+    private void send(boolean commit) throws IOException, SolrServerException {
+        synchronized (flushLock) {
+            List<SolrInputDocument> pendingDocuments;
+            List<String> pendingDeletes;
+            synchronized (this) {
+                pendingDocuments = new ArrayList<>(documents.values());
+                pendingDeletes = new ArrayList<>(deletes);
+                documents.clear();
+                deletes.clear();
+                oldestUpdate = 0;
+            }
+            SolrClient solr = solrSearchCore.getSolr();
+            if (solr == null || (pendingDocuments.isEmpty() && pendingDeletes.isEmpty() && !commit)) {
+                return;
+            }
+
+            UpdateRequest request = new UpdateRequest();
+            if (!pendingDocuments.isEmpty()) {
+                request.add(pendingDocuments);
+            }
+            if (!pendingDeletes.isEmpty()) {
+                request.deleteById(pendingDeletes);
+            }
+            if (commitWithin > 0) {
+                request.setCommitWithin(commitWithin);
+            }
+            if (commit) {
+                request.setAction(AbstractUpdateRequest.ACTION.COMMIT, true, true);
+            }
+            try {
+                request.process(solr);
+            } catch (SolrException | SolrServerException | IOException e) {
+                if (pendingDocuments.size() <= 1) {
+                    throw e;
+                }
+                // A single invalid document makes Solr reject the whole batch, so retry them one by one
+                log.warn("Sending a batch of {} documents to Solr failed, retrying them one by one",
+                         pendingDocuments.size(), e);
+                writeIndividually(solr, pendingDocuments, pendingDeletes, commit);
+            }
+        }
+    }
+
+    /**
+     * Send the documents of a rejected batch one by one, so the valid ones are written, and fail if any of them
+     * could not be written.
+     */
+    private void writeIndividually(SolrClient solr, List<SolrInputDocument> pendingDocuments,
+                                   List<String> pendingDeletes, boolean commit)
+        throws IOException, SolrServerException {
+        List<Object> failedIds = new ArrayList<>();
+        Exception failure = null;
+        for (SolrInputDocument document : pendingDocuments) {
+            try {
+                if (commitWithin > 0) {
+                    solr.add(document, commitWithin);
+                } else {
+                    solr.add(document);
+                }
+            } catch (SolrException | SolrServerException | IOException e) {
+                Object uniqueId = document.getFieldValue(SearchUtils.RESOURCE_UNIQUE_ID);
+                log.error("Error occurred while writing SOLR document {}", uniqueId, e);
+                failedIds.add(uniqueId);
+                failure = e;
+            }
+        }
+        if (!pendingDeletes.isEmpty()) {
+            solr.deleteById(pendingDeletes);
+        }
+        if (commit) {
+            solr.commit();
+        }
+        if (failure != null) {
+            throw new SolrServerException(failedIds.size() + " of " + pendingDocuments.size()
+                                              + " documents could not be written to the search core: " + failedIds,
+                                          failure);
+        }
+    }
+
+    /**
+     * Discard all buffered updates without sending them to the search core.
+     */
+    public synchronized void clear() {
+        documents.clear();
+        deletes.clear();
+        oldestUpdate = 0;
+    }
+
+    /**
+     * @return whether Solr commits the flushed updates by itself (within the configured time), so an explicit commit
+     * is not required for them to become visible
+     */
+    public boolean isCommitWithinEnabled() {
+        return commitWithin > 0;
+    }
+
+    /**
+     * Make sure a flush is scheduled for updates that would otherwise stay in the buffer longer than the flush
+     * interval. Must be called while holding the lock on this buffer.
+     */
+    private void scheduleFlush() {
+        if (flushInterval <= 0) {
+            return;
+        }
+        getFlushScheduler().schedule(this::flushExpired, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private static synchronized ScheduledExecutorService getFlushScheduler() {
+        if (flushScheduler == null) {
+            flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "discovery-update-buffer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return flushScheduler;
+    }
+
+    private void flushExpired() {
+        synchronized (this) {
+            if (oldestUpdate == 0 || System.currentTimeMillis() - oldestUpdate < flushInterval) {
+                return;
+            }
+        }
+        try {
+            send(false);
+        } catch (SolrException | SolrServerException | IOException e) {
+            log.error("Error while flushing buffered updates to the search core", e);
+            synchronized (this) {
+                expiredFlushFailure = e;
+            }
+        }
+    }
+}
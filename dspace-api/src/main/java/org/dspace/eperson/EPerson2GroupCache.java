@@ -0,0 +1,121 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
+
+/**
+ * Database entity representation of the eperson2groupcache table: the ids of all groups an EPerson is a direct or
+ * indirect member of, stored as a sorted array of 16 byte UUIDs. The anonymous group and special groups are not
+ * included, as they do not depend on the EPerson.
+ * <p>
+ * Rows are maintained by {@link org.dspace.eperson.service.GroupService} when the groups of an EPerson or the
+ * group2groupcache table change, so the groups of an EPerson can be read without querying the group tables.
+ */
+@Entity
+@Table(name = "eperson2groupcache")
+public class EPerson2GroupCache implements Serializable {
+
+    /**
+     * Order of the group ids: unsigned, byte by byte, as the UUID type of the database.
+     */
+    public static final Comparator<UUID> ORDER = Comparator
+        .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+        .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private static final int UUID_BYTES = 16;
+
+    @Id
+    @Column(name = "eperson_id", nullable = false, updatable = false)
+    private UUID epersonId;
+
+    @Column(name = "group_ids", nullable = false)
+    private byte[] groupIds;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Transient
+    private transient UUID[] groupIdArray;
+
+    /**
+     * Protected constructor, rows are maintained by {@link org.dspace.eperson.service.GroupService}
+     */
+    protected EPerson2GroupCache() {
+
+    }
+
+    protected EPerson2GroupCache(UUID epersonId, Collection<UUID> groupIds) {
+        this.epersonId = epersonId;
+        setGroupIds(groupIds);
+    }
+
+    public UUID getEPersonId() {
+        return epersonId;
+    }
+
+    /**
+     * @return the version of this row, incremented each time the groups are updated
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the sorted ids of the groups of the EPerson
+     */
+    public UUID[] getGroupIds() {
+        if (groupIdArray == null) {
+            ByteBuffer buffer = ByteBuffer.wrap(groupIds);
+            UUID[] ids = new UUID[groupIds.length / UUID_BYTES];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = new UUID(buffer.getLong(), buffer.getLong());
+            }
+            groupIdArray = ids;
+        }
+        return groupIdArray.clone();
+    }
+
+    /**
+     * @param groupIds the ids of the groups of the EPerson, in any order
+     */
+    protected void setGroupIds(Collection<UUID> groupIds) {
+        UUID[] ids = groupIds.stream().distinct().sorted(ORDER).toArray(UUID[]::new);
+        ByteBuffer buffer = ByteBuffer.allocate(ids.length * UUID_BYTES);
+        for (UUID id : ids) {
+            buffer.putLong(id.getMostSignificantBits());
+            buffer.putLong(id.getLeastSignificantBits());
+        }
+        this.groupIds = buffer.array();
+        this.groupIdArray = ids;
+    }
+
+    /**
+     * @param groupId the id of a group
+     * @return whether the EPerson is a member of the group
+     */
+    public boolean contains(UUID groupId) {
+        if (groupIdArray == null) {
+            getGroupIds();
+        }
+        return Arrays.binarySearch(groupIdArray, groupId, ORDER) >= 0;
+    }
+}
@@ -42,6 +42,7 @@ import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.core.LogHelper;
 import org.dspace.core.Utils;
+import org.dspace.eperson.dao.EPerson2GroupCacheDAO;
 import org.dspace.eperson.dao.EPersonDAO;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.eperson.service.GroupService;
@@ -87,6 +88,8 @@ public class EPersonServiceImpl extends DSpaceObjectServiceImpl<EPerson> impleme
 
     @Autowired(required = true)
     protected EPersonDAO ePersonDAO;
+    @Autowired(required = true)
+    protected EPerson2GroupCacheDAO ePerson2GroupCacheDAO;
 
     @Autowired(required = true)
     protected AuthorizeService authorizeService;
@@ -501,6 +504,12 @@ public class EPersonServiceImpl extends DSpaceObjectServiceImpl<EPerson> impleme
             qaEventsDao.delete(context, qaEvent);
         }
 
+        // Remove the precomputed groups
+        EPerson2GroupCache cachedGroups = ePerson2GroupCacheDAO.findByEPerson(context, ePerson.getID());
+        if (cachedGroups != null) {
+            ePerson2GroupCacheDAO.delete(context, cachedGroups);
+        }
+
         // Remove ourself
         ePersonDAO.delete(context, ePerson);
 
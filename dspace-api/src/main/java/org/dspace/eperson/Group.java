@@ -81,6 +81,12 @@ public class Group extends CacheableDSpaceObject implements DSpaceObjectLegacySu
     @Transient
     private boolean groupsChanged;
 
+    /**
+     * Subgroup relations of this group added or removed since the last update, in order
+     */
+    @Transient
+    private final List<SubgroupChange> subgroupChanges = new ArrayList<>();
+
     /**
      * Protected constructor, create object using:
      * {@link org.dspace.eperson.service.GroupService#create(Context)}
@@ -211,6 +217,18 @@ public class Group extends CacheableDSpaceObject implements DSpaceObjectLegacySu
 
     public void clearGroupsChanged() {
         this.groupsChanged = false;
+        this.subgroupChanges.clear();
+    }
+
+    void addSubgroupChange(SubgroupChange change) {
+        subgroupChanges.add(change);
+    }
+
+    /**
+     * @return the subgroup relations of this group added or removed since the last update, in order
+     */
+    List<SubgroupChange> getSubgroupChanges() {
+        return subgroupChanges;
     }
 
     @Override
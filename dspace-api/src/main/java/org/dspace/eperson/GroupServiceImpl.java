@@ -9,6 +9,7 @@ package org.dspace.eperson;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -20,11 +21,13 @@ import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.collections4.SetUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.dspace.authorize.AuthorizationSnapshot;
 import org.dspace.authorize.AuthorizeConfiguration;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.authorize.ResourcePolicy;
@@ -39,6 +42,7 @@ import org.dspace.content.service.CommunityService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.core.LogHelper;
+import org.dspace.eperson.dao.EPerson2GroupCacheDAO;
 import org.dspace.eperson.dao.Group2GroupCacheDAO;
 import org.dspace.eperson.dao.GroupDAO;
 import org.dspace.eperson.factory.EPersonServiceFactory;
@@ -67,12 +71,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements GroupService {
     private static final Logger log = LogManager.getLogger();
 
+    /**
+     * Maximum number of ids in a single query on the group tables
+     */
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
     @Autowired(required = true)
     protected GroupDAO groupDAO;
 
     @Autowired(required = true)
     protected Group2GroupCacheDAO group2GroupCacheDAO;
 
+    @Autowired(required = true)
+    protected EPerson2GroupCacheDAO ePerson2GroupCacheDAO;
+
     @Autowired(required = true)
     protected CollectionService collectionService;
 
@@ -139,6 +151,7 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         }
         group.addMember(e);
         e.getGroups().add(group);
+        updateEPerson2GroupCache(context, e);
         context.addEvent(
             new Event(Event.ADD, Constants.GROUP, group.getID(), Constants.EPERSON, e.getID(), e.getEmail(),
                       getIdentifiers(context, group)));
@@ -154,6 +167,7 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
 
         groupParent.addMember(groupChild);
         groupChild.addParentGroup(groupParent);
+        addSubgroupChange(groupParent, groupChild, true);
 
         context.addEvent(new Event(Event.ADD, Constants.GROUP, groupParent.getID(), Constants.GROUP, groupChild.getID(),
                                    groupChild.getName(), getIdentifiers(context, groupParent)));
@@ -212,6 +226,8 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
             }
         }
         if (group.remove(ePerson)) {
+            ePerson.getGroups().remove(group);
+            updateEPerson2GroupCache(context, ePerson);
             context.addEvent(new Event(Event.REMOVE, Constants.GROUP, group.getID(), Constants.EPERSON, ePerson.getID(),
                                        ePerson.getEmail(), getIdentifiers(context, group)));
         }
@@ -239,12 +255,23 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         }
         if (groupParent.remove(childGroup)) {
             childGroup.removeParentGroup(groupParent);
+            addSubgroupChange(groupParent, childGroup, false);
             context.addEvent(
                 new Event(Event.REMOVE, Constants.GROUP, groupParent.getID(), Constants.GROUP, childGroup.getID(),
                           childGroup.getName(), getIdentifiers(context, groupParent)));
         }
     }
 
+    /**
+     * Remember a subgroup relation change in both groups, to update the group2groupcache table when either of them
+     * is updated.
+     */
+    private void addSubgroupChange(Group groupParent, Group groupChild, boolean added) {
+        SubgroupChange change = new SubgroupChange(groupParent.getID(), groupChild.getID(), added);
+        groupParent.addSubgroupChange(change);
+        groupChild.addSubgroupChange(change);
+    }
+
     @Override
     public boolean isDirectMember(Group group, EPerson ePerson) {
         // special, group 0 is anonymous
@@ -269,9 +296,14 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
     @Override
     public boolean isMember(Context context, EPerson ePerson, Group group)
         throws SQLException {
+        AuthorizationSnapshot snapshot = context.getAuthorizationSnapshot();
         if (group == null) {
             return false;
 
+            // groups loaded at once to check many authorizations, see AuthorizeService#loadAuthorizationSnapshot
+        } else if (snapshot != null && snapshot.isValidFor(context, ePerson)) {
+            return snapshot.isMember(group.getID());
+
             // special, everyone is member of group 0 (anonymous)
         } else if (StringUtils.equals(group.getName(), Group.ANONYMOUS) ||
                    isParentOf(context, group, findByName(context, Group.ANONYMOUS))) {
@@ -288,8 +320,16 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
 
                 //If we have an ePerson, check we can find membership in the database
                 if (ePerson != null) {
-                    //lookup eperson in normal groups and subgroups with 1 query
-                    isMember = isEPersonInGroup(context, group, ePerson);
+                    //lookup eperson in its precomputed groups, or in normal groups and subgroups with 1 query
+                    //(subgroup changes are precomputed when the group is updated, so not for contexts with
+                    //pending changes)
+                    EPerson2GroupCache cachedGroups = context.hasEvents() ? null
+                        : ePerson2GroupCacheDAO.findByEPerson(context, ePerson.getID());
+                    if (cachedGroups != null) {
+                        isMember = cachedGroups.contains(group.getID());
+                    } else {
+                        isMember = isEPersonInGroup(context, group, ePerson);
+                    }
                 }
 
                 //If we did not find the group membership in the database, check the special groups.
@@ -337,6 +377,153 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         return new ArrayList<>(allMemberGroupsSet(context, ePerson));
     }
 
+    @Override
+    public Set<UUID> allMemberGroupIDs(Context context, EPerson ePerson) throws SQLException {
+        Set<UUID> groupIds = new HashSet<>();
+        if (ePerson != null) {
+            EPerson2GroupCache cachedGroups = context.hasEvents() ? null
+                : ePerson2GroupCacheDAO.findByEPerson(context, ePerson.getID());
+            if (cachedGroups != null) {
+                groupIds.addAll(Arrays.asList(cachedGroups.getGroupIds()));
+            } else {
+                // Not precomputed (yet) or possibly outdated, compute without storing it
+                groupIds.addAll(computeMemberGroupIDs(context, List.of(ePerson.getID()))
+                                    .getOrDefault(ePerson.getID(), Set.of()));
+            }
+        }
+
+        // The anonymous group and the special groups are not precomputed, as they do not depend on the eperson
+        Set<UUID> sharedGroupIds = new HashSet<>();
+        Group anonymous = findByName(context, Group.ANONYMOUS);
+        if (anonymous != null) {
+            sharedGroupIds.add(anonymous.getID());
+        }
+        if ((context.getCurrentUser() == null) || (context.getCurrentUser().equals(ePerson))) {
+            sharedGroupIds.addAll(context.getSpecialGroupUuids());
+        }
+        for (Pair<UUID, UUID> parent : findParentIds(context, sharedGroupIds)) {
+            groupIds.add(parent.getRight());
+        }
+        groupIds.addAll(sharedGroupIds);
+        return groupIds;
+    }
+
+    @Override
+    public void updateEPerson2GroupCache(Context context, java.util.Collection<UUID> ePersonIds)
+        throws SQLException {
+        if (ePersonIds.isEmpty()) {
+            return;
+        }
+        Map<UUID, Set<UUID>> memberGroupIds = computeMemberGroupIDs(context, ePersonIds);
+        for (UUID ePersonId : ePersonIds) {
+            saveEPerson2GroupCache(context, ePersonId, memberGroupIds.getOrDefault(ePersonId, Set.of()));
+        }
+        log.debug("Updated the precomputed groups of {} epersons", ePersonIds.size());
+    }
+
+    /**
+     * Update the precomputed groups of an eperson which was just added to or removed from a group, in the same
+     * transaction as the membership. They are computed from the direct groups of the eperson in this context and
+     * their parents in group2groupcache, the subgroup changes not yet saved are applied by
+     * {@link #update(Context, Group)}.
+     *
+     * @param context The relevant DSpace Context.
+     * @param ePerson the eperson whose direct groups changed
+     */
+    private void updateEPerson2GroupCache(Context context, EPerson ePerson) {
+        Set<UUID> groupIds = new HashSet<>();
+        for (Group group : ePerson.getGroups()) {
+            groupIds.add(group.getID());
+        }
+        try {
+            for (Pair<UUID, UUID> parent : findParentIds(context, new ArrayList<>(groupIds))) {
+                groupIds.add(parent.getRight());
+            }
+            saveEPerson2GroupCache(context, ePerson.getID(), groupIds);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void saveEPerson2GroupCache(Context context, UUID ePersonId, Set<UUID> groupIds) throws SQLException {
+        EPerson2GroupCache cachedGroups = ePerson2GroupCacheDAO.findByEPerson(context, ePersonId);
+        if (cachedGroups == null) {
+            ePerson2GroupCacheDAO.create(context, new EPerson2GroupCache(ePersonId, groupIds));
+        } else {
+            cachedGroups.setGroupIds(groupIds);
+            ePerson2GroupCacheDAO.save(context, cachedGroups);
+        }
+    }
+
+    /**
+     * Compute the ids of the groups the given epersons are direct or indirect members of, from the
+     * epersongroup2eperson and group2groupcache tables. The anonymous group and special groups are not included.
+     *
+     * @param context    The relevant DSpace Context.
+     * @param ePersonIds the ids of the epersons
+     * @return the ids of the groups per eperson id, epersons without groups are absent
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    protected Map<UUID, Set<UUID>> computeMemberGroupIDs(Context context, java.util.Collection<UUID> ePersonIds)
+        throws SQLException {
+        Map<UUID, Set<UUID>> memberGroupIds = new HashMap<>();
+        Set<UUID> directGroupIds = new HashSet<>();
+        for (List<UUID> chunk : ListUtils.partition(new ArrayList<>(ePersonIds), MAX_IDS_PER_QUERY)) {
+            for (Pair<UUID, UUID> membership : ePerson2GroupCacheDAO.findMemberships(context, chunk)) {
+                memberGroupIds.computeIfAbsent(membership.getLeft(), id -> new HashSet<>())
+                              .add(membership.getRight());
+                directGroupIds.add(membership.getRight());
+            }
+        }
+
+        Map<UUID, Set<UUID>> parentIds = new HashMap<>();
+        for (Pair<UUID, UUID> parent : findParentIds(context, directGroupIds)) {
+            parentIds.computeIfAbsent(parent.getLeft(), id -> new HashSet<>()).add(parent.getRight());
+        }
+        for (Set<UUID> groupIds : memberGroupIds.values()) {
+            List<UUID> direct = new ArrayList<>(groupIds);
+            for (UUID groupId : direct) {
+                groupIds.addAll(parentIds.getOrDefault(groupId, Set.of()));
+            }
+        }
+        return memberGroupIds;
+    }
+
+    /**
+     * @return pairs of child and parent ids of all parents of the given groups, queried in chunks
+     */
+    private List<Pair<UUID, UUID>> findParentIds(Context context, java.util.Collection<UUID> childIds)
+        throws SQLException {
+        List<Pair<UUID, UUID>> parents = new ArrayList<>();
+        for (List<UUID> chunk : ListUtils.partition(new ArrayList<>(childIds), MAX_IDS_PER_QUERY)) {
+            parents.addAll(group2GroupCacheDAO.findParentIds(context, chunk));
+        }
+        return parents;
+    }
+
+    /**
+     * @return pairs of parent and child ids of all children of the given groups, queried in chunks
+     */
+    private List<Pair<UUID, UUID>> findChildIds(Context context, java.util.Collection<UUID> parentIds)
+        throws SQLException {
+        List<Pair<UUID, UUID>> children = new ArrayList<>();
+        for (List<UUID> chunk : ListUtils.partition(new ArrayList<>(parentIds), MAX_IDS_PER_QUERY)) {
+            children.addAll(group2GroupCacheDAO.findChildIds(context, chunk));
+        }
+        return children;
+    }
+
+    /**
+     * @return the ids of the epersons which are direct members of the given groups, queried in chunks
+     */
+    private Set<UUID> findMemberIds(Context context, java.util.Collection<UUID> groupIds) throws SQLException {
+        Set<UUID> memberIds = new HashSet<>();
+        for (List<UUID> chunk : ListUtils.partition(new ArrayList<>(groupIds), MAX_IDS_PER_QUERY)) {
+            memberIds.addAll(ePerson2GroupCacheDAO.findMemberIds(context, chunk));
+        }
+        return memberIds;
+    }
+
     @Override
     public Set<Group> allMemberGroupsSet(Context context, EPerson ePerson) throws SQLException {
         Set<Group> cachedGroupMembership = context.getCachedAllMemberGroupsSet(ePerson);
@@ -552,6 +739,18 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         // Remove any ResourcePolicies that reference this group
         authorizeService.removeGroupPolicies(context, group);
 
+        // The ancestors and descendants of this group may only be related through it, and the epersons of this
+        // group and of its descendants lose groups: collect them before the relations are gone
+        Set<UUID> ancestorIds = new HashSet<>();
+        for (Pair<UUID, UUID> parent : findParentIds(context, List.of(group.getID()))) {
+            ancestorIds.add(parent.getRight());
+        }
+        Set<UUID> descendantIds = new HashSet<>();
+        for (Pair<UUID, UUID> child : findChildIds(context, List.of(group.getID()))) {
+            descendantIds.add(child.getRight());
+        }
+        Set<UUID> affectedEPersonIds = findMemberIds(context, descendantIds);
+
         group.getMemberGroups().clear();
         group.getParentGroups().clear();
 
@@ -561,13 +760,20 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
             EPerson ePerson = ePeople.next();
             ePeople.remove();
             ePerson.getGroups().remove(group);
+            affectedEPersonIds.add(ePerson.getID());
         }
 
-        // empty out group2groupcache table (if we do it after we delete our object we get an issue with references)
-        group2GroupCacheDAO.deleteAll(context);
+        // remove ourself from the group2groupcache table (if we do it after we delete our object we get an issue
+        // with references)
+        group2GroupCacheDAO.deleteAllFromCache(context, group.getID());
         // Remove ourself
         groupDAO.delete(context, group);
-        rethinkGroupCache(context, false);
+
+        // remove the relations between our ancestors and descendants which only existed through us
+        for (Pair<UUID, UUID> row : findUnreachable(context, findCacheRows(context, ancestorIds, descendantIds))) {
+            group2GroupCacheDAO.deleteFromCache(context, row.getLeft(), row.getRight());
+        }
+        updateEPerson2GroupCache(context, affectedEPersonIds);
 
         log.info(LogHelper.getHeader(context, "delete_group", "group_id="
             + group.getID()));
@@ -658,7 +864,7 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         }
 
         if (group.isGroupsChanged()) {
-            rethinkGroupCache(context, true);
+            updateGroupCache(context, group);
             group.clearGroupsChanged();
         }
 
@@ -740,6 +946,169 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         for (Pair<UUID, UUID> pair : toCreate ) {
             group2GroupCacheDAO.addToCache(context, pair.getLeft(), pair.getRight());
         }
+
+        // only the epersons of the child groups whose parents changed have different groups now
+        Set<UUID> changedChildIds = new HashSet<>();
+        toDelete.forEach(pair -> changedChildIds.add(pair.getRight()));
+        toCreate.forEach(pair -> changedChildIds.add(pair.getRight()));
+        updateEPerson2GroupCache(context, findMemberIds(context, changedChildIds));
+    }
+
+    /**
+     * Update the group cache AKA the group2groupcache table in the database for the subgroup relations of the given
+     * group added or removed since its last update. Only the rows between the ancestors and the descendants of each
+     * changed relation are read and written, instead of regenerating the whole table with
+     * {@link #rethinkGroupCache(Context, boolean)}, which is still done when the changes are not known.
+     *
+     * @param context The relevant DSpace Context.
+     * @param group   the updated group
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    protected void updateGroupCache(Context context, Group group) throws SQLException {
+        List<SubgroupChange> changes = group.getSubgroupChanges();
+        if (changes.isEmpty()) {
+            rethinkGroupCache(context, true);
+            return;
+        }
+
+        Set<UUID> changedChildIds = new HashSet<>();
+        for (SubgroupChange change : changes) {
+            // already applied when the other group of the relation was updated
+            if (change.isApplied()) {
+                continue;
+            }
+            Set<Pair<UUID, UUID>> rows = computeGroupCacheChanges(context, change.getParentId(), change.getChildId(),
+                                                                  change.isAdded());
+            for (Pair<UUID, UUID> row : rows) {
+                if (change.isAdded()) {
+                    group2GroupCacheDAO.addToCache(context, row.getLeft(), row.getRight());
+                } else {
+                    group2GroupCacheDAO.deleteFromCache(context, row.getLeft(), row.getRight());
+                }
+                changedChildIds.add(row.getRight());
+            }
+            change.setApplied();
+        }
+        updateEPerson2GroupCache(context, findMemberIds(context, changedChildIds));
+    }
+
+    @Override
+    public Set<Pair<UUID, UUID>> computeGroupCacheChanges(Context context, UUID parentId, UUID childId,
+                                                          boolean added) throws SQLException {
+        // All rows which may depend on the relation: from the parent and its ancestors to the child and its
+        // descendants, as the group2groupcache table holds them before the change
+        Set<UUID> ancestorIds = new HashSet<>();
+        ancestorIds.add(parentId);
+        for (Pair<UUID, UUID> parent : findParentIds(context, List.of(parentId))) {
+            ancestorIds.add(parent.getRight());
+        }
+        Set<UUID> descendantIds = new HashSet<>();
+        descendantIds.add(childId);
+        for (Pair<UUID, UUID> child : findChildIds(context, List.of(childId))) {
+            descendantIds.add(child.getRight());
+        }
+        Set<Pair<UUID, UUID>> existingRows = findCacheRows(context, ancestorIds, descendantIds);
+
+        if (added) {
+            Set<Pair<UUID, UUID>> newRows = new HashSet<>();
+            for (UUID ancestorId : ancestorIds) {
+                for (UUID descendantId : descendantIds) {
+                    Pair<UUID, UUID> row = Pair.of(ancestorId, descendantId);
+                    if (!existingRows.contains(row)) {
+                        newRows.add(row);
+                    }
+                }
+            }
+            return newRows;
+        } else {
+            return findUnreachable(context, existingRows);
+        }
+    }
+
+    @Override
+    public Set<Pair<UUID, UUID>> getGroupCache(Context context) throws SQLException {
+        return group2GroupCacheDAO.getCache(context);
+    }
+
+    @Override
+    public Set<Pair<UUID, UUID>> computeGroupCache(Context context) throws SQLException {
+        return computeNewCache(context, true);
+    }
+
+    @Override
+    public void rebuildGroupCache(Context context) throws SQLException {
+        rethinkGroupCache(context, true);
+    }
+
+    /**
+     * @return the group2groupcache rows from the given ancestors to the given descendants, as parent and child ids
+     */
+    private Set<Pair<UUID, UUID>> findCacheRows(Context context, Set<UUID> ancestorIds, Set<UUID> descendantIds)
+        throws SQLException {
+        Set<Pair<UUID, UUID>> rows = new HashSet<>();
+        if (ancestorIds.isEmpty()) {
+            return rows;
+        }
+        for (Pair<UUID, UUID> parent : findParentIds(context, descendantIds)) {
+            if (ancestorIds.contains(parent.getRight())) {
+                rows.add(Pair.of(parent.getRight(), parent.getLeft()));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Find the given group2groupcache rows whose child cannot be reached anymore from their parent through the
+     * subgroup relations.
+     *
+     * @param context The relevant DSpace Context.
+     * @param rows    pairs of parent and child group ids
+     * @return the rows which are not valid anymore
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    private Set<Pair<UUID, UUID>> findUnreachable(Context context, Set<Pair<UUID, UUID>> rows) throws SQLException {
+        Map<UUID, Set<UUID>> descendantsByAncestor = new HashMap<>();
+        for (Pair<UUID, UUID> row : rows) {
+            descendantsByAncestor.computeIfAbsent(row.getLeft(), id -> new HashSet<>()).add(row.getRight());
+        }
+
+        // the direct subgroups of each group visited so far, shared by the searches
+        Map<UUID, Set<UUID>> subgroups = new HashMap<>();
+        Set<Pair<UUID, UUID>> unreachable = new HashSet<>();
+        for (Map.Entry<UUID, Set<UUID>> ancestor : descendantsByAncestor.entrySet()) {
+            Set<UUID> missing = new HashSet<>(ancestor.getValue());
+            Set<UUID> visited = new HashSet<>();
+            Set<UUID> level = Set.of(ancestor.getKey());
+            // breadth first search, one query per level, until all descendants are found
+            while (!level.isEmpty() && !missing.isEmpty()) {
+                List<UUID> unknown = new ArrayList<>();
+                for (UUID groupId : level) {
+                    if (!subgroups.containsKey(groupId)) {
+                        unknown.add(groupId);
+                        subgroups.put(groupId, new HashSet<>());
+                    }
+                }
+                for (List<UUID> chunk : ListUtils.partition(unknown, MAX_IDS_PER_QUERY)) {
+                    for (Pair<UUID, UUID> relation : groupDAO.getGroup2GroupResults(context, chunk)) {
+                        subgroups.get(relation.getLeft()).add(relation.getRight());
+                    }
+                }
+                Set<UUID> nextLevel = new HashSet<>();
+                for (UUID groupId : level) {
+                    for (UUID subgroupId : subgroups.get(groupId)) {
+                        if (visited.add(subgroupId)) {
+                            missing.remove(subgroupId);
+                            nextLevel.add(subgroupId);
+                        }
+                    }
+                }
+                level = nextLevel;
+            }
+            for (UUID descendantId : missing) {
+                unreachable.add(Pair.of(ancestor.getKey(), descendantId));
+            }
+        }
+        return unreachable;
     }
 
     @Override
@@ -0,0 +1,51 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import java.util.UUID;
+
+/**
+ * A subgroup relation added or removed since the last update of its groups. The same change is kept by the parent
+ * and the child group, so it is applied to the group2groupcache table only once, whichever group is updated first.
+ */
+class SubgroupChange {
+
+    private final UUID parentId;
+    private final UUID childId;
+    private final boolean added;
+    private boolean applied;
+
+    SubgroupChange(UUID parentId, UUID childId, boolean added) {
+        this.parentId = parentId;
+        this.childId = childId;
+        this.added = added;
+    }
+
+    UUID getParentId() {
+        return parentId;
+    }
+
+    UUID getChildId() {
+        return childId;
+    }
+
+    /**
+     * @return true if the relation was added, false if it was removed
+     */
+    boolean isAdded() {
+        return added;
+    }
+
+    boolean isApplied() {
+        return applied;
+    }
+
+    void setApplied() {
+        this.applied = true;
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson.dao;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.dspace.core.Context;
+import org.dspace.core.GenericDAO;
+import org.dspace.eperson.EPerson2GroupCache;
+
+/**
+ * Database Access Object interface class for the EPerson2GroupCache object.
+ * The implementation of this class is responsible for all database calls for the EPerson2GroupCache object and is
+ * autowired by spring
+ * This class should only be accessed from a single service and should never be exposed outside of the API
+ */
+public interface EPerson2GroupCacheDAO extends GenericDAO<EPerson2GroupCache> {
+
+    /**
+     * Find the cached groups of an EPerson.
+     *
+     * @param context   The relevant DSpace Context.
+     * @param epersonId the id of the EPerson
+     * @return the cached groups, or null if there is no row for the EPerson
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    EPerson2GroupCache findByEPerson(Context context, UUID epersonId) throws SQLException;
+
+    /**
+     * Returns the direct group memberships of the given EPersons.
+     *
+     * @param context    The relevant DSpace Context.
+     * @param epersonIds the ids of the EPersons
+     * @return pairs of EPerson and group ids
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    List<Pair<UUID, UUID>> findMemberships(Context context, Collection<UUID> epersonIds) throws SQLException;
+
+    /**
+     * Returns the ids of the EPersons which are direct members of the given groups.
+     *
+     * @param context  The relevant DSpace Context.
+     * @param groupIds the ids of the groups
+     * @return the ids of the EPersons
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    List<UUID> findMemberIds(Context context, Collection<UUID> groupIds) throws SQLException;
+}
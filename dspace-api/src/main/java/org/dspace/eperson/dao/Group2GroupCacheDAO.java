@@ -8,6 +8,7 @@
 package org.dspace.eperson.dao;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -54,6 +55,26 @@ public interface Group2GroupCacheDAO extends GenericDAO<Group2GroupCache> {
      */
     List<Group2GroupCache> findByChildren(Context context, Iterable<Group> groups) throws SQLException;
 
+    /**
+     * Returns the ids of all parents of the given groups, without loading the groups.
+     *
+     * @param context  The relevant DSpace Context.
+     * @param childIds the ids of the child groups
+     * @return pairs of child and parent group ids
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    List<Pair<UUID, UUID>> findParentIds(Context context, Collection<UUID> childIds) throws SQLException;
+
+    /**
+     * Returns the ids of all children of the given groups, without loading the groups.
+     *
+     * @param context   The relevant DSpace Context.
+     * @param parentIds the ids of the parent groups
+     * @return pairs of parent and child group ids
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    List<Pair<UUID, UUID>> findChildIds(Context context, Collection<UUID> parentIds) throws SQLException;
+
     /**
      * Returns the cache entity given specific parent and child groups.
      * @param context The relevant DSpace Context.
@@ -90,6 +111,14 @@ public interface Group2GroupCacheDAO extends GenericDAO<Group2GroupCache> {
      */
     void deleteFromCache(Context context, UUID parent, UUID child) throws SQLException;
 
+    /**
+     * Deletes all cache rows in which the given group is the parent or the child.
+     * @param context The relevant DSpace Context.
+     * @param group Group UUID.
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    void deleteAllFromCache(Context context, UUID group) throws SQLException;
+
     /**
      * Adds a single row to the cache table given parent and child groups UUIDs.
      * @param context The relevant DSpace Context.
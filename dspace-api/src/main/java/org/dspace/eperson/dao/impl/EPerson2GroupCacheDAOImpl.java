@@ -0,0 +1,64 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson.dao.impl;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.persistence.Query;
+import org.apache.commons.lang3.tuple.Pair;
+import org.dspace.core.AbstractHibernateDAO;
+import org.dspace.core.Context;
+import org.dspace.eperson.EPerson2GroupCache;
+import org.dspace.eperson.dao.EPerson2GroupCacheDAO;
+
+/**
+ * Hibernate implementation of the Database Access Object interface class for the EPerson2GroupCache object.
+ * This class is responsible for all database calls for the EPerson2GroupCache object and is autowired by Spring.
+ * This class should never be accessed directly.
+ */
+public class EPerson2GroupCacheDAOImpl extends AbstractHibernateDAO<EPerson2GroupCache>
+    implements EPerson2GroupCacheDAO {
+
+    protected EPerson2GroupCacheDAOImpl() {
+        super();
+    }
+
+    @Override
+    public EPerson2GroupCache findByEPerson(Context context, UUID epersonId) throws SQLException {
+        return findByID(context, EPerson2GroupCache.class, epersonId);
+    }
+
+    @Override
+    public List<Pair<UUID, UUID>> findMemberships(Context context, Collection<UUID> epersonIds) throws SQLException {
+        Query query = createQuery(context, "SELECT new org.apache.commons.lang3.tuple.ImmutablePair(e.id, g.id) " +
+            "FROM Group g " +
+            "JOIN g.epeople e " +
+            "WHERE e.id IN (:epersonIds)");
+        query.setParameter("epersonIds", epersonIds);
+
+        @SuppressWarnings("unchecked")
+        List<Pair<UUID, UUID>> results = query.getResultList();
+        return results;
+    }
+
+    @Override
+    public List<UUID> findMemberIds(Context context, Collection<UUID> groupIds) throws SQLException {
+        Query query = createQuery(context, "SELECT DISTINCT e.id " +
+            "FROM Group g " +
+            "JOIN g.epeople e " +
+            "WHERE g.id IN (:groupIds)");
+        query.setParameter("groupIds", groupIds);
+
+        @SuppressWarnings("unchecked")
+        List<UUID> results = query.getResultList();
+        return results;
+    }
+}
@@ -8,6 +8,7 @@
 package org.dspace.eperson.dao.impl;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -74,6 +75,28 @@ public class Group2GroupCacheDAOImpl extends AbstractHibernateDAO<Group2GroupCac
         return list(context, criteriaQuery, true, Group2GroupCache.class, -1, -1);
     }
 
+    @Override
+    public List<Pair<UUID, UUID>> findParentIds(Context context, Collection<UUID> childIds) throws SQLException {
+        Query query = createQuery(context, "SELECT new org.apache.commons.lang3.tuple.ImmutablePair(g.child.id, " +
+            "g.parent.id) FROM Group2GroupCache g WHERE g.child.id IN (:childIds)");
+        query.setParameter("childIds", childIds);
+
+        @SuppressWarnings("unchecked")
+        List<Pair<UUID, UUID>> results = query.getResultList();
+        return results;
+    }
+
+    @Override
+    public List<Pair<UUID, UUID>> findChildIds(Context context, Collection<UUID> parentIds) throws SQLException {
+        Query query = createQuery(context, "SELECT new org.apache.commons.lang3.tuple.ImmutablePair(g.parent.id, " +
+            "g.child.id) FROM Group2GroupCache g WHERE g.parent.id IN (:parentIds)");
+        query.setParameter("parentIds", parentIds);
+
+        @SuppressWarnings("unchecked")
+        List<Pair<UUID, UUID>> results = query.getResultList();
+        return results;
+    }
+
     @Override
     public Group2GroupCache findByParentAndChild(Context context, Group parent, Group child) throws SQLException {
         Query query = createQuery(context,
@@ -115,6 +138,15 @@ public class Group2GroupCacheDAOImpl extends AbstractHibernateDAO<Group2GroupCac
         query.executeUpdate();
     }
 
+    @Override
+    public void deleteAllFromCache(Context context, UUID group) throws SQLException {
+        Query query = getHibernateSession(context).createNativeQuery(
+            "delete from group2groupcache g WHERE g.parent_id = :group OR g.child_id = :group"
+        );
+        query.setParameter("group", group);
+        query.executeUpdate();
+    }
+
     @Override
     public void addToCache(Context context, UUID parent, UUID child) throws SQLException {
         Query query = getHibernateSession(context).createNativeQuery(
@@ -8,9 +8,12 @@
 package org.dspace.eperson.service;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.content.MetadataField;
 import org.dspace.content.service.DSpaceObjectLegacySupportService;
@@ -188,6 +191,77 @@ public interface GroupService extends DSpaceObjectService<Group>, DSpaceObjectLe
 
     Set<Group> allMemberGroupsSet(Context context, EPerson ePerson) throws SQLException;
 
+    /**
+     * Get the ids of all of the groups that an eperson is a member of, like
+     * {@link #allMemberGroupsSet(Context, EPerson)}, but read from the
+     * precomputed eperson2groupcache table instead of the group tables.
+     *
+     * @param context DSpace context
+     * @param ePerson ePerson object, null for anonymous
+     * @return the ids of the groups, including the anonymous group and the
+     * special groups of the context
+     * @throws SQLException if database error
+     */
+    public Set<UUID> allMemberGroupIDs(Context context, EPerson ePerson) throws SQLException;
+
+    /**
+     * Recompute the precomputed groups of the given epersons (see
+     * {@link #allMemberGroupIDs(Context, EPerson)}), after their group
+     * memberships changed.
+     *
+     * @param context    DSpace context
+     * @param ePersonIds the ids of the epersons
+     * @throws SQLException if database error
+     */
+    public void updateEPerson2GroupCache(Context context, Collection<UUID> ePersonIds) throws SQLException;
+
+    /**
+     * Get the current contents of the group2groupcache table, which holds
+     * the (direct or indirect) subgroups of each group.
+     *
+     * @param context DSpace context
+     * @return pairs of parent and child group ids
+     * @throws SQLException if database error
+     */
+    public Set<Pair<UUID, UUID>> getGroupCache(Context context) throws SQLException;
+
+    /**
+     * Compute the correct contents of the group2groupcache table from the
+     * subgroup relations, without changing it.
+     *
+     * @param context DSpace context
+     * @return pairs of parent and child group ids
+     * @throws SQLException if database error
+     */
+    public Set<Pair<UUID, UUID>> computeGroupCache(Context context) throws SQLException;
+
+    /**
+     * Compute the rows of the group2groupcache table to add, or to delete,
+     * when a subgroup relation is added or removed, without changing it.
+     * Only the rows between the ancestors of the parent and the descendants
+     * of the child are considered. Rows to delete are the ones which are not
+     * reachable anymore through the current subgroup relations.
+     *
+     * @param context  DSpace context
+     * @param parentId the id of the parent group of the relation
+     * @param childId  the id of the child group of the relation
+     * @param added    true if the relation is added, false if it is removed
+     * @return pairs of parent and child group ids to add or to delete
+     * @throws SQLException if database error
+     */
+    public Set<Pair<UUID, UUID>> computeGroupCacheChanges(Context context, UUID parentId, UUID childId,
+                                                          boolean added) throws SQLException;
+
+    /**
+     * Regenerate the whole group2groupcache table from the subgroup
+     * relations. Changes of subgroup relations update the table
+     * incrementally, this is only needed to repair it.
+     *
+     * @param context DSpace context
+     * @throws SQLException if database error
+     */
+    public void rebuildGroupCache(Context context) throws SQLException;
+
     /**
      * Get all of the EPerson objects who are a member of the specified group, or a member of a subgroup of the
      * specified group, etc.
@@ -0,0 +1,93 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.core.Context;
+import org.dspace.core.Utils;
+
+/**
+ * Dispatcher which delivers events synchronously to all consumers, except to the consumers flagged as asynchronous
+ * ("event.consumer.&lt;name&gt;.async = true"). The events for those consumers are handed to the
+ * {@link AsyncEventQueue}, which stores them on disk and runs the consumers on a background thread pool, so the
+ * committing thread does not wait for them.
+ * <p>
+ * Consumers whose work must be visible as soon as the transaction is committed (e.g. anything related to
+ * authorization) should not be flagged as asynchronous. When the queue of a consumer is full, its events are
+ * delivered synchronously.
+ */
+public class AsyncDispatcher extends BasicDispatcher {
+
+    private static final Logger log = LogManager.getLogger(AsyncDispatcher.class);
+
+    public AsyncDispatcher(String name) {
+        super(name);
+    }
+
+    /**
+     * Dispatch all events added to this Context: deliver them to the synchronous consumers and queue them for the
+     * asynchronous ones.
+     *
+     * @param ctx the execution context
+     */
+    @Override
+    public void dispatch(Context ctx) {
+        if (consumers.isEmpty() || !ctx.hasEvents()) {
+            return;
+        }
+
+        // transaction identifier applies to all events created in
+        // this context for the current transaction.
+        String tid = "TX" + Utils.generateKey();
+
+        Map<ConsumerProfile, List<Event>> asyncEvents = new LinkedHashMap<>();
+        while (ctx.hasEvents()) {
+            for (Event event : pollEvents(ctx)) {
+                event.setDispatcher(getIdentifier());
+                event.setTransactionID(tid);
+
+                for (ConsumerProfile cp : consumers.values()) {
+                    if (event.pass(cp.getFilters())) {
+                        if (cp.isAsync()) {
+                            asyncEvents.computeIfAbsent(cp, profile -> new ArrayList<>()).add(event);
+                        } else {
+                            consume(ctx, cp, event);
+                        }
+                    }
+                }
+            }
+        }
+
+        for (ConsumerProfile cp : consumers.values()) {
+            if (!cp.isAsync()) {
+                end(ctx, cp);
+            }
+        }
+
+        UUID userId = ctx.getCurrentUser() != null ? ctx.getCurrentUser().getID() : null;
+        for (Map.Entry<ConsumerProfile, List<Event>> entry : asyncEvents.entrySet()) {
+            ConsumerProfile cp = entry.getKey();
+            List<Event> events = entry.getValue();
+            if (!AsyncEventQueue.getInstance().enqueue(cp.getName(), userId, events)) {
+                log.warn("Unable to queue {} events for consumer {}, processing them synchronously",
+                         events.size(), cp.getName());
+                for (Event event : events) {
+                    consume(ctx, cp, event);
+                }
+                end(ctx, cp);
+            }
+        }
+    }
+}
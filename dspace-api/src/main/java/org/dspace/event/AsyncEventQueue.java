@@ -0,0 +1,432 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.core.Context;
+import org.dspace.eperson.factory.EPersonServiceFactory;
+import org.dspace.eperson.service.EPersonService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+
+/**
+ * Durable queue of event batches for the consumers run asynchronously by the {@link AsyncDispatcher}.
+ * <p>
+ * Every batch (the events of one transaction for one consumer) is written to a file in a per-consumer directory
+ * before the dispatching thread continues, so queued events survive a restart. The batches of a consumer are
+ * processed in order, one at a time, by a bounded pool of worker threads. Each batch is processed with a new Context,
+ * whose current user is the user who caused the events, and a dedicated instance of the consumer. A periodic scan
+ * picks up batches left behind by a previous run or written by another process sharing the same queue directory.
+ * Batches which fail are moved to a "failed" subdirectory. When a batch cannot be claimed, the processing of its
+ * consumer stops until the next scan, which tries again.
+ * <p>
+ * Configuration:
+ * <ul>
+ *     <li>event.dispatcher.async.dir: the queue directory (default ${dspace.dir}/var/event-queue)</li>
+ *     <li>event.dispatcher.async.threads: the number of worker threads (default 2)</li>
+ *     <li>event.dispatcher.async.maxQueueSize: the maximum number of pending batches per consumer, further events
+ *     are processed synchronously (default 10000)</li>
+ *     <li>event.dispatcher.async.scanInterval: seconds between scans of the queue directory (default 60)</li>
+ *     <li>event.dispatcher.async.claimTimeout: seconds after which a batch claimed by a worker which did not finish
+ *     it is queued again (default 3600)</li>
+ * </ul>
+ */
+public class AsyncEventQueue {
+
+    private static final Logger log = LogManager.getLogger(AsyncEventQueue.class);
+
+    private static final String BATCH_SUFFIX = ".events";
+    private static final String CLAIMED_SUFFIX = ".claimed";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String FAILED_DIRECTORY = "failed";
+
+    // Only events (and the JDK types they consist of) may be read back from the queue files
+    private static final ObjectInputFilter EVENT_FILTER =
+        ObjectInputFilter.Config.createFilter("java.lang.*;java.util.*;org.dspace.event.Event;!*");
+
+    private static AsyncEventQueue instance;
+
+    private final Path queueDirectory;
+    private final int maxQueueSize;
+    private final long claimTimeout;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService scanner;
+    private final String processId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, ConsumerQueue> queues = new ConcurrentHashMap<>();
+    private final EPersonService ePersonService = EPersonServiceFactory.getInstance().getEPersonService();
+
+    /**
+     * Create a queue and start scanning the queue directory for pending batches.
+     *
+     * @param queueDirectory the directory holding the pending batches
+     * @param threads        the number of worker threads
+     * @param maxQueueSize   the maximum number of pending batches per consumer
+     * @param scanInterval   milliseconds between scans of the queue directory
+     * @param claimTimeout   milliseconds after which an unfinished claimed batch is queued again
+     */
+    protected AsyncEventQueue(Path queueDirectory, int threads, int maxQueueSize, long scanInterval,
+                              long claimTimeout) {
+        this.queueDirectory = queueDirectory;
+        this.maxQueueSize = maxQueueSize;
+        this.claimTimeout = claimTimeout;
+        this.workers = Executors.newFixedThreadPool(Math.max(threads, 1), daemonThreads("async-event-worker"));
+        this.scanner = Executors.newSingleThreadScheduledExecutor(daemonThreads("async-event-scanner"));
+        this.scanner.scheduleWithFixedDelay(this::scan, 0, scanInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the queue of this process, creating it from the configuration on first use.
+     *
+     * @return the asynchronous event queue
+     */
+    public static synchronized AsyncEventQueue getInstance() {
+        if (instance == null) {
+            ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+            String directory = configurationService.getProperty("event.dispatcher.async.dir");
+            if (StringUtils.isBlank(directory)) {
+                directory = configurationService.getProperty("dspace.dir") + "/var/event-queue";
+            }
+            instance = new AsyncEventQueue(Paths.get(directory),
+                configurationService.getIntProperty("event.dispatcher.async.threads", 2),
+                configurationService.getIntProperty("event.dispatcher.async.maxQueueSize", 10000),
+                configurationService.getLongProperty("event.dispatcher.async.scanInterval", 60) * 1000,
+                configurationService.getLongProperty("event.dispatcher.async.claimTimeout", 3600) * 1000);
+        }
+        return instance;
+    }
+
+    /**
+     * @return whether the queue of this process has been created, i.e. an asynchronous dispatcher is in use
+     */
+    public static synchronized boolean isStarted() {
+        return instance != null;
+    }
+
+    /**
+     * Store a batch of events for a consumer and schedule it for processing.
+     *
+     * @param consumerName the name of the consumer which should process the events
+     * @param userId       the id of the current user of the context which caused the events, or null
+     * @param events       the events, in the order in which they should be consumed
+     * @return true if the batch was queued, false if the queue of the consumer is full or the batch could not be
+     * stored, in which case the caller should process the events itself
+     */
+    public boolean enqueue(String consumerName, UUID userId, List<Event> events) {
+        ConsumerQueue queue = getQueue(consumerName);
+        if (queue.depth.get() >= maxQueueSize) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        String fileName = String.format("%013d-%s-%010d", now, processId, sequence.incrementAndGet());
+        try {
+            Path directory = Files.createDirectories(queueDirectory.resolve(consumerName));
+            Path tempFile = directory.resolve(fileName + TEMP_SUFFIX);
+            try (OutputStream out = Files.newOutputStream(tempFile);
+                 ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+                objectOut.writeObject(userId);
+                objectOut.writeObject(new ArrayList<>(events));
+            }
+            Files.move(tempFile, directory.resolve(fileName + BATCH_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Unable to queue {} events for consumer {}", events.size(), consumerName, e);
+            return false;
+        }
+        queue.depth.incrementAndGet();
+        if (queue.oldestPending == 0) {
+            queue.oldestPending = now;
+        }
+        scheduleDrain(queue);
+        return true;
+    }
+
+    /**
+     * @return the names of all consumers which have (had) batches in this queue
+     */
+    public Set<String> getConsumerNames() {
+        return Collections.unmodifiableSet(new TreeSet<>(queues.keySet()));
+    }
+
+    /**
+     * @param consumerName the consumer name
+     * @return the number of batches waiting to be processed for the consumer
+     */
+    public int getQueueDepth(String consumerName) {
+        ConsumerQueue queue = queues.get(consumerName);
+        return queue != null ? queue.depth.get() : 0;
+    }
+
+    /**
+     * @param consumerName the consumer name
+     * @return the age in milliseconds of the oldest batch waiting to be processed for the consumer, 0 if none
+     */
+    public long getLag(String consumerName) {
+        ConsumerQueue queue = queues.get(consumerName);
+        if (queue == null || queue.oldestPending == 0) {
+            return 0;
+        }
+        return Math.max(System.currentTimeMillis() - queue.oldestPending, 0);
+    }
+
+    /**
+     * @param consumerName the consumer name
+     * @return the number of batches processed successfully for the consumer by this process
+     */
+    public long getProcessedCount(String consumerName) {
+        ConsumerQueue queue = queues.get(consumerName);
+        return queue != null ? queue.processed.get() : 0;
+    }
+
+    /**
+     * @param consumerName the consumer name
+     * @return the number of batches for the consumer which failed in this process
+     */
+    public long getFailedCount(String consumerName) {
+        ConsumerQueue queue = queues.get(consumerName);
+        return queue != null ? queue.failed.get() : 0;
+    }
+
+    private ConsumerQueue getQueue(String consumerName) {
+        return queues.computeIfAbsent(consumerName, ConsumerQueue::new);
+    }
+
+    private void scheduleDrain(ConsumerQueue queue) {
+        if (queue.draining.compareAndSet(false, true)) {
+            try {
+                workers.execute(() -> drain(queue));
+            } catch (RejectedExecutionException e) {
+                queue.draining.set(false);
+                log.error("Unable to schedule processing of the event queue of consumer {}", queue.name, e);
+            }
+        }
+    }
+
+    private void drain(ConsumerQueue queue) {
+        try {
+            List<Path> batches = listBatches(queue);
+            while (!batches.isEmpty()) {
+                for (Path batch : batches) {
+                    if (!process(queue, batch)) {
+                        // Keep the order of the batches, the next scan tries again
+                        return;
+                    }
+                }
+                batches = listBatches(queue);
+            }
+        } finally {
+            queue.draining.set(false);
+        }
+        // Pick up batches queued after the last listing, but before draining was reset
+        if (!listBatches(queue).isEmpty()) {
+            scheduleDrain(queue);
+        }
+    }
+
+    /**
+     * List the pending batches of a consumer in processing order, and update its depth and lag accordingly.
+     */
+    private List<Path> listBatches(ConsumerQueue queue) {
+        List<Path> batches = new ArrayList<>();
+        Path directory = queueDirectory.resolve(queue.name);
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + BATCH_SUFFIX)) {
+                stream.forEach(batches::add);
+            } catch (IOException e) {
+                log.error("Unable to list the event queue of consumer {}", queue.name, e);
+            }
+        }
+        Collections.sort(batches);
+        queue.depth.set(batches.size());
+        queue.oldestPending = batches.isEmpty() ? 0 : getQueueTime(batches.get(0));
+        return batches;
+    }
+
+    private long getQueueTime(Path batch) {
+        try {
+            return Long.parseLong(StringUtils.substringBefore(batch.getFileName().toString(), "-"));
+        } catch (NumberFormatException e) {
+            return System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Claim and process a batch.
+     *
+     * @return false if the batch could not be claimed, true otherwise, even if its processing failed
+     */
+    private boolean process(ConsumerQueue queue, Path batch) {
+        Path claimed = batch.resolveSibling(batch.getFileName() + CLAIMED_SUFFIX);
+        try {
+            Files.move(batch, claimed, StandardCopyOption.ATOMIC_MOVE);
+            Files.setLastModifiedTime(claimed, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            // Claimed by another process sharing the queue directory
+            return true;
+        } catch (IOException e) {
+            log.error("Unable to claim event batch {}, processing of consumer {} is resumed by the next scan",
+                      batch, queue.name, e);
+            return false;
+        }
+
+        try (Context context = new Context()) {
+            UUID userId;
+            List<Event> events;
+            try (InputStream in = Files.newInputStream(claimed);
+                 ObjectInputStream objectIn = new ObjectInputStream(in)) {
+                objectIn.setObjectInputFilter(EVENT_FILTER);
+                userId = (UUID) objectIn.readObject();
+                events = readEvents(objectIn);
+            }
+            if (userId != null) {
+                // Consumers may rely on the user who caused the events
+                context.setCurrentUser(ePersonService.find(context, userId));
+            }
+            context.turnOffAuthorisationSystem();
+            Consumer consumer = queue.getConsumer();
+            for (Event event : events) {
+                consumer.consume(context, event);
+            }
+            consumer.end(context);
+            context.restoreAuthSystemState();
+            context.complete();
+
+            Files.delete(claimed);
+            queue.processed.incrementAndGet();
+        } catch (Exception e) {
+            log.error("Consumer {} failed to process event batch {}", queue.name, claimed, e);
+            queue.failed.incrementAndGet();
+            // The consumer may hold state of the failed batch, start over with a new instance
+            queue.profile = null;
+            moveToFailed(claimed);
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Event> readEvents(ObjectInputStream objectIn) throws IOException, ClassNotFoundException {
+        return (List<Event>) objectIn.readObject();
+    }
+
+    private void moveToFailed(Path claimed) {
+        try {
+            Path failedDirectory = Files.createDirectories(claimed.resolveSibling(FAILED_DIRECTORY));
+            String fileName = StringUtils.removeEnd(claimed.getFileName().toString(), CLAIMED_SUFFIX);
+            Files.move(claimed, failedDirectory.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("Unable to move failed event batch {}", claimed, e);
+        }
+    }
+
+    /**
+     * Look for consumers with pending batches in the queue directory, and re-queue batches which were claimed but
+     * not finished within the claim timeout, e.g. because the process handling them was stopped.
+     */
+    private void scan() {
+        if (!Files.isDirectory(queueDirectory)) {
+            return;
+        }
+        try (DirectoryStream<Path> consumerDirectories = Files.newDirectoryStream(queueDirectory,
+                                                                                  Files::isDirectory)) {
+            for (Path consumerDirectory : consumerDirectories) {
+                releaseExpiredClaims(consumerDirectory);
+                ConsumerQueue queue = getQueue(consumerDirectory.getFileName().toString());
+                if (!listBatches(queue).isEmpty()) {
+                    scheduleDrain(queue);
+                }
+                if (queue.depth.get() > 0) {
+                    log.info("Event queue of consumer {}: {} pending batches, lag {} ms, {} processed, {} failed",
+                             queue.name, queue.depth.get(), getLag(queue.name), queue.processed.get(),
+                             queue.failed.get());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Unable to scan event queue directory {}", queueDirectory, e);
+        }
+    }
+
+    private void releaseExpiredClaims(Path consumerDirectory) throws IOException {
+        long expired = System.currentTimeMillis() - claimTimeout;
+        try (DirectoryStream<Path> claims = Files.newDirectoryStream(consumerDirectory, "*" + CLAIMED_SUFFIX)) {
+            for (Path claim : claims) {
+                if (Files.getLastModifiedTime(claim).toMillis() < expired) {
+                    String fileName = StringUtils.removeEnd(claim.getFileName().toString(), CLAIMED_SUFFIX);
+                    log.warn("Event batch {} was not finished within the claim timeout, queueing it again", claim);
+                    Files.move(claim, claim.resolveSibling(fileName), StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Pending batches and statistics of a single consumer.
+     */
+    private static class ConsumerQueue {
+        private final String name;
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile long oldestPending = 0;
+        // Only used by the (single) thread draining this queue
+        private ConsumerProfile profile;
+
+        ConsumerQueue(String name) {
+            this.name = name;
+        }
+
+        Consumer getConsumer() throws Exception {
+            if (profile == null) {
+                profile = ConsumerProfile.makeConsumerProfile(name);
+                profile.getConsumer().initialize();
+            }
+            return profile.getConsumer();
+        }
+    }
+}
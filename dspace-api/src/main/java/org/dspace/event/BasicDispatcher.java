@@ -7,23 +7,36 @@
  */
 package org.dspace.event;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.apache.logging.log4j.Logger;
 import org.dspace.core.Context;
 import org.dspace.core.Utils;
+import org.dspace.services.factory.DSpaceServicesFactory;
 
 /**
  * BasicDispatcher implements the primary task of a Dispatcher: it delivers a
  * filtered list of events, synchronously, to a configured list of consumers. It
  * may be extended for more elaborate behavior.
+ * <p>
+ * Unless "event.dispatcher.&lt;name&gt;.coalesce" is set to false, events describing the same change of the same
+ * object are merged before they are delivered (see {@link EventCoalescer}).
  *
  * @version $Revision$
  */
 public class BasicDispatcher extends Dispatcher {
 
+    /**
+     * Whether events are merged before they are delivered to the consumers.
+     */
+    protected boolean coalesce;
+
     public BasicDispatcher(String name) {
         super(name);
+        coalesce = DSpaceServicesFactory.getInstance().getConfigurationService()
+                                        .getBooleanProperty("event.dispatcher." + name + ".coalesce", true);
     }
 
     /**
@@ -80,38 +93,27 @@ public class BasicDispatcher extends Dispatcher {
             // some letters so RDF readers don't mistake it for an integer.
             String tid = "TX" + Utils.generateKey();
 
+            // Consumers may add events while consuming, so keep going until
+            // the queue is empty.
             while (ctx.hasEvents()) {
-                Event event = ctx.pollEvent();
-                event.setDispatcher(getIdentifier());
-                event.setTransactionID(tid);
-
-                if (log.isDebugEnabled()) {
-                    log.debug("Iterating over "
-                                  + String.valueOf(consumers.values().size())
-                                  + " consumers...");
-                }
-
-                for (Iterator ci = consumers.values().iterator(); ci.hasNext(); ) {
-                    ConsumerProfile cp = (ConsumerProfile) ci.next();
+                for (Event event : pollEvents(ctx)) {
+                    event.setDispatcher(getIdentifier());
+                    event.setTransactionID(tid);
 
-                    if (event.pass(cp.getFilters())) {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Sending event to \"" + cp.getName()
-                                          + "\": " + event.toString());
-                        }
+                    if (log.isDebugEnabled()) {
+                        log.debug("Iterating over "
+                                      + String.valueOf(consumers.values().size())
+                                      + " consumers...");
+                    }
 
-                        try {
-                            cp.getConsumer().consume(ctx, event);
+                    for (Iterator ci = consumers.values().iterator(); ci.hasNext(); ) {
+                        ConsumerProfile cp = (ConsumerProfile) ci.next();
 
-                            // Record that the event has been consumed by this
-                            // consumer
-                            event.setBitSet(cp.getName());
-                        } catch (Exception e) {
-                            log.error("Consumer(\"" + cp.getName()
-                                          + "\").consume threw: " + e.toString(), e);
+                        if (event.pass(cp.getFilters())) {
+                            consume(ctx, cp, event);
                         }
-                    }
 
+                    }
                 }
             }
 
@@ -119,20 +121,81 @@ public class BasicDispatcher extends Dispatcher {
             for (Iterator ci = consumers.values().iterator(); ci.hasNext(); ) {
                 ConsumerProfile cp = (ConsumerProfile) ci.next();
                 if (cp != null) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Calling end for consumer \"" + cp.getName()
-                                      + "\"");
-                    }
-
-                    try {
-                        cp.getConsumer().end(ctx);
-                    } catch (Exception e) {
-                        log.error("Error in Consumer(\"" + cp.getName()
-                                      + "\").end: " + e.toString(), e);
-                    }
+                    end(ctx, cp);
                 }
             }
         }
     }
 
+    /**
+     * Take all events currently queued in the Context and, if enabled, merge
+     * the events describing the same change (see {@link EventCoalescer}).
+     *
+     * @param ctx the execution context
+     * @return the events to deliver, in order
+     */
+    protected List<Event> pollEvents(Context ctx) {
+        List<Event> events = new ArrayList<>();
+        while (ctx.hasEvents()) {
+            events.add(ctx.pollEvent());
+        }
+        if (!coalesce) {
+            return events;
+        }
+
+        List<Event> coalesced = EventCoalescer.coalesce(events);
+        if (coalesced.size() < events.size()) {
+            log.info("Coalesced " + events.size() + " events into "
+                          + coalesced.size() + " (" + (events.size() - coalesced.size())
+                          + " collapsed).");
+        }
+        return coalesced;
+    }
+
+    /**
+     * Deliver a single event to a consumer, logging (not throwing) any error.
+     *
+     * @param ctx   the execution context
+     * @param cp    the profile of the consumer to deliver the event to
+     * @param event the event
+     */
+    protected void consume(Context ctx, ConsumerProfile cp, Event event) {
+        if (log.isDebugEnabled()) {
+            log.debug("Sending event to \"" + cp.getName()
+                          + "\": " + event.toString());
+        }
+
+        try {
+            cp.getConsumer().consume(ctx, event);
+
+            // Record that the event has been consumed by this
+            // consumer
+            event.setBitSet(cp.getName());
+        } catch (Exception e) {
+            log.error("Consumer(\"" + cp.getName()
+                          + "\").consume threw: " + e.toString(), e);
+        }
+    }
+
+    /**
+     * Signal a consumer that all events of the current stream have been delivered, logging (not throwing) any
+     * error.
+     *
+     * @param ctx the execution context
+     * @param cp  the profile of the consumer
+     */
+    protected void end(Context ctx, ConsumerProfile cp) {
+        if (log.isDebugEnabled()) {
+            log.debug("Calling end for consumer \"" + cp.getName()
+                          + "\"");
+        }
+
+        try {
+            cp.getConsumer().end(ctx);
+        } catch (Exception e) {
+            log.error("Error in Consumer(\"" + cp.getName()
+                          + "\").end: " + e.toString(), e);
+        }
+    }
+
 }
@@ -43,6 +43,12 @@ public class ConsumerProfile {
      */
     private List<int[]> filters;
 
+    /**
+     * Whether the consumer may run asynchronously, outside the thread that committed the events. Only honored by
+     * dispatchers which support it, see {@link AsyncDispatcher}.
+     */
+    private boolean async;
+
     // Prefix of keys in DSpace Configuration.
     private static final String CONSUMER_PREFIX = "event.consumer.";
 
@@ -104,6 +110,8 @@ public class ConsumerProfile {
                 "No filters configured for consumer named: " + name);
         }
 
+        async = configurationService.getBooleanProperty(CONSUMER_PREFIX + name + ".async", false);
+
         consumer = Class.forName(className.trim())
                 .asSubclass(Consumer.class)
                 .getDeclaredConstructor().newInstance();
@@ -163,4 +171,11 @@ public class ConsumerProfile {
     public String getName() {
         return name;
     }
+
+    /**
+     * @return whether this consumer is flagged to run asynchronously ("event.consumer.&lt;name&gt;.async").
+     */
+    public boolean isAsync() {
+        return async;
+    }
 }
@@ -540,6 +540,29 @@ public class Event implements Serializable {
         return detail;
     }
 
+    /**
+     * Replace the detail of this event, used when events are coalesced.
+     *
+     * @param detail the new detail
+     */
+    void setDetail(String detail) {
+        this.detail = detail;
+    }
+
+    /**
+     * Add the given identifiers to the identifiers of this event's subject, skipping those already present. Used
+     * when events are coalesced.
+     *
+     * @param additionalIdentifiers the identifiers to add
+     */
+    void addIdentifiers(List<String> additionalIdentifiers) {
+        for (String identifier : additionalIdentifiers) {
+            if (!identifiers.contains(identifier)) {
+                identifiers.add(identifier);
+            }
+        }
+    }
+
     /**
      * @return array of identifiers of this event's subject.
      */
@@ -0,0 +1,174 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Merges the events of one transaction that describe the same change of the same object, so consumers only see
+ * each of them once. This typically happens when a script (e.g. the CSV metadata import) updates many fields of the
+ * same item in one transaction, which fires a MODIFY_METADATA event per change.
+ * <p>
+ * Events are merged when they have the same event type, subject and object. MODIFY_METADATA events are merged
+ * regardless of their detail (which lists the modified fields) and get the union of the details. Other events are
+ * only merged when their details are equal, as consumers interpret those details (e.g. "WITHDRAW" or
+ * "ARCHIVED: true"). The identifiers of merged events are unioned as well.
+ * <p>
+ * A merged event takes the position of the first event it replaces, so it is not reordered relative to the events
+ * between them. An event is not merged with an earlier one when an event about the same object which is not a
+ * modification came in between (e.g. an ADD, a REMOVE and an ADD of the same item, or a MODIFY of an item, its
+ * REMOVE from a collection and another MODIFY), so the relative order of such events is preserved.
+ */
+public class EventCoalescer {
+
+    /**
+     * Separator used by {@link org.dspace.content.DSpaceObject#addDetails(String)} between the details of a
+     * MODIFY_METADATA event
+     */
+    protected static final String DETAIL_SEPARATOR = ", ";
+
+    private EventCoalescer() { }
+
+    /**
+     * Merge the given events.
+     *
+     * @param events the events of a transaction, in the order in which they were fired
+     * @return the merged events, in order. When events were merged, the returned list is shorter than the given one.
+     */
+    public static List<Event> coalesce(List<Event> events) {
+        if (events.size() < 2) {
+            return events;
+        }
+        List<Event> merged = new ArrayList<>(events.size());
+        // position in merged of the event of each key which later events of the same key can be merged with
+        Map<Key, Integer> mergeable = new HashMap<>();
+        // keys of the mergeable events about each object
+        Map<UUID, List<Key>> keysByObject = new HashMap<>();
+        for (Event event : events) {
+            Key key = new Key(event);
+            Integer position = mergeable.get(key);
+            if (position != null) {
+                merge(merged.get(position), event);
+                merged.set(position, event);
+                continue;
+            }
+            for (UUID id : key.objectIds()) {
+                List<Key> keys = keysByObject.computeIfAbsent(id, i -> new ArrayList<>());
+                // the events about the same object must not be merged across this one, unless both are modifications
+                keys.removeIf(other -> {
+                    if (other.isModification() && key.isModification()) {
+                        return false;
+                    }
+                    mergeable.remove(other);
+                    return true;
+                });
+                keys.add(key);
+            }
+            mergeable.put(key, merged.size());
+            merged.add(event);
+        }
+        if (merged.size() == events.size()) {
+            return events;
+        }
+        return merged;
+    }
+
+    /**
+     * Merge the details and identifiers of an earlier event into a later one.
+     */
+    private static void merge(Event earlier, Event later) {
+        if (later.getEventType() == Event.MODIFY_METADATA) {
+            later.setDetail(unionDetails(earlier.getDetail(), later.getDetail()));
+        }
+        later.addIdentifiers(earlier.getIdentifiers());
+    }
+
+    private static String unionDetails(String earlier, String later) {
+        if (StringUtils.isBlank(earlier)) {
+            return later;
+        }
+        if (StringUtils.isBlank(later) || earlier.equals(later)) {
+            return earlier;
+        }
+        Set<String> details = new LinkedHashSet<>();
+        for (String detail : StringUtils.splitByWholeSeparator(earlier, DETAIL_SEPARATOR)) {
+            details.add(detail);
+        }
+        for (String detail : StringUtils.splitByWholeSeparator(later, DETAIL_SEPARATOR)) {
+            details.add(detail);
+        }
+        return String.join(DETAIL_SEPARATOR, details);
+    }
+
+    /**
+     * The properties of an event that must be equal for it to be merged with another one.
+     */
+    private static final class Key {
+        private final int eventType;
+        private final int subjectType;
+        private final UUID subjectID;
+        private final int objectType;
+        private final UUID objectID;
+        private final String detail;
+
+        private Key(Event event) {
+            eventType = event.getEventType();
+            subjectType = event.getSubjectType();
+            subjectID = event.getSubjectID();
+            objectType = event.getObjectType();
+            objectID = event.getObjectID();
+            detail = eventType == Event.MODIFY_METADATA ? null : event.getDetail();
+        }
+
+        /**
+         * @return the ids of the subject and object of the event
+         */
+        private List<UUID> objectIds() {
+            List<UUID> ids = new ArrayList<>(2);
+            if (subjectID != null) {
+                ids.add(subjectID);
+            }
+            if (objectID != null && !objectID.equals(subjectID)) {
+                ids.add(objectID);
+            }
+            return ids;
+        }
+
+        /**
+         * @return whether the event only modifies its subject, so that it can be reordered with other modifications
+         */
+        private boolean isModification() {
+            return eventType == Event.MODIFY || eventType == Event.MODIFY_METADATA;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return eventType == key.eventType && subjectType == key.subjectType && objectType == key.objectType
+                && Objects.equals(subjectID, key.subjectID) && Objects.equals(objectID, key.objectID)
+                && Objects.equals(detail, key.detail);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(eventType, subjectType, subjectID, objectType, objectID, detail);
+        }
+    }
+}
@@ -9,12 +9,15 @@ package org.dspace.event;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.pool2.KeyedObjectPool;
 import org.apache.commons.pool2.KeyedPooledObjectFactory;
 import org.apache.commons.pool2.PoolUtils;
@@ -182,9 +185,8 @@ public class EventServiceImpl implements EventService {
                     // OK, now get its list of consumers/filters
                     String consumerKey = PROP_PFX + "." + dispatcherName
                         + ".consumers";
-                    String[] consumers = configurationService
-                        .getArrayProperty(consumerKey);
-                    if (ArrayUtils.isEmpty(consumers)) {
+                    List<String> consumers = getConsumerNames(dispatcherName);
+                    if (consumers.isEmpty()) {
                         throw new IllegalStateException(
                             "No Configuration entry found for consumer list of event Dispatcher: \""
                                 + consumerKey + "\"");
@@ -270,6 +272,33 @@ public class EventServiceImpl implements EventService {
             return false;
         }
 
+        /**
+         * Get the names of the consumers of a dispatcher: the consumers of the dispatcher named by its "extends"
+         * property if any, then its own "consumers" list, without the consumers of its "exclude" list. A dispatcher
+         * can thus follow the consumers of another one, including local changes, e.g.:
+         *
+         * <pre>
+         *  event.dispatcher.bulkedit.class = org.dspace.event.BasicDispatcher
+         *  event.dispatcher.bulkedit.extends = default
+         *  event.dispatcher.bulkedit.exclude = discovery
+         * </pre>
+         *
+         * @param dispatcherName the name of the dispatcher
+         * @return the names of its consumers, in order and without duplicates
+         */
+        protected List<String> getConsumerNames(String dispatcherName) {
+            String prefix = PROP_PFX + "." + dispatcherName;
+            LinkedHashSet<String> consumers = new LinkedHashSet<>();
+            String base = configurationService.getProperty(prefix + ".extends");
+            if (StringUtils.isNotBlank(base) && !base.trim().equals(dispatcherName)) {
+                consumers.addAll(Arrays.asList(
+                    configurationService.getArrayProperty(PROP_PFX + "." + base.trim() + ".consumers")));
+            }
+            consumers.addAll(Arrays.asList(configurationService.getArrayProperty(prefix + ".consumers")));
+            consumers.removeAll(Arrays.asList(configurationService.getArrayProperty(prefix + ".exclude")));
+            return new ArrayList<>(consumers);
+        }
+
         /**
          * Looks through the configuration for dispatcher configurations and
          * loads one of each into a HashMap. This Map will be used to clone new
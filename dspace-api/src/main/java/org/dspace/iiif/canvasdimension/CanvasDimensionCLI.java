@@ -62,6 +62,8 @@ public class CanvasDimensionCLI {
         boolean isQuiet = false;
         // default to no limit
         int max2Process = Integer.MAX_VALUE;
+        // default to a single thread
+        int threads = 1;
 
         String identifier = null;
         String eperson = null;
@@ -84,6 +86,8 @@ public class CanvasDimensionCLI {
             "do not print anything except in the event of errors");
         options.addOption("m", "maximum", true,
             "process no more than maximum items");
+        options.addOption("t", "threads", true,
+            "number of threads processing bitstreams at the same time");
         options.addOption("h", "help", false,
             "display help");
 
@@ -147,6 +151,14 @@ public class CanvasDimensionCLI {
                 max2Process = Integer.MAX_VALUE;
             }
         }
+        if (line.hasOption('t')) {
+            threads = Integer.parseInt(line.getOptionValue('t'));
+            if (threads < 1) {
+                System.out.println("Invalid number of threads '" +
+                    line.getOptionValue('t') + "' - ignoring");
+                threads = 1;
+            }
+        }
         String[] skipIds;
 
         if (line.hasOption('s')) {
@@ -201,6 +213,7 @@ public class CanvasDimensionCLI {
         canvasProcessor.setForceProcessing(force);
         canvasProcessor.setMax2Process(max2Process);
         canvasProcessor.setIsQuiet(isQuiet);
+        canvasProcessor.setThreads(threads);
 
         int processed = 0;
         switch (dso.getType()) {
@@ -15,11 +15,25 @@ import static org.dspace.iiif.util.IIIFSharedUtils.METADATA_IIIF_WIDTH_QUALIFIER
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.dspace.authorize.AuthorizeException;
+import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.content.Bitstream;
 import org.dspace.content.Bundle;
 import org.dspace.content.Collection;
@@ -30,15 +44,21 @@ import org.dspace.content.service.BitstreamService;
 import org.dspace.content.service.CommunityService;
 import org.dspace.content.service.DSpaceObjectService;
 import org.dspace.content.service.ItemService;
+import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.iiif.IIIFApiQueryService;
 import org.dspace.iiif.canvasdimension.service.IIIFCanvasDimensionService;
 import org.dspace.iiif.util.IIIFSharedUtils;
+import org.dspace.storage.bitstore.service.BitstreamStorageService;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * This service sets canvas dimensions for bitstreams. Processes communities,
  * collections, and individual items.
+ * <p>
+ * Only the first bytes of the bitstreams are read from the bitstore, to find the dimensions in the image headers.
+ * The whole bitstream is read when they are not found there. With more than one thread, see
+ * {@link #setThreads(int)}, the bitstreams are processed at the same time by workers with their own Context.
  *
  * @author Michael Spalti mspalti@willamette.edu
  */
@@ -54,12 +74,23 @@ public class IIIFCanvasDimensionServiceImpl implements IIIFCanvasDimensionServic
     DSpaceObjectService<Bitstream> dSpaceObjectService;
     @Autowired()
     IIIFApiQueryService iiifApiQuery;
+    @Autowired()
+    AuthorizeService authorizeService;
+    @Autowired()
+    BitstreamStorageService bitstreamStorageService;
 
     private boolean forceProcessing = false;
     private boolean isQuiet = false;
     private List<String> skipList = null;
     private int max2Process = Integer.MAX_VALUE;
     private int processed = 0;
+    private int threads = 1;
+
+    // number of updated bitstreams committed at once by a worker
+    private static final int WORKER_COMMIT_SIZE = 100;
+
+    // marks the end of the bitstreams queued for the workers
+    private static final QueuedBitstream END_OF_BITSTREAMS = new QueuedBitstream(null, null);
 
     // used to check for existing canvas dimension
     private static final String IIIF_WIDTH_METADATA = METADATA_IIIF_SCHEMA + "." + METADATA_IIIF_IMAGE_ELEMENT +
@@ -85,6 +116,11 @@ public class IIIFCanvasDimensionServiceImpl implements IIIFCanvasDimensionServic
         this.skipList = skipList;
     }
 
+    @Override
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     @Override
     public int processCommunity(Context context, Community community) throws Exception {
         if (!inSkipList(community.getHandle())) {
@@ -104,6 +140,10 @@ public class IIIFCanvasDimensionServiceImpl implements IIIFCanvasDimensionServic
     public int processCollection(Context context, Collection collection) throws Exception {
         if (!inSkipList(collection.getHandle())) {
             Iterator<Item> itemIterator = itemService.findAllByCollection(context, collection);
+            if (threads > 1) {
+                processItemsInParallel(context, itemIterator);
+                return processed;
+            }
             while (itemIterator.hasNext() && processed < max2Process) {
                 processItem(context, itemIterator.next());
             }
@@ -113,6 +153,10 @@ public class IIIFCanvasDimensionServiceImpl implements IIIFCanvasDimensionServic
 
     @Override
     public void processItem(Context context, Item item) throws Exception {
+        if (threads > 1) {
+            processItemsInParallel(context, Collections.singletonList(item).iterator());
+            return;
+        }
         if (!inSkipList(item.getHandle())) {
             boolean isIIIFItem = IIIFSharedUtils.isIIIFItem(item);
             if (isIIIFItem) {
@@ -151,10 +195,142 @@ public class IIIFCanvasDimensionServiceImpl implements IIIFCanvasDimensionServic
     }
 
     /**
-     * Gets image height and width for the bitstream. For jp2 images, height and width are
-     * obtained from the IIIF image server. For other formats supported by ImageIO these values
-     * are read from the actual DSpace bitstream content. If bitstream width metadata already exists,
-     * the bitstream is processed when forceProcessing is true.
+     * Process the IIIF bundles of the items with several workers, see {@link #setThreads(int)}. The bitstreams are
+     * queued by the calling thread and processed by the workers, with their own Context. The maximum number of
+     * items to process may be exceeded by the items whose bitstreams are already queued.
+     * @param context
+     * @param items
+     * @throws Exception
+     */
+    private void processItemsInParallel(Context context, Iterator<Item> items) throws Exception {
+        BlockingQueue<QueuedBitstream> bitstreams = new ArrayBlockingQueue<>(threads * 100);
+        Set<UUID> updatedItems = ConcurrentHashMap.newKeySet();
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    try {
+                        runWorker(context, bitstreams, updatedItems, stop);
+                    } catch (Exception e) {
+                        stop.set(true);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            while (items.hasNext() && processed + updatedItems.size() < max2Process && !stop.get()) {
+                Item item = items.next();
+                if (!inSkipList(item.getHandle()) && IIIFSharedUtils.isIIIFItem(item)) {
+                    for (Bundle bundle : IIIFSharedUtils.getIIIFBundles(item)) {
+                        for (Bitstream bitstream : bundle.getBitstreams()) {
+                            offer(bitstreams, new QueuedBitstream(bitstream.getID(), item.getID()), stop);
+                            context.uncacheEntity(bitstream);
+                        }
+                    }
+                }
+                context.uncacheEntity(item);
+            }
+            // one end marker per worker
+            for (int i = 0; i < threads; i++) {
+                offer(bitstreams, END_OF_BITSTREAMS, stop);
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        } finally {
+            stop.set(true);
+            executor.shutdownNow();
+            processed += updatedItems.size();
+        }
+    }
+
+    private void offer(BlockingQueue<QueuedBitstream> bitstreams, QueuedBitstream bitstream, AtomicBoolean stop)
+        throws InterruptedException {
+        while (!stop.get() && !bitstreams.offer(bitstream, 1, TimeUnit.SECONDS)) {
+            // wait for the workers
+        }
+    }
+
+    /**
+     * Process the queued bitstreams with a new Context, in a worker thread of {@link #processItemsInParallel}. The
+     * updated bitstreams are committed in batches.
+     */
+    private void runWorker(Context context, BlockingQueue<QueuedBitstream> bitstreams, Set<UUID> updatedItems,
+                           AtomicBoolean stop) throws SQLException, AuthorizeException, IOException,
+        InterruptedException {
+        Context workerContext = new Context(Context.Mode.BATCH_EDIT);
+        try {
+            if (context.getCurrentUser() != null) {
+                workerContext.setCurrentUser(workerContext.reloadEntity(context.getCurrentUser()));
+            }
+            if (context.ignoreAuthorization()) {
+                workerContext.turnOffAuthorisationSystem();
+            }
+            List<Bitstream> updated = new ArrayList<>();
+            while (!stop.get()) {
+                QueuedBitstream queued = bitstreams.poll(1, TimeUnit.SECONDS);
+                if (queued == null) {
+                    continue;
+                }
+                if (queued == END_OF_BITSTREAMS) {
+                    break;
+                }
+                Bitstream bitstream = bitstreamService.find(workerContext, queued.bitstreamId());
+                if (bitstream == null) {
+                    continue;
+                }
+                if (!processBitstream(workerContext, bitstream)) {
+                    workerContext.uncacheEntity(bitstream);
+                    continue;
+                }
+                if (updatedItems.add(queued.itemId()) && !isQuiet) {
+                    System.out.println("Updated canvas metadata for item: " + queued.itemId());
+                }
+                updated.add(bitstream);
+                if (updated.size() >= WORKER_COMMIT_SIZE) {
+                    workerContext.commit();
+                    for (Bitstream committed : updated) {
+                        workerContext.uncacheEntity(committed);
+                    }
+                    updated.clear();
+                }
+            }
+            workerContext.complete();
+        } finally {
+            if (workerContext.isValid()) {
+                workerContext.abort();
+            }
+        }
+    }
+
+    /**
+     * Reads the image dimensions from the headers at the beginning of the bitstream, reading only these bytes
+     * from the bitstore.
+     * @param context
+     * @param bitstream
+     * @return image dimensions or null if they are not found in the headers.
+     */
+    private int[] getHeaderDimensions(Context context, Bitstream bitstream) throws SQLException,
+        AuthorizeException, IOException {
+        authorizeService.authorizeAction(context, bitstream, Constants.READ);
+        try (InputStream header = bitstreamStorageService.retrieve(context, bitstream, 0,
+                                                                   ImageDimensionReader.HEADER_SIZE)) {
+            return ImageDimensionReader.getHeaderDimensions(header.readAllBytes());
+        }
+    }
+
+    /**
+     * Gets image height and width for the bitstream. These values are read from the image headers
+     * at the beginning of the DSpace bitstream content. For other images supported by ImageIO these values
+     * are read from the whole DSpace bitstream content, otherwise they are obtained from the IIIF image server.
+     * If bitstream width metadata already exists, the bitstream is processed when forceProcessing is true.
      * @param context
      * @param bitstream
      * @return
@@ -173,23 +349,26 @@ public class IIIFCanvasDimensionServiceImpl implements IIIFCanvasDimensionServic
                 if (forceProcessing && !isQuiet) {
                     System.out.println("Force processing for bitstream: " + bitstream.getID());
                 }
-                int[] dims;
-                InputStream stream = null;
-                try {
-                    stream = bitstreamService.retrieve(context, bitstream);
+                // the dimensions are usually found in the headers at the beginning of the image
+                int[] dims = getHeaderDimensions(context, bitstream);
+                if (dims == null) {
+                    InputStream stream = null;
                     try {
-                        dims = ImageDimensionReader.getImageDimensions(stream);
-                        if (dims == null) {
-                            // If image dimensions are not available try the iiif image server.
+                        stream = bitstreamService.retrieve(context, bitstream);
+                        try {
+                            dims = ImageDimensionReader.getImageDimensions(stream);
+                            if (dims == null) {
+                                // If image dimensions are not available try the iiif image server.
+                                dims = iiifApiQuery.getImageDimensions(bitstream);
+                            }
+                        } catch (IOException e) {
+                            // If an exception was raised by ImageIO, try the iiif image server.
                             dims = iiifApiQuery.getImageDimensions(bitstream);
                         }
-                    } catch (IOException e) {
-                        // If an exception was raised by ImageIO, try the iiif image server.
-                        dims = iiifApiQuery.getImageDimensions(bitstream);
-                    }
-                } finally {
-                    if (stream != null) {
-                        stream.close();
+                    } finally {
+                        if (stream != null) {
+                            stream.close();
+                        }
                     }
                 }
 
@@ -241,4 +420,10 @@ public class IIIFCanvasDimensionServiceImpl implements IIIFCanvasDimensionServic
         }
     }
 
+    /**
+     * A bitstream queued for the workers, see {@link #processItemsInParallel(Context, Iterator)}.
+     */
+    private record QueuedBitstream(UUID bitstreamId, UUID itemId) {
+    }
+
 }
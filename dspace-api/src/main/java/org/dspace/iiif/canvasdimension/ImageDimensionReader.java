@@ -10,26 +10,91 @@ package org.dspace.iiif.canvasdimension;
 import static org.dspace.iiif.canvasdimension.Util.checkDimensions;
 
 import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import javax.imageio.ImageIO;
 
 /**
  * Reads and return height and width dimensions for image bitstreams.
+ * <p>
+ * The dimensions are read from the headers of JPEG, PNG, GIF, TIFF and JPEG 2000 images, so that the image does not
+ * need to be decoded. The other images, and the images whose headers are not found at the beginning of the file, are
+ * decoded with ImageIO.
  *
  * @author Michael Spalti mspalti@willamette.edu
  */
 public class ImageDimensionReader {
 
+    /**
+     * Number of bytes read from the beginning of an image to find its dimensions in its headers
+     */
+    public static final int HEADER_SIZE = 64 * 1024;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JP2_SIGNATURE = {0, 0, 0, 0x0C, 'j', 'P', ' ', ' ', '\r', '\n', (byte) 0x87, '\n'};
+
     private ImageDimensionReader() {}
 
     /**
-     * Uses ImageIO to read height and width dimensions.
+     * Reads height and width dimensions from the image headers, or with ImageIO if they are not found.
      * @param image inputstream for dspace image
      * @return image dimensions or null if the image format cannot be read.
      * @throws Exception
      */
     public static int[] getImageDimensions(InputStream image) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(image, HEADER_SIZE);
+        buffered.mark(HEADER_SIZE);
+        int[] dims = getHeaderDimensions(buffered.readNBytes(HEADER_SIZE));
+        if (dims != null) {
+            return dims;
+        }
+        buffered.reset();
+        return readImageDimensions(buffered);
+    }
+
+    /**
+     * Reads height and width dimensions from the headers at the beginning of an image, see {@link #HEADER_SIZE}.
+     * @param header the first bytes of the image
+     * @return image dimensions or null if they are not found in the given bytes.
+     */
+    public static int[] getHeaderDimensions(byte[] header) {
+        ByteBuffer buffer = ByteBuffer.wrap(header);
+        int[] dims;
+        try {
+            if (startsWith(header, PNG_SIGNATURE)) {
+                dims = readPng(buffer);
+            } else if (startsWith(header, JP2_SIGNATURE)) {
+                dims = readJp2(buffer);
+            } else if (header.length >= 4 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8) {
+                dims = readJpeg(buffer);
+            } else if (header.length >= 4 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0x4F) {
+                dims = readJ2kCodestream(buffer);
+            } else if (header.length >= 8 && header[0] == header[1] && (header[0] == 'I' || header[0] == 'M')) {
+                dims = readTiff(buffer);
+            } else if (startsWith(header, "GIF87a".getBytes(StandardCharsets.US_ASCII))
+                || startsWith(header, "GIF89a".getBytes(StandardCharsets.US_ASCII))) {
+                dims = readGif(buffer);
+            } else {
+                dims = null;
+            }
+        } catch (RuntimeException e) {
+            // the headers are truncated or malformed
+            dims = null;
+        }
+        if (dims != null && dims[0] > 0 && dims[1] > 0) {
+            return checkDimensions(dims);
+        }
+        return null;
+    }
+
+    /**
+     * Uses ImageIO to read height and width dimensions.
+     */
+    private static int[] readImageDimensions(InputStream image) throws IOException {
         int[] dims = new int[2];
         BufferedImage buf = ImageIO.read(image);
         if (buf != null) {
@@ -44,4 +109,165 @@ public class ImageDimensionReader {
         return null;
     }
 
+    private static boolean startsWith(byte[] header, byte[] signature) {
+        if (header.length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (header[i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The IHDR chunk follows the signature.
+     */
+    private static int[] readPng(ByteBuffer buffer) {
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.getInt(12) != 0x49484452) {
+            return null;
+        }
+        return new int[] {buffer.getInt(16), buffer.getInt(20)};
+    }
+
+    /**
+     * The logical screen descriptor follows the signature.
+     */
+    private static int[] readGif(ByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return new int[] {buffer.getShort(6) & 0xFFFF, buffer.getShort(8) & 0xFFFF};
+    }
+
+    /**
+     * Walks the marker segments up to the start of frame segment.
+     */
+    private static int[] readJpeg(ByteBuffer buffer) {
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        buffer.position(2);
+        while (buffer.hasRemaining()) {
+            if ((buffer.get() & 0xFF) != 0xFF) {
+                return null;
+            }
+            int marker = buffer.get() & 0xFF;
+            // fill bytes
+            while (marker == 0xFF) {
+                marker = buffer.get() & 0xFF;
+            }
+            if (marker == 0x01 || marker >= 0xD0 && marker <= 0xD8) {
+                // standalone markers
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                // end of image or start of scan before a frame
+                return null;
+            }
+            int length = buffer.getShort() & 0xFFFF;
+            boolean startOfFrame = marker >= 0xC0 && marker <= 0xCF
+                && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+            if (startOfFrame) {
+                // sample precision, number of lines, number of samples per line
+                buffer.get();
+                int height = buffer.getShort() & 0xFFFF;
+                int width = buffer.getShort() & 0xFFFF;
+                return new int[] {width, height};
+            }
+            buffer.position(buffer.position() + length - 2);
+        }
+        return null;
+    }
+
+    /**
+     * Finds the ImageWidth and ImageLength fields of the first image file directory.
+     */
+    private static int[] readTiff(ByteBuffer buffer) {
+        buffer.order(buffer.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        if (buffer.getShort(2) != 42) {
+            // not a TIFF, or a BigTIFF
+            return null;
+        }
+        int ifd = buffer.getInt(4);
+        if (ifd < 8 || ifd + 2 > buffer.limit()) {
+            // the directory is not in the header bytes
+            return null;
+        }
+        int entries = buffer.getShort(ifd) & 0xFFFF;
+        int width = -1;
+        int height = -1;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            int tag = buffer.getShort(entry) & 0xFFFF;
+            if (tag != 256 && tag != 257) {
+                continue;
+            }
+            int type = buffer.getShort(entry + 2) & 0xFFFF;
+            int value;
+            if (type == 3) {
+                value = buffer.getShort(entry + 8) & 0xFFFF;
+            } else if (type == 4) {
+                value = buffer.getInt(entry + 8);
+            } else {
+                return null;
+            }
+            if (tag == 256) {
+                width = value;
+            } else {
+                height = value;
+            }
+        }
+        return width > 0 && height > 0 ? new int[] {width, height} : null;
+    }
+
+    /**
+     * Finds the image header box in the JP2 header box.
+     */
+    private static int[] readJp2(ByteBuffer buffer) {
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        int position = JP2_SIGNATURE.length;
+        int end = buffer.limit();
+        while (position + 8 <= end) {
+            long length = buffer.getInt(position) & 0xFFFFFFFFL;
+            int type = buffer.getInt(position + 4);
+            int header = 8;
+            if (length == 1) {
+                length = buffer.getLong(position + 8);
+                header = 16;
+            } else if (length == 0) {
+                length = end - position;
+            }
+            if (type == 0x6A703268) {
+                // jp2h is a superbox, its boxes follow its header
+                position += header;
+                end = (int) Math.min(end, position - header + length);
+            } else if (type == 0x69686472) {
+                // ihdr: height, then width
+                return new int[] {buffer.getInt(position + header + 4), buffer.getInt(position + header)};
+            } else if (type == 0x6A703263) {
+                // jp2c: the codestream starts before any image header box
+                return null;
+            } else {
+                if (length < header || length > end - position) {
+                    return null;
+                }
+                position += (int) length;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the image size marker segment which follows the start of codestream marker.
+     */
+    private static int[] readJ2kCodestream(ByteBuffer buffer) {
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if ((buffer.getShort(2) & 0xFFFF) != 0xFF51) {
+            return null;
+        }
+        // Lsiz, Rsiz, then the size of the reference grid and the offset of the image on it
+        int width = buffer.getInt(8) - buffer.getInt(16);
+        int height = buffer.getInt(12) - buffer.getInt(20);
+        return new int[] {width, height};
+    }
+
 }
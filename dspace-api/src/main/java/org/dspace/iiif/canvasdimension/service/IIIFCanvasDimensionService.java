@@ -66,4 +66,11 @@ public interface IIIFCanvasDimensionService {
      */
     void setSkipList(List<String> skipList);
 
+    /**
+     * Set the number of threads processing the bitstreams of the items at the same time.
+     * With more than one thread, each thread has its own context and commits its changes.
+     * @param threads
+     */
+    void setThreads(int threads);
+
 }
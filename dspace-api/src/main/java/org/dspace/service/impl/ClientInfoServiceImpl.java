@@ -39,7 +39,7 @@ public class ClientInfoServiceImpl implements ClientInfoService {
     private final ConfigurationService configurationService;
 
     /**
-     * Sparse HashTable structure to hold IP address ranges of trusted proxies
+     * IPv4 and IPv6 address ranges of trusted proxies
      */
     private final IPTable trustedProxies;
 
@@ -105,6 +105,7 @@ import org.dspace.statistics.service.SolrLoggerService;
 import org.dspace.statistics.util.LocationUtils;
 import org.dspace.statistics.util.SpiderDetector;
 import org.dspace.usage.UsageWorkflowEvent;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -117,7 +118,7 @@ import org.springframework.beans.factory.annotation.Autowired;
  * @author kevinvandevelde at atmire.com
  * @author mdiggory at atmire.com
  */
-public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBean {
+public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBean, DisposableBean {
     private static final Logger log = LogManager.getLogger();
 
     private static final String MULTIPLE_VALUES_SPLITTER = "|";
@@ -153,6 +154,11 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
     protected SolrClient solr;
 
+    /**
+     * Writes usage event documents in the background, if enabled by {@code solr-statistics.writer.async}.
+     */
+    protected SolrStatisticsWriter statisticsWriter;
+
     /** Name of the current-year statistics core.  Prior-year shards will have a year suffixed. */
     private String statisticsCoreBase;
 
@@ -204,6 +210,35 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             log.error(ex);
         }
         locationService = service;
+
+        if (solr != null && configurationService.getBooleanProperty("solr-statistics.writer.async", false)) {
+            String spillDir = configurationService.getProperty("solr-statistics.writer.spillDir");
+            statisticsWriter = new SolrStatisticsWriter(
+                solr,
+                configurationService.getIntProperty("solr-statistics.writer.queueSize", 10000),
+                configurationService.getIntProperty("solr-statistics.writer.batchSize", 100),
+                configurationService.getLongProperty("solr-statistics.writer.flushInterval", 1000),
+                !configurationService.getBooleanProperty("solr-statistics.autoCommit", true),
+                StringUtils.isBlank(spillDir) ? null : Paths.get(spillDir),
+                this::completeDocument);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (statisticsWriter != null) {
+            statisticsWriter.shutdown(configurationService.getLongProperty("solr-statistics.writer.shutdownTimeout",
+                                                                           10000));
+            statisticsWriter = null;
+        }
+    }
+
+    /**
+     * @return the writer sending usage event documents to Solr in the background, with its counters of queued,
+     * written and dropped documents, or null if documents are written directly
+     */
+    public SolrStatisticsWriter getStatisticsWriter() {
+        return statisticsWriter;
     }
 
     @Override
@@ -253,12 +288,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             doc1.addField("statistics_type", StatisticsType.VIEW.text());
 
 
-            solr.add(doc1);
-            // commits are executed automatically using the solr autocommit
-            boolean useAutoCommit = configurationService.getBooleanProperty("solr-statistics.autoCommit", true);
-            if (!useAutoCommit) {
-                solr.commit(false, false);
-            }
+            addDocument(doc1, true);
 
         } catch (RuntimeException re) {
             throw re;
@@ -299,12 +329,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
             doc1.addField("statistics_type", StatisticsType.VIEW.text());
 
-            solr.add(doc1);
-            // commits are executed automatically using the solr autocommit
-            boolean useAutoCommit = configurationService.getBooleanProperty("solr-statistics.autoCommit", true);
-            if (!useAutoCommit) {
-                solr.commit(false, false);
-            }
+            addDocument(doc1, true);
 
         } catch (RuntimeException re) {
             throw re;
@@ -370,54 +395,11 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 doc1.addField("referrer", request.getHeader("referer"));
             }
 
-            InetAddress ipAddress = null;
-            try {
-                String dns;
-                if (!configurationService.getBooleanProperty("anonymize_statistics.anonymize_on_log", false)) {
-                    ipAddress = InetAddress.getByName(ip);
-                    dns = ipAddress.getHostName();
-                } else {
-                    dns = configurationService.getProperty("anonymize_statistics.dns_mask", "anonymized");
-                }
-                doc1.addField("dns", dns.toLowerCase(Locale.ROOT));
-            } catch (UnknownHostException e) {
-                log.info("Failed DNS Lookup for IP:  {}", ip);
-                log.debug(e.getMessage(), e);
-            }
             if (request.getHeader("User-Agent") != null) {
                 doc1.addField("userAgent", request.getHeader("User-Agent"));
             }
             doc1.addField("isBot", isSpiderBot);
-            // Save the location information if valid, save the event without
-            // location information if not valid
-            if (locationService != null && ipAddress != null) {
-                try {
-                    CityResponse location = locationService.city(ipAddress);
-                    String countryCode = location.getCountry().getIsoCode();
-                    double latitude = location.getLocation().getLatitude();
-                    double longitude = location.getLocation().getLongitude();
-                    if (!(
-                            "--".equals(countryCode)
-                            && latitude == -180
-                            && longitude == -180)
-                    ) {
-                        try {
-                            doc1.addField("continent", LocationUtils
-                                .getContinentCode(countryCode));
-                        } catch (Exception e) {
-                            log.warn("Failed to load country/continent table: {}", countryCode);
-                        }
-                        doc1.addField("countryCode", countryCode);
-                        doc1.addField("city", location.getCity().getName());
-                        doc1.addField("latitude", latitude);
-                        doc1.addField("longitude", longitude);
-                    }
-                } catch (IOException e) {
-                    log.warn("GeoIP lookup failed.", e);
-                } catch (GeoIp2Exception e) {
-                    log.info("Unable to get location of request: {}", e.getMessage());
-                }
-            }
+            addLocation(doc1, ip);
         }
 
         if (dspaceObject != null) {
@@ -462,55 +444,11 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             doc1.addField("referrer", referrer);
         }
 
-        InetAddress ipAddress = null;
-        try {
-            String dns;
-            if (!configurationService.getBooleanProperty("anonymize_statistics.anonymize_on_log", false)) {
-                ipAddress = InetAddress.getByName(ip);
-                dns = ipAddress.getHostName();
-            } else {
-                dns = configurationService.getProperty("anonymize_statistics.dns_mask", "anonymized");
-            }
-            doc1.addField("dns", dns.toLowerCase(Locale.ROOT));
-        } catch (UnknownHostException e) {
-            log.info("Failed DNS Lookup for IP:  {}", ip);
-            log.debug(e.getMessage(), e);
-        }
         if (userAgent != null) {
             doc1.addField("userAgent", userAgent);
         }
         doc1.addField("isBot", isSpiderBot);
-        // Save the location information if valid, save the event without
-        // location information if not valid
-        if (locationService != null) {
-            try {
-                CityResponse location = locationService.city(ipAddress);
-                String countryCode = location.getCountry().getIsoCode();
-                double latitude = location.getLocation().getLatitude();
-                double longitude = location.getLocation().getLongitude();
-                if (!(
-                        "--".equals(countryCode)
-                                && latitude == -180
-                                && longitude == -180)
-                ) {
-                    try {
-                        doc1.addField("continent", LocationUtils
-                                .getContinentCode(countryCode));
-                    } catch (Exception e) {
-                        System.out
-                                .println("COUNTRY ERROR: " + countryCode);
-                    }
-                    doc1.addField("countryCode", countryCode);
-                    doc1.addField("city", location.getCity().getName());
-                    doc1.addField("latitude", latitude);
-                    doc1.addField("longitude", longitude);
-                }
-            } catch (IOException e) {
-                log.warn("GeoIP lookup failed.", e);
-            } catch (GeoIp2Exception e) {
-                log.info("Unable to get location of request: {}", e.getMessage());
-            }
-        }
+        addLocation(doc1, ip);
 
         if (dspaceObject != null) {
             doc1.addField("id", dspaceObject.getID().toString());
@@ -527,6 +465,103 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
     }
 
 
+    /**
+     * Add the DNS name and the location of the client to a usage event document. When the documents are written in
+     * the background, this is left to the writer (see {@link #completeDocument(SolrInputDocument)}), as both lookups
+     * may be slow. When anonymizing statistics, only the masked DNS name is added.
+     *
+     * @param doc the usage event document
+     * @param ip  the IP address of the client
+     */
+    protected void addLocation(SolrInputDocument doc, String ip) {
+        if (configurationService.getBooleanProperty("anonymize_statistics.anonymize_on_log", false)) {
+            String dns = configurationService.getProperty("anonymize_statistics.dns_mask", "anonymized");
+            doc.addField("dns", dns.toLowerCase(Locale.ROOT));
+        } else if (statisticsWriter == null) {
+            lookupLocation(doc, ip);
+        }
+    }
+
+    /**
+     * Add the fields left to the background writer to a usage event document, before it is written to Solr.
+     *
+     * @param doc the usage event document
+     */
+    protected void completeDocument(SolrInputDocument doc) {
+        Object ip = doc.getFieldValue("ip");
+        if (ip != null && !doc.containsKey("dns")) {
+            lookupLocation(doc, ip.toString());
+        }
+    }
+
+    /**
+     * Look up the DNS name and the GeoIP location of an IP address, and add them to a usage event document. The
+     * event is saved without location information if the location is not valid.
+     *
+     * @param doc the usage event document
+     * @param ip  the IP address of the client
+     */
+    protected void lookupLocation(SolrInputDocument doc, String ip) {
+        InetAddress ipAddress;
+        try {
+            ipAddress = InetAddress.getByName(ip);
+            doc.addField("dns", ipAddress.getHostName().toLowerCase(Locale.ROOT));
+        } catch (UnknownHostException e) {
+            log.info("Failed DNS Lookup for IP:  {}", ip);
+            log.debug(e.getMessage(), e);
+            return;
+        }
+        if (locationService == null) {
+            return;
+        }
+        try {
+            CityResponse location = locationService.city(ipAddress);
+            String countryCode = location.getCountry().getIsoCode();
+            double latitude = location.getLocation().getLatitude();
+            double longitude = location.getLocation().getLongitude();
+            if (!(
+                    "--".equals(countryCode)
+                    && latitude == -180
+                    && longitude == -180)
+            ) {
+                try {
+                    doc.addField("continent", LocationUtils
+                        .getContinentCode(countryCode));
+                } catch (Exception e) {
+                    log.warn("Failed to load country/continent table: {}", countryCode);
+                }
+                doc.addField("countryCode", countryCode);
+                doc.addField("city", location.getCity().getName());
+                doc.addField("latitude", latitude);
+                doc.addField("longitude", longitude);
+            }
+        } catch (IOException e) {
+            log.warn("GeoIP lookup failed.", e);
+        } catch (GeoIp2Exception e) {
+            log.info("Unable to get location of request: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Write a usage event document to the statistics core, or queue it to be written in the background.
+     *
+     * @param doc    the usage event document
+     * @param commit whether to commit it right away, unless left to the autocommit of Solr
+     * @throws SolrServerException if Solr rejects the document
+     * @throws IOException         if Solr cannot be reached
+     */
+    protected void addDocument(SolrInputDocument doc, boolean commit) throws SolrServerException, IOException {
+        if (statisticsWriter != null) {
+            statisticsWriter.add(doc);
+            return;
+        }
+        solr.add(doc);
+        // commits are executed automatically using the solr autocommit
+        if (commit && !configurationService.getBooleanProperty("solr-statistics.autoCommit", true)) {
+            solr.commit(false, false);
+        }
+    }
+
     @Override
     public void postSearch(DSpaceObject resultObject, HttpServletRequest request, EPerson currentUser,
                            List<String> queries, int rpp, String sortBy, String order, int page, DSpaceObject scope) {
@@ -568,7 +603,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 solrDoc.addField("page", page);
             }
 
-            solr.add(solrDoc);
+            addDocument(solrDoc, false);
         } catch (RuntimeException re) {
             throw re;
         } catch (Exception e) {
@@ -617,7 +652,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 solrDoc.addField("actor", usageWorkflowEvent.getActor().getID().toString());
             }
 
-            solr.add(solrDoc);
+            addDocument(solrDoc, false);
         } catch (Exception e) {
             //Log the exception, no need to send it through, the workflow shouldn't crash because of this !
             log.error("Error saving WORKFLOW event to Solr", e);
@@ -0,0 +1,344 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.common.SolrInputDocument;
+
+/**
+ * Writes usage event documents to the statistics core on a background thread, so the threads serving requests only
+ * have to queue them.
+ * <p>
+ * Documents are kept in a bounded in-memory queue and sent to Solr in batches. Before a document is sent, the
+ * enricher given to the writer is applied to it (e.g. for the DNS and GeoIP lookups, which are too slow to do while
+ * serving a request). When the queue is full, documents are spilled to files in the spill directory, which are
+ * written to Solr once the queue has room again. Without a spill directory, documents that do not fit in the queue
+ * are dropped.
+ * <p>
+ * The number of documents queued, written, spilled and dropped is counted, and logged when the writer is shut down.
+ */
+public class SolrStatisticsWriter {
+
+    private static final Logger log = LogManager.getLogger(SolrStatisticsWriter.class);
+
+    /**
+     * Suffix of spill files that are complete and can be read back.
+     */
+    private static final String SPILL_SUFFIX = ".spill";
+
+    /**
+     * Suffix of the spill file currently being written.
+     */
+    private static final String SPILL_CURRENT_SUFFIX = ".spilling";
+
+    /**
+     * Maximum number of documents in one spill file.
+     */
+    private static final int SPILL_FILE_SIZE = 1000;
+
+    /**
+     * Only allows the classes making up a SolrInputDocument to be read back from a spill file.
+     */
+    private static final ObjectInputFilter SPILL_FILTER = ObjectInputFilter.Config.createFilter(
+        "java.lang.*;java.util.*;org.apache.solr.common.SolrDocumentBase;org.apache.solr.common.SolrInputDocument;"
+            + "org.apache.solr.common.SolrInputField;!*");
+
+    private final SolrClient solr;
+    private final BlockingQueue<SolrInputDocument> queue;
+    private final int batchSize;
+    private final long flushInterval;
+    private final boolean commit;
+    private final Path spillDir;
+    private final Consumer<SolrInputDocument> enricher;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // The spill file currently being written, guarded by spillLock
+    private final Object spillLock = new Object();
+    private ObjectOutputStream spillStream;
+    private Path spillFile;
+    private int spillFileCount;
+    private long spillSequence;
+
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    /**
+     * Create a new writer and start its background thread.
+     *
+     * @param solr          the statistics core
+     * @param capacity      the maximum number of documents in the in-memory queue
+     * @param batchSize     the maximum number of documents sent to Solr in one request
+     * @param flushInterval the maximum time in milliseconds a document waits for a batch to fill up
+     * @param commit        whether to commit the statistics core after each batch (instead of relying on autocommit)
+     * @param spillDir      the directory to spill documents to when the queue is full, or null to drop them
+     * @param enricher      applied to each document on the background thread before it is written
+     */
+    public SolrStatisticsWriter(SolrClient solr, int capacity, int batchSize, long flushInterval, boolean commit,
+                                Path spillDir, Consumer<SolrInputDocument> enricher) {
+        this.solr = solr;
+        this.queue = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        this.batchSize = Math.max(batchSize, 1);
+        this.flushInterval = Math.max(flushInterval, 1);
+        this.commit = commit;
+        this.spillDir = spillDir;
+        this.enricher = enricher;
+
+        writerThread = new Thread(this::run, "solr-statistics-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queue a document to be written to the statistics core. Never blocks: if the queue is full, the document is
+     * spilled to disk or dropped.
+     *
+     * @param document the usage event document
+     */
+    public void add(SolrInputDocument document) {
+        if (queue.offer(document)) {
+            enqueued.incrementAndGet();
+        } else if (!spill(document)) {
+            dropped.incrementAndGet();
+            log.debug("Statistics queue is full, dropped usage event document");
+        }
+    }
+
+    /**
+     * Stop the background thread, after writing the documents still in the queue. Documents that were spilled to
+     * disk stay there and are written by the next writer using the same spill directory.
+     *
+     * @param timeout the maximum time in milliseconds to wait for the queue to be written
+     */
+    public void shutdown(long timeout) {
+        running = false;
+        try {
+            writerThread.join(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeSpillFile();
+        log.info("Statistics writer stopped: {} queued, {} written, {} spilled, {} dropped, {} still queued",
+                 getEnqueuedCount(), getWrittenCount(), getSpilledCount(), getDroppedCount(), getQueueSize());
+    }
+
+    private void run() {
+        List<SolrInputDocument> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                SolrInputDocument document = running ? queue.poll(flushInterval, TimeUnit.MILLISECONDS)
+                    : queue.poll();
+                if (document != null) {
+                    batch.add(document);
+                    queue.drainTo(batch, batchSize - batch.size());
+                    write(batch);
+                    batch.clear();
+                } else if (running) {
+                    readSpilled();
+                }
+            } catch (InterruptedException e) {
+                // keep going until shutdown() stops the writer
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in the statistics writer", e);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<SolrInputDocument> batch) {
+        for (SolrInputDocument document : batch) {
+            try {
+                enricher.accept(document);
+            } catch (RuntimeException e) {
+                log.warn("Unable to complete usage event document", e);
+            }
+        }
+        try {
+            solr.add(batch);
+            if (commit) {
+                solr.commit(false, false);
+            }
+            written.addAndGet(batch.size());
+        } catch (SolrServerException | SolrException | IOException e) {
+            log.error("Error writing {} usage event documents to Solr", batch.size(), e);
+            for (SolrInputDocument document : batch) {
+                if (!spill(document)) {
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Append a document to the current spill file.
+     *
+     * @return whether the document was spilled
+     */
+    private boolean spill(SolrInputDocument document) {
+        if (spillDir == null) {
+            return false;
+        }
+        synchronized (spillLock) {
+            try {
+                if (spillStream == null) {
+                    Files.createDirectories(spillDir);
+                    spillFile = spillDir.resolve(String.format("%013d-%06d", System.currentTimeMillis(),
+                                                               spillSequence++ % 1000000) + SPILL_CURRENT_SUFFIX);
+                    spillStream = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile)));
+                    spillFileCount = 0;
+                }
+                spillStream.writeObject(document);
+                spillStream.flush();
+                spillStream.reset();
+                spilled.incrementAndGet();
+                if (++spillFileCount >= SPILL_FILE_SIZE) {
+                    closeSpillFile();
+                }
+                return true;
+            } catch (IOException e) {
+                log.error("Unable to spill usage event document to {}", spillDir, e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Close the current spill file, making it available to be read back.
+     */
+    private void closeSpillFile() {
+        synchronized (spillLock) {
+            if (spillStream == null) {
+                return;
+            }
+            try {
+                spillStream.close();
+                String name = spillFile.getFileName().toString();
+                Files.move(spillFile, spillFile.resolveSibling(
+                    name.substring(0, name.length() - SPILL_CURRENT_SUFFIX.length()) + SPILL_SUFFIX));
+            } catch (IOException e) {
+                log.error("Unable to close spill file {}", spillFile, e);
+            } finally {
+                spillStream = null;
+                spillFile = null;
+            }
+        }
+    }
+
+    /**
+     * Write the documents of the spill files to Solr, while the queue is idle. Called on the writer thread.
+     */
+    private void readSpilled() {
+        if (spillDir == null || !Files.isDirectory(spillDir)) {
+            return;
+        }
+        closeSpillFile();
+        List<Path> spillFiles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDir, "*" + SPILL_SUFFIX)) {
+            files.forEach(spillFiles::add);
+        } catch (IOException e) {
+            log.error("Unable to list spill files in {}", spillDir, e);
+            return;
+        }
+        spillFiles.sort(null);
+
+        for (Path file : spillFiles) {
+            if (!running || !queue.isEmpty()) {
+                return;
+            }
+            List<SolrInputDocument> documents = readSpillFile(file);
+            try {
+                Files.delete(file);
+            } catch (IOException e) {
+                log.error("Unable to delete spill file {}, not writing its documents again", file, e);
+                return;
+            }
+            log.info("Writing {} spilled usage event documents from {}", documents.size(), file);
+            for (int start = 0; start < documents.size(); start += batchSize) {
+                write(new ArrayList<>(documents.subList(start, Math.min(start + batchSize, documents.size()))));
+            }
+        }
+    }
+
+    private List<SolrInputDocument> readSpillFile(Path file) {
+        List<SolrInputDocument> documents = new ArrayList<>();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file));
+             ObjectInputStream objectIn = new ObjectInputStream(in)) {
+            objectIn.setObjectInputFilter(SPILL_FILTER);
+            while (true) {
+                documents.add((SolrInputDocument) objectIn.readObject());
+            }
+        } catch (EOFException e) {
+            // end of the file
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.error("Unable to read all documents from spill file {}, read {}", file, documents.size(), e);
+        }
+        return documents;
+    }
+
+    /**
+     * @return the number of documents added to the in-memory queue
+     */
+    public long getEnqueuedCount() {
+        return enqueued.get();
+    }
+
+    /**
+     * @return the number of documents written to Solr
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /**
+     * @return the number of documents spilled to disk, because the queue was full or writing them failed
+     */
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    /**
+     * @return the number of documents dropped, because the queue was full or writing them failed, and they could not
+     * be spilled
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return the number of documents currently waiting in the in-memory queue
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+}
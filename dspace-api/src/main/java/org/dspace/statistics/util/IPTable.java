@@ -7,130 +7,199 @@
  */
 package org.dspace.statistics.util;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
+import com.google.common.net.InetAddresses;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 /**
- * A Spare v4 IPTable implementation that uses nested HashMaps
- * to optimize IP address matching over ranges of IP addresses.
+ * A table of IPv4 and IPv6 address ranges, for example to match IP addresses of spiders or trusted proxies.
+ * <p>
+ * Addresses are handled as unsigned 128 bit numbers, each stored as two longs. IPv4 addresses are mapped to the
+ * {@code ::ffff:0:0/96} block, like in IPv4-mapped IPv6 addresses. The ranges are kept sorted and merged in a
+ * primitive array, so {@link #contains(String)} is a binary search.
  *
  * @author mdiggory at atmire.com
  */
 public class IPTable {
-    private static final Logger log = LogManager.getLogger(IPTable.class);
-
-    /* A lookup tree for IP addresses and SubnetRanges */
-    private final Set<IPRange> ipRanges = new HashSet<>();
 
     /**
-     * Internal class representing an IP range
+     * Number of longs per range: the high and low half of the lowest and highest address
      */
-    static class IPRange {
-
-        /* Lowest address in the range */
-        private final long ipLo;
+    private static final int RANGE_LONGS = 4;
 
-        /* Highest address in the range */
-        private final long ipHi;
+    /**
+     * Low half of the lowest IPv4-mapped address, ::ffff:0.0.0.0 (the high half is 0)
+     */
+    private static final long IPV4_MAPPED = 0xffff_0000_0000L;
 
-        IPRange(long ipLo, long ipHi) {
-            this.ipLo = ipLo;
-            this.ipHi = ipHi;
-        }
+    private static final int SNAPSHOT_VERSION = 1;
 
-        /**
-         * Get the lowest address in the range
-         * @return  the lowest address as a long integer
-         */
-        public long getIpLo() {
-            return ipLo;
-        }
+    /* All ranges, 4 longs each, sorted and merged at the first lookup after a range is added */
+    private final List<long[]> added = new ArrayList<>();
 
-        /**
-         * Get the highest address in the range
-         * @return  the highest address as a long integer
-         */
-        public long getIpHi() {
-            return ipHi;
-        }
-    }
+    /* Sorted, non-overlapping ranges, 4 longs each, or null if ranges were added since they were computed */
+    private volatile long[] ranges = new long[0];
 
     /**
-     * Can be full v4 IP, subnet or range string.
+     * Can be a full IPv4 or IPv6 address, a subnet or a range string.
      * <ul>
-     *   <li>A full address is a complete dotted-quad:  {@code "1.2.3.4".}
-     *   <li>A subnet is a dotted-triplet:  {@code "1.2.3"}.  It means an entire
-     *       Class C subnet:  "1.2.3.0-1.2.3.255".
-     *   <li>A range is two dotted-quad addresses separated by hyphen:
-     *       {@code "1.2.3.4-1.2.3.14"}.  Only the final octet may be different.
+     *   <li>A full address is a complete dotted-quad:  {@code "1.2.3.4"}, or an IPv6 address: {@code "2001:db8::1"}.
+     *   <li>A subnet is either in CIDR notation: {@code "1.2.3.0/24"}, {@code "2001:db8::/32"}, or a partial
+     *       dotted-quad:  {@code "1.2.3"}, which means "1.2.3.0-1.2.3.255".
+     *   <li>A range is two addresses of the same family separated by hyphen:
+     *       {@code "1.2.3.4-1.2.3.14"}.
      * </ul>
      *
-     * Any attempt at CIDR notation is ignored.
-     *
      * @param ip IP address(es)
      * @throws IPFormatException Exception Class to deal with IPFormat errors.
      */
     public void add(String ip) throws IPFormatException {
-
-        String start;
-
-        String end;
-
         String[] range = ip.split("-");
 
         if (range.length == 2) {
+            byte[] start = parse(range[0], ip + " - Range format should be similar to 1.2.3.0-1.2.3.255");
+            byte[] end = parse(range[1], ip + " - Range format should be similar to 1.2.3.0-1.2.3.255");
+            long[] lo = toLongs(start);
+            long[] hi = toLongs(end);
+            if (start.length != end.length || compare(lo[0], lo[1], hi[0], hi[1]) > 0) {
+                throw new IPFormatException(ip + " - Range should go from the lowest to the highest address");
+            }
+            addRange(lo[0], lo[1], hi[0], hi[1]);
+            return;
+        }
 
-            start = range[0].trim();
-            end = range[1].trim();
+        ip = ip.trim();
+        // Convert implicit IPv4 ranges to netmask format
+        //  192       -> 192.0.0.0/8
+        //  192.168   -> 192.168.0.0/16
+        //  192.168.1 -> 192.168.1.0/24
+        int periods = StringUtils.countMatches(ip, '.');
+        if (periods < 3 && !ip.contains(":") && !ip.contains("/")) {
+            ip = StringUtils.join(ip, StringUtils.repeat(".0", 4 - periods - 1), "/", (periods + 1) * 8);
+        }
 
+        if (ip.contains("/")) {
+            String[] parts = ip.split("/");
+            String message = ip + " - Range format should be similar to 172.16.0.0/12";
+            if (parts.length != 2) {
+                throw new IPFormatException(message);
+            }
+            byte[] address = parse(parts[0], message);
+            int prefix;
             try {
-                long ipLo = ipToLong(InetAddress.getByName(start));
-                long ipHi = ipToLong(InetAddress.getByName(end));
-                ipRanges.add(new IPRange(ipLo, ipHi));
-                return;
-            } catch (UnknownHostException e) {
-                throw new IPFormatException(ip + " - Range format should be similar to 1.2.3.0-1.2.3.255");
+                prefix = Integer.parseInt(parts[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IPFormatException(message);
             }
-
-        } else {
-            // Convert implicit ranges to netmask format
-            //  192       -> 192.0.0.0/8
-            //  192.168   -> 192.168.0.0/16
-            //  192.168.1 -> 192.168.1.0/24
-            int periods = StringUtils.countMatches(ip, '.');
-            if (periods < 3) {
-                ip = StringUtils.join(ip, StringUtils.repeat(".0", 4 - periods - 1), "/", (periods + 1) * 8);
+            if (prefix < 0 || prefix > address.length * 8) {
+                throw new IPFormatException(message);
             }
+            if (address.length == 4) {
+                prefix += 96;
+            }
+            long[] value = toLongs(address);
+            long highMask = prefix >= 64 ? -1L : prefix == 0 ? 0 : -1L << (64 - prefix);
+            long lowMask = prefix <= 64 ? 0 : prefix == 128 ? -1L : -1L << (128 - prefix);
+            addRange(value[0] & highMask, value[1] & lowMask, value[0] | ~highMask, value[1] | ~lowMask);
+        } else {
+            long[] value = toLongs(parse(ip, ip + " - IP address format should be similar to 1.2.3.14"));
+            addRange(value[0], value[1], value[0], value[1]);
+        }
+    }
+
+    private synchronized void addRange(long loHigh, long loLow, long hiHigh, long hiLow) {
+        added.add(new long[] {loHigh, loLow, hiHigh, hiLow});
+        ranges = null;
+    }
+
+    /**
+     * Parse an IP address literal, without DNS lookup.
+     */
+    private static byte[] parse(String ip, String message) throws IPFormatException {
+        try {
+            return InetAddresses.forString(ip.trim()).getAddress();
+        } catch (IllegalArgumentException e) {
+            throw new IPFormatException(message);
+        }
+    }
 
-            if (ip.contains("/")) {
-                String[] parts = ip.split("/");
-                try {
-                    long ipLong = ipToLong(InetAddress.getByName(parts[0]));
-                    long mask = (long) Math.pow(2, 32 - Integer.parseInt(parts[1]));
-                    long ipLo = (ipLong / mask) * mask;
-                    long ipHi = (( (ipLong / mask) + 1) * mask) - 1;
-                    ipRanges.add(new IPRange(ipLo, ipHi));
-                    return;
-                } catch (Exception e) {
-                    throw new IPFormatException(ip + " - Range format should be similar to 172.16.0.0/12");
+    /**
+     * @return the high and low half of the address, IPv4 addresses being mapped to ::ffff:0:0/96
+     */
+    private static long[] toLongs(byte[] address) {
+        if (address.length == 4) {
+            return new long[] {0, IPV4_MAPPED | (ipToLong(address))};
+        }
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < 8; i++) {
+            high = (high << 8) | (address[i] & 0xff);
+            low = (low << 8) | (address[i + 8] & 0xff);
+        }
+        return new long[] {high, low};
+    }
+
+    private static int compare(long aHigh, long aLow, long bHigh, long bLow) {
+        int result = Long.compareUnsigned(aHigh, bHigh);
+        return result != 0 ? result : Long.compareUnsigned(aLow, bLow);
+    }
+
+    /**
+     * @return the sorted, merged ranges, computing them if ranges were added
+     */
+    private long[] getRanges() {
+        long[] current = ranges;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (ranges == null) {
+                added.sort((a, b) -> compare(a[0], a[1], b[0], b[1]));
+                List<long[]> merged = new ArrayList<>();
+                long[] last = null;
+                for (long[] range : added) {
+                    if (last != null && isMergeable(last, range)) {
+                        if (compare(range[2], range[3], last[2], last[3]) > 0) {
+                            last[2] = range[2];
+                            last[3] = range[3];
+                        }
+                    } else {
+                        last = range.clone();
+                        merged.add(last);
+                    }
                 }
-            } else {
-                try {
-                    long ipLo = ipToLong(InetAddress.getByName(ip));
-                    ipRanges.add(new IPRange(ipLo, ipLo));
-                    return;
-                } catch (UnknownHostException e) {
-                    throw new IPFormatException(ip + " - IP address format should be similar to 1.2.3.14");
+                long[] sorted = new long[merged.size() * RANGE_LONGS];
+                for (int i = 0; i < merged.size(); i++) {
+                    System.arraycopy(merged.get(i), 0, sorted, i * RANGE_LONGS, RANGE_LONGS);
                 }
+                // keep the merged ranges only
+                added.clear();
+                added.addAll(merged);
+                ranges = sorted;
             }
+            return ranges;
+        }
+    }
+
+    /**
+     * @return whether the range, which does not start before the last one, overlaps it or follows it directly
+     */
+    private static boolean isMergeable(long[] last, long[] range) {
+        if (last[3] != -1L) {
+            return compare(range[0], range[1], last[2], last[3] + 1) <= 0;
         }
+        // the last range ends at the top of a 64 bit half
+        return last[2] == -1L || compare(range[0], range[1], last[2] + 1, 0) <= 0;
     }
 
     /**
@@ -139,7 +208,10 @@ public class IPTable {
      * @return
      */
     public static long ipToLong(InetAddress ip) {
-        byte[] octets = ip.getAddress();
+        return ipToLong(ip.getAddress());
+    }
+
+    private static long ipToLong(byte[] octets) {
         long result = 0;
         for (byte octet : octets) {
             result <<= 8;
@@ -168,9 +240,8 @@ public class IPTable {
     /**
      * Check whether a given address is contained in this netblock.
      *
-     * @param ip the address to be tested
-     * @return true if {@code ip} is within this table's limits.  Returns false
-     *         if {@code ip} looks like an IPv6 address.
+     * @param ip the IPv4 or IPv6 address to be tested
+     * @return true if {@code ip} is within this table's limits.
      * @throws IPFormatException Exception Class to deal with IPFormat errors.
      */
     public boolean contains(String ip) throws IPFormatException {
@@ -178,28 +249,44 @@ public class IPTable {
             throw new IPFormatException("Address may not be null");
         }
 
-        try {
-            long ipToTest = ipToLong(InetAddress.getByName(ip));
-            return ipRanges.stream()
-                    .anyMatch(ipRange -> (ipToTest >= ipRange.getIpLo() && ipToTest <= ipRange.getIpHi()));
-        } catch (UnknownHostException e) {
-            throw new IPFormatException("ip not valid");
+        long[] value = toLongs(parse(ip, "ip not valid"));
+        long[] sorted = getRanges();
+        // find the last range starting at or before the address
+        int lo = 0;
+        int hi = sorted.length / RANGE_LONGS - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int offset = mid * RANGE_LONGS;
+            if (compare(sorted[offset], sorted[offset + 1], value[0], value[1]) <= 0) {
+                found = offset;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
         }
+        return found >= 0 && compare(value[0], value[1], sorted[found + 2], sorted[found + 3]) <= 0;
     }
 
     /**
-     * Convert to a Set. This set contains all IPs in the range
+     * Convert to a Set. This set contains all IPv4 addresses in the ranges, IPv6 addresses are left out.
      *
      * @return this table's content as a Set
      */
     public Set<String> toSet() {
         HashSet<String> set = new HashSet<>();
 
-        Iterator<IPRange> ipRangeIterator = ipRanges.iterator();
-        while (ipRangeIterator.hasNext()) {
-            IPRange ipRange = ipRangeIterator.next();
-            long ipLo = ipRange.getIpLo();
-            long ipHi = ipRange.getIpHi();
+        long[] sorted = getRanges();
+        for (int offset = 0; offset < sorted.length; offset += RANGE_LONGS) {
+            // the part of the range in ::ffff:0.0.0.0 - ::ffff:255.255.255.255
+            if (compare(sorted[offset], sorted[offset + 1], 0, IPV4_MAPPED | 0xffff_ffffL) > 0
+                || compare(sorted[offset + 2], sorted[offset + 3], 0, IPV4_MAPPED) < 0) {
+                continue;
+            }
+            long ipLo = compare(sorted[offset], sorted[offset + 1], 0, IPV4_MAPPED) < 0
+                ? 0 : sorted[offset + 1] & 0xffff_ffffL;
+            long ipHi = compare(sorted[offset + 2], sorted[offset + 3], 0, IPV4_MAPPED | 0xffff_ffffL) > 0
+                ? 0xffff_ffffL : sorted[offset + 3] & 0xffff_ffffL;
             for (long ip = ipLo; ip <= ipHi; ip++) {
                 set.add(longToIp(ip));
             }
@@ -213,7 +300,50 @@ public class IPTable {
      * @return true if empty, false otherwise
      */
     public boolean isEmpty() {
-        return ipRanges.isEmpty();
+        return getRanges().length == 0;
+    }
+
+    /**
+     * Write the ranges of this table in a compact binary form, to be read by {@link #readFrom(DataInput)}.
+     *
+     * @param out where to write the ranges
+     * @throws IOException if the ranges cannot be written
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        long[] sorted = getRanges();
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeInt(sorted.length / RANGE_LONGS);
+        for (long value : sorted) {
+            out.writeLong(value);
+        }
+    }
+
+    /**
+     * Read a table written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in where to read the ranges from
+     * @return the table
+     * @throws IOException if the ranges cannot be read, or were written in another format
+     */
+    public static IPTable readFrom(DataInput in) throws IOException {
+        int version = in.readInt();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IOException("Unsupported IP table version " + version);
+        }
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid IP table size " + count);
+        }
+        long[] sorted = new long[count * RANGE_LONGS];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = in.readLong();
+        }
+        IPTable table = new IPTable();
+        for (int offset = 0; offset < sorted.length; offset += RANGE_LONGS) {
+            table.added.add(Arrays.copyOfRange(sorted, offset, offset + RANGE_LONGS));
+        }
+        table.ranges = sorted;
+        return table;
     }
 
     /**
@@ -232,16 +362,32 @@ public class IPTable {
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
-        Iterator<IPRange> ipRangeIterator = ipRanges.iterator();
-        while (ipRangeIterator.hasNext()) {
-            IPRange ipRange = ipRangeIterator.next();
-            stringBuilder.append(longToIp(ipRange.getIpLo()))
-                    .append("-")
-                    .append(longToIp(ipRange.getIpHi()));
-            if (ipRangeIterator.hasNext()) {
+        long[] sorted = getRanges();
+        for (int offset = 0; offset < sorted.length; offset += RANGE_LONGS) {
+            if (offset > 0) {
                 stringBuilder.append(", ");
             }
+            stringBuilder.append(toIp(sorted[offset], sorted[offset + 1]))
+                    .append("-")
+                    .append(toIp(sorted[offset + 2], sorted[offset + 3]));
         }
         return stringBuilder.toString();
     }
+
+    private static String toIp(long high, long low) {
+        if (high == 0 && (low & ~0xffff_ffffL) == IPV4_MAPPED) {
+            return longToIp(low & 0xffff_ffffL);
+        }
+        byte[] address = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            address[i] = (byte) (high >>> (56 - 8 * i));
+            address[i + 8] = (byte) (low >>> (56 - 8 * i));
+        }
+        try {
+            return InetAddresses.toAddrString(InetAddress.getByAddress(address));
+        } catch (UnknownHostException e) {
+            // not thrown for 16 byte addresses
+            throw new IllegalStateException(e);
+        }
+    }
 }
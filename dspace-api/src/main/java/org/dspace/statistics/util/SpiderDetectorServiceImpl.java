@@ -7,16 +7,25 @@
  */
 package org.dspace.statistics.util;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.NotNull;
@@ -42,21 +51,30 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
 
     private static final Logger log = LogManager.getLogger();
 
+    /**
+     * Default number of user agents and host names whose verdict is cached
+     */
+    private static final int DEFAULT_CACHE_SIZE = 1000;
+
     private Boolean useCaseInsensitiveMatching;
 
-    private final List<Pattern> agents
-        = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * All agent patterns, matched in a single pass. Loaded on first use.
+     */
+    private volatile SpiderPatternMatcher agents;
 
-    private final List<Pattern> domains
-        = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * All domain patterns, matched in a single pass. Loaded on first use.
+     */
+    private volatile SpiderPatternMatcher domains;
 
     private final ConfigurationService configurationService;
     private final ClientInfoService clientInfoService;
 
     /**
-     * Sparse HashTable structure to hold IP address ranges.
+     * Sorted IPv4 and IPv6 address ranges of spiders.
      */
-    private IPTable table = null;
+    private volatile IPTable table = null;
 
     @Autowired(required = true)
     public SpiderDetectorServiceImpl(ConfigurationService configurationService, ClientInfoService clientInfoService) {
@@ -75,28 +93,14 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
      */
     @Override
     public boolean isSpider(@NotNull String clientIP, String proxyIPs, String hostname, String agent) {
-        // See if any agent patterns match
-        if (null != agent) {
-            synchronized (agents) {
-                if (agents.isEmpty()) {
-                    loadPatterns("agents", agents);
-                }
-            }
-
-            if (isUseCaseInsensitiveMatching()) {
-                agent = StringUtils.lowerCase(agent);
-                hostname = StringUtils.lowerCase(hostname);
-            }
-
-            for (Pattern candidate : agents) {
-
-                // prevent matcher() invocation from a null Pattern object
-                if (null != candidate && candidate.matcher(agent).find()) {
-                    return true;
-                }
-
+        if (isUseCaseInsensitiveMatching()) {
+            agent = StringUtils.lowerCase(agent);
+            hostname = StringUtils.lowerCase(hostname);
+        }
 
-            }
+        // See if any agent patterns match
+        if (null != agent && getAgents().matches(agent)) {
+            return true;
         }
 
         // No.  See if any IP addresses match
@@ -114,18 +118,8 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
         }
 
         // No.  See if any DNS names match
-        if (null != hostname) {
-            synchronized (domains) {
-                if (domains.isEmpty()) {
-                    loadPatterns("domains", domains);
-                }
-            }
-            for (Pattern candidate : domains) {
-                // prevent matcher() invocation from a null Pattern object
-                if (null != candidate && candidate.matcher(hostname).find()) {
-                    return true;
-                }
-            }
+        if (null != hostname && getDomains().matches(hostname)) {
+            return true;
         }
 
         // Not a known spider.
@@ -160,16 +154,43 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
         return patterns;
     }
 
+    private SpiderPatternMatcher getAgents() {
+        SpiderPatternMatcher matcher = agents;
+        if (matcher == null) {
+            synchronized (this) {
+                if (agents == null) {
+                    agents = loadPatterns("agents");
+                }
+                matcher = agents;
+            }
+        }
+        return matcher;
+    }
+
+    private SpiderPatternMatcher getDomains() {
+        SpiderPatternMatcher matcher = domains;
+        if (matcher == null) {
+            synchronized (this) {
+                if (domains == null) {
+                    domains = loadPatterns("domains");
+                }
+                matcher = domains;
+            }
+        }
+        return matcher;
+    }
+
     /**
      * Load agent name patterns from all files in a single subdirectory of config/spiders.
      *
-     * @param directory   simple directory name (e.g. "agents").
-     *                    "${dspace.dir}/config/spiders" will be prepended to yield the path to
-     *                    the directory of pattern files.
-     * @param patternList patterns read from the files in {@code directory} will
-     *                    be added to this List.
+     * @param directory simple directory name (e.g. "agents").
+     *                  "${dspace.dir}/config/spiders" will be prepended to yield the path to
+     *                  the directory of pattern files.
+     * @return a matcher for the patterns read from the files in {@code directory}, with a cache of
+     * {@code usage-statistics.bots.cache-size} verdicts
      */
-    private void loadPatterns(String directory, List<Pattern> patternList) {
+    private SpiderPatternMatcher loadPatterns(String directory) {
+        List<String> patternList = new ArrayList<>();
         String dspaceHome = configurationService.getProperty("dspace.dir");
         File spidersDir = new File(dspaceHome, "config/spiders");
         File patternsDir = new File(spidersDir, directory);
@@ -188,7 +209,13 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
                     if (isUseCaseInsensitiveMatching()) {
                         pattern = StringUtils.lowerCase(pattern);
                     }
-                    patternList.add(Pattern.compile(pattern));
+                    try {
+                        Pattern.compile(pattern);
+                    } catch (PatternSyntaxException ex) {
+                        log.error("Invalid pattern {} in {}:  {}", pattern, file.getPath(), ex.getMessage());
+                        continue;
+                    }
+                    patternList.add(pattern);
                 }
 
 
@@ -197,6 +224,8 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
         } else {
             log.info("No patterns loaded from {}", patternsDir::getPath);
         }
+        return new SpiderPatternMatcher(patternList,
+                configurationService.getIntProperty("usage-statistics.bots.cache-size", DEFAULT_CACHE_SIZE));
     }
 
     @Override
@@ -229,41 +258,124 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
     public synchronized void loadSpiderIpAddresses() {
 
         if (table == null) {
-            table = new IPTable();
-
             String filePath = configurationService.getProperty("dspace.dir");
+            File spidersDir = new File(filePath, "config/spiders");
+            List<File> files = new ArrayList<>();
+            if (spidersDir.exists() && spidersDir.isDirectory()) {
+                for (File file : spidersDir.listFiles()) {
+                    if (file.isFile()) {
+                        files.add(file);
+                    }
+                }
+                files.sort(Comparator.comparing(File::getName));
+            }
 
-            try {
-                File spidersDir = new File(filePath, "config/spiders");
-
-                if (spidersDir.exists() && spidersDir.isDirectory()) {
-                    for (File file : spidersDir.listFiles()) {
-                        if (file.isFile()) {
-                            for (String ip : readPatterns(file)) {
-                                log.debug("Loading {}", ip);
-                                if (!Character.isDigit(ip.charAt(0))) {
-                                    try {
-                                        ip = DnsLookup.forward(ip);
-                                        log.debug("Resolved to {}", ip);
-                                    } catch (IOException e) {
-                                        log.warn("Not loading {}:  {}", ip, e.getMessage());
-                                        continue;
-                                    }
+            File snapshot = getSnapshotFile();
+            IPTable loaded = snapshot != null ? readSnapshot(snapshot, files) : null;
+            if (loaded == null) {
+                loaded = new IPTable();
+                // a snapshot of the addresses of host names which could not be resolved would keep them out
+                boolean resolved = true;
+                try {
+                    for (File file : files) {
+                        for (String ip : readPatterns(file)) {
+                            log.debug("Loading {}", ip);
+                            if (!Character.isDigit(ip.charAt(0)) && !ip.contains(":")) {
+                                try {
+                                    ip = DnsLookup.forward(ip);
+                                    log.debug("Resolved to {}", ip);
+                                } catch (IOException e) {
+                                    log.warn("Not loading {}:  {}", ip, e.getMessage());
+                                    resolved = false;
+                                    continue;
                                 }
-                                table.add(ip);
                             }
-                            log.info("Loaded Spider IP file: " + file);
+                            try {
+                                loaded.add(ip);
+                            } catch (IPTable.IPFormatException e) {
+                                log.warn("Not loading {} from {}:  {}", ip, file, e.getMessage());
+                            }
                         }
+                        log.info("Loaded Spider IP file: " + file);
                     }
-                } else {
-                    log.info("No spider file loaded");
+                    if (files.isEmpty()) {
+                        log.info("No spider file loaded");
+                    } else if (snapshot != null && !resolved) {
+                        log.info("Spider IP snapshot {} not written, as some host names could not be resolved",
+                                 snapshot);
+                    } else if (snapshot != null) {
+                        writeSnapshot(snapshot, files, loaded);
+                    }
+                } catch (IOException e) {
+                    log.error("Error Loading Spiders:" + e.getMessage(), e);
                 }
-            } catch (IOException | IPTable.IPFormatException e) {
-                log.error("Error Loading Spiders:" + e.getMessage(), e);
             }
+            table = loaded;
+        }
+
+    }
+
+    /**
+     * @return the file holding the parsed spider IP addresses, or null if they are parsed at each startup
+     */
+    private File getSnapshotFile() {
+        String path = configurationService.getProperty("usage-statistics.bots.ip-snapshot",
+                configurationService.getProperty("dspace.dir") + "/var/spiders/iptable.bin");
+        return StringUtils.isBlank(path) ? null : new File(path);
+    }
 
+    /**
+     * Read the IP table saved by {@link #writeSnapshot(File, List, IPTable)}, if it was saved from the same files.
+     *
+     * @param snapshot the snapshot file
+     * @param files    the current spider IP files
+     * @return the table, or null if there is no snapshot or it is out of date
+     */
+    private IPTable readSnapshot(File snapshot, List<File> files) {
+        if (!snapshot.isFile()) {
+            return null;
         }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshot)))) {
+            if (in.readInt() != files.size()) {
+                return null;
+            }
+            for (File file : files) {
+                if (!in.readUTF().equals(file.getName()) || in.readLong() != file.lastModified()
+                    || in.readLong() != file.length()) {
+                    return null;
+                }
+            }
+            IPTable loaded = IPTable.readFrom(in);
+            log.info("Loaded spider IP addresses from {}", snapshot);
+            return loaded;
+        } catch (IOException e) {
+            log.warn("Spider IP snapshot {} not read:  {}", snapshot, e.getMessage());
+            return null;
+        }
+    }
 
+    /**
+     * Save the parsed IP table, with the name, modification time and size of the files it was parsed from.
+     */
+    private void writeSnapshot(File snapshot, List<File> files, IPTable loaded) {
+        File temp = new File(snapshot.getPath() + ".tmp");
+        try {
+            Files.createDirectories(snapshot.getAbsoluteFile().getParentFile().toPath());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(files.size());
+                for (File file : files) {
+                    out.writeUTF(file.getName());
+                    out.writeLong(file.lastModified());
+                    out.writeLong(file.length());
+                }
+                loaded.writeTo(out);
+            }
+            Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Spider IP snapshot {} not written:  {}", snapshot, e.getMessage());
+            temp.delete();
+        }
     }
 
     /**
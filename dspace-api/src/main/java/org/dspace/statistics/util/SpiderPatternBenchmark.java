@@ -0,0 +1,116 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the time needed to check user agents against the agent patterns of config/spiders/agents one pattern at a
+ * time, as done before, with the time needed by a {@link SpiderPatternMatcher}. Both are warmed up first, and the
+ * verdicts of both are compared.
+ */
+class SpiderPatternBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+
+    private SpiderPatternBenchmark() { }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param spidersDir the config/spiders directory
+     * @param userAgents file with one user agent per line
+     * @param out        where to print the results
+     * @throws IOException if a file cannot be read
+     */
+    static void run(File spidersDir, File userAgents, PrintStream out) throws IOException {
+        List<String> patterns = new ArrayList<>();
+        File[] files = new File(spidersDir, "agents").listFiles();
+        if (files != null) {
+            for (File file : files) {
+                for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        patterns.add(line);
+                    }
+                }
+            }
+        }
+        List<Pattern> compiled = new ArrayList<>();
+        for (String pattern : patterns) {
+            compiled.add(Pattern.compile(pattern));
+        }
+        List<String> agents = Files.readAllLines(userAgents.toPath(), StandardCharsets.UTF_8);
+        out.println("Matching " + agents.size() + " user agents against " + patterns.size() + " patterns");
+
+        SpiderPatternMatcher uncached = new SpiderPatternMatcher(patterns, 0);
+        int mismatches = 0;
+        for (String agent : agents) {
+            if (loop(compiled, agent) != uncached.matches(agent)) {
+                mismatches++;
+                out.println("Different verdict for: " + agent);
+            }
+        }
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            timeLoop(compiled, agents);
+            timeMatcher(uncached, agents);
+        }
+        long loopNanos = 0;
+        long matcherNanos = 0;
+        long cachedNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            loopNanos += timeLoop(compiled, agents);
+            matcherNanos += timeMatcher(uncached, agents);
+            // a new cache each round, so it is filled while matching like in production
+            cachedNanos += timeMatcher(new SpiderPatternMatcher(patterns, 1000), agents);
+        }
+
+        out.println("Pattern loop:            " + perAgent(loopNanos, agents.size()));
+        out.println("Combined matcher:        " + perAgent(matcherNanos, agents.size()));
+        out.println("Combined matcher cached: " + perAgent(cachedNanos, agents.size()));
+        out.println(mismatches + " different verdicts");
+    }
+
+    private static boolean loop(List<Pattern> patterns, String agent) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(agent).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long timeLoop(List<Pattern> patterns, List<String> agents) {
+        long start = System.nanoTime();
+        for (String agent : agents) {
+            loop(patterns, agent);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long timeMatcher(SpiderPatternMatcher matcher, List<String> agents) {
+        long start = System.nanoTime();
+        for (String agent : agents) {
+            matcher.matches(agent);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static String perAgent(long nanos, int agents) {
+        return String.format("%.3f microseconds per user agent", nanos / 1000d / ROUNDS / Math.max(agents, 1));
+    }
+}
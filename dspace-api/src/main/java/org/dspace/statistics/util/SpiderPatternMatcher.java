@@ -0,0 +1,405 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Matches a string against a list of spider patterns (user agents or host names) in a single pass, instead of
+ * evaluating each pattern in turn. A string matches if any pattern is found in it, as with
+ * {@link java.util.regex.Matcher#find()}.
+ * <p>
+ * Patterns without regular expression operators (most of the COUNTER-Robots list, once escapes like {@code \.} are
+ * resolved) are compiled into a single Aho-Corasick automaton, which finds all of them in one scan of the string.
+ * For most other patterns a literal part that any match must contain can be found (e.g. {@code Yeti/} in
+ * {@code Yeti\/\d}): those literals are added to the automaton as a prefilter, and a pattern is only evaluated when
+ * the scan found its literal. The remaining patterns are combined into one alternation, except the ones with back
+ * references, which are evaluated on their own.
+ * <p>
+ * The verdicts for the most recently matched strings are kept in an LRU cache, as the same user agents come back
+ * for each request of a client.
+ */
+public class SpiderPatternMatcher {
+
+    /**
+     * Longer strings are matched but their verdict is not cached
+     */
+    private static final int MAX_CACHED_LENGTH = 1024;
+
+    private static final String REGEX_OPERATORS = ".^$*+?()[]{}|";
+
+    /**
+     * Shortest literal used as a prefilter, shorter ones would be found in too many strings
+     */
+    private static final int MIN_PREFILTER_LENGTH = 3;
+
+    /**
+     * Output of the automaton for a pattern which is a literal
+     */
+    private static final int LITERAL = -1;
+
+    private final int size;
+    private final boolean matchAll;
+    private final Node root;
+    private final Pattern combined;
+    // patterns evaluated when the automaton found their prefilter literal, by output of the automaton
+    private final List<Pattern> prefiltered = new ArrayList<>();
+    private final List<Pattern> separate = new ArrayList<>();
+
+    private final int cacheSize;
+    private final Map<String, Boolean> cache;
+
+    /**
+     * Compile the given patterns.
+     *
+     * @param patterns  the regular expressions
+     * @param cacheSize the maximum number of cached verdicts, 0 to disable the cache
+     * @throws java.util.regex.PatternSyntaxException if a pattern is not a valid regular expression
+     */
+    public SpiderPatternMatcher(Collection<String> patterns, int cacheSize) {
+        this.size = patterns.size();
+        // literals to find, with the output for each of them
+        List<String> literals = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        List<String> regexes = new ArrayList<>();
+        for (String pattern : patterns) {
+            // validates the pattern, as when matching it on its own
+            Pattern compiled = Pattern.compile(pattern);
+            String literal = toLiteral(pattern);
+            String prefilter = literal == null ? toPrefilter(pattern) : null;
+            if (literal != null) {
+                literals.add(literal);
+                outputs.add(LITERAL);
+            } else if (prefilter != null) {
+                literals.add(prefilter);
+                outputs.add(prefiltered.size());
+                prefiltered.add(compiled);
+            } else if (pattern.matches(".*\\\\[1-9k].*")) {
+                separate.add(compiled);
+            } else {
+                regexes.add("(?:" + pattern + ")");
+            }
+        }
+
+        // the empty pattern is found in any string
+        matchAll = literals.contains("");
+        root = literals.isEmpty() ? null : buildAutomaton(literals, outputs);
+        combined = regexes.isEmpty() ? null : Pattern.compile(String.join("|", regexes));
+
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > SpiderPatternMatcher.this.cacheSize;
+            }
+        };
+    }
+
+    /**
+     * @return the number of patterns
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param value the user agent or host name
+     * @return whether any pattern is found in the value
+     */
+    public boolean matches(String value) {
+        if (value == null) {
+            return false;
+        }
+        boolean cacheable = cacheSize > 0 && value.length() <= MAX_CACHED_LENGTH;
+        if (cacheable) {
+            synchronized (cache) {
+                Boolean verdict = cache.get(value);
+                if (verdict != null) {
+                    return verdict;
+                }
+            }
+        }
+        boolean verdict = match(value);
+        if (cacheable) {
+            synchronized (cache) {
+                cache.put(value, verdict);
+            }
+        }
+        return verdict;
+    }
+
+    private boolean match(String value) {
+        if (matchAll) {
+            return true;
+        }
+        if (root != null) {
+            BitSet candidates = new BitSet(prefiltered.size());
+            if (scan(value, candidates)) {
+                return true;
+            }
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (prefiltered.get(i).matcher(value).find()) {
+                    return true;
+                }
+            }
+        }
+        if (combined != null && combined.matcher(value).find()) {
+            return true;
+        }
+        for (Pattern pattern : separate) {
+            if (pattern.matcher(value).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolve the escapes of a pattern without regular expression operators.
+     *
+     * @param pattern the regular expression
+     * @return the string the pattern matches, or null if it uses operators or character classes like {@code \d}
+     */
+    static String toLiteral(String pattern) {
+        StringBuilder literal = new StringBuilder(pattern.length());
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\\') {
+                if (i + 1 == pattern.length()) {
+                    return null;
+                }
+                char escaped = pattern.charAt(++i);
+                // \d, \s, \Q, \x..., \t etc. are not simple escapes
+                if (Character.isLetterOrDigit(escaped)) {
+                    return null;
+                }
+                literal.append(escaped);
+            } else if (REGEX_OPERATORS.indexOf(c) >= 0) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
+    }
+
+    /**
+     * Find a literal which any match of a pattern contains: the longest run of literal characters in the top level
+     * sequence of the pattern, which are not made optional by a quantifier.
+     *
+     * @param pattern the regular expression
+     * @return the literal, or null if there is none long enough, or the pattern has alternatives, inline flags, quoted
+     * text or escapes other than of a non-alphanumeric character
+     */
+    static String toPrefilter(String pattern) {
+        if (pattern.contains("(?") || pattern.contains("\\Q")) {
+            return null;
+        }
+        String longest = "";
+        StringBuilder run = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\\') {
+                // \x41, \0101, \cA, \d, \b etc. do not stand for the characters after the backslash
+                if (i + 1 == pattern.length() || Character.isLetterOrDigit(pattern.charAt(i + 1))) {
+                    return null;
+                }
+                run.append(pattern.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            if (c != '\\' && REGEX_OPERATORS.indexOf(c) < 0) {
+                run.append(c);
+                i++;
+                continue;
+            }
+            if (c == '|') {
+                return null;
+            }
+            if (c == '?' || c == '*' || c == '{') {
+                // the previous character is optional
+                if (run.length() > 0) {
+                    run.setLength(run.length() - 1);
+                }
+            }
+            if (run.length() > longest.length()) {
+                longest = run.toString();
+            }
+            run.setLength(0);
+            if (c == '(' || c == '[' || c == '{') {
+                i = skipBlock(pattern, i);
+                if (i < 0) {
+                    return null;
+                }
+            } else {
+                i++;
+            }
+        }
+        if (run.length() > longest.length()) {
+            longest = run.toString();
+        }
+        return longest.length() >= MIN_PREFILTER_LENGTH ? longest : null;
+    }
+
+    /**
+     * @return the index after the group, character class or repetition starting at the given index, or -1 if it is
+     * not closed
+     */
+    private static int skipBlock(String pattern, int start) {
+        int depth = 0;
+        boolean inClass = false;
+        for (int i = start; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                    if (depth == 0) {
+                        return i + 1;
+                    }
+                }
+            } else if (c == '[') {
+                inClass = true;
+                // a ] right after [ or [^ is part of the class
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '^') {
+                    i++;
+                }
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (c == '{' && depth == 0 && i == start) {
+                int end = pattern.indexOf('}', i);
+                return end < 0 ? -1 : end + 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A state of the Aho-Corasick automaton.
+     */
+    private static final class Node {
+        // sorted transition characters and their target states
+        private char[] chars = new char[0];
+        private Node[] targets = new Node[0];
+        private Node failure;
+        // the outputs of the literals ending in this state
+        private int[] outputs = new int[0];
+        // the nearest state in the failure chain with outputs
+        private Node outputLink;
+
+        private Node get(char c) {
+            int index = Arrays.binarySearch(chars, c);
+            return index >= 0 ? targets[index] : null;
+        }
+
+        private Node getOrAdd(char c) {
+            int index = Arrays.binarySearch(chars, c);
+            if (index >= 0) {
+                return targets[index];
+            }
+            int insert = -index - 1;
+            char[] newChars = new char[chars.length + 1];
+            Node[] newTargets = new Node[targets.length + 1];
+            System.arraycopy(chars, 0, newChars, 0, insert);
+            System.arraycopy(targets, 0, newTargets, 0, insert);
+            newChars[insert] = c;
+            newTargets[insert] = new Node();
+            System.arraycopy(chars, insert, newChars, insert + 1, chars.length - insert);
+            System.arraycopy(targets, insert, newTargets, insert + 1, targets.length - insert);
+            chars = newChars;
+            targets = newTargets;
+            return newTargets[insert];
+        }
+    }
+
+    private static Node buildAutomaton(List<String> literals, List<Integer> outputs) {
+        Node root = new Node();
+        for (int l = 0; l < literals.size(); l++) {
+            String literal = literals.get(l);
+            Node node = root;
+            for (int i = 0; i < literal.length(); i++) {
+                node = node.getOrAdd(literal.charAt(i));
+            }
+            node.outputs = Arrays.copyOf(node.outputs, node.outputs.length + 1);
+            node.outputs[node.outputs.length - 1] = outputs.get(l);
+        }
+
+        // failure links, breadth first
+        root.failure = root;
+        Deque<Node> queue = new ArrayDeque<>();
+        for (Node child : root.targets) {
+            child.failure = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (int i = 0; i < node.chars.length; i++) {
+                char c = node.chars[i];
+                Node child = node.targets[i];
+                Node failure = node.failure;
+                while (failure != root && failure.get(c) == null) {
+                    failure = failure.failure;
+                }
+                Node next = failure.get(c);
+                child.failure = next != null && next != child ? next : root;
+                child.outputLink = child.failure.outputs.length > 0 ? child.failure : child.failure.outputLink;
+                queue.add(child);
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Find all literals in the value in one pass.
+     *
+     * @param value      the string to scan
+     * @param candidates set to the prefiltered patterns whose literal is found
+     * @return true if a literal pattern is found
+     */
+    private boolean scan(String value, BitSet candidates) {
+        Node node = root;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            Node next = node.get(c);
+            while (next == null && node != root) {
+                node = node.failure;
+                next = node.get(c);
+            }
+            node = next != null ? next : root;
+            for (Node match = node.outputs.length > 0 ? node : node.outputLink; match != null;
+                 match = match.outputLink) {
+                for (int output : match.outputs) {
+                    if (output == LITERAL) {
+                        return true;
+                    }
+                    candidates.set(output);
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -73,6 +73,9 @@ public class StatisticsClient {
                           "While indexing the bundle names remove the statistics about deleted bitstreams");
         options.addOption("s", "shard-solr-index", false,
                           "Split the data from the main Solr core into separate Solr cores per year");
+        options.addOption("d", "benchmark-spider-detection", true,
+                          "Compare the time needed to match the user agents in the given file (one per line) "
+                              + "against the spider agent patterns one at a time and in a single pass");
         options.addOption("h", "help", false, "help");
 
         CommandLine line = parser.parse(options, args);
@@ -95,6 +98,11 @@ public class StatisticsClient {
             solrLoggerService.exportHits();
         } else if (line.hasOption('s')) {
             solrLoggerService.shardSolrIndex();
+        } else if (line.hasOption('d')) {
+            File spiders = new File(
+                DSpaceServicesFactory.getInstance().getConfigurationService().getProperty("dspace.dir"),
+                "config/spiders");
+            SpiderPatternBenchmark.run(spiders, new File(line.getOptionValue('d')), System.out);
         } else {
             printHelp(options, 0);
         }
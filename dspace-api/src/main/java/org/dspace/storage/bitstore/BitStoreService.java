@@ -7,11 +7,13 @@
  */
 package org.dspace.storage.bitstore;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
+import com.google.common.io.ByteStreams;
 import org.dspace.content.Bitstream;
 
 /**
@@ -45,6 +47,41 @@ public interface BitStoreService {
      */
     public InputStream get(Bitstream bitstream) throws IOException;
 
+    /**
+     * Retrieve a range of the bits for bitstream, e.g. to answer an HTTP Range request. The default implementation
+     * reads and skips the bits before the range, stores which can read from an offset should override it.
+     *
+     * @param bitstream DSpace Bitstream object
+     * @param offset    the position of the first byte to read
+     * @param length    the maximum number of bytes to read
+     * @return The stream of the bits of the range
+     * @throws java.io.IOException If a problem occurs while retrieving the bits, or if no
+     *                             asset with ID exists in the store
+     */
+    public default InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        InputStream in = get(bitstream);
+        try {
+            ByteStreams.skipFully(in, offset);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return ByteStreams.limit(in, length);
+    }
+
+    /**
+     * Return the local file holding the bits for bitstream, so that they can be sent without reading them through
+     * a stream, e.g. with the sendfile support of the servlet container. Stores which do not keep the bits in local
+     * files return null, which is the default implementation.
+     *
+     * @param bitstream DSpace Bitstream object
+     * @return The file, or null if the bits are not kept in a local file
+     * @throws java.io.IOException If a problem occurs while locating the file
+     */
+    public default File getLocalFile(Bitstream bitstream) throws IOException {
+        return null;
+    }
+
     /**
      * Store a stream of bits.
      *
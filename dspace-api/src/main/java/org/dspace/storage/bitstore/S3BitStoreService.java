@@ -17,11 +17,13 @@ import java.io.InputStream;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.auth.AWSCredentials;
@@ -34,6 +36,8 @@ import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.SSEAlgorithm;
 import com.amazonaws.services.s3.transfer.Download;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
@@ -83,6 +87,11 @@ public class S3BitStoreService extends BaseBitStoreService {
      */
     static final String CSA = "MD5";
 
+    /**
+     * ETag of an object uploaded in a single part, the ETag of a multipart upload ends with "-" and the number of parts
+     */
+    private static final Pattern MD5_ETAG = Pattern.compile("[0-9a-fA-F]{32}");
+
     // These settings control the way an identifier is hashed into
     // directory and file names
     //
@@ -103,6 +112,12 @@ public class S3BitStoreService extends BaseBitStoreService {
     private String awsRegionName;
     private boolean useRelativePath;
 
+    /**
+     * Whether to use the MD5 checksum computed by S3 (the ETag of objects uploaded in a single part) instead of
+     * downloading the object when the checksum is requested
+     */
+    private boolean serverSideChecksum = false;
+
     /**
      * The maximum size of individual chunk to download from S3 when a file is accessed. Default 5Mb
      */
@@ -267,6 +282,29 @@ public class S3BitStoreService extends BaseBitStoreService {
         return new S3LazyInputStream(key, bufferSize, bitstream.getSizeBytes());
     }
 
+    /**
+     * Retrieve a range of the bits for the asset with ID, downloading only the chunks of the range from S3.
+     *
+     * @param bitstream The ID of the asset to retrieve
+     * @param offset    the position of the first byte to read
+     * @param length    the maximum number of bytes to read
+     * @return The stream of the bits of the range
+     * @throws java.io.IOException If a problem occurs while retrieving the bits
+     */
+    @Override
+    public InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        String key = getFullKey(bitstream.getInternalId());
+        // Strip -R from bitstream key if it's registered
+        if (isRegisteredBitstream(key)) {
+            key = key.substring(REGISTERED_FLAG.length());
+        }
+        long end = Long.min(offset + length, bitstream.getSizeBytes());
+        if (end <= offset) {
+            return InputStream.nullInputStream();
+        }
+        return new S3LazyInputStream(key, bufferSize, offset, end);
+    }
+
     /**
      * Store a stream of bits.
      *
@@ -290,15 +328,23 @@ public class S3BitStoreService extends BaseBitStoreService {
         ) {
             Utils.bufferedCopy(dis, fos);
             in.close();
-
-            Upload upload = tm.upload(bucketName, key, scratchFile);
+            // we cannot use the S3 ETAG here as it could be not a MD5 in case of multipart upload (large files) or if
+            // the bucket is encrypted
+            byte[] digest = dis.getMessageDigest().digest();
+            String checksum = Utils.toHex(digest);
+
+            ObjectMetadata objectMetadata = new ObjectMetadata();
+            objectMetadata.setContentLength(scratchFile.length());
+            if (scratchFile.length() < tm.getConfiguration().getMultipartUploadThreshold()) {
+                // uploaded in a single request, which S3 rejects if the content does not match the checksum
+                objectMetadata.setContentMD5(Base64.getEncoder().encodeToString(digest));
+            }
+            Upload upload = tm.upload(new PutObjectRequest(bucketName, key, scratchFile).withMetadata(objectMetadata));
 
             upload.waitForUploadResult();
 
             bitstream.setSizeBytes(scratchFile.length());
-            // we cannot use the S3 ETAG here as it could be not a MD5 in case of multipart upload (large files) or if
-            // the bucket is encrypted
-            bitstream.setChecksum(Utils.toHex(dis.getMessageDigest().digest()));
+            bitstream.setChecksum(checksum);
             bitstream.setChecksumAlgorithm(CSA);
 
         } catch (AmazonClientException | IOException | InterruptedException e) {
@@ -317,8 +363,10 @@ public class S3BitStoreService extends BaseBitStoreService {
     /**
      * Obtain technical metadata about an asset in the asset store.
      *
-     * Checksum used is (ETag) hex encoded 128-bit MD5 digest of an object's content as calculated by Amazon S3
-     * (Does not use getContentMD5, as that is 128-bit MD5 digest calculated on caller's side)
+     * Checksum used is hex encoded 128-bit MD5 digest of an object's content, computed by downloading the object.
+     * When {@link #isServerSideChecksum()} is enabled, the MD5 digest computed by S3 from the stored content is
+     * returned instead when S3 provides it, so only a HEAD request is needed, see
+     * {@link #getServerSideChecksum(ObjectMetadata)}. Other objects are downloaded.
      *
      * @param bitstream The asset to describe
      * @param attrs     A List of desired metadata fields
@@ -349,15 +397,12 @@ public class S3BitStoreService extends BaseBitStoreService {
             putValueIfExistsKey(attrs, metadata, "checksum_algorithm", CSA);
 
             if (attrs.contains("checksum")) {
-                try (InputStream in = get(bitstream);
-                     DigestInputStream dis = new DigestInputStream(in, MessageDigest.getInstance(CSA))
-                ) {
-                    Utils.copy(dis, NullOutputStream.NULL_OUTPUT_STREAM);
-                    byte[] md5Digest = dis.getMessageDigest().digest();
-                    metadata.put("checksum", Utils.toHex(md5Digest));
-                } catch (NoSuchAlgorithmException nsae) {
-                    // Should never happen
-                    log.warn("Caught NoSuchAlgorithmException", nsae);
+                String checksum = getServerSideChecksum(objectMetadata);
+                if (checksum == null) {
+                    checksum = computeChecksum(bitstream);
+                }
+                if (checksum != null) {
+                    metadata.put("checksum", checksum);
                 }
             }
 
@@ -373,6 +418,48 @@ public class S3BitStoreService extends BaseBitStoreService {
         return metadata;
     }
 
+    /**
+     * Get the MD5 checksum computed by S3 from the content of an object, if {@link #isServerSideChecksum()} is
+     * enabled. This is the ETag of the object, which is only the MD5 digest of the content for objects uploaded in a
+     * single part, and not encrypted with a KMS or customer provided key.
+     *
+     * @param objectMetadata the metadata of the object
+     * @return the checksum, or null if the checksum has to be computed from the content
+     */
+    protected String getServerSideChecksum(ObjectMetadata objectMetadata) {
+        if (!serverSideChecksum || objectMetadata == null) {
+            return null;
+        }
+        String eTag = StringUtils.strip(objectMetadata.getETag(), "\"");
+        if (eTag == null || !MD5_ETAG.matcher(eTag).matches()
+            || StringUtils.startsWith(objectMetadata.getSSEAlgorithm(), SSEAlgorithm.KMS.getAlgorithm())
+            || objectMetadata.getSSECustomerAlgorithm() != null) {
+            return null;
+        }
+        return eTag.toLowerCase();
+    }
+
+    /**
+     * Compute the checksum of a bitstream by downloading its content.
+     *
+     * @param bitstream the bitstream
+     * @return the hex encoded checksum
+     * @throws IOException if the content could not be read
+     */
+    private String computeChecksum(Bitstream bitstream) throws IOException {
+        try (InputStream in = get(bitstream);
+             DigestInputStream dis = new DigestInputStream(in, MessageDigest.getInstance(CSA))
+        ) {
+            Utils.copy(dis, NullOutputStream.NULL_OUTPUT_STREAM);
+            byte[] md5Digest = dis.getMessageDigest().digest();
+            return Utils.toHex(md5Digest);
+        } catch (NoSuchAlgorithmException nsae) {
+            // Should never happen
+            log.warn("Caught NoSuchAlgorithmException", nsae);
+            return null;
+        }
+    }
+
     /**
      * Remove an asset from the asset store. An irreversible operation.
      *
@@ -497,6 +584,14 @@ public class S3BitStoreService extends BaseBitStoreService {
         this.useRelativePath = useRelativePath;
     }
 
+    public boolean isServerSideChecksum() {
+        return serverSideChecksum;
+    }
+
+    public void setServerSideChecksum(boolean serverSideChecksum) {
+        this.serverSideChecksum = serverSideChecksum;
+    }
+
     /**
      * Contains a command-line testing tool. Expects arguments:
      * -a accessKey -s secretKey -f assetFileName
@@ -633,13 +728,22 @@ public class S3BitStoreService extends BaseBitStoreService {
         private long endOfChunk = -1;
         private long chunkMaxSize;
         private long currPos = 0;
+        // end of the object, or of the range to read (exclusive)
         private long fileSize;
 
         public S3LazyInputStream(String objectKey, long chunkMaxSize, long fileSize) throws IOException {
+            this(objectKey, chunkMaxSize, 0, fileSize);
+        }
+
+        /**
+         * Create a stream reading the bytes of the object from start (inclusive) to end (exclusive)
+         */
+        public S3LazyInputStream(String objectKey, long chunkMaxSize, long start, long end) throws IOException {
             this.objectKey = objectKey;
             this.chunkMaxSize = chunkMaxSize;
-            this.endOfChunk = 0;
-            this.fileSize = fileSize;
+            this.currPos = start;
+            this.endOfChunk = start;
+            this.fileSize = end;
             downloadChunk();
         }
 
@@ -7,6 +7,7 @@
  */
 package org.dspace.storage.bitstore.service;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
@@ -126,6 +127,33 @@ public interface BitstreamStorageService {
     public InputStream retrieve(Context context, Bitstream bitstream)
         throws SQLException, IOException;
 
+    /**
+     * Retrieve a range of the bits of the bitstream, reading only the range from the stores which support it, see
+     * {@link org.dspace.storage.bitstore.BitStoreService#get(Bitstream, long, long)}.
+     *
+     * @param context   The current context
+     * @param bitstream The bitstream to retrieve
+     * @param offset    The position of the first byte to read
+     * @param length    The maximum number of bytes to read
+     * @return The stream of the bits of the range
+     * @throws IOException  If a problem occurs while retrieving the bits
+     * @throws SQLException If a problem occurs accessing the RDBMS
+     */
+    public InputStream retrieve(Context context, Bitstream bitstream, long offset, long length)
+        throws SQLException, IOException;
+
+    /**
+     * Return the local file holding the bits of the bitstream, if its store keeps them in one, see
+     * {@link org.dspace.storage.bitstore.BitStoreService#getLocalFile(Bitstream)}.
+     *
+     * @param context   The current context
+     * @param bitstream The bitstream
+     * @return The file, or null if the bits have to be read with {@link #retrieve(Context, Bitstream)}
+     * @throws IOException  If a problem occurs while locating the file
+     * @throws SQLException If a problem occurs accessing the RDBMS
+     */
+    public File getLocalFile(Context context, Bitstream bitstream) throws SQLException, IOException;
+
     /**
      * Clean up the bitstream storage area. This method deletes any bitstreams
      * which are more than 1 hour old and marked deleted. The deletions cannot
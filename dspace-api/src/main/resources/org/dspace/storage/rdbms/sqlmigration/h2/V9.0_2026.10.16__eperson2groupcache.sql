@@ -0,0 +1,20 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-----------------------------------------------------------------------------------
+-- Create table eperson2groupcache, holding the ids of all groups each EPerson is a
+-- (direct or indirect) member of, as a sorted array of 16 byte UUIDs.
+-- Rows are created when EPersons are created or their groups change.
+-----------------------------------------------------------------------------------
+
+CREATE TABLE eperson2groupcache
+(
+  eperson_id UUID NOT NULL PRIMARY KEY REFERENCES eperson (uuid) ON DELETE CASCADE,
+  group_ids VARBINARY NOT NULL,
+  version BIGINT NOT NULL
+);
@@ -0,0 +1,34 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-----------------------------------------------------------------------------------
+-- Create table eperson2groupcache, holding the ids of all groups each EPerson is a
+-- (direct or indirect) member of, as a sorted array of 16 byte UUIDs
+-----------------------------------------------------------------------------------
+
+CREATE TABLE eperson2groupcache
+(
+  eperson_id UUID NOT NULL PRIMARY KEY REFERENCES eperson (uuid) ON DELETE CASCADE,
+  group_ids BYTEA NOT NULL,
+  version BIGINT NOT NULL
+);
+
+-- Fill it from the group memberships and the group2groupcache table
+INSERT INTO eperson2groupcache (eperson_id, group_ids, version)
+SELECT eperson.uuid,
+       COALESCE(string_agg(decode(replace(m.group_id::text, '-', ''), 'hex'), ''::bytea ORDER BY m.group_id),
+                ''::bytea),
+       0
+FROM eperson
+LEFT JOIN (
+  SELECT eperson_id, eperson_group_id AS group_id FROM epersongroup2eperson
+  UNION
+  SELECT e.eperson_id, c.parent_id AS group_id
+  FROM epersongroup2eperson e JOIN group2groupcache c ON c.child_id = e.eperson_group_id
+) m ON m.eperson_id = eperson.uuid
+GROUP BY eperson.uuid;
@@ -0,0 +1,30 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-----------------------------------------------------------------------------------
+-- Create table curation_task_queue, holding the curation tasks queued by the
+-- org.dspace.curate.DBTaskQueue
+-----------------------------------------------------------------------------------
+
+CREATE SEQUENCE curation_task_queue_id_seq;
+
+CREATE TABLE curation_task_queue
+(
+    id INTEGER NOT NULL,
+    queue_name CHARACTER VARYING(255) NOT NULL,
+    eperson CHARACTER VARYING(255),
+    submit_time BIGINT NOT NULL,
+    tasks TEXT NOT NULL,
+    object_id CHARACTER VARYING(255) NOT NULL,
+    claim_id UUID,
+    queue_timeout TIMESTAMP,
+    queue_attempts INTEGER NOT NULL,
+    CONSTRAINT curation_task_queue_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX curation_task_queue_queue_name_idx ON curation_task_queue (queue_name, id);
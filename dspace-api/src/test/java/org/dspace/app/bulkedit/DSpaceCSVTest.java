@@ -14,7 +14,9 @@ import static org.junit.Assert.fail;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.InputStream;
 import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -147,4 +149,60 @@ public class DSpaceCSVTest extends AbstractUnitTest {
             fail("IO Error while creating test CSV file");
         }
     }
+
+    /**
+     * Test reading a CSV of millions of lines one line at a time, without holding it in memory
+     */
+    @Test
+    public void testStreamedDSpaceCSV() throws Exception {
+        int rows = 2_000_000;
+        DSpaceCSV dcsv = new DSpaceCSV(new GeneratedCSVInputStream(rows), context, true);
+        assertThat("testStreamedDSpaceCSV Headings", dcsv.getHeadings(),
+                   equalTo(List.of("collection", "dc.title", "dc.contributor.author")));
+
+        int count = 0;
+        DSpaceCSVLine line;
+        while ((line = dcsv.readCSVLine()) != null) {
+            count++;
+            if (count % 1000 == 0) {
+                assertThat("testStreamedDSpaceCSV New lines", line.get("dc.title"),
+                           equalTo(List.of("Title " + count + "\nsecond line")));
+            } else {
+                assertThat("testStreamedDSpaceCSV Title", line.get("dc.title"), equalTo(List.of("Title " + count)));
+            }
+            assertThat("testStreamedDSpaceCSV Authors", line.get("dc.contributor.author").size(), equalTo(2));
+        }
+        assertThat("testStreamedDSpaceCSV Lines", count, equalTo(rows));
+        assertThat("testStreamedDSpaceCSV Lines held", dcsv.getCSVLines().size(), equalTo(0));
+        assertThat("testStreamedDSpaceCSV Closed", dcsv.isStreamed(), equalTo(false));
+    }
+
+    /**
+     * A CSV file of new items, generated as it is read
+     */
+    private static class GeneratedCSVInputStream extends InputStream {
+        private final int rows;
+        private int row = 0;
+        private byte[] buffer = ("id,collection,dc.title,dc.contributor.author\n").getBytes(StandardCharsets.UTF_8);
+        private int position = 0;
+
+        GeneratedCSVInputStream(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == buffer.length) {
+                if (row == rows) {
+                    return -1;
+                }
+                row++;
+                String title = row % 1000 == 0 ? "\"Title " + row + "\nsecond line\"" : "Title " + row;
+                buffer = ("+,123456789/1," + title + ",\"Author, " + row + "||Author, " + (row + 1) + "\"\n")
+                    .getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return buffer[position++];
+        }
+    }
 }
@@ -15,7 +15,10 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.OutputStreamWriter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.collections4.IteratorUtils;
@@ -37,12 +40,15 @@ import org.dspace.content.Relationship;
 import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.ItemService;
 import org.dspace.content.service.RelationshipService;
+import org.dspace.discovery.DiscoverQuery;
+import org.dspace.discovery.SearchUtils;
 import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.scripts.DSpaceRunnable;
 import org.dspace.scripts.configuration.ScriptConfiguration;
 import org.dspace.scripts.factory.ScriptServiceFactory;
 import org.dspace.scripts.service.ScriptService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -262,6 +268,117 @@ public class MetadataImportIT extends AbstractIntegrationTestWithDatabase {
         assertEquals(0, itemService.getMetadata(item, "dc", "contributor", "author", Item.ANY).size());
     }
 
+    @Test
+    public void metadataImportInParallelTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withAuthor("TestAuthorToReplace")
+                               .withTitle("Testing parallel import").build();
+        EntityType publication = EntityTypeBuilder.createEntityTypeBuilder(context, "Publication").build();
+        EntityType person = EntityTypeBuilder.createEntityTypeBuilder(context, "Person").build();
+        RelationshipTypeBuilder.createRelationshipTypeBuilder(context, publication, person, "isAuthorOfPublication",
+                                                              "isPublicationOfAuthor", 0, 10, 0, 10);
+        context.restoreAuthSystemState();
+        DSpaceServicesFactory.getInstance().getConfigurationService().setProperty("bulkedit.change.threads", 3);
+        DSpaceServicesFactory.getInstance().getConfigurationService().setProperty("bulkedit.change.commit.count", 2);
+
+        // the publication references the person of an earlier line, so it is imported once that line is imported
+        List<String> csv = new ArrayList<>();
+        csv.add("id,collection,dc.title,dc.contributor.author,dspace.entity.type,rowName,"
+                    + "relation.isAuthorOfPublication");
+        csv.add("+," + personCollection.getHandle() + ",\"Parallel Person\",,Person,person1,");
+        for (int i = 0; i < 7; i++) {
+            csv.add("+," + collection.getHandle() + ",\"Parallel Import " + i + "\",\"Author " + i + "\",,,");
+        }
+        csv.add("+," + publicationCollection.getHandle() + ",\"Parallel Publication\",,Publication,,"
+                    + "rowName:person1");
+        csv.add(item.getID() + "," + collection.getHandle() + ",\"Testing parallel import\",\"TestAuthorReplaced\",,,");
+        performImportScript(csv.toArray(new String[0]));
+
+        for (int i = 0; i < 7; i++) {
+            Item importedItem = findItemByName("Parallel Import " + i);
+            assertEquals("Author " + i, itemService.getMetadataFirstValue(importedItem, "dc", "contributor", "author",
+                                                                          Item.ANY));
+        }
+        Item importedPerson = findItemByName("Parallel Person");
+        Item importedPublication = findItemByName("Parallel Publication");
+        List<Relationship> relationships = relationshipService.findByItem(context, importedPublication);
+        assertEquals(1, relationships.size());
+        assertEquals(importedPerson, relationships.get(0).getRightItem());
+        item = findItemByName("Testing parallel import");
+        assertEquals("TestAuthorReplaced", itemService.getMetadataFirstValue(item, "dc", "contributor", "author",
+                                                                            Item.ANY));
+    }
+
+    @Test
+    public void metadataImportInParallelReindexesAfterFailureTest() throws Exception {
+        DSpaceServicesFactory.getInstance().getConfigurationService().setProperty("bulkedit.change.threads", 2);
+        DSpaceServicesFactory.getInstance().getConfigurationService().setProperty("bulkedit.change.commit.count", 2);
+
+        // the last batch fails on its unknown item, once the batches before it are committed
+        List<String> csv = new ArrayList<>();
+        csv.add("id,collection,dc.title,dc.contributor.author");
+        for (int i = 0; i < 4; i++) {
+            csv.add("+," + collection.getHandle() + ",\"Committed Import " + i + "\",\"Author " + i + "\"");
+        }
+        csv.add(UUID.randomUUID() + "," + collection.getHandle() + ",\"Unknown item\",\"Author\"");
+        TestDSpaceRunnableHandler handler = performImportScript(csv.toArray(new String[0]), new String[0]);
+        assertTrue(handler.getException() != null);
+
+        // the committed items are indexed although the import failed
+        for (int i = 0; i < 4; i++) {
+            Item importedItem = findItemByName("Committed Import " + i);
+            DiscoverQuery discoverQuery = new DiscoverQuery();
+            discoverQuery.addFilterQueries("search.resourceid:" + importedItem.getID());
+            assertEquals(1, SearchUtils.getSearchService().search(context, discoverQuery).getTotalSearchResults());
+        }
+    }
+
+    @Test
+    public void metadataImportStreamedTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withAuthor("TestAuthorToReplace")
+                               .withTitle("Testing streamed import").build();
+        EntityType publication = EntityTypeBuilder.createEntityTypeBuilder(context, "Publication").build();
+        EntityType person = EntityTypeBuilder.createEntityTypeBuilder(context, "Person").build();
+        RelationshipTypeBuilder.createRelationshipTypeBuilder(context, publication, person, "isAuthorOfPublication",
+                                                              "isPublicationOfAuthor", 0, 10, 0, 10);
+        context.restoreAuthSystemState();
+        DSpaceServicesFactory.getInstance().getConfigurationService().setProperty("bulkedit.change.commit.count", 2);
+
+        // the persons are referenced by row name and by title from later lines
+        List<String> csv = new ArrayList<>();
+        csv.add("id,collection,dc.title,dc.contributor.author,dspace.entity.type,rowName,"
+                    + "relation.isAuthorOfPublication");
+        csv.add("+," + personCollection.getHandle() + ",\"Streamed Person\",,Person,person1,");
+        csv.add("+," + personCollection.getHandle() + ",\"Streamed Person 2\",,Person,,");
+        for (int i = 0; i < 5; i++) {
+            csv.add("+," + collection.getHandle() + ",\"Streamed Import " + i + "\",\"Author " + i + "\",,,");
+        }
+        csv.add("+," + publicationCollection.getHandle() + ",\"Streamed Publication\",,Publication,,"
+                    + "\"rowName:person1||dc.title:Streamed Person 2\"");
+        csv.add(item.getID() + "," + collection.getHandle() + ",\"Testing streamed import\",\"TestAuthorReplaced\",,,");
+        TestDSpaceRunnableHandler handler = performImportScript(csv.toArray(new String[0]), "-l");
+
+        for (int i = 0; i < 5; i++) {
+            Item importedItem = findItemByName("Streamed Import " + i);
+            assertEquals("Author " + i, itemService.getMetadataFirstValue(importedItem, "dc", "contributor", "author",
+                                                                          Item.ANY));
+        }
+        Item importedPublication = findItemByName("Streamed Publication");
+        List<Relationship> relationships = relationshipService.findByItem(context, importedPublication);
+        assertEquals(2, relationships.size());
+        List<Item> authors = relationships.stream().map(Relationship::getRightItem).collect(Collectors.toList());
+        assertTrue(authors.contains(findItemByName("Streamed Person")));
+        assertTrue(authors.contains(findItemByName("Streamed Person 2")));
+        item = findItemByName("Testing streamed import");
+        assertEquals("TestAuthorReplaced", itemService.getMetadataFirstValue(item, "dc", "contributor", "author",
+                                                                            Item.ANY));
+        // the changes are displayed from the temporary file they were written to
+        assertEquals(8, handler.getInfoMessages().stream().filter("New item: "::equals).count());
+        assertTrue(handler.getInfoMessages().contains("Changes for item: " + item.getID() + " (" + item.getHandle()
+                                                          + ")"));
+    }
+
     private Item findItemByName(String name) throws Exception {
         List<Item> items =
             IteratorUtils.toList(itemService.findByMetadataField(context, "dc", "title", null, name));
@@ -285,6 +402,14 @@ public class MetadataImportIT extends AbstractIntegrationTestWithDatabase {
      * @throws java.lang.Exception passed through.
      */
     public void performImportScript(String[] csv, boolean useTemplate) throws Exception {
+        if (useTemplate) {
+            performImportScript(csv, "-t");
+        } else {
+            performImportScript(csv, new String[0]);
+        }
+    }
+
+    private TestDSpaceRunnableHandler performImportScript(String[] csv, String... options) throws Exception {
         File csvFile = File.createTempFile("dspace-test-import", "csv");
         BufferedWriter out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(csvFile), "UTF-8"));
         for (String csvLine : csv) {
@@ -295,12 +420,11 @@ public class MetadataImportIT extends AbstractIntegrationTestWithDatabase {
         String fileLocation = csvFile.getAbsolutePath();
         try {
             String[] args = new String[] {"metadata-import", "-f", fileLocation, "-e", eperson.getEmail(), "-s"};
-            if (useTemplate) {
-                args = ArrayUtils.add(args, "-t");
-            }
+            args = ArrayUtils.addAll(args, options);
             TestDSpaceRunnableHandler testDSpaceRunnableHandler = new TestDSpaceRunnableHandler();
             ScriptLauncher
                 .handleScript(args, ScriptLauncher.getConfig(kernelImpl), testDSpaceRunnableHandler, kernelImpl);
+            return testDSpaceRunnableHandler;
         } finally {
             csvFile.delete();
         }
@@ -137,6 +137,46 @@ public class ItemImportCLIIT extends AbstractIntegrationTestWithDatabase {
         checkBitstream();
     }
 
+    @Test
+    public void importItemsBySafWithThreads() throws Exception {
+        // create SAF with several items
+        Path safDir = Files.createDirectory(Path.of(tempDir.toString() + "/test"));
+        for (int i = 0; i < 5; i++) {
+            Path itemDir = Files.createDirectory(Path.of(safDir.toString() + "/item_00" + i));
+            Files.copy(getClass().getResourceAsStream("dublin_core.xml"),
+                    Path.of(itemDir.toString() + "/dublin_core.xml"));
+            Files.writeString(Path.of(itemDir.toString() + "/contents"), "file1.txt");
+            Files.writeString(Path.of(itemDir.toString() + "/file1.txt"), "TEST TEST TEST");
+        }
+
+        String[] args = new String[] { "import", "-a", "-e", admin.getEmail(), "-c", collection.getID().toString(),
+                "-s", safDir.toString(), "-m", tempDir.toString() + "/mapfile.out", "-T", "3" };
+        perfomImportScript(args);
+
+        Iterator<Item> items = itemService.findByMetadataField(context, "dc", "title", null, publicationTitle);
+        int count = 0;
+        while (items.hasNext()) {
+            Item item = items.next();
+            assertEquals(itemService.getMetadata(item, "dc.date.issued"), "1990");
+            assertEquals(item.getBundles("ORIGINAL").get(0).getBitstreams().get(0).getName(), "file1.txt");
+            count++;
+        }
+        assertEquals(5, count);
+        // every item is in the mapfile, so that the import can be resumed
+        assertEquals(5, Files.readAllLines(Path.of(tempDir.toString() + "/mapfile.out")).size());
+    }
+
+    @Test
+    public void importItemsBySafWithBadThreads() throws Exception {
+        for (String threads : new String[] { "0", "-1", "x" }) {
+            String[] args = new String[] { "import", "-a", "-e", admin.getEmail(), "-c",
+                    collection.getID().toString(), "-s", tempDir.toString(), "-m",
+                    tempDir.toString() + "/mapfile.out", "-T", threads };
+            // the script is not run
+            assertEquals(1, runDSpaceScript(args));
+        }
+    }
+
     @Test
     public void importItemBySafWithAnotherMetadataSchema() throws Exception {
         // create simple SAF
@@ -236,6 +276,21 @@ public class ItemImportCLIIT extends AbstractIntegrationTestWithDatabase {
         assertTrue(workTempDir.exists());
     }
 
+    @Test
+    public void importItemByZipSafWithThreads() throws Exception {
+        // use simple SAF in zip format, the bitstreams are read from the zip file
+        Files.copy(getClass().getResourceAsStream("saf-bitstreams.zip"),
+                Path.of(tempDir.toString() + "/" + ZIP_NAME));
+
+        String[] args = new String[] { "import", "-a", "-e", admin.getEmail(), "-c", collection.getID().toString(),
+                "-s", tempDir.toString(), "-z", ZIP_NAME, "-m", tempDir.toString() + "/mapfile.out", "-T", "2" };
+        perfomImportScript(args);
+
+        checkMetadata();
+        checkMetadataWithAnotherSchema();
+        checkBitstream();
+    }
+
     @Test
     public void importItemByZipSafWithRelationships() throws Exception {
         context.turnOffAuthorisationSystem();
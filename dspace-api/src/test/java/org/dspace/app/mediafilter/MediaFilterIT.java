@@ -186,6 +186,30 @@ public class MediaFilterIT extends AbstractIntegrationTestWithDatabase {
         checkItemHasBeenProcessed(item1_2_2_b);
     }
 
+    @Test
+    public void mediaFilterScriptWorkersTest() throws Exception {
+        performMediaFilterScript("-w", "3");
+        Iterator<Item> items = itemService.findAll(context);
+        while (items.hasNext()) {
+            Item item = items.next();
+            checkItemHasBeenProcessed(item);
+        }
+    }
+
+    @Test
+    public void mediaFilterScriptWorkersSkipListTest() throws Exception {
+        // the skip list is checked before the items are given to the workers
+        performMediaFilterScript("-w", "2", "-s", col1_1_1.getHandle() + "," + item2_1_a.getHandle());
+        checkItemHasBeenNotProcessed(item1_1_1_a);
+        checkItemHasBeenNotProcessed(item1_1_1_b);
+        checkItemHasBeenNotProcessed(item2_1_a);
+        checkItemHasBeenProcessed(item1_1_a);
+        checkItemHasBeenProcessed(item1_1_b);
+        checkItemHasBeenProcessed(item1_1_2_a);
+        checkItemHasBeenProcessed(item1_2_2_b);
+        checkItemHasBeenProcessed(item2_1_b);
+    }
+
     private void checkItemHasBeenNotProcessed(Item item) throws IOException, SQLException, AuthorizeException {
         List<Bundle> textBundles = item.getBundles("TEXT");
         assertTrue("The item " + item.getName() + " should NOT have the TEXT bundle", textBundles.size() == 0);
@@ -213,10 +237,17 @@ public class MediaFilterIT extends AbstractIntegrationTestWithDatabase {
 
     private void performMediaFilterScript(DSpaceObject dso) throws Exception {
         if (dso != null) {
-            runDSpaceScript("filter-media", "-i", dso.getHandle());
+            performMediaFilterScript("-i", dso.getHandle());
         } else {
-            runDSpaceScript("filter-media");
+            performMediaFilterScript();
         }
+    }
+
+    private void performMediaFilterScript(String... args) throws Exception {
+        String[] command = new String[args.length + 1];
+        command[0] = "filter-media";
+        System.arraycopy(args, 0, command, 1, args.length);
+        runDSpaceScript(command);
         // reload our items to see the changes
         item1_1_a = context.reloadEntity(item1_1_a);
         item1_1_b = context.reloadEntity(item1_1_b);
@@ -0,0 +1,146 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.authorize.factory.AuthorizeServiceFactory;
+import org.dspace.authorize.service.AuthorizeService;
+import org.dspace.authorize.service.ResourcePolicyService;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests for the {@link AuthorizationDecisionCache}, revoking a policy while other threads read the
+ * object it applies to.
+ */
+public class AuthorizationDecisionCacheIT extends AbstractIntegrationTestWithDatabase {
+
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+    private final AuthorizationDecisionCache cache =
+        AuthorizeServiceFactory.getInstance().getAuthorizationDecisionCache();
+    private final AuthorizeService authorizeService = AuthorizeServiceFactory.getInstance().getAuthorizeService();
+    private final ResourcePolicyService resourcePolicyService =
+        AuthorizeServiceFactory.getInstance().getResourcePolicyService();
+    private final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+
+    private ExecutorService executor;
+    private UUID itemId;
+
+    @Before
+    public void enableCache() throws Exception {
+        configurationService.setProperty("authorization.cache.enabled", true);
+        cache.afterPropertiesSet();
+        cache.invalidateAll();
+        executor = Executors.newSingleThreadExecutor();
+
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Public item").build();
+        context.restoreAuthSystemState();
+        // the readers check the policies with their own context
+        context.commit();
+        itemId = item.getID();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        executor.shutdownNow();
+        configurationService.setProperty("authorization.cache.enabled", null);
+        cache.afterPropertiesSet();
+        cache.invalidateAll();
+        super.destroy();
+    }
+
+    @Test
+    public void testDecisionCachedBeforeCommitIsInvalidated() throws Exception {
+        assertTrue(executor.submit(this::canRead).get());
+
+        try (Context revoker = new Context()) {
+            revoker.turnOffAuthorisationSystem();
+            resourcePolicyService.removePolicies(revoker, itemService.find(revoker, itemId), Constants.READ);
+            revoker.restoreAuthSystemState();
+
+            // until the revocation is committed, another thread still reads, and caches, the old policies
+            assertTrue(executor.submit(this::canRead).get());
+            revoker.commit();
+        }
+
+        assertFalse("The revoked READ is not served from the cache", executor.submit(this::canRead).get());
+    }
+
+    @Test
+    public void testRevokeWhileReading() throws Exception {
+        AtomicBoolean committed = new AtomicBoolean();
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger readsAfterCommit = new AtomicInteger();
+        Future<Boolean> reader = executor.submit(() -> {
+            while (!stop.get()) {
+                // read whether the revocation is committed before the decision, as the commit may happen during it
+                boolean revoked = committed.get();
+                if (canRead() && revoked) {
+                    return false;
+                }
+                if (revoked) {
+                    readsAfterCommit.incrementAndGet();
+                }
+            }
+            return true;
+        });
+
+        try (Context revoker = new Context()) {
+            revoker.turnOffAuthorisationSystem();
+            resourcePolicyService.removePolicies(revoker, itemService.find(revoker, itemId), Constants.READ);
+            revoker.restoreAuthSystemState();
+            revoker.commit();
+            committed.set(true);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (readsAfterCommit.get() < 10 && System.nanoTime() < deadline && !reader.isDone()) {
+            Thread.sleep(10);
+        }
+        stop.set(true);
+
+        assertTrue("The revoked READ is not served once committed", reader.get());
+        assertFalse(canRead());
+    }
+
+    /**
+     * @return whether an anonymous user can read the item, checked with a new context
+     */
+    private boolean canRead() throws Exception {
+        try (Context reader = new Context(Context.Mode.READ_ONLY)) {
+            return authorizeService.authorizeActionBoolean(reader, itemService.find(reader, itemId), Constants.READ);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.dspace.content.Bundle;
+import org.dspace.content.Item;
+import org.dspace.content.Site;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit tests for {@link AuthorizationDecisionCache}
+ */
+public class AuthorizationDecisionCacheTest {
+
+    private final AuthorizationDecisionCache cache = new AuthorizationDecisionCache(3, 300);
+
+    private final UUID bitstreamId = UUID.randomUUID();
+    private final UUID itemId = UUID.randomUUID();
+    private final UUID epersonId = UUID.randomUUID();
+
+    private final AuthorizationDecisionCache.Key key =
+        new AuthorizationDecisionCache.Key(bitstreamId, Constants.READ, true, epersonId, Set.of());
+
+    @Test
+    public void testHitsAndMisses() {
+        assertNull(cache.get(key));
+        cache.put(key, itemId, true, cache.getVersion());
+
+        assertTrue(cache.get(new AuthorizationDecisionCache.Key(bitstreamId, Constants.READ, true, epersonId,
+                                                                Set.of())));
+        assertNull(cache.get(new AuthorizationDecisionCache.Key(bitstreamId, Constants.READ, true, null, Set.of())));
+        assertNull(cache.get(new AuthorizationDecisionCache.Key(bitstreamId, Constants.READ, true, epersonId,
+                                                                Set.of(UUID.randomUUID()))));
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void testInvalidateObject() {
+        cache.put(key, itemId, false, cache.getVersion());
+        cache.invalidate(UUID.randomUUID());
+        assertEquals(Boolean.FALSE, cache.get(key));
+
+        cache.invalidate(bitstreamId);
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testInvalidateScope() {
+        cache.put(key, itemId, true, cache.getVersion());
+        cache.invalidate(itemId);
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testInvalidateEPerson() {
+        cache.put(key, itemId, true, cache.getVersion());
+        cache.invalidate(epersonId);
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testDecisionComputedDuringInvalidationIsNotCached() {
+        long version = cache.getVersion();
+        // the policies change while the decision is computed
+        cache.invalidate(bitstreamId);
+        cache.put(key, itemId, true, version);
+        assertNull(cache.get(key));
+
+        cache.put(key, itemId, true, cache.getVersion());
+        assertEquals(Boolean.TRUE, cache.get(key));
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        cache.put(key, itemId, true, cache.getVersion());
+        cache.invalidateAll();
+        assertNull(cache.get(key));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testInvalidateBundlePolicies() {
+        cache.put(key, itemId, true, cache.getVersion());
+        Item item = mock(Item.class);
+        when(item.getID()).thenReturn(itemId);
+        Bundle bundle = mock(Bundle.class);
+        when(bundle.getType()).thenReturn(Constants.BUNDLE);
+        when(bundle.getID()).thenReturn(UUID.randomUUID());
+        when(bundle.getItems()).thenReturn(List.of(item));
+        // the bitstreams of the bundle may inherit its policies
+        cache.invalidatePolicies(mock(Context.class), bundle);
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testInvalidateSitePolicies() {
+        cache.put(key, itemId, true, cache.getVersion());
+        Site site = mock(Site.class);
+        when(site.getType()).thenReturn(Constants.SITE);
+        when(site.getID()).thenReturn(UUID.randomUUID());
+        cache.invalidatePolicies(mock(Context.class), site);
+        assertNull(cache.get(key));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testInvalidateAgainAfterCommit() {
+        Item item = mock(Item.class);
+        when(item.getType()).thenReturn(Constants.ITEM);
+        when(item.getID()).thenReturn(itemId);
+        Context context = mock(Context.class);
+        cache.invalidatePolicies(context, item);
+        ArgumentCaptor<Runnable> afterCommit = ArgumentCaptor.forClass(Runnable.class);
+        verify(context).runAfterCommit(afterCommit.capture());
+
+        // another context computes a decision from the old policies until the change is committed
+        cache.put(key, itemId, true, cache.getVersion());
+        assertTrue(cache.get(key));
+        afterCommit.getValue().run();
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedDecisionsAreEvicted() {
+        cache.put(key, itemId, true, cache.getVersion());
+        for (int i = 0; i < 3; i++) {
+            cache.put(new AuthorizationDecisionCache.Key(UUID.randomUUID(), Constants.READ, true, epersonId, Set.of()),
+                      null, true, cache.getVersion());
+        }
+        assertEquals(3, cache.getSize());
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void testExpiredDecisionsAreNotReturned() {
+        AuthorizationDecisionCache expiring = new AuthorizationDecisionCache(3, 0);
+        expiring.put(key, itemId, true, expiring.getVersion());
+        assertNull(expiring.get(key));
+    }
+}
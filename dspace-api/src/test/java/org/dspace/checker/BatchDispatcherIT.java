@@ -0,0 +1,133 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.checker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.commons.io.IOUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.checker.factory.CheckerServiceFactory;
+import org.dspace.checker.service.ChecksumHistoryService;
+import org.dspace.checker.service.MostRecentChecksumService;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests for {@link BatchDispatcher} and the parallel mode of {@link CheckerCommand}.
+ */
+public class BatchDispatcherIT extends AbstractIntegrationTestWithDatabase {
+
+    private final MostRecentChecksumService mostRecentChecksumService =
+        CheckerServiceFactory.getInstance().getMostRecentChecksumService();
+    private final ChecksumHistoryService checksumHistoryService =
+        CheckerServiceFactory.getInstance().getChecksumHistoryService();
+
+    private final List<Bitstream> bitstreams = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Collection collection = CollectionBuilder.createCollection(context, CommunityBuilder.createCommunity(context)
+                                                                                            .build()).build();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Checked item").build();
+        for (int i = 0; i < 5; i++) {
+            try (InputStream is = IOUtils.toInputStream("Bitstream " + i, Constants.DEFAULT_ENCODING)) {
+                bitstreams.add(BitstreamBuilder.createBitstream(context, item, is).build());
+            }
+        }
+        mostRecentChecksumService.updateMissingBitstreams(context);
+        context.commit();
+        context.restoreAuthSystemState();
+    }
+
+    @After
+    public void cleanUpChecksums() throws Exception {
+        for (Bitstream bitstream : bitstreams) {
+            checksumHistoryService.deleteByBitstream(context, context.reloadEntity(bitstream));
+        }
+        context.commit();
+    }
+
+    @Test
+    public void testBitstreamsAreNotHandedOutTwiceUntilReleased() throws Exception {
+        BatchDispatcher dispatcher = new BatchDispatcher(context, Instant.now().plusSeconds(60), false, 2);
+
+        Set<UUID> handedOut = new HashSet<>();
+        Bitstream bitstream = dispatcher.next();
+        while (bitstream != null) {
+            assertTrue("Bitstream handed out twice: " + bitstream.getID(), handedOut.add(bitstream.getID()));
+            bitstream = dispatcher.next();
+        }
+
+        for (Bitstream created : bitstreams) {
+            assertTrue(handedOut.contains(created.getID()));
+        }
+        assertNull(dispatcher.next());
+    }
+
+    @Test
+    public void testFailedBitstreamsAreNotHandedOutAgain() throws Exception {
+        BatchDispatcher dispatcher = new BatchDispatcher(context, Instant.now().plusSeconds(60), false, 2);
+
+        // the checks fail, so the last check date of the bitstreams stays before the start of the run
+        Set<UUID> handedOut = new HashSet<>();
+        Bitstream bitstream = dispatcher.next();
+        while (bitstream != null && handedOut.size() <= bitstreams.size()) {
+            assertTrue("Bitstream handed out twice: " + bitstream.getID(), handedOut.add(bitstream.getID()));
+            dispatcher.fail(bitstream.getID());
+            bitstream = dispatcher.next();
+        }
+
+        assertNull(bitstream);
+        for (Bitstream created : bitstreams) {
+            assertTrue(handedOut.contains(created.getID()));
+        }
+    }
+
+    @Test
+    public void testParallelRunChecksAllBitstreams() throws Exception {
+        // make sure the rows created in setUp were last checked before this run
+        Thread.sleep(10);
+        Instant start = Instant.now();
+        CheckerCommand checker = new CheckerCommand(context);
+        checker.setProcessStartDate(start);
+        checker.setDispatcher(new BatchDispatcher(context, start, false, 2));
+        checker.setWorkers(3);
+        checker.setBytesPerSecond(1024 * 1024);
+        checker.process();
+
+        assertTrue(checker.getBitstreamsChecked() >= bitstreams.size());
+        assertTrue(checker.getBytesChecked() > 0);
+        // the workers updated the rows in their own Context
+        context.uncacheEntities();
+        for (Bitstream bitstream : bitstreams) {
+            MostRecentChecksum info = mostRecentChecksumService.findByBitstream(context,
+                                                                                context.reloadEntity(bitstream));
+            assertEquals(ChecksumResultCode.CHECKSUM_MATCH, info.getChecksumResult().getResultCode());
+        }
+    }
+}
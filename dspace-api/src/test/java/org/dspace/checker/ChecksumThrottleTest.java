@@ -0,0 +1,46 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.checker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ChecksumThrottle}
+ */
+public class ChecksumThrottleTest {
+
+    @Test
+    public void testDisabledThrottleNeverWaits() {
+        ChecksumThrottle throttle = new ChecksumThrottle(0);
+
+        assertFalse(throttle.isEnabled());
+        assertEquals(0, throttle.reserve(Long.MAX_VALUE));
+        assertEquals(0, throttle.reserve(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testReservationsAreSpreadAtConfiguredRate() {
+        ChecksumThrottle throttle = new ChecksumThrottle(1000);
+
+        assertTrue(throttle.isEnabled());
+        // the first reservation may start immediately
+        assertEquals(0, throttle.reserve(2000));
+        // the next one has to wait until the first 2000 bytes fit in the rate, i.e. about 2 seconds
+        long wait = throttle.reserve(1000);
+        assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(1500));
+        assertTrue(wait <= TimeUnit.SECONDS.toNanos(2));
+        // and the one after that a second longer
+        assertTrue(throttle.reserve(1) > wait + TimeUnit.MILLISECONDS.toNanos(500));
+    }
+}
@@ -9,13 +9,18 @@ package org.dspace.content;
 
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.List;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.dspace.AbstractUnitTest;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.CollectionService;
 import org.dspace.content.service.CommunityService;
 import org.dspace.content.service.MetadataFieldService;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -26,6 +31,8 @@ import org.junit.Test;
  */
 public class MetadataFieldPerformanceTest extends AbstractUnitTest {
 
+    private static final Logger log = LogManager.getLogger(MetadataFieldPerformanceTest.class);
+
     private final MetadataFieldService metadataFieldService =
             ContentServiceFactory.getInstance().getMetadataFieldService();
     private final CommunityService communityService = ContentServiceFactory.getInstance().getCommunityService();
@@ -54,6 +61,56 @@ public class MetadataFieldPerformanceTest extends AbstractUnitTest {
                 (((double) duration) / amount) + " ms.", duration < maxDuration);
     }
 
+    @Test
+    public void testLookupsOfAllFields() throws SQLException {
+        List<MetadataField> fields = metadataFieldService.findAll(context);
+        Session session = (Session) context.getDBConnection().getSession();
+
+        int rounds = 20;
+        // warm up, and load the registry snapshot
+        for (MetadataField field : fields) {
+            metadataFieldService.findByElement(context, field.getMetadataSchema().getName(), field.getElement(),
+                                               field.getQualifier());
+        }
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            for (MetadataField field : fields) {
+                MetadataField found = metadataFieldService.findByElement(context,
+                    field.getMetadataSchema().getName(), field.getElement(), field.getQualifier());
+                Assert.assertEquals(field.getID(), found.getID());
+            }
+        }
+        long snapshotDuration = System.nanoTime() - startTime;
+
+        // the query used for lookups before the registry snapshot, for comparison
+        startTime = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            for (MetadataField field : fields) {
+                Query<MetadataField> query = session.createQuery("SELECT mf FROM MetadataField mf " +
+                    "JOIN FETCH mf.metadataSchema ms " +
+                    "WHERE ms.name = :name AND mf.element = :element " +
+                    (field.getQualifier() == null ? "AND mf.qualifier IS NULL" : "AND mf.qualifier = :qualifier"),
+                    MetadataField.class);
+                query.setParameter("name", field.getMetadataSchema().getName());
+                query.setParameter("element", field.getElement());
+                if (field.getQualifier() != null) {
+                    query.setParameter("qualifier", field.getQualifier());
+                }
+                query.setHint("org.hibernate.cacheable", Boolean.TRUE);
+                query.setMaxResults(1);
+                query.uniqueResult();
+            }
+        }
+        long queryDuration = System.nanoTime() - startTime;
+
+        int amount = rounds * fields.size();
+        log.info("Looking up {} fields: {} µs per lookup with the registry snapshot, {} µs with a query",
+                 fields.size(), snapshotDuration / 1000.0 / amount, queryDuration / 1000.0 / amount);
+        Assert.assertTrue("Lookups with the registry snapshot (" + snapshotDuration + " ns) should be faster than " +
+                "queries (" + queryDuration + " ns)", snapshotDuration < queryDuration);
+    }
+
     @Test
     public void testManyMetadataAdds() throws SQLException, AuthorizeException {
         context.turnOffAuthorisationSystem();
@@ -355,6 +355,28 @@ public class MetadataFieldTest extends AbstractUnitTest {
         fail("Exception expected");
     }
 
+    /**
+     * Test of findByElement method after the field was renamed, of class MetadataField.
+     */
+    @Test
+    public void testFindByElementAfterRename() throws Exception {
+        // Allow full Admin perms
+        when(authorizeServiceSpy.isAdmin(context)).thenReturn(true);
+
+        MetadataField m = metadataFieldService.create(context, dcSchema, "elem4", "qual4", null);
+        assertThat("testFindByElementAfterRename 0",
+                   metadataFieldService.findByString(context, "dc.elem4.qual4", '.'), equalTo(m));
+
+        m.setQualifier("qual5");
+        metadataFieldService.update(context, m);
+
+        assertThat("testFindByElementAfterRename 1",
+                   metadataFieldService.findByString(context, "dc.elem4.qual4", '.'), nullValue());
+        assertThat("testFindByElementAfterRename 2",
+                   metadataFieldService.findByString(context, "dc.elem4.qual5", '.'), equalTo(m));
+        metadataFieldService.delete(context, m);
+    }
+
     /**
      * Test of delete method, of class MetadataField.
      */
@@ -7,13 +7,21 @@
  */
 package org.dspace.curate;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.commons.cli.ParseException;
 import org.dspace.AbstractIntegrationTestWithDatabase;
 import org.dspace.app.scripts.handler.impl.TestDSpaceRunnableHandler;
 import org.dspace.builder.CollectionBuilder;
 import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
 import org.dspace.content.Collection;
 import org.dspace.content.Community;
+import org.dspace.content.Item;
 import org.dspace.scripts.DSpaceRunnable;
 import org.dspace.scripts.configuration.ScriptConfiguration;
 import org.dspace.scripts.factory.ScriptServiceFactory;
@@ -75,4 +83,32 @@ public class CurationIT extends AbstractIntegrationTestWithDatabase {
             }
         }
     }
+
+    @Test
+    public void curationWithWorkersTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context)
+                                              .build();
+        Collection collection = CollectionBuilder.createCollection(context, community)
+                                                 .build();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(ItemBuilder.createItem(context, collection).withTitle("Item " + i).build());
+        }
+        context.restoreAuthSystemState();
+        // the workers see the committed items
+        context.commit();
+
+        StringBuilder report = new StringBuilder();
+        Curator curator = new Curator();
+        curator.addTask("noop");
+        curator.setReporter(report);
+        curator.setThreads(3);
+        curator.curate(context, collection);
+
+        for (Item item : items) {
+            assertTrue(report.toString().contains("No operation performed on " + item.getHandle()));
+        }
+        assertEquals(Long.valueOf(10), curator.getStatusCounts("noop").get(Curator.CURATE_SUCCESS));
+    }
 }
@@ -0,0 +1,186 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.curate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Integration tests for the {@link DBTaskQueue}
+ */
+public class DBTaskQueueIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final Logger log = LogManager.getLogger(DBTaskQueueIT.class);
+
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        configurationService.setProperty("curate.taskqueue.db.batch", null);
+        configurationService.setProperty("curate.taskqueue.db.timeout", null);
+        configurationService.setProperty("curate.taskqueue.db.max.attempts", null);
+        super.destroy();
+    }
+
+    @Test
+    public void testEnqueueDequeueRelease() throws Exception {
+        DBTaskQueue queue = new DBTaskQueue();
+        queue.enqueue("release", entries(3));
+
+        assertTrue(List.of(queue.queueNames()).contains("release"));
+        Set<TaskQueueEntry> entries = queue.dequeue("release", 1L);
+        assertEquals(3, entries.size());
+        TaskQueueEntry entry = entries.iterator().next();
+        assertEquals(List.of("noop", "profileformats"), entry.getTaskNames());
+        assertEquals("admin", entry.getEpersonId());
+
+        // claimed entries are not dequeued again
+        assertEquals(0, new DBTaskQueue().dequeue("release", 2L).size());
+
+        // entries released without removing them can be dequeued again
+        queue.release("release", 1L, false);
+        assertEquals(3, queue.dequeue("release", 3L).size());
+        queue.release("release", 3L, true);
+        assertEquals(0, queue.dequeue("release", 4L).size());
+        assertFalse(List.of(queue.queueNames()).contains("release"));
+    }
+
+    @Test
+    public void testTimedOutClaimsAreRetried() throws Exception {
+        configurationService.setProperty("curate.taskqueue.db.timeout", 0);
+        configurationService.setProperty("curate.taskqueue.db.max.attempts", 2);
+        DBTaskQueue queue = new DBTaskQueue();
+        queue.enqueue("retry", entries(2));
+
+        // a reader fails without releasing its entries
+        assertEquals(2, queue.dequeue("retry", 1L).size());
+        Thread.sleep(10);
+        // the claims timed out, another reader gets the entries
+        DBTaskQueue other = new DBTaskQueue();
+        assertEquals(2, other.dequeue("retry", 2L).size());
+        // the release of the first reader does not remove the entries claimed by the other one
+        queue.release("retry", 1L, true);
+        Thread.sleep(10);
+        // the entries were claimed as often as allowed, and are removed from the queue
+        assertEquals(0, new DBTaskQueue().dequeue("retry", 3L).size());
+        assertFalse(List.of(queue.queueNames()).contains("retry"));
+
+        // nothing is left to release
+        other.release("retry", 2L, true);
+    }
+
+    @Test
+    public void testExhaustedEntriesAreRemoved() throws Exception {
+        configurationService.setProperty("curate.taskqueue.db.timeout", 0);
+        configurationService.setProperty("curate.taskqueue.db.max.attempts", 1);
+        DBTaskQueue queue = new DBTaskQueue();
+        queue.enqueue("exhausted", entries(2));
+
+        // a reader fails without releasing its entries
+        assertEquals(2, queue.dequeue("exhausted", 1L).size());
+        Thread.sleep(10);
+        // the entries cannot be claimed again, the next reader removes them
+        assertEquals(0, new DBTaskQueue().dequeue("exhausted", 2L).size());
+        assertFalse(List.of(queue.queueNames()).contains("exhausted"));
+    }
+
+    @Test
+    public void testReadersWithTheSameTicket() throws Exception {
+        configurationService.setProperty("curate.taskqueue.db.timeout", 0);
+        DBTaskQueue queue = new DBTaskQueue();
+        queue.enqueue("ticket", entries(2));
+
+        // a reader fails without releasing its entries
+        assertEquals(2, queue.dequeue("ticket", 1L).size());
+        Thread.sleep(10);
+        // a reader on another server, which uses the same ticket, gets the entries once the claims timed out
+        configurationService.setProperty("curate.taskqueue.db.timeout", 60);
+        DBTaskQueue other = new DBTaskQueue();
+        assertEquals(2, other.dequeue("ticket", 1L).size());
+        // the release of the first reader does not remove the entries claimed by the other one
+        queue.release("ticket", 1L, true);
+        assertTrue(List.of(queue.queueNames()).contains("ticket"));
+
+        other.release("ticket", 1L, true);
+        assertFalse(List.of(queue.queueNames()).contains("ticket"));
+    }
+
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        int entryCount = 400;
+        int readerCount = 4;
+        configurationService.setProperty("curate.taskqueue.db.batch", 10);
+        new DBTaskQueue().enqueue("concurrent", entries(entryCount));
+
+        Set<String> curated = ConcurrentHashMap.newKeySet();
+        AtomicInteger dequeued = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(readerCount);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < readerCount; i++) {
+                long ticket = i;
+                readers.add(executor.submit(() -> {
+                    DBTaskQueue queue = new DBTaskQueue();
+                    Set<TaskQueueEntry> entries;
+                    while (!(entries = queue.dequeue("concurrent", ticket)).isEmpty()) {
+                        for (TaskQueueEntry entry : entries) {
+                            curated.add(entry.getObjectId());
+                            dequeued.incrementAndGet();
+                        }
+                        queue.release("concurrent", ticket, true);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long millis = Math.max((System.nanoTime() - start) / 1000000, 1);
+        log.info("{} readers curated {} queued entries in {} ms ({} entries/s)", readerCount, entryCount, millis,
+                 entryCount * 1000 / millis);
+
+        // every entry was dequeued exactly once
+        assertEquals(entryCount, dequeued.get());
+        assertEquals(entryCount, curated.size());
+        assertEquals(0, new DBTaskQueue().dequeue("concurrent", readerCount).size());
+    }
+
+    private Set<TaskQueueEntry> entries(int count) {
+        Set<TaskQueueEntry> entries = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            entries.add(new TaskQueueEntry("admin", System.currentTimeMillis(), List.of("noop", "profileformats"),
+                                           "123456789/" + i));
+        }
+        return entries;
+    }
+}
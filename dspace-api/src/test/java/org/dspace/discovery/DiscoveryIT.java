@@ -14,6 +14,7 @@ import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -749,6 +750,51 @@ public class DiscoveryIT extends AbstractIntegrationTestWithDatabase {
         }
     }
 
+    @Test
+    public void cursorMarkIteratorTest() throws SearchServiceException {
+        int numberItems = 25;
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, community).build();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < numberItems; i++) {
+            items.add(ItemBuilder.createItem(context, collection)
+                                 .withTitle("item number " + i)
+                                 .build());
+        }
+        context.restoreAuthSystemState();
+
+        // all documents have the same sort value, the cursor orders them by their unique id
+        DiscoverQuery discoverQuery = new DiscoverQuery();
+        discoverQuery.addFilterQueries("search.resourcetype:" + IndexableItem.TYPE);
+        discoverQuery.setSortField("search.resourcetype", DiscoverQuery.SORT_ORDER.asc);
+        discoverQuery.setMaxResults(4);
+        discoverQuery.setCursorMark(DiscoverQuery.CURSOR_MARK_START);
+        List<Item> foundItems = new ArrayList<>();
+        DiscoverResult discoverResult = searchService.search(context, discoverQuery);
+        while (!discoverQuery.getCursorMark().equals(discoverResult.getNextCursorMark())) {
+            assertEquals(numberItems, discoverResult.getTotalSearchResults());
+            for (IndexableObject indexableObject : discoverResult.getIndexableObjects()) {
+                foundItems.add((Item) indexableObject.getIndexedObject());
+            }
+            discoverQuery.setCursorMark(discoverResult.getNextCursorMark());
+            discoverResult = searchService.search(context, discoverQuery);
+        }
+        assertEquals(0, discoverResult.getIndexableObjects().size());
+        assertEquals(numberItems, foundItems.size());
+        assertTrue(foundItems.containsAll(items));
+
+        // the iterators page with a cursor
+        discoverQuery = new DiscoverQuery();
+        discoverQuery.addFilterQueries("search.resourcetype:" + IndexableItem.TYPE);
+        discoverQuery.setMaxResults(4);
+        foundItems = new ArrayList<>();
+        new DiscoverResultItemIterator(context, discoverQuery).forEachRemaining(foundItems::add);
+        assertEquals(numberItems, foundItems.size());
+        assertTrue(foundItems.containsAll(items));
+        assertNotEquals(DiscoverQuery.CURSOR_MARK_START, discoverQuery.getCursorMark());
+    }
+
     /**
      * Test designed to check if default sort option for Discovery is working, using <code>workspace</code>
      * DiscoveryConfiguration <br/>
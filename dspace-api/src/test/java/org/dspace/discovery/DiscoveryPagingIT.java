@@ -0,0 +1,123 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Compares the latency of the pages of a large discovery result found with a start offset and with a cursor, at
+ * increasing depth. The documents are added to the search core directly, so that the result can be large, and the
+ * queries built by the {@link SolrServiceImpl} are sent to the core without loading the objects of the documents.
+ * The latencies are logged, the test only checks that the cursor returns every document once. It is not run by
+ * default, see {@link #onlyRunAsBenchmark()}.
+ */
+public class DiscoveryPagingIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final Logger log = LogManager.getLogger(DiscoveryPagingIT.class);
+
+    private static final int DOCUMENTS = 50000;
+    private static final int PAGE_SIZE = 100;
+    private static final int[] DEPTHS = {0, 1000, 10000, 25000, DOCUMENTS - PAGE_SIZE};
+    private static final int REPEATS = 5;
+
+    private final MockSolrSearchCore solrSearchCore = DSpaceServicesFactory.getInstance().getServiceManager()
+        .getServiceByName(null, MockSolrSearchCore.class);
+
+    /**
+     * The benchmark only runs when the "benchmark" system property is true, e.g. with
+     * mvn install -DskipIntegrationTests=false -Dit.test=DiscoveryPagingIT -Dbenchmark=true
+     */
+    @BeforeClass
+    public static void onlyRunAsBenchmark() {
+        Assume.assumeTrue("Set -Dbenchmark=true to run this benchmark", Boolean.getBoolean("benchmark"));
+    }
+
+    @Test
+    public void testPageLatencyAtDepth() throws Exception {
+        SolrClient solr = solrSearchCore.getSolr();
+        List<SolrInputDocument> documents = new ArrayList<>();
+        for (int i = 0; i < DOCUMENTS; i++) {
+            SolrInputDocument document = new SolrInputDocument();
+            document.addField(SearchUtils.RESOURCE_UNIQUE_ID, String.format("Benchmark-%06d", i));
+            document.addField(SearchUtils.RESOURCE_TYPE_FIELD, "Benchmark");
+            document.addField(SearchUtils.RESOURCE_ID_FIELD, String.valueOf(i));
+            documents.add(document);
+            if (documents.size() == 5000) {
+                solr.add(documents);
+                documents.clear();
+            }
+        }
+        solr.commit();
+        // an administrator is not restricted to the documents it can read
+        context.setCurrentUser(admin);
+
+        for (int depth : DEPTHS) {
+            long nanos = 0;
+            for (int i = 0; i < REPEATS; i++) {
+                DiscoverQuery discoverQuery = query();
+                discoverQuery.setStart(depth);
+                long start = System.nanoTime();
+                query(discoverQuery);
+                nanos += System.nanoTime() - start;
+            }
+            log.info("offset page at depth {}: {} us", depth, nanos / REPEATS / 1000);
+        }
+
+        Set<String> found = new HashSet<>();
+        DiscoverQuery discoverQuery = query();
+        String cursorMark = DiscoverQuery.CURSOR_MARK_START;
+        boolean done = false;
+        while (!done) {
+            discoverQuery.setCursorMark(cursorMark);
+            int depth = found.size();
+            long start = System.nanoTime();
+            QueryResponse response = query(discoverQuery);
+            long nanos = System.nanoTime() - start;
+            if (Arrays.binarySearch(DEPTHS, depth) >= 0) {
+                log.info("cursor page at depth {}: {} us", depth, nanos / 1000);
+            }
+            for (SolrDocument document : response.getResults()) {
+                found.add((String) document.getFirstValue(SearchUtils.RESOURCE_UNIQUE_ID));
+            }
+            done = cursorMark.equals(response.getNextCursorMark());
+            cursorMark = response.getNextCursorMark();
+        }
+        assertEquals(DOCUMENTS, found.size());
+    }
+
+    private DiscoverQuery query() {
+        DiscoverQuery discoverQuery = new DiscoverQuery();
+        discoverQuery.addFilterQueries(SearchUtils.RESOURCE_TYPE_FIELD + ":Benchmark");
+        discoverQuery.setSortField(SearchUtils.RESOURCE_UNIQUE_ID, DiscoverQuery.SORT_ORDER.asc);
+        discoverQuery.setMaxResults(PAGE_SIZE);
+        return discoverQuery;
+    }
+
+    private QueryResponse query(DiscoverQuery discoverQuery) throws Exception {
+        SolrServiceImpl searchService = (SolrServiceImpl) SearchUtils.getSearchService();
+        return solrSearchCore.getSolr().query(searchService.resolveToSolrQuery(context, discoverQuery));
+    }
+}
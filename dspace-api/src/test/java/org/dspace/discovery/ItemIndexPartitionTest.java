@@ -0,0 +1,63 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ItemIndexPartition}
+ */
+public class ItemIndexPartitionTest {
+
+    @Test
+    public void testPartitionsCoverUUIDSpace() {
+        List<ItemIndexPartition> partitions = ItemIndexPartition.getPartitions();
+        assertEquals(ItemIndexPartition.PARTITION_COUNT, partitions.size());
+
+        assertEquals("00", partitions.get(0).getId());
+        assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000000"), partitions.get(0).getLowerBound());
+        assertEquals("ff", partitions.get(partitions.size() - 1).getId());
+        assertNull(partitions.get(partitions.size() - 1).getUpperBound());
+
+        // Every partition starts where the previous one ends
+        for (int i = 1; i < partitions.size(); i++) {
+            assertEquals(partitions.get(i - 1).getUpperBound(), partitions.get(i).getLowerBound());
+        }
+    }
+
+    @Test
+    public void testPartitionContainsUUIDsWithItsPrefix() {
+        for (ItemIndexPartition partition : ItemIndexPartition.getPartitions()) {
+            assertTrue(partition.getLowerBound().toString().startsWith(partition.getId()));
+            if (partition.getUpperBound() != null) {
+                assertTrue(partition.getLowerBound().toString()
+                                    .compareTo(partition.getUpperBound().toString()) < 0);
+            }
+        }
+    }
+
+    @Test
+    public void testEachUUIDIsContainedInOnePartition() {
+        UUID uuid = UUID.fromString("7fffffff-ffff-ffff-ffff-ffffffffffff");
+        for (ItemIndexPartition partition : ItemIndexPartition.getPartitions()) {
+            assertTrue(partition.contains(partition.getLowerBound()));
+            if (partition.getUpperBound() != null) {
+                assertFalse(partition.contains(partition.getUpperBound()));
+            }
+            assertEquals(partition.getId().equals("7f"), partition.contains(uuid));
+        }
+    }
+}
@@ -31,6 +31,7 @@ public class MockSolrSearchCore extends SolrSearchCore
      * Reset the core for the next test.  See {@link MockSolrServer#reset()}.
      */
     public void reset() {
+        getUpdateBuffer().clear();
         mockSolrServer.reset();
     }
 
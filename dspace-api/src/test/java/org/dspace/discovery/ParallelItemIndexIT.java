@@ -0,0 +1,125 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.discovery.indexobject.IndexableItem;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the parallel rebuild of the item index, see
+ * {@link IndexingService#updateItemIndex(int, Set, java.util.function.BiConsumer)}.
+ */
+public class ParallelItemIndexIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final int ITEMS = 40;
+
+    private final IndexingService indexingService = DSpaceServicesFactory.getInstance().getServiceManager()
+        .getServiceByName(IndexingService.class.getName(), IndexingService.class);
+
+    private final MockSolrSearchCore solrSearchCore = DSpaceServicesFactory.getInstance().getServiceManager()
+        .getServiceByName(null, MockSolrSearchCore.class);
+
+    private final Set<UUID> itemIds = new HashSet<>();
+
+    @Before
+    public void createItems() throws Exception {
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = ItemBuilder.createItem(context, collection).withTitle("Item " + i).build();
+            itemIds.add(item.getID());
+        }
+        context.restoreAuthSystemState();
+        // the workers read the items with their own context
+        context.commit();
+
+        // remove the documents indexed when the items were created
+        solrSearchCore.getSolr().deleteByQuery(SearchUtils.RESOURCE_TYPE_FIELD + ":" + IndexableItem.TYPE);
+        solrSearchCore.getSolr().commit();
+    }
+
+    @Test
+    public void testEveryItemIsIndexedOnce() throws Exception {
+        Map<ItemIndexPartition, Long> indexed = new ConcurrentHashMap<>();
+
+        long total = indexingService.updateItemIndex(4, Set.of(), (partition, count) -> {
+            assertNull("Partition " + partition + " is indexed once", indexed.put(partition, count));
+        });
+
+        assertEquals(ITEMS, total);
+        assertEquals(ItemIndexPartition.PARTITION_COUNT, indexed.size());
+        for (ItemIndexPartition partition : ItemIndexPartition.getPartitions()) {
+            long expected = itemIds.stream().filter(partition::contains).count();
+            assertEquals("Items indexed in partition " + partition, expected, (long) indexed.get(partition));
+        }
+        assertEquals(itemIds, getIndexedItemIds());
+    }
+
+    @Test
+    public void testCompletedPartitionsAreSkipped() throws Exception {
+        Set<String> completed = new HashSet<>();
+        for (ItemIndexPartition partition : ItemIndexPartition.getPartitions()) {
+            if (partition.getId().compareTo("80") < 0) {
+                completed.add(partition.getId());
+            }
+        }
+        Map<ItemIndexPartition, Long> indexed = new ConcurrentHashMap<>();
+
+        long total = indexingService.updateItemIndex(2, completed, indexed::put);
+
+        Set<UUID> expected = itemIds.stream()
+            .filter(itemId -> indexed.keySet().stream().anyMatch(partition -> partition.contains(itemId)))
+            .collect(Collectors.toSet());
+        assertEquals(expected.size(), total);
+        assertEquals(ItemIndexPartition.PARTITION_COUNT - completed.size(), indexed.size());
+        for (ItemIndexPartition partition : indexed.keySet()) {
+            assertFalse(completed.contains(partition.getId()));
+        }
+        assertEquals(expected, getIndexedItemIds());
+    }
+
+    /**
+     * @return the ids of the indexed items, checking that each item has a single document
+     */
+    private Set<UUID> getIndexedItemIds() throws Exception {
+        SolrQuery query = new SolrQuery(SearchUtils.RESOURCE_TYPE_FIELD + ":" + IndexableItem.TYPE);
+        query.setRows(ITEMS * 2);
+        SolrDocumentList documents = solrSearchCore.getSolr().query(query).getResults();
+        Set<UUID> indexedIds = new HashSet<>();
+        for (SolrDocument document : documents) {
+            UUID itemId = UUID.fromString((String) document.getFirstValue(SearchUtils.RESOURCE_ID_FIELD));
+            assertTrue("Item " + itemId + " has a single document", indexedIds.add(itemId));
+        }
+        assertEquals(documents.getNumFound(), indexedIds.size());
+        return indexedIds;
+    }
+}
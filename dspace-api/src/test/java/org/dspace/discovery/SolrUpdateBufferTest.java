@@ -0,0 +1,178 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.AbstractUpdateRequest;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit tests for {@link SolrUpdateBuffer}
+ */
+public class SolrUpdateBufferTest {
+
+    private SolrClient solrClient;
+    private SolrSearchCore solrSearchCore;
+
+    @Before
+    public void setUp() {
+        solrClient = mock(SolrClient.class);
+        solrSearchCore = mock(SolrSearchCore.class);
+        when(solrSearchCore.getSolr()).thenReturn(solrClient);
+    }
+
+    @Test
+    public void testUpdatesAreSentInBatches() throws Exception {
+        SolrUpdateBuffer buffer = new SolrUpdateBuffer(solrSearchCore, 3, 0, -1);
+
+        buffer.add(document("Item-1"));
+        buffer.add(document("Item-2"));
+        verify(solrClient, never()).request(any(), any());
+
+        buffer.deleteById("Item-3");
+        UpdateRequest request = captureRequest(1);
+        assertEquals(2, request.getDocuments().size());
+        assertEquals(List.of("Item-3"), request.getDeleteById());
+        assertNull(request.getAction());
+    }
+
+    @Test
+    public void testRepeatedUpdatesAreCollapsed() throws Exception {
+        SolrUpdateBuffer buffer = new SolrUpdateBuffer(solrSearchCore, 100, 0, -1);
+
+        buffer.add(document("Item-1"));
+        buffer.add(document("Item-1"));
+        buffer.add(document("Item-2"));
+        buffer.deleteById("Item-2");
+        buffer.flush(false);
+
+        UpdateRequest request = captureRequest(1);
+        assertEquals(1, request.getDocuments().size());
+        assertEquals("Item-1", request.getDocuments().get(0).getFieldValue(SearchUtils.RESOURCE_UNIQUE_ID));
+        assertEquals(List.of("Item-2"), request.getDeleteById());
+    }
+
+    @Test
+    public void testFlushWithCommit() throws Exception {
+        SolrUpdateBuffer buffer = new SolrUpdateBuffer(solrSearchCore, 100, 0, 5000);
+
+        buffer.add(document("Item-1"));
+        buffer.flush(true);
+
+        UpdateRequest request = captureRequest(1);
+        assertEquals(AbstractUpdateRequest.ACTION.COMMIT, request.getAction());
+        assertEquals(5000, request.getCommitWithin());
+        assertTrue(buffer.isCommitWithinEnabled());
+    }
+
+    @Test
+    public void testEmptyFlushSendsNothing() throws Exception {
+        SolrUpdateBuffer buffer = new SolrUpdateBuffer(solrSearchCore, 100, 0, -1);
+
+        buffer.flush(false);
+        buffer.add(document("Item-1"));
+        buffer.clear();
+        buffer.flush(false);
+
+        verify(solrClient, never()).request(any(), any());
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedPerDocument() throws Exception {
+        SolrUpdateBuffer buffer = new SolrUpdateBuffer(solrSearchCore, 100, 0, -1);
+        when(solrClient.request(any(), isNull()))
+            .thenThrow(new SolrException(SolrException.ErrorCode.BAD_REQUEST, "invalid document"));
+        SolrInputDocument first = document("Item-1");
+        SolrInputDocument second = document("Item-2");
+
+        buffer.add(first);
+        buffer.add(second);
+        buffer.flush(true);
+
+        verify(solrClient).add(first);
+        verify(solrClient).add(second);
+        verify(solrClient).commit();
+    }
+
+    @Test
+    public void testDocumentsWhichCannotBeWrittenFailTheFlush() throws Exception {
+        SolrUpdateBuffer buffer = new SolrUpdateBuffer(solrSearchCore, 100, 0, -1);
+        when(solrClient.request(any(), isNull()))
+            .thenThrow(new SolrException(SolrException.ErrorCode.BAD_REQUEST, "invalid document"));
+        SolrInputDocument first = document("Item-1");
+        SolrInputDocument second = document("Item-2");
+        when(solrClient.add(second))
+            .thenThrow(new SolrException(SolrException.ErrorCode.BAD_REQUEST, "invalid document"));
+
+        buffer.add(first);
+        buffer.add(second);
+        try {
+            buffer.flush(true);
+            fail("The document which could not be written must fail the flush");
+        } catch (SolrServerException e) {
+            assertTrue(e.getMessage().contains("Item-2"));
+        }
+
+        // the other document is written and committed anyway
+        verify(solrClient).add(first);
+        verify(solrClient).commit();
+    }
+
+    @Test
+    public void testFailedExpiredFlushIsReportedByNextFlush() throws Exception {
+        SolrUpdateBuffer buffer = new SolrUpdateBuffer(solrSearchCore, 100, 10, -1);
+        when(solrClient.request(any(), isNull())).thenThrow(new IOException("Solr is down"));
+
+        buffer.add(document("Item-1"));
+        verify(solrClient, timeout(5000)).request(any(), isNull());
+        // the failure is recorded once the flush on expiry returns
+        Thread.sleep(100);
+        try {
+            buffer.flush(false);
+            fail("The failure of the flush on expiry must be reported");
+        } catch (SolrServerException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        // and only once
+        buffer.flush(false);
+    }
+
+    private UpdateRequest captureRequest(int expectedRequests) throws Exception {
+        ArgumentCaptor<UpdateRequest> captor = ArgumentCaptor.forClass(UpdateRequest.class);
+        verify(solrClient, times(expectedRequests)).request(captor.capture(), isNull());
+        return captor.getValue();
+    }
+
+    private SolrInputDocument document(String uniqueId) {
+        SolrInputDocument document = new SolrInputDocument();
+        document.addField(SearchUtils.RESOURCE_UNIQUE_ID, uniqueId);
+        return document;
+    }
+}
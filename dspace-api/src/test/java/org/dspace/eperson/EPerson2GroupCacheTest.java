@@ -0,0 +1,63 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link EPerson2GroupCache}
+ */
+public class EPerson2GroupCacheTest {
+
+    private static final UUID LOW = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID MIDDLE = UUID.fromString("7fffffff-ffff-ffff-0000-000000000000");
+    // Negative most significant bits, sorted last like in the database
+    private static final UUID HIGH = UUID.fromString("ffffffff-0000-0000-0000-000000000000");
+
+    @Test
+    public void testGroupIdsAreSortedAndDistinct() {
+        EPerson2GroupCache cache = new EPerson2GroupCache(UUID.randomUUID(), List.of(HIGH, LOW, MIDDLE, LOW));
+
+        assertArrayEquals(new UUID[] {LOW, MIDDLE, HIGH}, cache.getGroupIds());
+    }
+
+    @Test
+    public void testContains() {
+        EPerson2GroupCache cache = new EPerson2GroupCache(UUID.randomUUID(), Set.of(HIGH, LOW));
+
+        assertTrue(cache.contains(LOW));
+        assertTrue(cache.contains(HIGH));
+        assertFalse(cache.contains(MIDDLE));
+    }
+
+    @Test
+    public void testSetGroupIdsReplacesGroups() {
+        EPerson2GroupCache cache = new EPerson2GroupCache(UUID.randomUUID(), Set.of(LOW));
+        cache.setGroupIds(Set.of(MIDDLE));
+
+        assertArrayEquals(new UUID[] {MIDDLE}, cache.getGroupIds());
+        assertFalse(cache.contains(LOW));
+    }
+
+    @Test
+    public void testNoGroups() {
+        EPerson2GroupCache cache = new EPerson2GroupCache(UUID.randomUUID(), Set.of());
+
+        assertEquals(0, cache.getGroupIds().length);
+        assertFalse(cache.contains(LOW));
+    }
+}
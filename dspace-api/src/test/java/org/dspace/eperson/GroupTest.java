@@ -20,9 +20,13 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.Logger;
 import org.dspace.AbstractUnitTest;
 import org.dspace.authorize.AuthorizeException;
@@ -571,6 +575,52 @@ public class GroupTest extends AbstractUnitTest {
         assertFalse(groupService.isParentOf(context, topGroup, level1Group));
     }
 
+    @Test
+    public void groupCacheIsUpdatedIncrementally() throws SQLException, AuthorizeException, IOException {
+        Group otherGroup = createGroup("otherGroup");
+        Set<UUID> groupIds = Set.of(topGroup.getID(), level1Group.getID(), level2Group.getID(), otherGroup.getID());
+        try {
+            context.turnOffAuthorisationSystem();
+            // topGroup > level1Group > level2Group, add otherGroup > level1Group and topGroup > level2Group
+            groupService.addMember(context, otherGroup, level1Group);
+            groupService.addMember(context, topGroup, level2Group);
+            groupService.update(context, otherGroup);
+            groupService.update(context, topGroup);
+            assertEquals(groupCacheRows(groupService.computeGroupCache(context), groupIds),
+                         groupCacheRows(groupService.getGroupCache(context), groupIds));
+            assertTrue(groupService.isParentOf(context, otherGroup, level2Group));
+
+            // level2Group stays a subgroup of topGroup through the direct relation
+            groupService.removeMember(context, topGroup, level1Group);
+            groupService.update(context, level1Group);
+            assertEquals(groupCacheRows(groupService.computeGroupCache(context), groupIds),
+                         groupCacheRows(groupService.getGroupCache(context), groupIds));
+            assertFalse(groupService.isParentOf(context, topGroup, level1Group));
+            assertTrue(groupService.isParentOf(context, topGroup, level2Group));
+
+            // otherGroup was only related to level2Group through level1Group
+            groupService.delete(context, level1Group);
+            level1Group = null;
+            assertEquals(groupCacheRows(groupService.computeGroupCache(context), groupIds),
+                         groupCacheRows(groupService.getGroupCache(context), groupIds));
+            assertFalse(groupService.isParentOf(context, otherGroup, level2Group));
+            assertTrue(groupService.isParentOf(context, topGroup, level2Group));
+        } finally {
+            groupService.delete(context, otherGroup);
+            context.restoreAuthSystemState();
+        }
+    }
+
+    private Set<Pair<UUID, UUID>> groupCacheRows(Set<Pair<UUID, UUID>> rows, Set<UUID> groupIds) {
+        Set<Pair<UUID, UUID>> result = new HashSet<>();
+        for (Pair<UUID, UUID> row : rows) {
+            if (groupIds.contains(row.getLeft()) || groupIds.contains(row.getRight())) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
     @Test
     public void allMemberGroups() throws SQLException, AuthorizeException, EPersonDeletionException, IOException {
         EPerson ePerson = createEPersonAndAddToGroup("allMemberGroups@dspace.org", level1Group);
@@ -585,6 +635,45 @@ public class GroupTest extends AbstractUnitTest {
 
     }
 
+    @Test
+    public void allMemberGroupIDs() throws SQLException, AuthorizeException, EPersonDeletionException, IOException {
+        EPerson ePerson = createEPersonAndAddToGroup("allMemberGroupIDs@dspace.org", level2Group);
+        try {
+            // the precomputed groups are updated with the membership, but not read while events are pending
+            context.dispatchEvents();
+            Set<UUID> expected = new HashSet<>();
+            for (Group group : groupService.allMemberGroupsSet(context, ePerson)) {
+                expected.add(group.getID());
+            }
+            assertTrue(expected.containsAll(Arrays.asList(topGroup.getID(), level1Group.getID(),
+                                                          level2Group.getID())));
+            assertEquals(expected, groupService.allMemberGroupIDs(context, ePerson));
+            assertTrue(groupService.isMember(context, ePerson, topGroup));
+
+            // removing a subgroup updates the precomputed groups of its members
+            context.turnOffAuthorisationSystem();
+            groupService.removeMember(context, topGroup, level1Group);
+            groupService.update(context, topGroup);
+            context.dispatchEvents();
+            Set<UUID> groupIds = groupService.allMemberGroupIDs(context, ePerson);
+            assertFalse(groupIds.contains(topGroup.getID()));
+            assertTrue(groupIds.containsAll(Arrays.asList(level1Group.getID(), level2Group.getID())));
+
+            // removing the eperson from its group updates its precomputed groups, without any event consumer
+            groupService.removeMember(context, level2Group, ePerson);
+            groupService.update(context, level2Group);
+            context.dispatchEvents();
+            groupIds = groupService.allMemberGroupIDs(context, ePerson);
+            assertFalse(groupIds.contains(level1Group.getID()));
+            assertFalse(groupIds.contains(level2Group.getID()));
+            assertFalse(groupService.isMember(context, ePerson, level2Group));
+        } finally {
+            context.turnOffAuthorisationSystem();
+            ePersonService.delete(context, ePerson);
+            context.restoreAuthSystemState();
+        }
+    }
+
     @Test
     public void allMembers() throws SQLException, AuthorizeException, EPersonDeletionException, IOException {
         List<EPerson> allEPeopleAdded = new ArrayList<>();
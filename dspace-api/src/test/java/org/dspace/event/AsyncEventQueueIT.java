@@ -0,0 +1,156 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Integration tests for the {@link AsyncEventQueue}
+ */
+public class AsyncEventQueueIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final String CONSUMER = "asyncTest";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    @Before
+    public void setUpConsumer() {
+        configurationService.setProperty("event.consumer." + CONSUMER + ".class", RecordingConsumer.class.getName());
+        configurationService.setProperty("event.consumer." + CONSUMER + ".filters", "All+All");
+        RecordingConsumer.consumed.clear();
+        RecordingConsumer.currentUsers.clear();
+        RecordingConsumer.ended.set(0);
+    }
+
+    @Test
+    public void testQueuedEventsAreConsumed() throws Exception {
+        AsyncEventQueue queue = new AsyncEventQueue(folder.getRoot().toPath(), 1, 100, 60000, 60000);
+        Event first = new Event(Event.MODIFY, Constants.ITEM, UUID.randomUUID(), null);
+        Event second = new Event(Event.MODIFY_METADATA, Constants.ITEM, UUID.randomUUID(), "dc.title");
+
+        assertTrue(queue.enqueue(CONSUMER, null, List.of(first, second)));
+        waitForConsumedEvents(2);
+
+        assertEquals(first.getSubjectID(), RecordingConsumer.consumed.get(0).getSubjectID());
+        assertEquals("dc.title", RecordingConsumer.consumed.get(1).getDetail());
+        assertEquals(1, RecordingConsumer.ended.get());
+        assertEquals(0, queue.getQueueDepth(CONSUMER));
+        assertEquals(0, queue.getLag(CONSUMER));
+        assertEquals(1, queue.getProcessedCount(CONSUMER));
+        assertEquals(0, queue.getFailedCount(CONSUMER));
+    }
+
+    @Test
+    public void testFullQueueRefusesEvents() {
+        AsyncEventQueue queue = new AsyncEventQueue(folder.getRoot().toPath(), 1, 0, 60000, 60000);
+
+        assertFalse(queue.enqueue(CONSUMER, null, List.of(new Event(Event.CREATE, Constants.ITEM, UUID.randomUUID(),
+                                                                    null))));
+        assertTrue(RecordingConsumer.consumed.isEmpty());
+    }
+
+    @Test
+    public void testPendingBatchesArePickedUpOnStart() throws Exception {
+        // A batch left behind by a previous run
+        Path directory = Files.createDirectories(folder.getRoot().toPath().resolve(CONSUMER));
+        List<Event> events = new ArrayList<>(List.of(new Event(Event.DELETE, Constants.ITEM, UUID.randomUUID(),
+                                                               null)));
+        try (OutputStream out = Files.newOutputStream(directory.resolve("0000000000001-previous-0000000001.events"));
+             ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+            objectOut.writeObject(eperson.getID());
+            objectOut.writeObject(events);
+        }
+
+        new AsyncEventQueue(folder.getRoot().toPath(), 1, 100, 60000, 60000);
+        waitForConsumedEvents(1);
+
+        assertEquals(events.get(0).getSubjectID(), RecordingConsumer.consumed.get(0).getSubjectID());
+        assertEquals(eperson.getID(), RecordingConsumer.currentUsers.get(0));
+    }
+
+    @Test
+    public void testEventsAreConsumedAsTheUserWhoCausedThem() throws Exception {
+        AsyncEventQueue queue = new AsyncEventQueue(folder.getRoot().toPath(), 1, 100, 60000, 60000);
+
+        assertTrue(queue.enqueue(CONSUMER, admin.getID(),
+                                 List.of(new Event(Event.MODIFY, Constants.ITEM, UUID.randomUUID(), null))));
+        waitForConsumedEvents(1);
+        assertTrue(queue.enqueue(CONSUMER, null,
+                                 List.of(new Event(Event.MODIFY, Constants.ITEM, UUID.randomUUID(), null))));
+        waitForConsumedEvents(2);
+
+        assertEquals(admin.getID(), RecordingConsumer.currentUsers.get(0));
+        assertNull(RecordingConsumer.currentUsers.get(1));
+    }
+
+    private void waitForConsumedEvents(int count) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 10000;
+        while ((RecordingConsumer.consumed.size() < count || RecordingConsumer.ended.get() == 0)
+            && System.currentTimeMillis() < timeout) {
+            Thread.sleep(50);
+        }
+        assertEquals(count, RecordingConsumer.consumed.size());
+    }
+
+    /**
+     * Consumer recording the events it receives
+     */
+    public static class RecordingConsumer implements Consumer {
+        static final List<Event> consumed = new CopyOnWriteArrayList<>();
+        static final AtomicInteger ended = new AtomicInteger();
+        // The id of the current user when each event was consumed, null for none
+        static final List<UUID> currentUsers = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void consume(Context ctx, Event event) {
+            currentUsers.add(ctx.getCurrentUser() != null ? ctx.getCurrentUser().getID() : null);
+            consumed.add(event);
+        }
+
+        @Override
+        public void end(Context ctx) {
+            ended.incrementAndGet();
+        }
+
+        @Override
+        public void finish(Context ctx) {
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.dspace.core.Constants;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link EventCoalescer}
+ */
+public class EventCoalescerTest {
+
+    private final UUID itemId = UUID.randomUUID();
+    private final UUID collectionId = UUID.randomUUID();
+
+    @Test
+    public void testMetadataEventsAreMergedWithUnionedDetail() {
+        List<Event> events = List.of(
+            new Event(Event.MODIFY_METADATA, Constants.ITEM, itemId, "dc.title"),
+            new Event(Event.MODIFY_METADATA, Constants.ITEM, itemId, "dc.subject, dc.title"),
+            new Event(Event.MODIFY_METADATA, Constants.ITEM, itemId, "dc.description"));
+
+        List<Event> coalesced = EventCoalescer.coalesce(events);
+
+        assertEquals(1, coalesced.size());
+        assertEquals("dc.title, dc.subject, dc.description", coalesced.get(0).getDetail());
+    }
+
+    @Test
+    public void testEventsWithDifferentDetailAreKept() {
+        List<Event> events = List.of(
+            new Event(Event.MODIFY, Constants.ITEM, itemId, "WITHDRAW"),
+            new Event(Event.MODIFY, Constants.ITEM, itemId, "REINSTATE"),
+            new Event(Event.MODIFY, Constants.ITEM, itemId, "REINSTATE"));
+
+        List<Event> coalesced = EventCoalescer.coalesce(events);
+
+        assertEquals(2, coalesced.size());
+        assertEquals("WITHDRAW", coalesced.get(0).getDetail());
+        assertEquals("REINSTATE", coalesced.get(1).getDetail());
+    }
+
+    @Test
+    public void testMergedEventTakesPositionOfFirstOccurrence() {
+        UUID otherItemId = UUID.randomUUID();
+        Event title = new Event(Event.MODIFY_METADATA, Constants.ITEM, itemId, "dc.title");
+        Event add = new Event(Event.ADD, Constants.COLLECTION, collectionId, Constants.ITEM, otherItemId, null);
+        Event subject = new Event(Event.MODIFY_METADATA, Constants.ITEM, itemId, "dc.subject");
+
+        List<Event> coalesced = EventCoalescer.coalesce(List.of(title, add, subject));
+
+        assertEquals(2, coalesced.size());
+        assertSame(subject, coalesced.get(0));
+        assertSame(add, coalesced.get(1));
+        assertEquals("dc.title, dc.subject", subject.getDetail());
+    }
+
+    @Test
+    public void testEventsAreNotMergedAcrossOtherEventsOfTheSameObject() {
+        Event add = new Event(Event.ADD, Constants.COLLECTION, collectionId, Constants.ITEM, itemId, null);
+        Event remove = new Event(Event.REMOVE, Constants.COLLECTION, collectionId, Constants.ITEM, itemId, null);
+        Event addAgain = new Event(Event.ADD, Constants.COLLECTION, collectionId, Constants.ITEM, itemId, null);
+
+        List<Event> events = List.of(add, remove, addAgain);
+        assertSame(events, EventCoalescer.coalesce(events));
+    }
+
+    @Test
+    public void testModificationIsNotMergedAcrossRemoveFromCollection() {
+        Event modify = new Event(Event.MODIFY, Constants.ITEM, itemId, null);
+        Event remove = new Event(Event.REMOVE, Constants.COLLECTION, collectionId, Constants.ITEM, itemId, null);
+        Event modifyAgain = new Event(Event.MODIFY, Constants.ITEM, itemId, null);
+        Event title = new Event(Event.MODIFY_METADATA, Constants.ITEM, itemId, "dc.title");
+        Event subject = new Event(Event.MODIFY_METADATA, Constants.ITEM, itemId, "dc.subject");
+
+        List<Event> coalesced = EventCoalescer.coalesce(List.of(modify, remove, modifyAgain, title, subject));
+
+        // the modifications of the item are still merged with each other after the REMOVE
+        assertEquals(4, coalesced.size());
+        assertSame(modify, coalesced.get(0));
+        assertSame(remove, coalesced.get(1));
+        assertSame(modifyAgain, coalesced.get(2));
+        assertSame(subject, coalesced.get(3));
+    }
+
+    @Test
+    public void testDifferentObjectsAreNotMerged() {
+        List<Event> events = List.of(
+            new Event(Event.ADD, Constants.COLLECTION, collectionId, Constants.ITEM, itemId, null),
+            new Event(Event.ADD, Constants.COLLECTION, collectionId, Constants.ITEM, UUID.randomUUID(), null),
+            new Event(Event.MODIFY_METADATA, Constants.ITEM, UUID.randomUUID(), "dc.title"));
+
+        assertSame(events, EventCoalescer.coalesce(events));
+    }
+
+    @Test
+    public void testIdentifiersAreUnioned() {
+        List<Event> events = List.of(
+            new Event(Event.MODIFY, Constants.SITE, null, "Item", new ArrayList<>(List.of("a", "b"))),
+            new Event(Event.MODIFY, Constants.SITE, null, "Item", new ArrayList<>(List.of("b", "c"))));
+
+        List<Event> coalesced = EventCoalescer.coalesce(events);
+
+        assertEquals(1, coalesced.size());
+        assertEquals(List.of("b", "c", "a"), coalesced.get(0).getIdentifiers());
+    }
+}
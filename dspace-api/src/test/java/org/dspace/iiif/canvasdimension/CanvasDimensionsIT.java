@@ -580,6 +580,54 @@ public class CanvasDimensionsIT extends AbstractIntegrationTestWithDatabase  {
 
     }
 
+    @Test
+    public void processCollectionWithThreads() throws Exception {
+        context.turnOffAuthorisationSystem();
+        // Create two new Items
+        iiifItem = ItemBuilder.createItem(context, col1)
+                              .withTitle("Test Item")
+                              .withIssueDate("2017-10-17")
+                              .enableIIIF()
+                              .build();
+        iiifItem2 = ItemBuilder.createItem(context, col1)
+                               .withTitle("Test Item2")
+                               .withIssueDate("2017-10-17")
+                               .enableIIIF()
+                               .build();
+
+        // Add jpeg image bitstreams (300 x 200)
+        InputStream input = this.getClass().getResourceAsStream("cat.jpg");
+        bitstream = BitstreamBuilder
+            .createBitstream(context, iiifItem, input)
+            .withName("Bitstream1.jpg")
+            .withMimeType("image/jpeg")
+            .build();
+        input = this.getClass().getResourceAsStream("cat.jpg");
+        bitstream2 = BitstreamBuilder
+            .createBitstream(context, iiifItem2, input)
+            .withName("Bitstream2.jpg")
+            .withMimeType("image/jpeg")
+            .build();
+        context.restoreAuthSystemState();
+        // the threads read the committed bitstreams
+        context.commit();
+
+        runDSpaceScript("iiif-canvas-dimensions", "-e", "admin@email.com", "-i", col1.getID().toString(),
+            "-t", "2");
+
+        // the bitstreams were updated by the threads
+        for (Bitstream bit : new Bitstream[] {bitstream, bitstream2}) {
+            context.uncacheEntity(bit);
+            Bitstream reloaded = context.reloadEntity(bit);
+            assertTrue(reloaded.getMetadata().stream()
+                               .filter(m -> m.getMetadataField().toString('.').contentEquals(METADATA_IIIF_HEIGHT))
+                               .anyMatch(m -> m.getValue().contentEquals("400")));
+            assertTrue(reloaded.getMetadata().stream()
+                               .filter(m -> m.getMetadataField().toString('.').contentEquals(METADATA_IIIF_WIDTH))
+                               .anyMatch(m -> m.getValue().contentEquals("600")));
+        }
+    }
+
     private void execCanvasScript(String id) throws Exception {
         runDSpaceScript("iiif-canvas-dimensions", "-e", "admin@email.com", "-i", id);
     }
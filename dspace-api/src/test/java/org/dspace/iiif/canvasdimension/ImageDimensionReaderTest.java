@@ -0,0 +1,83 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.iiif.canvasdimension;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+
+/**
+ * Tests the dimensions read from the image headers by the {@link ImageDimensionReader}.
+ */
+public class ImageDimensionReaderTest {
+
+    @Test
+    public void testHeaderDimensions() throws IOException {
+        for (String format : new String[] {"jpeg", "png", "gif", "tiff"}) {
+            byte[] image = image(format, 1500, 1300);
+            assertArrayEquals(format, new int[] {1500, 1300}, ImageDimensionReader.getHeaderDimensions(image));
+            // small images get a larger canvas
+            image = image(format, 300, 200);
+            assertArrayEquals(format, new int[] {600, 400}, ImageDimensionReader.getHeaderDimensions(image));
+        }
+    }
+
+    @Test
+    public void testJpeg2000HeaderDimensions() {
+        ByteBuffer jp2 = ByteBuffer.allocate(77);
+        jp2.put(new byte[] {0, 0, 0, 0x0C, 'j', 'P', ' ', ' ', '\r', '\n', (byte) 0x87, '\n'});
+        jp2.putInt(20).put("ftyp".getBytes()).put("jp2 ".getBytes()).putInt(0).put("jp2 ".getBytes());
+        jp2.putInt(45).put("jp2h".getBytes());
+        jp2.putInt(22).put("ihdr".getBytes()).putInt(1300).putInt(1500).putShort((short) 3).put(new byte[4]);
+        jp2.putInt(15).put("colr".getBytes()).put(new byte[7]);
+        assertArrayEquals(new int[] {1500, 1300}, ImageDimensionReader.getHeaderDimensions(jp2.array()));
+
+        ByteBuffer codestream = ByteBuffer.allocate(24);
+        codestream.putShort((short) 0xFF4F).putShort((short) 0xFF51).putShort((short) 41).putShort((short) 0);
+        codestream.putInt(1600).putInt(1400).putInt(100).putInt(100);
+        assertArrayEquals(new int[] {1500, 1300}, ImageDimensionReader.getHeaderDimensions(codestream.array()));
+    }
+
+    @Test
+    public void testTruncatedHeaders() throws IOException {
+        byte[] jpeg = image("jpeg", 1500, 1300);
+        assertNull(ImageDimensionReader.getHeaderDimensions(Arrays.copyOf(jpeg, 10)));
+        assertNull(ImageDimensionReader.getHeaderDimensions(new byte[0]));
+        assertNull(ImageDimensionReader.getHeaderDimensions("not an image".getBytes()));
+    }
+
+    @Test
+    public void testImageDimensions() throws IOException {
+        // the dimensions of a bitmap are not read from its headers
+        byte[] bmp = image("bmp", 300, 200);
+        assertNull(ImageDimensionReader.getHeaderDimensions(bmp));
+        assertArrayEquals(new int[] {600, 400},
+                          ImageDimensionReader.getImageDimensions(new ByteArrayInputStream(bmp)));
+
+        try (InputStream cat = getClass().getResourceAsStream("cat.jpg")) {
+            assertArrayEquals(new int[] {600, 400}, ImageDimensionReader.getImageDimensions(cat));
+        }
+    }
+
+    private byte[] image(String format, int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(format, ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY), format, out));
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link SolrStatisticsWriter}
+ */
+public class SolrStatisticsWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final SolrClient solr = mock(SolrClient.class);
+
+    /**
+     * Ids of the documents written to Solr, in order
+     */
+    private final List<Object> writtenIds = new CopyOnWriteArrayList<>();
+
+    /**
+     * Holds the writer thread in solr.add() until released
+     */
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SolrStatisticsWriter writer;
+
+    @Before
+    public void setUp() throws Exception {
+        doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            for (SolrInputDocument document : invocation.<Collection<SolrInputDocument>>getArgument(0)) {
+                writtenIds.add(document.getFieldValue("id"));
+            }
+            return null;
+        }).when(solr).add(anyCollection());
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (writer != null) {
+            writer.shutdown(5000);
+        }
+    }
+
+    @Test
+    public void testDocumentsAreCompletedAndWritten() throws Exception {
+        release.countDown();
+        writer = new SolrStatisticsWriter(solr, 10, 2, 10, false, null,
+                                          document -> document.addField("dns", "example.org"));
+        for (int i = 0; i < 5; i++) {
+            writer.add(document(i));
+        }
+        writer.shutdown(5000);
+
+        assertEquals(List.of(0, 1, 2, 3, 4), writtenIds);
+        assertEquals(5, writer.getEnqueuedCount());
+        assertEquals(5, writer.getWrittenCount());
+        assertEquals(0, writer.getDroppedCount());
+        verify(solr, never()).commit(false, false);
+    }
+
+    @Test
+    public void testDocumentsAreDroppedWhenQueueIsFull() throws Exception {
+        writer = new SolrStatisticsWriter(solr, 1, 1, 10, false, null, document -> { });
+        writer.add(document(0));
+        // wait for the writer to take the first document, and block in solr.add()
+        waitFor(() -> writer.getQueueSize() == 0);
+        writer.add(document(1));
+        writer.add(document(2));
+
+        assertEquals(1, writer.getDroppedCount());
+        release.countDown();
+        writer.shutdown(5000);
+
+        assertEquals(List.of(0, 1), writtenIds);
+        assertEquals(2, writer.getWrittenCount());
+    }
+
+    @Test
+    public void testSpilledDocumentsAreWrittenLater() throws Exception {
+        Path spillDir = folder.newFolder("spill").toPath();
+        writer = new SolrStatisticsWriter(solr, 1, 1, 10, true, spillDir, document -> { });
+        writer.add(document(0));
+        waitFor(() -> writer.getQueueSize() == 0);
+        writer.add(document(1));
+        writer.add(document(2));
+        writer.add(document(3));
+
+        assertEquals(2, writer.getSpilledCount());
+        assertEquals(0, writer.getDroppedCount());
+        release.countDown();
+        waitFor(() -> writer.getWrittenCount() == 4);
+
+        assertEquals(List.of(0, 1, 2, 3), writtenIds);
+        verify(solr, atLeastOnce()).commit(false, false);
+        try (Stream<Path> files = Files.list(spillDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private SolrInputDocument document(int id) {
+        SolrInputDocument document = new SolrInputDocument();
+        document.addField("id", id);
+        document.addField("ip", "127.0.0.1");
+        return document;
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long end = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
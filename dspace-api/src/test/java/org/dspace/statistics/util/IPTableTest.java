@@ -11,6 +11,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.util.Set;
 
 import org.dspace.statistics.util.IPTable.IPFormatException;
@@ -113,7 +117,7 @@ public class IPTableTest {
         assertFalse("Address that was not add()ed should not match", contains);
 
         contains = instance.contains("fec0:0:0:1::2");
-        assertFalse("IPv6 address should not match anything.", contains);
+        assertFalse("IPv6 address should not match IPv4 ranges.", contains);
 
         // Now test contains() finds an IP within a range of IPs
         instance.add("192.168.1");
@@ -163,6 +167,74 @@ public class IPTableTest {
         assertFalse("Range should not contain value above upper limit", instance.contains("192.168.2.0"));
     }
 
+    @Test
+    public void testIPv6Contains() throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("2001:db8::/32");
+        instance.add("2a03:2880:f003:c07:face:b00c::2");
+        instance.add("fe80::1 - fe80::ff");
+
+        assertTrue("Range should contain lower limit", instance.contains("2001:db8::"));
+        assertTrue("Range should contain upper limit", instance.contains("2001:db8:ffff:ffff:ffff:ffff:ffff:ffff"));
+        assertTrue("Range should contain values in between limits", instance.contains("2001:db8:1:2::3"));
+        assertFalse("Range should not contain value above upper limit", instance.contains("2001:db9::"));
+        assertTrue("Address that was add()ed should match", instance.contains("2a03:2880:f003:c07:face:b00c:0:2"));
+        assertFalse("Address that was not add()ed should not match", instance.contains("2a03:2880:f003:c07::1"));
+        assertTrue("Range should contain values in between limits", instance.contains("fe80::a"));
+        assertFalse("Range should not contain value above upper limit", instance.contains("fe80::100"));
+        assertFalse("IPv4 address should not match IPv6 ranges", instance.contains(LOCALHOST));
+    }
+
+    @Test
+    public void testIPv4MappedContains() throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("192.168.1");
+
+        assertTrue(instance.contains("::ffff:192.168.1.10"));
+        assertFalse(instance.contains("::ffff:192.168.2.10"));
+    }
+
+    @Test
+    public void testOverlappingRangesContains() throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("10.0.0.0 - 10.0.0.20");
+        instance.add("10.0.0.10 - 10.0.0.30");
+        instance.add("10.0.0.31");
+        instance.add("10.0.0.40/29");
+
+        assertTrue(instance.contains("10.0.0.0"));
+        assertTrue(instance.contains("10.0.0.25"));
+        assertTrue(instance.contains("10.0.0.31"));
+        assertFalse(instance.contains("10.0.0.32"));
+        assertTrue(instance.contains("10.0.0.47"));
+        assertFalse(instance.contains("10.0.0.48"));
+        assertEquals("10.0.0.0-10.0.0.31, 10.0.0.40-10.0.0.47", instance.toString());
+    }
+
+    @Test(expected = IPFormatException.class)
+    public void testAddReversedRange() throws Exception {
+        new IPTable().add("192.168.0.245 - 192.168.0.0");
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("192.168.1");
+        instance.add("2001:db8::/32");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        instance.writeTo(new DataOutputStream(bytes));
+        IPTable copy = IPTable.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(instance.toString(), copy.toString());
+        assertTrue(copy.contains("192.168.1.1"));
+        assertTrue(copy.contains("2001:db8::1"));
+        assertFalse(copy.contains("192.168.2.1"));
+        copy.add(LOCALHOST);
+        assertTrue(copy.contains(LOCALHOST));
+        assertTrue(copy.contains("192.168.1.1"));
+    }
+
     /**
      * Test of isEmpty method, of class IPTable.
      * @throws java.lang.Exception passed through.
@@ -7,9 +7,13 @@
  */
 package org.dspace.statistics.util;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.nio.file.Files;
+
 import org.dspace.AbstractDSpaceTest;
 import org.dspace.core.factory.CoreServiceFactory;
 import org.dspace.service.ClientInfoService;
@@ -17,7 +21,9 @@ import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * @author mwood
@@ -32,6 +38,9 @@ public class SpiderDetectorServiceImplTest extends AbstractDSpaceTest {
 
     private SpiderDetectorService spiderDetectorService;
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Before
     public void init() {
         configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
@@ -323,6 +332,60 @@ public class SpiderDetectorServiceImplTest extends AbstractDSpaceTest {
     }
 
 
+    /**
+     * Test that the spider IP addresses are saved once parsed, and read back instead of parsed again
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testSpiderIpSnapshot() throws Exception {
+        File snapshot = new File(tempFolder.getRoot(), "iptable.bin");
+        configurationService.setProperty("usage-statistics.bots.ip-snapshot", snapshot.getPath());
+        spiderDetectorService = new SpiderDetectorServiceImpl(configurationService, clientInfoService);
+
+        assertTrue("192.168.2.1 didn't match the spider IP addresses",
+                   spiderDetectorService.isSpider("192.168.2.1"));
+        assertFalse(NOT_A_BOT_ADDRESS + " matched the spider IP addresses",
+                    spiderDetectorService.isSpider(NOT_A_BOT_ADDRESS));
+        assertTrue("The spider IP addresses were not saved", snapshot.isFile());
+        String parsed = spiderDetectorService.getTable().toString();
+        long saved = snapshot.lastModified();
+
+        // a new service reads the saved addresses
+        spiderDetectorService = new SpiderDetectorServiceImpl(configurationService, clientInfoService);
+        assertTrue("192.168.2.1 didn't match the saved spider IP addresses",
+                   spiderDetectorService.isSpider("192.168.2.1"));
+        assertEquals(parsed, spiderDetectorService.getTable().toString());
+        assertEquals("The saved spider IP addresses were written again", saved, snapshot.lastModified());
+    }
+
+    /**
+     * Test that the spider IP addresses are not saved when a host name could not be resolved, so that it is resolved
+     * again at the next startup
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testSpiderIpSnapshotNotWrittenWhenHostNameUnresolved() throws Exception {
+        File dspaceDir = tempFolder.newFolder("dspace");
+        File spidersDir = new File(dspaceDir, "config/spiders");
+        assertTrue(spidersDir.mkdirs());
+        Files.writeString(new File(spidersDir, "hosts.txt").toPath(), "192.168.2.1\nunresolvable.invalid\n");
+        File snapshot = new File(tempFolder.getRoot(), "iptable.bin");
+        String originalDspaceDir = configurationService.getProperty("dspace.dir");
+        configurationService.setProperty("usage-statistics.bots.ip-snapshot", snapshot.getPath());
+        configurationService.setProperty("dspace.dir", dspaceDir.getPath());
+        try {
+            spiderDetectorService = new SpiderDetectorServiceImpl(configurationService, clientInfoService);
+
+            assertTrue("192.168.2.1 didn't match the spider IP addresses",
+                       spiderDetectorService.isSpider("192.168.2.1"));
+            assertFalse("The spider IP addresses were saved without the unresolved host name", snapshot.exists());
+        } finally {
+            configurationService.setProperty("dspace.dir", originalDspaceDir);
+        }
+    }
+
     /**
      * Method to make sure the SpiderDetector is using CaseSensitive matching again after each test
      *
@@ -332,5 +395,6 @@ public class SpiderDetectorServiceImplTest extends AbstractDSpaceTest {
     public void cleanup() throws Exception {
         spiderDetectorService = null;
         configurationService.setProperty("usage-statistics.bots.case-insensitive", false);
+        configurationService.setProperty("usage-statistics.bots.ip-snapshot", null);
     }
 }
@@ -0,0 +1,132 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SpiderPatternMatcher}
+ */
+public class SpiderPatternMatcherTest {
+
+    private static final List<String> PATTERNS = List.of(
+        "bot",
+        "ia_archiver",
+        "www\\.almaden\\.ibm\\.com",
+        "^Buck\\/[0-9]",
+        "Yeti\\/\\d",
+        "^Mozilla$",
+        "link.?check",
+        "Teleport(\\s|\\+)Pro",
+        "(a)\\1b"
+    );
+
+    @Test
+    public void testLiterals() {
+        SpiderPatternMatcher matcher = new SpiderPatternMatcher(PATTERNS, 0);
+
+        assertTrue(matcher.matches("Mozilla/5.0 (compatible; Googlebot/2.1)"));
+        assertTrue(matcher.matches("ia_archiver"));
+        assertTrue(matcher.matches("http://www.almaden.ibm.com/cs/crawler"));
+        assertFalse(matcher.matches("http://wwwxalmaden.ibm.com/cs/crawler"));
+        assertFalse(matcher.matches("Mozilla/5.0 (X11; Linux x86_64) Firefox/91.0"));
+    }
+
+    @Test
+    public void testRegularExpressions() {
+        SpiderPatternMatcher matcher = new SpiderPatternMatcher(PATTERNS, 0);
+
+        assertTrue(matcher.matches("Buck/2.1"));
+        assertFalse(matcher.matches("Bucky Buck/2.1"));
+        assertTrue(matcher.matches("Yeti/1.0"));
+        assertFalse(matcher.matches("Yeti/x"));
+        assertTrue(matcher.matches("Mozilla"));
+        assertFalse(matcher.matches("Mozilla/4.0"));
+        assertTrue(matcher.matches("W3C-linkcheck"));
+        assertTrue(matcher.matches("link-check"));
+        assertTrue(matcher.matches("Teleport+Pro"));
+        assertFalse(matcher.matches("Teleport-Professional"));
+        assertTrue(matcher.matches("xaab"));
+        assertFalse(matcher.matches("xab"));
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    public void testCachedVerdicts() {
+        SpiderPatternMatcher matcher = new SpiderPatternMatcher(PATTERNS, 2);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(matcher.matches("Googlebot"));
+            assertFalse(matcher.matches("Firefox"));
+            assertTrue(matcher.matches("Yeti/1"));
+        }
+        assertEquals(PATTERNS.size(), matcher.size());
+    }
+
+    @Test
+    public void testNoPatterns() {
+        SpiderPatternMatcher matcher = new SpiderPatternMatcher(List.of(), 10);
+
+        assertFalse(matcher.matches("Googlebot"));
+        assertFalse(matcher.matches(""));
+    }
+
+    @Test
+    public void testEmptyPatternMatchesAll() {
+        SpiderPatternMatcher matcher = new SpiderPatternMatcher(List.of("bot", ""), 10);
+
+        assertTrue(matcher.matches("Firefox"));
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void testInvalidPattern() {
+        new SpiderPatternMatcher(List.of("bot", "(unclosed"), 10);
+    }
+
+    @Test
+    public void testLiteralsAndPrefilters() {
+        assertEquals("www.almaden.ibm.com", SpiderPatternMatcher.toLiteral("www\\.almaden\\.ibm\\.com"));
+        assertNull(SpiderPatternMatcher.toLiteral("Yeti\\/\\d"));
+        assertNull(SpiderPatternMatcher.toPrefilter("Yeti\\/\\d"));
+        assertEquals("Yeti/", SpiderPatternMatcher.toPrefilter("Yeti\\/[0-9]"));
+        assertEquals("Buck/", SpiderPatternMatcher.toPrefilter("^Buck\\/[0-9]"));
+        assertEquals("check", SpiderPatternMatcher.toPrefilter("link.?check"));
+        assertEquals("Teleport", SpiderPatternMatcher.toPrefilter("Teleport(\\s|\\+)Pro"));
+        assertEquals("lin", SpiderPatternMatcher.toPrefilter("link?"));
+        assertNull(SpiderPatternMatcher.toPrefilter("Yeti|Buck"));
+        assertNull(SpiderPatternMatcher.toPrefilter("(?i)googlebot"));
+        assertNull(SpiderPatternMatcher.toPrefilter("^.?$"));
+    }
+
+    @Test
+    public void testEscapesWithoutPrefilter() {
+        // the characters after these escapes are not literal text of the matches
+        assertNull(SpiderPatternMatcher.toPrefilter("\\x41bot"));
+        assertNull(SpiderPatternMatcher.toPrefilter("\\u0041bot"));
+        assertNull(SpiderPatternMatcher.toPrefilter("\\0101bot"));
+        assertNull(SpiderPatternMatcher.toPrefilter("\\cAbot"));
+        assertNull(SpiderPatternMatcher.toPrefilter("\\Qbot\\E"));
+        assertNull(SpiderPatternMatcher.toPrefilter("bot\\"));
+
+        SpiderPatternMatcher matcher = new SpiderPatternMatcher(
+            List.of("^\\x41bot", "^\\u0042bot", "^\\0103bot", "^\\cAbot"), 0);
+        assertTrue(matcher.matches("Abot/1.0"));
+        assertTrue(matcher.matches("Bbot/1.0"));
+        assertTrue(matcher.matches("Cbot/1.0"));
+        assertTrue(matcher.matches("\u0001bot/1.0"));
+        assertFalse(matcher.matches("41bot/1.0"));
+    }
+}
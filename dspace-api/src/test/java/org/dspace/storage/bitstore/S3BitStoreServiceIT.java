@@ -17,6 +17,7 @@ import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -37,9 +38,11 @@ import com.amazonaws.auth.AnonymousAWSCredentials;
 import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.Headers;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.Bucket;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.SSEAlgorithm;
 import io.findify.s3mock.S3Mock;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -218,6 +221,26 @@ public class S3BitStoreServiceIT extends AbstractIntegrationTestWithDatabase {
 
     }
 
+    @Test
+    public void testBitstreamGetRange() throws IOException {
+
+        s3BitStoreService.init();
+        // the range spans several chunks
+        s3BitStoreService.setBufferSize(4);
+
+        context.turnOffAuthorisationSystem();
+        String content = "Test bitstream content";
+        Bitstream bitstream = createBitstream(content);
+        context.restoreAuthSystemState();
+
+        s3BitStoreService.put(bitstream, toInputStream(content));
+
+        assertThat(IOUtils.toString(s3BitStoreService.get(bitstream, 5, 9), UTF_8), is("bitstream"));
+        assertThat(IOUtils.toString(s3BitStoreService.get(bitstream, 15, 100), UTF_8), is("content"));
+        assertThat(IOUtils.toString(s3BitStoreService.get(bitstream, 22, 10), UTF_8), is(""));
+
+    }
+
     @Test
     public void testBitstreamDeletion() throws IOException {
 
@@ -281,6 +304,66 @@ public class S3BitStoreServiceIT extends AbstractIntegrationTestWithDatabase {
 
     }
 
+    @Test
+    public void testAboutWithServerSideChecksum() throws IOException {
+
+        s3BitStoreService.setServerSideChecksum(true);
+        s3BitStoreService.init();
+
+        context.turnOffAuthorisationSystem();
+        String content = "Test bitstream content";
+        Bitstream bitstream = createBitstream(content);
+        context.restoreAuthSystemState();
+
+        s3BitStoreService.put(bitstream, toInputStream(content));
+
+        String expectedChecksum = Utils.toHex(generateChecksum(content));
+        Map<String, Object> about = s3BitStoreService.about(bitstream, List.of("checksum", "checksum_algorithm"));
+        assertThat(about, hasEntry("checksum", expectedChecksum));
+        assertThat(about, hasEntry("checksum_algorithm", CSA));
+
+        // the ETag is computed by S3 from the stored content, so a changed object is detected without downloading it
+        String key = s3BitStoreService.getFullKey(bitstream.getInternalId());
+        String changedContent = "Changed bitstream content";
+        ObjectMetadata changedMetadata = new ObjectMetadata();
+        changedMetadata.setContentLength(changedContent.length());
+        amazonS3Client.putObject(DEFAULT_BUCKET_NAME, key, toInputStream(changedContent), changedMetadata);
+
+        about = s3BitStoreService.about(bitstream, List.of("checksum"));
+        assertThat(about, hasEntry("checksum", Utils.toHex(generateChecksum(changedContent))));
+        assertThat(about.get("checksum"), Matchers.not(bitstream.getChecksum()));
+    }
+
+    @Test
+    public void testServerSideChecksumIsOnlyTheETagOfSinglePartUnencryptedObjects() {
+
+        String checksum = "0123456789abcdef0123456789abcdef";
+        ObjectMetadata objectMetadata = new ObjectMetadata();
+        objectMetadata.setHeader(Headers.ETAG, "\"" + checksum.toUpperCase() + "\"");
+        assertThat(s3BitStoreService.getServerSideChecksum(objectMetadata), nullValue());
+
+        s3BitStoreService.setServerSideChecksum(true);
+        assertThat(s3BitStoreService.getServerSideChecksum(objectMetadata), is(checksum));
+
+        // the ETag of a multipart upload is not the MD5 digest of the content
+        ObjectMetadata multipartMetadata = new ObjectMetadata();
+        multipartMetadata.setHeader(Headers.ETAG, checksum + "-2");
+        assertThat(s3BitStoreService.getServerSideChecksum(multipartMetadata), nullValue());
+
+        // neither is the ETag of an object encrypted with a KMS or customer provided key
+        ObjectMetadata kmsMetadata = objectMetadata.clone();
+        kmsMetadata.setSSEAlgorithm(SSEAlgorithm.KMS.getAlgorithm());
+        assertThat(s3BitStoreService.getServerSideChecksum(kmsMetadata), nullValue());
+        ObjectMetadata customerKeyMetadata = objectMetadata.clone();
+        customerKeyMetadata.setSSECustomerAlgorithm(SSEAlgorithm.AES256.getAlgorithm());
+        assertThat(s3BitStoreService.getServerSideChecksum(customerKeyMetadata), nullValue());
+
+        // objects encrypted with S3 managed keys have the MD5 digest as ETag
+        ObjectMetadata s3EncryptedMetadata = objectMetadata.clone();
+        s3EncryptedMetadata.setSSEAlgorithm(SSEAlgorithm.AES256.getAlgorithm());
+        assertThat(s3BitStoreService.getServerSideChecksum(s3EncryptedMetadata), is(checksum));
+    }
+
     @Test
     public void handleRegisteredIdentifierPrefixInS3() {
         String trueBitStreamId = "012345";
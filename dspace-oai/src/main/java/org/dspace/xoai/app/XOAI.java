@@ -15,8 +15,13 @@ import static org.apache.solr.common.params.CursorMarkParams.CURSOR_MARK_START;
 import static org.dspace.xoai.util.ItemUtils.retrieveMetadata;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -24,10 +29,20 @@ import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.xml.stream.XMLStreamException;
 
 import com.lyncode.xoai.dataprovider.exceptions.ConfigurationException;
@@ -85,11 +100,25 @@ import org.springframework.context.annotation.AnnotationConfigApplicationContext
 public class XOAI {
     private static Logger log = LogManager.getLogger(XOAI.class);
 
+    private final static ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
+            .getConfigurationService();
+
     // needed because the solr query only returns 10 rows by default
     private final Context context;
     private final boolean verbose;
     private boolean clean;
 
+    // number of threads building the documents of the items, see indexInParallel
+    private int threads = configurationService.getIntProperty("oai.import.threads", 1);
+
+    // ids of the items indexed by an interrupted full import, which are not indexed again when it is resumed
+    private Set<UUID> resumedItemIds = Collections.emptySet();
+    // start of the interrupted full import, the items modified since are indexed again
+    private Instant resumedStart;
+
+    private static final UUID END_OF_ITEMS = new UUID(0L, 0L);
+    private static final SolrInputDocument END_OF_DOCUMENTS = new SolrInputDocument();
+
     @Autowired
     private SolrServerResolver solrServerResolver;
     @Autowired
@@ -102,12 +131,9 @@ public class XOAI {
     private final AuthorizeService authorizeService;
     private final ItemService itemService;
 
-    private final static ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
-            .getConfigurationService();
-
     private List<XOAIExtensionItemCompilePlugin> extensionPlugins;
 
-    private List<String> getFileFormats(Item item) {
+    private List<String> getFileFormats(Context context, Item item) {
         List<String> formats = new ArrayList<>();
         try {
             for (Bundle b : itemService.getBundles(item, "ORIGINAL")) {
@@ -150,12 +176,32 @@ public class XOAI {
         System.out.println(line);
     }
 
+    /**
+     * Set the number of threads building the documents of the items. With more than one thread, the documents are
+     * built by workers with their own Context, and added to Solr by another thread. Defaults to oai.import.threads.
+     *
+     * @param threads the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(threads, 1);
+    }
+
     public int index() throws DSpaceSolrIndexerException {
         int result = 0;
         try {
-
-            if (clean) {
+            Path checkpoint = getCheckpoint();
+            // a clean import starts over, even if a full import was interrupted
+            Instant interrupted = clean ? null : readCheckpoint(checkpoint);
+
+            if (interrupted != null) {
+                System.out.println("Resuming the full import started at " + interrupted);
+                resumedItemIds = getIndexedItemIds();
+                resumedStart = interrupted;
+                System.out.println(resumedItemIds.size() + " items were already imported.");
+                result = this.indexAll();
+            } else if (clean) {
                 clearIndex();
+                writeCheckpoint(checkpoint);
                 System.out.println("Using full import.");
                 result = this.indexAll();
             } else {
@@ -165,6 +211,7 @@ public class XOAI {
                 SolrDocumentList results = DSpaceSolrSearch.query(solrServerResolver.getServer(), solrParams);
                 if (results.getNumFound() == 0) {
                     System.out.println("There are no indexed documents, using full import.");
+                    writeCheckpoint(checkpoint);
                     result = this.indexAll();
                 } else {
                     result = this.index(((java.util.Date) results.get(0).getFieldValue("item.lastmodified"))
@@ -173,6 +220,7 @@ public class XOAI {
 
             }
             solrServerResolver.getServer().commit();
+            Files.deleteIfExists(checkpoint);
 
             // Set last compilation date
             xoaiLastCompilationCacheService.put(Instant.now());
@@ -272,6 +320,73 @@ public class XOAI {
         }
     }
 
+    /**
+     * The checkpoint of a full import is a file holding the time the import started. It is created once the index
+     * is cleared, and deleted once all items are imported, so that an interrupted full import is resumed by the next
+     * import which does not clear the index. As the documents are committed to Solr in batches of
+     * oai.import.batch.size, the resumed import only indexes the items which were not committed yet, or which were
+     * modified since the interrupted import started.
+     *
+     * @return the path of the checkpoint file, oai.import.checkpoint
+     */
+    private Path getCheckpoint() {
+        return Paths.get(configurationService.getProperty("oai.import.checkpoint",
+            configurationService.getProperty("oai.cache.dir") + File.separator + "import.checkpoint"));
+    }
+
+    private Instant readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return null;
+        }
+        return Instant.parse(Files.readString(checkpoint, StandardCharsets.UTF_8).trim());
+    }
+
+    private void writeCheckpoint(Path checkpoint) throws IOException {
+        Files.createDirectories(checkpoint.toAbsolutePath().getParent());
+        Files.writeString(checkpoint, Instant.now().toString(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the ids of all items in the index, using solr cursors to paginate.
+     *
+     * @return the ids of the indexed items
+     */
+    private Set<UUID> getIndexedItemIds() throws DSpaceSolrIndexerException {
+        try {
+            SolrQuery params = new SolrQuery("*:*").addField("item.id").setRows(1000)
+                    .addSort("item.handle", SolrQuery.ORDER.asc);
+            SolrClient solrClient = solrServerResolver.getServer();
+
+            Set<UUID> ids = new HashSet<>();
+            boolean done = false;
+            String cursorMark = CURSOR_MARK_START;
+            while (!done) {
+                params.set(CURSOR_MARK_PARAM, cursorMark);
+                QueryResponse response = solrClient.query(params);
+                for (SolrDocument document : response.getResults()) {
+                    ids.add(UUID.fromString((String) document.getFieldValue("item.id")));
+                }
+                String nextCursorMark = response.getNextCursorMark();
+                done = cursorMark.equals(nextCursorMark);
+                cursorMark = nextCursorMark;
+            }
+            return ids;
+        } catch (SolrServerException | IOException ex) {
+            throw new DSpaceSolrIndexerException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Check if an item was imported by the interrupted full import being resumed, and was not modified since.
+     *
+     * @param item an item
+     * @return whether the item does not need to be indexed again
+     */
+    private boolean isResumed(Item item) {
+        return resumedItemIds.contains(item.getID()) && nonNull(item.getLastModified())
+                && item.getLastModified().isBefore(resumedStart);
+    }
+
     /**
      * Check if an item is already indexed. Using this, it is possible to check if
      * withdrawn or nondiscoverable items have to be indexed at all.
@@ -310,6 +425,9 @@ public class XOAI {
     }
 
     private int index(Iterator<Item> iterator) throws DSpaceSolrIndexerException {
+        if (threads > 1) {
+            return indexInParallel(iterator);
+        }
         try {
             int i = 0;
             int batchSize = configurationService.getIntProperty("oai.import.batch.size", 1000);
@@ -318,10 +436,14 @@ public class XOAI {
             while (iterator.hasNext()) {
                 try {
                     Item item = iterator.next();
+                    if (isResumed(item)) {
+                        context.uncacheEntity(item);
+                        continue;
+                    }
                     if (item.getHandle() == null) {
                         log.warn("Skipped item without handle: " + item.getID());
                     } else {
-                        list.add(this.index(item));
+                        list.add(this.index(context, item));
                     }
                     // Uncache the item to keep memory consumption low
                     context.uncacheEntity(item);
@@ -359,16 +481,170 @@ public class XOAI {
         }
     }
 
+    /**
+     * Index the items with several workers, each building the documents of the items with its own Context, while
+     * another thread adds the documents to Solr, committing them in batches of oai.import.batch.size. The ids of the
+     * items are read in this thread, and handed to the workers through a bounded queue, as are the documents to the
+     * writer, so that neither the items nor the documents pile up in memory.
+     *
+     * @param iterator the items to index
+     * @return the number of items
+     * @throws DSpaceSolrIndexerException if the documents could not be added to Solr
+     */
+    private int indexInParallel(Iterator<Item> iterator) throws DSpaceSolrIndexerException {
+        int batchSize = configurationService.getIntProperty("oai.import.batch.size", 1000);
+        BlockingQueue<UUID> itemIds = new ArrayBlockingQueue<>(threads * 100);
+        BlockingQueue<SolrInputDocument> documents = new ArrayBlockingQueue<>(Math.max(batchSize, threads * 100));
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        List<Future<?>> tasks = new ArrayList<>();
+        int i = 0;
+        try {
+            for (int t = 0; t < threads; t++) {
+                tasks.add(executor.submit(() -> {
+                    try {
+                        runWorker(itemIds, documents, stop);
+                    } catch (Exception e) {
+                        stop.set(true);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            tasks.add(executor.submit(() -> {
+                try {
+                    writeDocuments(documents, batchSize, stop);
+                } catch (Exception e) {
+                    stop.set(true);
+                    throw e;
+                }
+                return null;
+            }));
+
+            while (iterator.hasNext() && !stop.get()) {
+                Item item = iterator.next();
+                if (!isResumed(item)) {
+                    offer(itemIds, item.getID(), stop);
+                    i++;
+                }
+                // Uncache the item to keep memory consumption low
+                context.uncacheEntity(item);
+            }
+            // one end marker per worker
+            for (int t = 0; t < threads; t++) {
+                offer(itemIds, END_OF_ITEMS, stop);
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DSpaceSolrIndexerException("Interrupted while indexing", ex);
+        } catch (ExecutionException ex) {
+            throw new DSpaceSolrIndexerException(ex.getCause().getMessage(), ex.getCause());
+        } catch (SQLException ex) {
+            throw new DSpaceSolrIndexerException(ex.getMessage(), ex);
+        } finally {
+            stop.set(true);
+            executor.shutdownNow();
+        }
+        System.out.println("Total: " + i + " items");
+        return i;
+    }
+
+    /**
+     * Build the documents of the queued items with a new Context, in a worker thread of {@link #indexInParallel}.
+     */
+    private void runWorker(BlockingQueue<UUID> itemIds, BlockingQueue<SolrInputDocument> documents,
+                           AtomicBoolean stop) throws SQLException, InterruptedException {
+        Context workerContext = new Context(Context.Mode.READ_ONLY);
+        try {
+            while (!stop.get()) {
+                UUID itemId = itemIds.poll(1, TimeUnit.SECONDS);
+                if (itemId == null) {
+                    continue;
+                }
+                if (END_OF_ITEMS.equals(itemId)) {
+                    break;
+                }
+                Item item = itemService.find(workerContext, itemId);
+                if (item == null) {
+                    continue;
+                }
+                if (item.getHandle() == null) {
+                    log.warn("Skipped item without handle: " + item.getID());
+                } else {
+                    try {
+                        offer(documents, this.index(workerContext, item), stop);
+                    } catch (SQLException | IOException | XMLStreamException | WritingXmlException ex) {
+                        log.error(ex.getMessage(), ex);
+                    }
+                }
+                workerContext.uncacheEntities();
+            }
+            offer(documents, END_OF_DOCUMENTS, stop);
+            workerContext.complete();
+        } finally {
+            if (workerContext.isValid()) {
+                workerContext.abort();
+            }
+        }
+    }
+
+    /**
+     * Add the documents built by the workers to Solr, in the writer thread of {@link #indexInParallel}, until all
+     * workers are done.
+     */
+    private void writeDocuments(BlockingQueue<SolrInputDocument> documents, int batchSize, AtomicBoolean stop)
+        throws SolrServerException, IOException, InterruptedException {
+        SolrClient server = solrServerResolver.getServer();
+        List<SolrInputDocument> list = new ArrayList<>();
+        int written = 0;
+        int doneWorkers = 0;
+        while (doneWorkers < threads && !stop.get()) {
+            SolrInputDocument doc = documents.poll(1, TimeUnit.SECONDS);
+            if (doc == null) {
+                continue;
+            }
+            if (doc == END_OF_DOCUMENTS) {
+                doneWorkers++;
+                continue;
+            }
+            list.add(doc);
+            if (list.size() >= batchSize) {
+                server.add(list);
+                server.commit();
+                written += list.size();
+                list.clear();
+                System.out.println(written + " items imported so far...");
+            }
+        }
+        if (doneWorkers == threads) {
+            if (!list.isEmpty()) {
+                server.add(list);
+            }
+            server.commit(true, true);
+        }
+    }
+
+    private static <T> void offer(BlockingQueue<T> queue, T element, AtomicBoolean stop)
+        throws InterruptedException {
+        while (!stop.get() && !queue.offer(element, 1, TimeUnit.SECONDS)) {
+            // wait for the consumers
+        }
+    }
+
     /**
      * Method to get the most recent date on which the item changed concerning the
      * OAI deleted status (policy start and end dates for all anonymous READ
      * policies and the standard last modification date)
      *
+     * @param context the context to read the policies with
      * @param item Item
      * @return date
      * @throws SQLException
      */
-    private Instant getMostRecentModificationDate(Item item) throws SQLException {
+    private Instant getMostRecentModificationDate(Context context, Item item) throws SQLException {
         List<Instant> dates = new LinkedList<>();
         List<ResourcePolicy> policies = authorizeService.getPoliciesActionFilter(context, item, Constants.READ);
         for (ResourcePolicy policy : policies) {
@@ -394,7 +670,7 @@ public class XOAI {
         return lastChange;
     }
 
-    private SolrInputDocument index(Item item)
+    private SolrInputDocument index(Context context, Item item)
             throws SQLException, IOException, XMLStreamException, WritingXmlException {
         SolrInputDocument doc = new SolrInputDocument();
         doc.addField("item.id", item.getID().toString());
@@ -402,7 +678,7 @@ public class XOAI {
         String handle = item.getHandle();
         doc.addField("item.handle", handle);
 
-        boolean isEmbargoed = !this.isPublic(item);
+        boolean isEmbargoed = !this.isPublic(context, item);
         boolean isCurrentlyVisible = this.checkIfVisibleInOAI(item);
         boolean isIndexed = this.checkIfIndexed(item);
 
@@ -425,7 +701,7 @@ public class XOAI {
         // if the visibility of the item will change in the future due to an
         // embargo, mark it as such.
 
-        doc.addField("item.willChangeStatus", willChangeStatus(item));
+        doc.addField("item.willChangeStatus", willChangeStatus(context, item));
 
         /*
          * Mark an item as deleted not only if it is withdrawn, but also if it is made
@@ -446,7 +722,7 @@ public class XOAI {
          * date and take the most recent of those which have already passed.
          */
         doc.addField("item.lastmodified",
-                SolrUtils.getDateFormatter().format(this.getMostRecentModificationDate(item)));
+                SolrUtils.getDateFormatter().format(this.getMostRecentModificationDate(context, item)));
 
         if (item.getSubmitter() != null) {
             doc.addField("item.submitter", item.getSubmitter().getEmail());
@@ -483,7 +759,7 @@ public class XOAI {
             }
         }
 
-        for (String f : getFileFormats(item)) {
+        for (String f : getFileFormats(context, item)) {
             doc.addField("metadata.dc.format.mimetype", f);
         }
 
@@ -513,7 +789,7 @@ public class XOAI {
         return doc;
     }
 
-    private boolean willChangeStatus(Item item) throws SQLException {
+    private boolean willChangeStatus(Context context, Item item) throws SQLException {
         List<ResourcePolicy> policies = authorizeService.getPoliciesActionFilter(context, item, Constants.READ);
         for (ResourcePolicy policy : policies) {
             if ((policy.getGroup() != null) && (policy.getGroup().getName().equals("Anonymous"))) {
@@ -529,7 +805,7 @@ public class XOAI {
         return false;
     }
 
-    private boolean isPublic(Item item) {
+    private boolean isPublic(Context context, Item item) {
         boolean pub = false;
         try {
             // Check if READ access allowed on this Item
@@ -600,6 +876,7 @@ public class XOAI {
             options.addOption("v", "verbose", false, "Verbose output");
             options.addOption("h", "help", false, "Shows some help");
             options.addOption("n", "number", true, "FOR DEVELOPMENT MUST DELETE");
+            options.addOption("t", "threads", true, "Number of threads indexing the items");
             CommandLine line = parser.parse(options, argv);
 
             String[] validSolrCommands = { COMMAND_IMPORT, COMMAND_CLEAN_CACHE };
@@ -622,7 +899,12 @@ public class XOAI {
                 }
             }
 
-            if (!line.hasOption('h') && run) {
+            boolean validThreads = !line.hasOption('t') || parseThreads(line.getOptionValue('t')) > 0;
+            if (!validThreads) {
+                System.out.println("The number of threads must be a positive integer: " + line.getOptionValue('t'));
+            }
+
+            if (!line.hasOption('h') && run && validThreads) {
                 System.out.println("OAI 2.0 manager action started");
                 long start = Instant.now().toEpochMilli();
 
@@ -631,6 +913,9 @@ public class XOAI {
                 if (COMMAND_IMPORT.equals(command)) {
                     ctx = new Context(Context.Mode.READ_ONLY);
                     XOAI indexer = new XOAI(ctx, line.hasOption('c'), line.hasOption('v'));
+                    if (line.hasOption('t')) {
+                        indexer.setThreads(parseThreads(line.getOptionValue('t')));
+                    }
 
                     applicationContext.getAutowireCapableBeanFactory().autowireBean(indexer);
 
@@ -672,6 +957,20 @@ public class XOAI {
         }
     }
 
+    /**
+     * Parse the value of the threads option.
+     *
+     * @param value the value of the option
+     * @return the number of threads, or 0 if the value is not a positive integer
+     */
+    private static int parseThreads(String value) {
+        try {
+            return Math.max(Integer.parseInt(value.trim()), 0);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     private static void cleanCompiledItems(XOAIItemCacheService itemCacheService) throws IOException {
         System.out.println("Purging compiled items");
         itemCacheService.deleteAll();
@@ -717,6 +1016,7 @@ public class XOAI {
             System.out.println("     " + COMMAND_CLEAN_CACHE + " - Cleans the OAI cached responses");
             System.out.println("> Parameters:");
             System.out.println("     -c Clear index (" + COMMAND_IMPORT + " only)");
+            System.out.println("     -t <threads> Number of threads indexing the items (" + COMMAND_IMPORT + " only)");
             System.out.println("     -v Verbose output");
             System.out.println("     -h Shows this text");
         } else {
@@ -11,6 +11,7 @@ import static org.dspace.app.rest.utils.ContextUtil.obtainContext;
 import static org.dspace.app.rest.utils.RegexUtils.REGEX_REQUESTMAPPING_IDENTIFIER_AS_UUID;
 import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 
+import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
@@ -19,6 +20,7 @@ import java.util.UUID;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.ws.rs.core.Response;
+import org.apache.catalina.Globals;
 import org.apache.catalina.connector.ClientAbortException;
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -232,6 +234,17 @@ public class BitstreamRestController {
                     return ResponseEntity.ok().headers(httpHeaders).build();
                 }
 
+                File file = getSendfile(request, bitstreamResource);
+                if (file != null) {
+                    // The container sends the file itself once the response is committed, without copying it
+                    // through the response stream
+                    log.debug("Sending {} with sendfile", file);
+                    request.setAttribute(Globals.SENDFILE_FILENAME_ATTR, file.getAbsolutePath());
+                    request.setAttribute(Globals.SENDFILE_FILE_START_ATTR, 0L);
+                    request.setAttribute(Globals.SENDFILE_FILE_END_ATTR, file.length());
+                    return ResponseEntity.ok().headers(httpHeaders).build();
+                }
+
                 return ResponseEntity.ok().headers(httpHeaders).body(bitstreamResource);
             }
 
@@ -244,6 +257,34 @@ public class BitstreamRestController {
         return null;
     }
 
+    /**
+     * Get the local file of the bitstream to send with the sendfile support of the servlet container, which is used
+     * if it is enabled with webui.content_sendfile.enabled, supported by the container, and the bitstream is stored
+     * in a local file at least webui.content_sendfile.threshold bytes long. Range requests and cover pages are sent
+     * through the response stream.
+     *
+     * @param request           the request
+     * @param bitstreamResource the resource of the bitstream
+     * @return the file, or null if the bitstream has to be sent through the response stream
+     * @throws IOException if the file could not be located
+     */
+    private File getSendfile(HttpServletRequest request,
+                             org.dspace.app.rest.utils.BitstreamResource bitstreamResource) throws IOException {
+        if (!configurationService.getBooleanProperty("webui.content_sendfile.enabled", true)
+                || !Boolean.TRUE.equals(request.getAttribute(Globals.SENDFILE_SUPPORTED_ATTR))
+                || StringUtils.isNotBlank(request.getHeader("Range"))
+                || bitstreamResource.contentLength()
+                    < configurationService.getLongProperty("webui.content_sendfile.threshold", 49152)) {
+            return null;
+        }
+        File file = bitstreamResource.getLocalFile();
+        // the Content-Length header was set from the bitstream size
+        if (file == null || file.length() != bitstreamResource.contentLength()) {
+            return null;
+        }
+        return file;
+    }
+
     /**
      * Get the name for attachment disposition headers
      * @param bit bitstream
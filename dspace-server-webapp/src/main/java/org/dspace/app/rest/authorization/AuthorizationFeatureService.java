@@ -9,6 +9,7 @@ package org.dspace.app.rest.authorization;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 
 import org.dspace.app.rest.model.BaseObjectRest;
 import org.dspace.app.rest.model.SiteRest;
@@ -38,6 +39,23 @@ public interface AuthorizationFeatureService {
     boolean isAuthorized(Context context, AuthorizationFeature feature, BaseObjectRest object)
         throws SQLException, SearchServiceException;
 
+    /**
+     * Check many features for many objects at once, for the eperson in the provided context or the anonymous user.
+     * The groups of the user, whether they are an administrator and the policies of the objects are loaded once and
+     * shared by all the checks, instead of being queried again for each object and feature.
+     *
+     * @param context
+     *            the DSpace Context
+     * @param objects
+     *            the objects target by the features
+     * @param features
+     *            the Authorization Features to check, or an empty list to check all the features supported by each
+     *            object
+     * @return the features the user has access to for each object, in the order of the objects
+     */
+    Map<BaseObjectRest, List<AuthorizationFeature>> findAuthorizedFeatures(Context context,
+        List<BaseObjectRest> objects, List<AuthorizationFeature> features) throws SQLException, SearchServiceException;
+
     /**
      * Get all the authorization features defined in the system
      *
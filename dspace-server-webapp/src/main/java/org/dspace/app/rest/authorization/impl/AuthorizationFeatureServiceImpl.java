@@ -8,7 +8,10 @@
 package org.dspace.app.rest.authorization.impl;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -16,7 +19,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.dspace.app.rest.authorization.AuthorizationFeature;
 import org.dspace.app.rest.authorization.AuthorizationFeatureService;
 import org.dspace.app.rest.model.BaseObjectRest;
+import org.dspace.app.rest.model.DSpaceObjectRest;
 import org.dspace.app.rest.utils.Utils;
+import org.dspace.authorize.AuthorizationSnapshot;
+import org.dspace.authorize.service.AuthorizeService;
+import org.dspace.content.DSpaceObject;
 import org.dspace.core.Context;
 import org.dspace.discovery.SearchServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +44,9 @@ public class AuthorizationFeatureServiceImpl implements AuthorizationFeatureServ
     @Autowired
     private Utils utils;
 
+    @Autowired
+    private AuthorizeService authorizeService;
+
     @Override
     public boolean isAuthorized(Context context, AuthorizationFeature feature, BaseObjectRest object)
         throws SQLException, SearchServiceException {
@@ -53,6 +63,40 @@ public class AuthorizationFeatureServiceImpl implements AuthorizationFeatureServ
         return feature.isAuthorized(context, object);
     }
 
+    @Override
+    public Map<BaseObjectRest, List<AuthorizationFeature>> findAuthorizedFeatures(Context context,
+        List<BaseObjectRest> objects, List<AuthorizationFeature> features) throws SQLException, SearchServiceException {
+        List<DSpaceObject> dSpaceObjects = new ArrayList<>();
+        for (BaseObjectRest object : objects) {
+            if (object instanceof DSpaceObjectRest) {
+                dSpaceObjects.add((DSpaceObject) utils.getDSpaceAPIObjectFromRest(context, object));
+            }
+        }
+
+        Map<BaseObjectRest, List<AuthorizationFeature>> authorizedFeatures = new LinkedHashMap<>();
+        AuthorizationSnapshot previousSnapshot = context.getAuthorizationSnapshot();
+        context.setAuthorizationSnapshot(authorizeService.loadAuthorizationSnapshot(context, dSpaceObjects));
+        try {
+            for (BaseObjectRest object : objects) {
+                if (object == null) {
+                    continue;
+                }
+                List<AuthorizationFeature> authorized = new ArrayList<>();
+                List<AuthorizationFeature> candidates =
+                    features.isEmpty() ? findByResourceType(object.getUniqueType()) : features;
+                for (AuthorizationFeature feature : candidates) {
+                    if (isAuthorized(context, feature, object)) {
+                        authorized.add(feature);
+                    }
+                }
+                authorizedFeatures.put(object, authorized);
+            }
+        } finally {
+            context.setAuthorizationSnapshot(previousSnapshot);
+        }
+        return authorizedFeatures;
+    }
+
     @Override
     public List<AuthorizationFeature> findAll() {
         return features;
@@ -13,6 +13,8 @@ import java.util.Arrays;
 
 import org.apache.solr.client.solrj.SolrServerException;
 import org.dspace.app.rest.DiscoverableEndpointsService;
+import org.dspace.app.rest.health.AuthorizationCacheHealthIndicator;
+import org.dspace.app.rest.health.EventQueueHealthIndicator;
 import org.dspace.app.rest.health.GeoIpHealthIndicator;
 import org.dspace.app.rest.health.SEOHealthIndicator;
 import org.dspace.app.rest.health.SolrHealthIndicator;
@@ -95,6 +97,18 @@ public class ActuatorConfiguration {
         return new GeoIpHealthIndicator();
     }
 
+    @Bean
+    @ConditionalOnEnabledHealthIndicator("eventQueue")
+    public EventQueueHealthIndicator eventQueueHealthIndicator() {
+        return new EventQueueHealthIndicator();
+    }
+
+    @Bean
+    @ConditionalOnEnabledHealthIndicator("authorizationCache")
+    public AuthorizationCacheHealthIndicator authorizationCacheHealthIndicator() {
+        return new AuthorizationCacheHealthIndicator();
+    }
+
     public String getActuatorBasePath() {
         return actuatorBasePath;
     }
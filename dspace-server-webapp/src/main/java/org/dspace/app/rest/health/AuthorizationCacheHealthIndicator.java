@@ -0,0 +1,38 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest.health;
+
+import org.dspace.authorize.AuthorizationDecisionCache;
+import org.dspace.authorize.factory.AuthorizeServiceFactory;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+
+/**
+ * Implementation of {@link org.springframework.boot.actuate.health.HealthIndicator} that reports the hits, misses
+ * and size of the shared {@link AuthorizationDecisionCache}. Its status is always UP.
+ */
+public class AuthorizationCacheHealthIndicator extends AbstractHealthIndicator {
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        builder.up();
+        AuthorizationDecisionCache cache = AuthorizeServiceFactory.getInstance().getAuthorizationDecisionCache();
+        builder.withDetail("enabled", cache.isEnabled());
+        if (!cache.isEnabled()) {
+            return;
+        }
+        long hits = cache.getHits();
+        long lookups = hits + cache.getMisses();
+        builder.withDetail("hits", hits)
+               .withDetail("misses", cache.getMisses())
+               .withDetail("hitRatio", lookups == 0 ? 0 : (double) hits / lookups)
+               .withDetail("size", cache.getSize())
+               .withDetail("invalidations", cache.getInvalidations());
+    }
+
+}
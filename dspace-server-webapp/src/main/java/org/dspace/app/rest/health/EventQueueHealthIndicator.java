@@ -0,0 +1,54 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest.health;
+
+import static org.dspace.app.rest.configuration.ActuatorConfiguration.UP_WITH_ISSUES_STATUS;
+
+import java.util.Map;
+
+import org.dspace.event.AsyncEventQueue;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+
+/**
+ * Implementation of {@link org.springframework.boot.actuate.health.HealthIndicator} that reports the queue depth and
+ * lag of the consumers run asynchronously by the {@link org.dspace.event.AsyncDispatcher}.
+ *
+ * The status is UP_WITH_ISSUES when a consumer lags behind more than "event.dispatcher.async.maxLag" seconds or
+ * when batches of events failed.
+ */
+public class EventQueueHealthIndicator extends AbstractHealthIndicator {
+
+    ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        builder.up();
+        if (!AsyncEventQueue.isStarted()) {
+            return;
+        }
+
+        long maxLag = configurationService.getLongProperty("event.dispatcher.async.maxLag", 3600) * 1000;
+        AsyncEventQueue queue = AsyncEventQueue.getInstance();
+        for (String consumer : queue.getConsumerNames()) {
+            long lag = queue.getLag(consumer);
+            long failed = queue.getFailedCount(consumer);
+            if (lag > maxLag || failed > 0) {
+                builder.status(UP_WITH_ISSUES_STATUS);
+            }
+            builder.withDetail(consumer, Map.of(
+                "queueDepth", queue.getQueueDepth(consumer),
+                "lagMillis", lag,
+                "processed", queue.getProcessedCount(consumer),
+                "failed", failed));
+        }
+    }
+
+}
@@ -14,6 +14,7 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -204,6 +205,60 @@ public class AuthorizationRestRepository extends DSpaceRestRepository<Authorizat
         return converter.toRestPage(authorizations, pageable, utils.obtainProjection());
     }
 
+    /**
+     * It returns the list of matching available authorizations granted to the specified eperson or to the anonymous
+     * user for many objects at once, sharing the groups of the user and the policies of the objects between all the
+     * checks. Only administrators and the user identified by the epersonUuid parameter can access this method
+     *
+     * @param uris
+     *            the uris of the objects to check the authorizations against
+     * @param epersonUuid
+     *            the eperson uuid to use in the authorization evaluation
+     * @param featureNames
+     *            the features to check, all the features supported by each object if none
+     * @param pageable
+     *            the pagination options
+     * @return the list of matching authorizations available for the requested user and objects
+     * @throws AuthorizeException
+     * @throws SQLException
+     */
+    @PreAuthorize("#epersonUuid==null || hasPermission(#epersonUuid, 'EPERSON', 'READ')")
+    @SearchRestMethod(name = "uris")
+    public Page<AuthorizationRest> findByUris(@Parameter(value = "uri", required = true) List<String> uris,
+            @Parameter(value = "eperson") UUID epersonUuid, @Parameter(value = "feature") List<String> featureNames,
+            Pageable pageable) throws AuthorizeException, SQLException, SearchServiceException {
+
+        Context context = obtainContext();
+
+        EPerson currUser = context.getCurrentUser();
+
+        // get the user specified in the requested parameters, can be null for anonymous
+        EPerson user = getUserFromRequestParameter(context, epersonUuid);
+        if (ObjectUtils.notEqual(currUser, user)) {
+            // Temporarily change the Context's current user in order to retrieve
+            // authorizations based on that user
+            context.switchContextUser(user);
+        }
+
+        List<BaseObjectRest> objects = new ArrayList<>();
+        for (String uri : uris) {
+            objects.add(utils.getBaseObjectRestFromUri(context, uri));
+        }
+        List<AuthorizationFeature> features = new ArrayList<>();
+        if (featureNames != null) {
+            for (String featureName : featureNames) {
+                features.add(authorizationFeatureService.find(featureName));
+            }
+        }
+        List<Authorization> authorizations = findAuthorizations(context, user, objects, features);
+
+        if (ObjectUtils.notEqual(currUser, user)) {
+            // restore the real current user
+            context.restoreContextUser();
+        }
+        return converter.toRestPage(authorizations, pageable, utils.obtainProjection());
+    }
+
     private List<Authorization> findAuthorizationsByUUIDList(
         Context context,
         String type, List<String> uuidList, EPerson user,
@@ -213,21 +268,34 @@ public class AuthorizationRestRepository extends DSpaceRestRepository<Authorizat
             return new ArrayList<>();
         }
 
-        List<Authorization> authorizations = new ArrayList<>();
-
         List<BaseObjectRest> objects = uuidList.stream()
             .map(uuid -> utils.getBaseObjectRestFromTypeAndUUID(context, type, uuid))
             .collect(Collectors.toList());
+        List<AuthorizationFeature> features = featureNames.stream()
+            .map(featureName -> authorizationFeatureService.find(featureName))
+            .collect(Collectors.toList());
 
-        objects.forEach(object ->
-            featureNames.forEach(featureName -> {
-                try {
-                    authorizations.addAll(authorizationsForObject(context, user, featureName, object));
-                } catch (Exception ex) {
-                    log.error("An error occurred during authorizations check");
-                    throw new RuntimeException(ex);
-                }
-            }));
+        try {
+            return findAuthorizations(context, user, objects, features);
+        } catch (Exception ex) {
+            log.error("An error occurred during authorizations check");
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private List<Authorization> findAuthorizations(
+        Context context,
+        EPerson user,
+        List<BaseObjectRest> objects,
+        List<AuthorizationFeature> features) throws SQLException, SearchServiceException {
+
+        List<Authorization> authorizations = new ArrayList<>();
+        for (Map.Entry<BaseObjectRest, List<AuthorizationFeature>> authorized :
+            authorizationFeatureService.findAuthorizedFeatures(context, objects, features).entrySet()) {
+            for (AuthorizationFeature feature : authorized.getValue()) {
+                authorizations.add(new Authorization(user, feature, authorized.getKey()));
+            }
+        }
         return authorizations;
     }
 
@@ -8,6 +8,7 @@
 package org.dspace.app.rest.utils;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
@@ -18,14 +19,19 @@ import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.dspace.authorize.AuthorizeException;
+import org.dspace.authorize.factory.AuthorizeServiceFactory;
+import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.content.Bitstream;
 import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.BitstreamService;
+import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.disseminate.service.CitationDocumentService;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.eperson.service.EPersonService;
+import org.dspace.storage.bitstore.factory.StorageServiceFactory;
+import org.dspace.storage.bitstore.service.BitstreamStorageService;
 import org.dspace.utils.DSpace;
 import org.springframework.core.io.AbstractResource;
 import org.springframework.util.DigestUtils;
@@ -47,7 +53,10 @@ public class BitstreamResource extends AbstractResource {
     protected final Set<UUID> currentSpecialGroups;
 
     protected final BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
+    protected final AuthorizeService authorizeService = AuthorizeServiceFactory.getInstance().getAuthorizeService();
     protected final EPersonService ePersonService = EPersonServiceFactory.getInstance().getEPersonService();
+    protected final BitstreamStorageService bitstreamStorageService =
+            StorageServiceFactory.getInstance().getBitstreamStorageService();
     protected final CitationDocumentService citationDocumentService =
             new DSpace().getServiceManager()
                     .getServicesByType(CitationDocumentService.class).get(0);
@@ -88,11 +97,39 @@ public class BitstreamResource extends AbstractResource {
         return "bitstream [" + uuid + "]";
     }
 
+    /**
+     * Returns the content of the bitstream. Spring sends the ranges of a Range request by skipping the bytes before
+     * each range in a new stream, so the content of a stored bitstream is returned as a
+     * {@link BitstreamRangeInputStream}, which is only opened in the asset store once the start of the range is known.
+     */
     @Override
     public InputStream getInputStream() throws IOException {
         fetchDocument();
 
-        return document.inputStream();
+        if (document.bitstream() == null) {
+            return document.inputStream();
+        }
+        return new BitstreamRangeInputStream(document.bitstream());
+    }
+
+    /**
+     * Returns the local file holding the content of a stored bitstream, if its asset store keeps it in one, so that
+     * the file can be sent by the servlet container instead of being copied from {@link #getInputStream()}.
+     *
+     * @return the file, or null if the content has to be read from {@link #getInputStream()}
+     * @throws IOException if the file could not be located
+     */
+    public File getLocalFile() throws IOException {
+        fetchDocument();
+
+        if (document.bitstream() == null) {
+            return null;
+        }
+        try (Context context = new Context(Context.Mode.READ_ONLY)) {
+            return bitstreamStorageService.getLocalFile(context, document.bitstream());
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
     }
 
     @Override
@@ -125,11 +162,15 @@ public class BitstreamResource extends AbstractResource {
 
                 this.document = new BitstreamDocument(etag(bitstream),
                         coverPage.length,
-                        new ByteArrayInputStream(coverPage));
+                        new ByteArrayInputStream(coverPage),
+                        null);
             } else {
+                // the content is only opened when read, see BitstreamRangeInputStream
+                authorizeService.authorizeAction(context, bitstream, Constants.READ);
                 this.document = new BitstreamDocument(bitstream.getChecksum(),
                         bitstream.getSizeBytes(),
-                        bitstreamService.retrieve(context, bitstream));
+                        null,
+                        bitstream);
             }
         } catch (SQLException | AuthorizeException | IOException e) {
             throw new RuntimeException(e);
@@ -165,5 +206,80 @@ public class BitstreamResource extends AbstractResource {
         return context;
     }
 
-    record BitstreamDocument(String etag, long length, InputStream inputStream) {}
+    /**
+     * @param etag        the etag of the content
+     * @param length      the length of the content
+     * @param inputStream the stream of the generated content, or null if the content is read from the bitstream
+     * @param bitstream   the bitstream to read the content from, or null if the content is generated
+     */
+    record BitstreamDocument(String etag, long length, InputStream inputStream, Bitstream bitstream) {}
+
+    /**
+     * Stream of the content of a bitstream, which is only opened in the asset store when first read: from the start
+     * of the content, or with a ranged read from the position reached by skipping bytes before reading any. Skipping
+     * after reading skips in the opened stream.
+     */
+    class BitstreamRangeInputStream extends InputStream {
+
+        private final Bitstream bitstream;
+        private InputStream in;
+        private long position = 0;
+        private boolean reading = false;
+
+        /**
+         * @param bitstream the bitstream, whose access was authorized when fetching the document
+         */
+        BitstreamRangeInputStream(Bitstream bitstream) {
+            this.bitstream = bitstream;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (reading) {
+                return in.skip(n);
+            }
+            long skipped = Math.max(0, Math.min(n, bitstream.getSizeBytes() - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return open().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return open().read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return reading ? in.available() : 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+            }
+        }
+
+        private InputStream open() throws IOException {
+            if (in == null) {
+                try (Context context = new Context(Context.Mode.READ_ONLY)) {
+                    if (position == 0) {
+                        in = bitstreamStorageService.retrieve(context, bitstream);
+                    } else {
+                        in = bitstreamStorageService.retrieve(context, bitstream, position,
+                                                              bitstream.getSizeBytes() - position);
+                    }
+                } catch (SQLException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            }
+            reading = true;
+            return in;
+        }
+    }
 }
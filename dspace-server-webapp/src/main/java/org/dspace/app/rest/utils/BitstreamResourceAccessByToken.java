@@ -89,11 +89,14 @@ public class BitstreamResourceAccessByToken extends BitstreamResource {
 
                 this.document = new BitstreamDocument(etag(bitstream),
                         coverPage.length,
-                        new ByteArrayInputStream(coverPage));
+                        new ByteArrayInputStream(coverPage),
+                        null);
             } else {
+                // the content is only opened when read, the access was authorized by the token above
                 this.document = new BitstreamDocument(bitstream.getChecksum(),
                         bitstream.getSizeBytes(),
-                        bitstreamService.retrieve(fileRetrievalContext, bitstream));
+                        null,
+                        bitstream);
             }
         } catch (SQLException | AuthorizeException | IOException e) {
             throw new RuntimeException(e);
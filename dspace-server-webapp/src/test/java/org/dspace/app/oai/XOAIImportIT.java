@@ -0,0 +1,241 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.oai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.app.rest.test.AbstractControllerIntegrationTest;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.MetadataSchemaEnum;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.solr.MockSolrServer;
+import org.dspace.xoai.app.XOAI;
+import org.dspace.xoai.services.api.solr.SolrServerResolver;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration test of the OAI import ("oai import"), indexing the items with several threads into an embedded
+ * oai Solr core, and resuming an interrupted full import from its checkpoint.
+ */
+@TestPropertySource(properties = {"oai.enabled = true"})
+public class XOAIImportIT extends AbstractControllerIntegrationTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    // Replace the OAI Solr server with an embedded oai core
+    @MockBean
+    private SolrServerResolver solrServerResolver;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ItemService itemService;
+
+    // XOAI reads its configuration from the DSpace configuration service
+    private final ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
+                                                                                   .getConfigurationService();
+
+    private MockSolrServer mockSolrServer;
+    private SolrClient solrClient;
+    private Path checkpoint;
+
+    private Collection collection;
+
+    @Before
+    public void setUpSolr() throws Exception {
+        // The XOAI classes are provided by the 'dspace-oai' module, see OAIpmhIT
+        try {
+            Class.forName("org.dspace.app.configuration.OAIWebConfig");
+        } catch (ClassNotFoundException ce) {
+            Assume.assumeNoException(ce);
+        }
+
+        mockSolrServer = new MockSolrServer("oai");
+        solrClient = mockSolrServer.getSolrServer();
+        solrClient.deleteByQuery("*:*");
+        solrClient.commit();
+        when(solrServerResolver.getServer()).thenReturn(solrClient);
+
+        checkpoint = tempFolder.getRoot().toPath().resolve("import.checkpoint");
+        configurationService.setProperty("oai.import.checkpoint", checkpoint.toString());
+
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).withName("Parent Community").build();
+        collection = CollectionBuilder.createCollection(context, parentCommunity).withName("Collection").build();
+        context.restoreAuthSystemState();
+    }
+
+    @After
+    public void tearDownSolr() throws Exception {
+        configurationService.setProperty("oai.import.checkpoint", null);
+        if (mockSolrServer != null) {
+            mockSolrServer.reset();
+            solrClient.commit();
+            mockSolrServer.destroy();
+        }
+    }
+
+    @Test
+    public void importWithSeveralThreadsTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item1 = ItemBuilder.createItem(context, collection).withTitle("Item 1").build();
+        Item item2 = ItemBuilder.createItem(context, collection).withTitle("Item 2").build();
+        Item item3 = ItemBuilder.createItem(context, collection).withTitle("Item 3").withdrawn().build();
+        context.restoreAuthSystemState();
+        // the workers read the items with their own context
+        context.commit();
+
+        assertEquals(3, runImport(true));
+
+        assertEquals(3, solrClient.query(new SolrQuery("*:*")).getResults().getNumFound());
+        assertIndexed(item1, "Item 1", false);
+        assertIndexed(item2, "Item 2", false);
+        assertIndexed(item3, "Item 3", true);
+        assertFalse("The checkpoint is deleted once the import is done", Files.exists(checkpoint));
+    }
+
+    @Test
+    public void resumeInterruptedImportTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item unchanged = ItemBuilder.createItem(context, collection).withTitle("Unchanged").build();
+        Item changed = ItemBuilder.createItem(context, collection).withTitle("Changed").build();
+        Item notImported = ItemBuilder.createItem(context, collection).withTitle("Not imported").build();
+        context.restoreAuthSystemState();
+        context.commit();
+
+        // an interrupted full import which had committed the documents of the first two items, marked as stale so
+        // that it can be told whether they are indexed again
+        solrClient.add(staleDocument(unchanged));
+        solrClient.add(staleDocument(changed));
+        solrClient.commit();
+        Thread.sleep(10);
+        Files.writeString(checkpoint, Instant.now().toString(), StandardCharsets.UTF_8);
+        Thread.sleep(10);
+
+        // modified after the interrupted import started
+        context.turnOffAuthorisationSystem();
+        changed = context.reloadEntity(changed);
+        itemService.clearMetadata(context, changed, MetadataSchemaEnum.DC.getName(), "title", null, Item.ANY);
+        itemService.addMetadata(context, changed, MetadataSchemaEnum.DC.getName(), "title", null, null,
+                                "Changed again");
+        itemService.update(context, changed);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        // resumed by an import which does not clear the index, only the items not imported or changed since are indexed
+        assertEquals(2, runImport(false));
+
+        assertEquals(3, solrClient.query(new SolrQuery("*:*")).getResults().getNumFound());
+        assertEquals("Stale", getDocument(unchanged).getFirstValue("metadata.dc.title"));
+        assertIndexed(changed, "Changed again", false);
+        assertIndexed(notImported, "Not imported", false);
+        assertFalse("The checkpoint is deleted once the import is done", Files.exists(checkpoint));
+    }
+
+    @Test
+    public void cleanImportDiscardsCheckpointTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Item").build();
+        context.restoreAuthSystemState();
+        context.commit();
+
+        // an interrupted full import had indexed an item which was deleted since
+        SolrInputDocument deleted = new SolrInputDocument();
+        deleted.addField("item.id", UUID.randomUUID().toString());
+        deleted.addField("item.handle", "123456789/deleted");
+        deleted.addField("item.public", true);
+        deleted.addField("item.deleted", false);
+        solrClient.add(deleted);
+        solrClient.commit();
+        Files.writeString(checkpoint, Instant.now().toString(), StandardCharsets.UTF_8);
+
+        // a clean import clears the index instead of resuming
+        assertEquals(1, runImport(true));
+
+        assertEquals(1, solrClient.query(new SolrQuery("*:*")).getResults().getNumFound());
+        assertIndexed(item, "Item", false);
+        assertFalse("The checkpoint is deleted once the import is done", Files.exists(checkpoint));
+    }
+
+    /**
+     * Run the OAI import with two threads, as "oai import -t 2" does.
+     *
+     * @param clean whether to clear the index first (-c)
+     * @return the number of items imported
+     */
+    private int runImport(boolean clean) throws Exception {
+        Context importContext = new Context(Context.Mode.READ_ONLY);
+        try {
+            XOAI indexer = new XOAI(importContext, clean, false);
+            indexer.setThreads(2);
+            applicationContext.getAutowireCapableBeanFactory().autowireBean(indexer);
+            return indexer.index();
+        } finally {
+            importContext.abort();
+        }
+    }
+
+    private SolrInputDocument staleDocument(Item item) {
+        SolrInputDocument document = new SolrInputDocument();
+        document.addField("item.id", item.getID().toString());
+        document.addField("item.handle", item.getHandle());
+        document.addField("item.public", true);
+        document.addField("item.deleted", false);
+        document.addField("item.lastmodified", Date.from(item.getLastModified()));
+        document.addField("metadata.dc.title", "Stale");
+        return document;
+    }
+
+    private SolrDocument getDocument(Item item) throws Exception {
+        SolrDocumentList documents = solrClient.query(new SolrQuery("item.id:" + item.getID())).getResults();
+        assertEquals("The item " + item.getHandle() + " is indexed once", 1, documents.getNumFound());
+        return documents.get(0);
+    }
+
+    private void assertIndexed(Item item, String title, boolean deleted) throws Exception {
+        SolrDocument document = getDocument(item);
+        assertEquals(item.getHandle(), document.getFieldValue("item.handle"));
+        assertEquals(title, document.getFirstValue("metadata.dc.title"));
+        assertEquals(deleted, document.getFieldValue("item.deleted"));
+        assertTrue("The item " + item.getHandle() + " is compiled",
+                   ((String) document.getFieldValue("item.compile")).length() > 0);
+    }
+}
@@ -20,6 +20,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.function.Supplier;
 
@@ -35,6 +37,7 @@ import org.dspace.app.rest.authorization.TrueForAdminsFeature;
 import org.dspace.app.rest.authorization.TrueForLoggedUsersFeature;
 import org.dspace.app.rest.authorization.TrueForTestUsersFeature;
 import org.dspace.app.rest.authorization.TrueForUsersInGroupTestFeature;
+import org.dspace.app.rest.authorization.impl.AdministratorOfFeature;
 import org.dspace.app.rest.converter.CommunityConverter;
 import org.dspace.app.rest.converter.EPersonConverter;
 import org.dspace.app.rest.converter.ItemConverter;
@@ -53,15 +56,18 @@ import org.dspace.builder.CommunityBuilder;
 import org.dspace.builder.EPersonBuilder;
 import org.dspace.builder.GroupBuilder;
 import org.dspace.builder.ItemBuilder;
+import org.dspace.builder.ResourcePolicyBuilder;
 import org.dspace.content.Collection;
 import org.dspace.content.Community;
 import org.dspace.content.Item;
 import org.dspace.content.Site;
 import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.SiteService;
+import org.dspace.core.Constants;
 import org.dspace.eperson.EPerson;
 import org.dspace.eperson.Group;
 import org.dspace.services.ConfigurationService;
+import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.Test;
@@ -3080,6 +3086,68 @@ public class AuthorizationRestRepositoryIT extends AbstractControllerIntegration
                                        .doesNotExist());
     }
 
+    /**
+     * Verify that the search by many uris returns the same authorizations as the search by each object, for features
+     * depending on the policies of the objects and of their parents.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void findByMultipleUrisTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, community).build();
+        List<ItemRest> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Item item = ItemBuilder.createItem(context, collection).withTitle("Item " + i).build();
+            if (i % 2 == 0) {
+                ResourcePolicyBuilder.createResourcePolicy(context, eperson, null)
+                                     .withAction(Constants.ADMIN)
+                                     .withDspaceObject(item)
+                                     .build();
+            }
+            items.add(itemConverter.convert(item, DefaultProjection.DEFAULT));
+        }
+        context.restoreAuthSystemState();
+
+        AuthorizationFeature administratorOf = authorizationFeatureService.find(AdministratorOfFeature.NAME);
+        MockHttpServletRequestBuilder request = get("/api/authz/authorizations/search/uris")
+            .param("feature", administratorOf.getName())
+            .param("feature", alwaysFalse.getName())
+            .param("size", "100");
+        List<Matcher<? super Object>> expected = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            request.param("uri", utils.linkToSingleResource(items.get(i), "self").getHref());
+            if (i % 2 == 0) {
+                expected.add(hasJsonPath("$.id", is(getAuthorizationID(eperson, administratorOf, items.get(i)))));
+            }
+        }
+
+        String epersonToken = getAuthToken(eperson.getEmail(), password);
+        getClient(epersonToken).perform(request)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.page.totalElements", is(5)))
+            .andExpect(jsonPath("$._embedded.authorizations", containsInAnyOrder(expected)));
+
+        for (int i = 0; i < items.size(); i++) {
+            getClient(epersonToken).perform(get("/api/authz/authorizations/search/object")
+                .param("uri", utils.linkToSingleResource(items.get(i), "self").getHref())
+                .param("feature", administratorOf.getName()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.totalElements", is(i % 2 == 0 ? 1 : 0)));
+        }
+
+        // the site administrators are administrators of all the items
+        String adminToken = getAuthToken(admin.getEmail(), password);
+        getClient(adminToken).perform(request)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.page.totalElements", is(10)));
+
+        getClient().perform(request)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.page.totalElements", is(0)));
+    }
+
     // utility methods to build authorization ID without having an authorization object
     private String getAuthorizationID(EPerson eperson, AuthorizationFeature feature, BaseObjectRest obj) {
         return getAuthorizationID(eperson != null ? eperson.getID().toString() : null, feature.getName(),
@@ -0,0 +1,126 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest;
+
+import static com.jayway.jsonpath.JsonPath.read;
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.app.rest.converter.ItemConverter;
+import org.dspace.app.rest.projection.DefaultProjection;
+import org.dspace.app.rest.test.AbstractControllerIntegrationTest;
+import org.dspace.app.rest.utils.Utils;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.builder.ResourcePolicyBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Community;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Measures the latency and the response size of the authorizations of all the features of a 100-item page, read
+ * with one "object" search per item and with a single "uris" search. The latencies (through MockMvc, without the
+ * network) and sizes are logged, the test only checks that both return the same authorizations. It is not run by
+ * default, see {@link #onlyRunAsBenchmark()}.
+ */
+public class AuthorizationSearchLatencyIT extends AbstractControllerIntegrationTest {
+
+    private static final Logger log = LogManager.getLogger(AuthorizationSearchLatencyIT.class);
+
+    private static final int PAGE_SIZE = 100;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private ItemConverter itemConverter;
+
+    @Autowired
+    private Utils utils;
+
+    /**
+     * The benchmark only runs when the "benchmark" system property is true, e.g. with
+     * mvn install -DskipIntegrationTests=false -Dit.test=AuthorizationSearchLatencyIT -Dbenchmark=true
+     */
+    @BeforeClass
+    public static void onlyRunAsBenchmark() {
+        Assume.assumeTrue("Set -Dbenchmark=true to run this benchmark", Boolean.getBoolean("benchmark"));
+    }
+
+    @Test
+    public void testSearchLatency() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, community).build();
+        List<String> uris = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Item item = ItemBuilder.createItem(context, collection).withTitle("Item " + i).build();
+            // administered items have more authorized features
+            if (i % 2 == 0) {
+                ResourcePolicyBuilder.createResourcePolicy(context, eperson, null)
+                                     .withAction(Constants.ADMIN)
+                                     .withDspaceObject(item)
+                                     .build();
+            }
+            uris.add(utils.linkToSingleResource(itemConverter.convert(item, DefaultProjection.DEFAULT), "self")
+                          .getHref());
+        }
+        context.restoreAuthSystemState();
+
+        MockMvc client = getClient(getAuthToken(eperson.getEmail(), password));
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            int objectAuthorizations = 0;
+            long objectBytes = 0;
+            for (String uri : uris) {
+                MockHttpServletResponse response = perform(client, get("/api/authz/authorizations/search/object")
+                    .param("uri", uri)
+                    .param("size", "100"));
+                objectAuthorizations += (Integer) read(response.getContentAsString(), "$.page.totalElements");
+                objectBytes += response.getContentAsByteArray().length;
+            }
+            long objectMillis = (System.nanoTime() - start) / 1000000;
+
+            MockHttpServletRequestBuilder request = get("/api/authz/authorizations/search/uris").param("size", "2000");
+            for (String uri : uris) {
+                request.param("uri", uri);
+            }
+            start = System.nanoTime();
+            MockHttpServletResponse response = perform(client, request);
+            long urisMillis = (System.nanoTime() - start) / 1000000;
+            int urisAuthorizations = read(response.getContentAsString(), "$.page.totalElements");
+            int urisPages = read(response.getContentAsString(), "$.page.totalPages");
+            assertEquals(1, urisPages);
+            assertEquals(objectAuthorizations, urisAuthorizations);
+
+            log.info("round {}: {} object searches returned {} authorizations in {} ms and {} bytes", round,
+                     PAGE_SIZE, objectAuthorizations, objectMillis, objectBytes);
+            log.info("round {}: 1 uris search returned {} authorizations in {} ms and {} bytes", round,
+                     urisAuthorizations, urisMillis, response.getContentAsByteArray().length);
+        }
+    }
+
+    private MockHttpServletResponse perform(MockMvc client, MockHttpServletRequestBuilder request) throws Exception {
+        return client.perform(request)
+                     .andExpect(status().isOk())
+                     .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.app.rest.test.AbstractWebClientIntegrationTest;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Collection;
+import org.dspace.content.Community;
+import org.dspace.content.Item;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Measures the throughput of bitstream downloads from the local assetstore through the test webserver, sent with the
+ * sendfile support of the container and through the response stream, for a large file and for many concurrent
+ * downloads of small files. The throughputs are logged, the test only checks the downloaded content. It is not run
+ * by default, see {@link #onlyRunAsBenchmark()}.
+ */
+public class BitstreamDownloadThroughputIT extends AbstractWebClientIntegrationTest {
+
+    private static final Logger log = LogManager.getLogger(BitstreamDownloadThroughputIT.class);
+
+    private static final int LARGE_SIZE = 32 * 1024 * 1024;
+    private static final int LARGE_DOWNLOADS = 5;
+    private static final int SMALL_SIZE = 64 * 1024;
+    private static final int SMALL_COUNT = 50;
+    private static final int CLIENTS = 8;
+
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    /**
+     * The benchmark only runs when the "benchmark" system property is true, e.g. with
+     * mvn install -DskipIntegrationTests=false -Dit.test=BitstreamDownloadThroughputIT -Dbenchmark=true
+     */
+    @BeforeClass
+    public static void onlyRunAsBenchmark() {
+        Assume.assumeTrue("Set -Dbenchmark=true to run this benchmark", Boolean.getBoolean("benchmark"));
+    }
+
+    @Test
+    public void testDownloadThroughput() throws Exception {
+        Random random = new Random(0);
+        byte[] largeContent = new byte[LARGE_SIZE];
+        random.nextBytes(largeContent);
+        byte[] smallContent = new byte[SMALL_SIZE];
+        random.nextBytes(smallContent);
+
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, community).build();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Download throughput").build();
+        Bitstream large = BitstreamBuilder.createBitstream(context, item, new ByteArrayInputStream(largeContent))
+                                          .withMimeType("application/octet-stream")
+                                          .build();
+        List<UUID> smallIds = new ArrayList<>();
+        for (int i = 0; i < SMALL_COUNT; i++) {
+            smallIds.add(BitstreamBuilder.createBitstream(context, item, new ByteArrayInputStream(smallContent))
+                                         .withMimeType("application/octet-stream")
+                                         .build().getID());
+        }
+        // the webserver reads the bitstreams with its own connections
+        context.commit();
+        context.restoreAuthSystemState();
+
+        for (boolean sendfile : new boolean[] {false, true, false, true}) {
+            configurationService.setProperty("webui.content_sendfile.enabled", sendfile);
+            String mode = sendfile ? "sendfile" : "stream";
+
+            long start = System.nanoTime();
+            for (int i = 0; i < LARGE_DOWNLOADS; i++) {
+                assertArrayEquals(largeContent, download(large.getID()));
+            }
+            long millis = Math.max((System.nanoTime() - start) / 1000000, 1);
+            log.info("{}: {} downloads of {} MB in {} ms ({} MB/s)", mode, LARGE_DOWNLOADS,
+                     LARGE_SIZE / (1024 * 1024), millis, (long) LARGE_DOWNLOADS * LARGE_SIZE * 1000 / millis
+                         / (1024 * 1024));
+
+            ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+            start = System.nanoTime();
+            try {
+                List<Future<?>> clients = new ArrayList<>();
+                for (int c = 0; c < CLIENTS; c++) {
+                    clients.add(executor.submit(() -> {
+                        for (UUID id : smallIds) {
+                            assertArrayEquals(smallContent, download(id));
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> client : clients) {
+                    client.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            millis = Math.max((System.nanoTime() - start) / 1000000, 1);
+            log.info("{}: {} clients downloaded {} files of {} KB each in {} ms ({} downloads/s)", mode, CLIENTS,
+                     SMALL_COUNT, SMALL_SIZE / 1024, millis, (long) CLIENTS * SMALL_COUNT * 1000 / millis);
+        }
+    }
+
+    private byte[] download(UUID id) {
+        ResponseEntity<byte[]> response = getClient().getForEntity(
+            getURL("/api/core/bitstreams/" + id + "/content"), byte[].class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+}
@@ -23,6 +23,7 @@ import static org.dspace.core.Constants.READ;
 import static org.dspace.core.Constants.WRITE;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.Assert.assertEquals;
@@ -42,6 +43,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.io.ByteArrayInputStream;
@@ -58,6 +60,7 @@ import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.catalina.Globals;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.CharEncoding;
@@ -347,6 +350,122 @@ public class BitstreamRestControllerIT extends AbstractControllerIntegrationTest
             checkNumberOfStatsRecords(bitstream, 0);
     }
 
+    @Test
+    public void retrieveMultipleRangesBitstream() throws Exception {
+        context.turnOffAuthorisationSystem();
+
+        //** GIVEN **
+        //1. A community-collection structure with one parent community and one collections.
+        parentCommunity = CommunityBuilder.createCommunity(context)
+                                          .withName("Parent Community")
+                                          .build();
+
+        Collection col1 = CollectionBuilder.createCollection(context, parentCommunity).withName("Collection 1").build();
+
+        //2. A public item with a bitstream
+        String bitstreamContent = "0123456789";
+
+        try (InputStream is = IOUtils.toInputStream(bitstreamContent, CharEncoding.UTF_8)) {
+
+            Item publicItem1 = ItemBuilder.createItem(context, col1)
+                                          .withTitle("Public item 1")
+                                          .withIssueDate("2017-10-17")
+                                          .build();
+
+            bitstream = BitstreamBuilder
+                .createBitstream(context, publicItem1, is)
+                .withName("Test bitstream")
+                .withMimeType("text/plain")
+                .build();
+        }
+        context.restoreAuthSystemState();
+
+        //** WHEN **
+        //We download two byte ranges of the bitstream, each one is read from its own stream
+        String body = getClient().perform(get("/api/core/bitstreams/" + bitstream.getID() + "/content")
+                                              .header("Range", "bytes=1-2,7-8"))
+
+                                 //** THEN **
+                                 .andExpect(status().is(206))
+                                 //The ranges are sent as the parts of a multipart response
+                                 .andExpect(header().string("Content-Type", containsString("multipart/byteranges")))
+                                 .andReturn().getResponse().getContentAsString();
+
+        assertThat(body, containsString("Content-Range: bytes 1-2/10"));
+        assertThat(body, containsString("Content-Range: bytes 7-8/10"));
+        assertThat(body, containsString("\r\n12\r\n"));
+        assertThat(body, containsString("\r\n78\r\n"));
+    }
+
+    @Test
+    public void retrieveBitstreamWithSendfile() throws Exception {
+        configurationService.setProperty("webui.content_sendfile.threshold", 5);
+        context.turnOffAuthorisationSystem();
+
+        //** GIVEN **
+        //1. A community-collection structure with one parent community and one collections.
+        parentCommunity = CommunityBuilder.createCommunity(context)
+                                          .withName("Parent Community")
+                                          .build();
+
+        Collection col1 = CollectionBuilder.createCollection(context, parentCommunity).withName("Collection 1").build();
+
+        //2. A public item with a bitstream
+        String bitstreamContent = "0123456789";
+
+        try (InputStream is = IOUtils.toInputStream(bitstreamContent, CharEncoding.UTF_8)) {
+
+            Item publicItem1 = ItemBuilder.createItem(context, col1)
+                                          .withTitle("Public item 1")
+                                          .withIssueDate("2017-10-17")
+                                          .build();
+
+            bitstream = BitstreamBuilder
+                .createBitstream(context, publicItem1, is)
+                .withName("Test bitstream")
+                .withMimeType("text/plain")
+                .build();
+        }
+        context.restoreAuthSystemState();
+
+        //** WHEN **
+        //We download the bitstream from a container supporting sendfile
+        getClient().perform(get("/api/core/bitstreams/" + bitstream.getID() + "/content")
+                                .requestAttr(Globals.SENDFILE_SUPPORTED_ATTR, true))
+
+                   //** THEN **
+                   .andExpect(status().isOk())
+                   .andExpect(header().longValue("Content-Length", 10))
+                   //The container is asked to send the whole file, the controller does not write it
+                   .andExpect(request().attribute(Globals.SENDFILE_FILENAME_ATTR, not(nullValue())))
+                   .andExpect(request().attribute(Globals.SENDFILE_FILE_START_ATTR, 0L))
+                   .andExpect(request().attribute(Globals.SENDFILE_FILE_END_ATTR, 10L))
+                   .andExpect(content().bytes(new byte[0]));
+
+        //** WHEN **
+        //We download a range of the bitstream
+        getClient().perform(get("/api/core/bitstreams/" + bitstream.getID() + "/content")
+                                .requestAttr(Globals.SENDFILE_SUPPORTED_ATTR, true)
+                                .header("Range", "bytes=1-3"))
+
+                   //** THEN **
+                   //Ranges are sent through the response stream
+                   .andExpect(status().is(206))
+                   .andExpect(request().attribute(Globals.SENDFILE_FILENAME_ATTR, nullValue()))
+                   .andExpect(content().bytes("123".getBytes()));
+
+        //** WHEN **
+        //The bitstream is smaller than the threshold
+        configurationService.setProperty("webui.content_sendfile.threshold", 11);
+        getClient().perform(get("/api/core/bitstreams/" + bitstream.getID() + "/content")
+                                .requestAttr(Globals.SENDFILE_SUPPORTED_ATTR, true))
+
+                   //** THEN **
+                   .andExpect(status().isOk())
+                   .andExpect(request().attribute(Globals.SENDFILE_FILENAME_ATTR, nullValue()))
+                   .andExpect(content().bytes(bitstreamContent.getBytes()));
+    }
+
     @Test
     public void testBitstreamName() throws Exception {
 